@@ -36,6 +36,7 @@ public enum AnalyticsMetaDataKey {
   ITEMS("items"),
   DIMENSIONS("dimensions"),
   PAGER("pager"),
+  NEXT_PAGE_AFTER("nextPageAfter"),
   ORG_UNITS("organisationUnits"),
   ORG_UNIT_HIERARCHY("ouHierarchy"),
   ORG_UNIT_NAME_HIERARCHY("ouNameHierarchy"),
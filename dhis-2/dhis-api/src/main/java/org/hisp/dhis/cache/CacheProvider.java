@@ -28,6 +28,7 @@
 package org.hisp.dhis.cache;
 
 import java.time.Duration;
+import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
 
 /**
@@ -47,6 +48,8 @@ public interface CacheProvider {
 
   <V> Cache<V> createOutliersCache();
 
+  <V> Cache<V> createAnalyticsQueryCache(AnalyticsTableType tableType);
+
   <V> Cache<V> createDefaultObjectCache();
 
   <V> Cache<V> createIsDataApprovedCache();
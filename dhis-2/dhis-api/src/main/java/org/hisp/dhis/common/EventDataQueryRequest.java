@@ -142,6 +142,12 @@ public class EventDataQueryRequest {
 
   private boolean totalPages;
 
+  private boolean keysetPaging;
+
+  private String pageAfter;
+
+  private boolean estimateTotalPages;
+
   private EndpointItem endpointItem;
 
   private EndpointAction endpointAction;
@@ -199,6 +205,9 @@ public class EventDataQueryRequest {
     queryRequest.pageSize = this.pageSize;
     queryRequest.paging = this.paging;
     queryRequest.totalPages = this.totalPages;
+    queryRequest.keysetPaging = this.keysetPaging;
+    queryRequest.pageAfter = this.pageAfter;
+    queryRequest.estimateTotalPages = this.estimateTotalPages;
     queryRequest.endpointItem = this.endpointItem;
     queryRequest.endpointAction = this.endpointAction;
     queryRequest.enhancedConditions = this.enhancedConditions;
@@ -261,6 +270,9 @@ public class EventDataQueryRequest {
               .coordinatesOnly(criteria.isCoordinatesOnly())
               .defaultCoordinateFallback(criteria.isDefaultCoordinateFallback())
               .totalPages(criteria.isTotalPages())
+              .keysetPaging(criteria.isKeysetPaging())
+              .pageAfter(criteria.getPageAfter())
+              .estimateTotalPages(criteria.isEstimateTotalPages())
               .endpointItem(criteria.getEndpointItem())
               .endpointAction(criteria.getEndpointAction())
               .enhancedConditions(criteria.isEnhancedConditions())
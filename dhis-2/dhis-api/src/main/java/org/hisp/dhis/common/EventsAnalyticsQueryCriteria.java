@@ -249,4 +249,16 @@ public class EventsAnalyticsQueryCriteria extends AnalyticsPagingCriteria {
 
   /** flag to enable row context in grid response */
   private boolean rowContext;
+
+  /**
+   * Whether to page events by seeking past the last event of the previous page instead of skipping
+   * an offset. Events are sorted by occurred date and event, descending.
+   */
+  private boolean keysetPaging;
+
+  /** The cursor of the last event of the previous page, used for keyset paging. */
+  private String pageAfter;
+
+  /** Whether to base the total number of pages on an estimate instead of an exact count. */
+  private boolean estimateTotalPages;
 }
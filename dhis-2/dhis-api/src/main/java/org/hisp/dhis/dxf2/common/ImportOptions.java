@@ -176,6 +176,14 @@ public class ImportOptions implements JobParameters {
   @JsonProperty(namespace = DxfNamespaces.DXF_2_0)
   private String dataSet;
 
+  /**
+   * The number of workers importing data values concurrently, where data values are sharded by
+   * organisation unit. Default is 1, which imports data values on the calling thread. Data value
+   * sets with the organisation unit given in the header are imported on the calling thread.
+   */
+  @JsonProperty(namespace = DxfNamespaces.DXF_2_0)
+  private int parallelism = 1;
+
   // --------------------------------------------------------------------------
   // Logic
   // --------------------------------------------------------------------------
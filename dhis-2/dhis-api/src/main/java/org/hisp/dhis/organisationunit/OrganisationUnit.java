@@ -562,15 +562,18 @@ public class OrganisationUnit extends BaseDimensionalItemObject
    * @return true if this org unit is a descendant of the ancestors.
    */
   public boolean isDescendant(Collection<OrganisationUnit> ancestors) {
-    // TODO: MAS optimize to use Set of UIDs from UserDetails as input instead
     if (isEmpty(ancestors)) {
       return false;
     }
 
-    return ancestors.stream()
-        .filter(Objects::nonNull)
-        .map(OrganisationUnit::getUid)
-        .anyMatch(uid -> StringUtils.contains(this.getPath(), uid));
+    Set<String> ancestorUids =
+        ancestors.stream()
+            .filter(Objects::nonNull)
+            .map(OrganisationUnit::getUid)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+    return isDescendantOfAny(ancestorUids);
   }
 
   /**
@@ -580,11 +583,38 @@ public class OrganisationUnit extends BaseDimensionalItemObject
    * @return true if this org unit is a descendant of the ancestor.
    */
   public boolean isDescendant(OrganisationUnit ancestor) {
-    if (ancestor == null) {
+    if (ancestor == null || ancestor.getUid() == null) {
+      return false;
+    }
+
+    return isDescendantOfAny(Set.of(ancestor.getUid()));
+  }
+
+  /**
+   * Indicates whether this org unit is a descendant of any of the org units with the given
+   * identifiers. An org unit is a descendant of itself. Walks up the parents of this org unit
+   * rather than building the path, which makes the check a lookup per level of the hierarchy.
+   *
+   * @param ancestorUids the set of ancestor org unit identifiers.
+   * @return true if this org unit is a descendant of the ancestors.
+   */
+  public boolean isDescendantOfAny(Set<String> ancestorUids) {
+    if (isEmpty(ancestorUids)) {
       return false;
     }
 
-    return StringUtils.contains(this.getPath(), ancestor.getUid());
+    Set<String> visitedSet = new HashSet<>();
+    OrganisationUnit unit = this;
+
+    while (unit != null && visitedSet.add(unit.getUid())) { // Protect against cyclic graphs
+      if (unit.getUid() != null && ancestorUids.contains(unit.getUid())) {
+        return true;
+      }
+
+      unit = unit.getParent();
+    }
+
+    return false;
   }
 
   public Set<OrganisationUnit> getChildrenThisIfEmpty() {
@@ -27,12 +27,14 @@
  */
 package org.hisp.dhis.scheduling;
 
+import static java.util.Collections.nCopies;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Deque;
@@ -48,6 +50,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -532,6 +535,9 @@ public interface JobProgress {
    * <p>If the parallelism is smaller or equal to 1 the items are processed sequentially using
    * {@link #runStage(Collection, Function, Consumer)}.
    *
+   * <p>Items are started in the iteration order of the given collection, so that callers can
+   * start the most expensive items first.
+   *
    * <p>While the items are processed in parallel this method is synchronous for the caller and will
    * first return when all work is done.
    *
@@ -555,34 +561,35 @@ public interface JobProgress {
     AtomicInteger success = new AtomicInteger();
     AtomicInteger failed = new AtomicInteger();
 
-    Callable<Boolean> task =
-        () ->
-            items.parallelStream()
-                .map(
-                    item -> {
-                      if (isSkipCurrentStage()) {
-                        return false;
-                      }
-                      startingWorkItem(description.apply(item));
-                      try {
-                        work.accept(item);
-                        completedWorkItem(null);
-                        success.incrementAndGet();
-                        return true;
-                      } catch (Exception ex) {
-                        failedWorkItem(ex);
-                        failed.incrementAndGet();
-                        return false;
-                      }
-                    })
-                .reduce(Boolean::logicalAnd)
-                .orElse(false);
+    List<T> queue = new ArrayList<>(items);
+    AtomicInteger next = new AtomicInteger();
+
+    Callable<Void> worker =
+        () -> {
+          int index;
+          while (!isSkipCurrentStage() && (index = next.getAndIncrement()) < queue.size()) {
+            T item = queue.get(index);
+            startingWorkItem(description.apply(item));
+            try {
+              work.accept(item);
+              completedWorkItem(null);
+              success.incrementAndGet();
+            } catch (Exception ex) {
+              failedWorkItem(ex);
+              failed.incrementAndGet();
+            }
+          }
+          return null;
+        };
 
     ForkJoinPool pool = new ForkJoinPool(parallelism);
     try {
-      // this might not be obvious but running a parallel stream
-      // as task in a FJP makes the stream use the pool
-      boolean allSuccessful = pool.submit(task).get();
+      // workers take items in iteration order, so that items are started in that order
+      for (Future<Void> future :
+          pool.invokeAll(nCopies(Math.min(parallelism, queue.size()), worker))) {
+        future.get();
+      }
+      boolean allSuccessful = !queue.isEmpty() && success.get() == queue.size();
       if (allSuccessful) {
         completedStage(null);
       } else {
@@ -55,6 +55,12 @@ public class ContinuousAnalyticsJobParameters implements JobParameters {
   /** Outliers statistics columns of Analytics tables will be skipped. */
   @JsonProperty private Boolean skipOutliers = false;
 
+  /**
+   * Whether to merge changed data values into the existing analytics tables based on the data value
+   * change log, instead of rebuilding the latest partition.
+   */
+  @JsonProperty private Boolean incrementalUpdate = false;
+
   public ContinuousAnalyticsJobParameters(
       Integer fullUpdateHourOfDay,
       Integer lastYears,
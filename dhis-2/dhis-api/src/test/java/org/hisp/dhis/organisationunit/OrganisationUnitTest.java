@@ -178,6 +178,33 @@ class OrganisationUnitTest {
     assertFalse(unitB.isDescendant(Set.of(unitC)));
   }
 
+  @Test
+  void testIsDescendantOfAny() {
+    unitB.setParent(unitA);
+    unitC.setParent(unitB);
+    unitD.setParent(unitA);
+
+    assertTrue(unitC.isDescendantOfAny(Set.of(unitA.getUid())));
+    assertTrue(unitC.isDescendantOfAny(Set.of(unitC.getUid())));
+    assertTrue(unitC.isDescendantOfAny(Set.of(unitD.getUid(), unitB.getUid())));
+    assertTrue(unitC.isDescendant(unitB));
+
+    assertFalse(unitC.isDescendantOfAny(Set.of(unitD.getUid())));
+    assertFalse(unitA.isDescendantOfAny(Set.of(unitB.getUid())));
+    assertFalse(unitC.isDescendantOfAny(Set.of()));
+    assertFalse(unitC.isDescendant(unitD));
+  }
+
+  @Test
+  void testIsDescendantOfAnyWithCyclicGraph() {
+    unitA.setParent(unitC);
+    unitB.setParent(unitA);
+    unitC.setParent(unitB);
+
+    assertTrue(unitC.isDescendantOfAny(Set.of(unitA.getUid())));
+    assertFalse(unitC.isDescendantOfAny(Set.of(unitD.getUid())));
+  }
+
   @Test
   void testGetParentNameGraph() {
     unitD.setParent(unitC);
@@ -187,12 +187,10 @@ public class AccessStringHelper {
       return false;
     }
 
-    byte[] bytes = access.getBytes();
-
-    return (bytes[0] == '-' || bytes[0] == 'r')
-        && (bytes[1] == '-' || bytes[1] == 'w')
-        && (bytes[2] == '-' || bytes[2] == 'r')
-        && (bytes[3] == '-' || bytes[3] == 'w');
+    return (access.charAt(0) == '-' || access.charAt(0) == 'r')
+        && (access.charAt(1) == '-' || access.charAt(1) == 'w')
+        && (access.charAt(2) == '-' || access.charAt(2) == 'r')
+        && (access.charAt(3) == '-' || access.charAt(3) == 'w');
   }
 
   public static boolean hasDataSharing(String access) {
@@ -786,13 +786,15 @@ public class DefaultAclService implements AclService {
       return true;
     }
 
-    if (sharing.getUserGroups() != null
-        && !CollectionUtils.isEmpty(userDetails.getUserGroupIds())) {
+    Set<String> userGroupIds = userDetails.getUserGroupIds();
+
+    if (sharing.getUserGroups() != null && !CollectionUtils.isEmpty(userGroupIds)) {
       for (UserGroupAccess userGroupAccess : sharing.getUserGroups().values()) {
         // Check if user is allowed to read this object through group
-        // access
-        if (AccessStringHelper.isEnabled(userGroupAccess.getAccess(), permission)
-            && hasUserGroupAccess(userDetails.getUserGroupIds(), userGroupAccess.getId())) {
+        // access, matching the group before parsing the access string
+        if (userGroupAccess.getId() != null
+            && userGroupIds.contains(userGroupAccess.getId())
+            && AccessStringHelper.isEnabled(userGroupAccess.getAccess(), permission)) {
           return true;
         }
       }
@@ -803,8 +805,9 @@ public class DefaultAclService implements AclService {
         // Check if user is allowed to read to this object through user
         // access
 
-        if (AccessStringHelper.isEnabled(userAccess.getAccess(), permission)
-            && userDetails.getUid().equals(userAccess.getId())) {
+        if (userAccess.getId() != null
+            && userAccess.getId().equals(userDetails.getUid())
+            && AccessStringHelper.isEnabled(userAccess.getAccess(), permission)) {
           return true;
         }
       }
@@ -849,14 +852,4 @@ public class DefaultAclService implements AclService {
     return checkSharingAccess(userDetails, object, objType)
         && (checkMetadataSharingPermission(userDetails, object, Permission.WRITE));
   }
-
-  private boolean hasUserGroupAccess(Set<String> userGroups, String userGroupUid) {
-    for (String groupUid : userGroups) {
-      if (groupUid.equals(userGroupUid)) {
-        return true;
-      }
-    }
-
-    return false;
-  }
 }
@@ -55,6 +55,17 @@ class AccessStringHelperTest {
     assertFalse(AccessStringHelper.canWrite(access_will_fail));
   }
 
+  @Test
+  void testIsValid() {
+    assertTrue(AccessStringHelper.isValid("rwrw----"));
+    assertTrue(AccessStringHelper.isValid("--------"));
+    assertTrue(AccessStringHelper.isValid(null));
+    assertFalse(AccessStringHelper.isValid("wr------"));
+    assertFalse(AccessStringHelper.isValid("rwrw---"));
+    assertFalse(AccessStringHelper.isValid("rwrwrw--"));
+    assertFalse(AccessStringHelper.isValid("r\u00e9rw----"));
+  }
+
   @Test
   void staticRead() {
     assertTrue(AccessStringHelper.canRead(AccessStringHelper.READ));
@@ -30,6 +30,7 @@ package org.hisp.dhis.analytics;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.hisp.dhis.analytics.table.model.AnalyticsTable;
 import org.hisp.dhis.analytics.table.model.AnalyticsTablePartition;
@@ -99,6 +100,37 @@ public interface AnalyticsTableManager {
    */
   default void removeUpdatedData(List<AnalyticsTable> tables) {}
 
+  /**
+   * Indicates whether incremental updates are supported, i.e. whether changed data can be merged
+   * into the existing analytics tables based on a change log.
+   *
+   * @return true if incremental updates are supported.
+   */
+  default boolean supportsIncrementalUpdate() {
+    return false;
+  }
+
+  /**
+   * Merges the data of the given staging table into the existing analytics table partitions for an
+   * incremental update. Rows of changed data are replaced, and the applied change log entries are
+   * removed, in a single transaction. The staging table is dropped.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param table the {@link AnalyticsTable}.
+   * @return the names of the table partitions into which data was merged.
+   */
+  default List<String> mergeTable(AnalyticsTableUpdateParams params, AnalyticsTable table) {
+    return List.of();
+  }
+
+  /**
+   * Removes change log entries which are covered by the given regular analytics table update.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param tables the list of {@link AnalyticsTable}.
+   */
+  default void removeChangeLog(AnalyticsTableUpdateParams params, List<AnalyticsTable> tables) {}
+
   /**
    * Attempts to drop and then create analytics table.
    *
@@ -113,6 +145,29 @@ public interface AnalyticsTableManager {
    */
   void createIndex(Index index);
 
+  /**
+   * Creates the given index on a table of the given size. The memory available to the index
+   * creation depends on the table size and the number of parallel jobs.
+   *
+   * @param index the index.
+   * @param tableSize the size of the table in bytes.
+   * @param parallelJobs the number of parallel jobs.
+   */
+  default void createIndex(Index index, long tableSize, int parallelJobs) {
+    createIndex(index);
+  }
+
+  /**
+   * Returns the size of the given tables, used to estimate the cost of maintenance work such as
+   * index creation, vacuum and analyze. Tables which do not exist are not included.
+   *
+   * @param names the table names.
+   * @return a mapping between table name and table size in bytes.
+   */
+  default Map<String, Long> getTableSizes(Collection<String> names) {
+    return Map.of();
+  }
+
   /**
    * Attempts to drop the analytics table with partitions and rename the staging table with
    * partitions as replacement. If this is a partial update and the master table currently exists,
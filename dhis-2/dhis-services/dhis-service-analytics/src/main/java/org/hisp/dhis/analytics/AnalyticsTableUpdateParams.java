@@ -57,6 +57,12 @@ public class AnalyticsTableUpdateParams {
    */
   private Integer lastYears;
 
+  /**
+   * Indicates whether to update tables incrementally based on the change log of data, as opposed to
+   * rebuilding the "latest" partition. Applies to "latest" partition updates only.
+   */
+  private boolean incrementalUpdate;
+
   /** Indicates whether to skip update of resource tables. */
   private boolean skipResourceTables;
 
@@ -116,6 +122,14 @@ public class AnalyticsTableUpdateParams {
     return Objects.equals(lastYears, AnalyticsTablePartition.LATEST_PARTITION);
   }
 
+  /**
+   * Indicates whether this is an incremental update of the "latest" data, where changed data is
+   * merged into the existing analytics tables.
+   */
+  public boolean isIncrementalUpdate() {
+    return incrementalUpdate && isLatestUpdate();
+  }
+
   // -------------------------------------------------------------------------
   // toString
   // -------------------------------------------------------------------------
@@ -124,6 +138,7 @@ public class AnalyticsTableUpdateParams {
   public String toString() {
     return MoreObjects.toStringHelper(this)
         .add("last years", lastYears)
+        .add("incremental update", incrementalUpdate)
         .add("skip resource tables", skipResourceTables)
         .add("skip table types", skipTableTypes)
         .add("skip programs", skipPrograms)
@@ -164,6 +179,7 @@ public class AnalyticsTableUpdateParams {
     AnalyticsTableUpdateParams params = new AnalyticsTableUpdateParams();
 
     params.lastYears = this.lastYears;
+    params.incrementalUpdate = this.incrementalUpdate;
     params.skipResourceTables = this.skipResourceTables;
     params.skipOutliers = this.skipOutliers;
     params.skipTableTypes = new HashSet<>(this.skipTableTypes);
@@ -205,6 +221,11 @@ public class AnalyticsTableUpdateParams {
       return this;
     }
 
+    public Builder withIncrementalUpdate(boolean incrementalUpdate) {
+      this.params.incrementalUpdate = incrementalUpdate;
+      return this;
+    }
+
     public Builder withSkipResourceTables(boolean skipResourceTables) {
       this.params.skipResourceTables = skipResourceTables;
       return this;
@@ -37,11 +37,16 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.system.grid.SnapshotGrid;
 import org.springframework.stereotype.Component;
 
 /**
  * This is a wrapper class responsible for keeping and isolating all cache definitions related to
  * the analytics.
+ *
+ * <p>Grids are cached as {@link SnapshotGrid} instances. A cache hit returns a new snapshot view
+ * which shares rows and meta-data with the cached grid, and which copies the grid only if the
+ * consumer modifies it.
  */
 @Slf4j
 @Component
@@ -64,7 +69,7 @@ public class AnalyticsCache {
   }
 
   public Optional<Grid> get(String key) {
-    return getGridClone(queryCache.get(key));
+    return queryCache.get(key).<Grid>map(SnapshotGrid::of);
   }
 
   /**
@@ -83,13 +88,15 @@ public class AnalyticsCache {
     Optional<Grid> cachedGrid = get(params.getKey());
 
     if (cachedGrid.isPresent()) {
-      return getGridClone(cachedGrid.get());
+      return cachedGrid.get();
     } else {
-      Grid grid = function.apply(params);
+      // The fetched grid is not referenced elsewhere and can be shared without copying
+
+      SnapshotGrid snapshot = SnapshotGrid.of(function.apply(params));
 
-      put(params, grid);
+      putSnapshot(params, snapshot);
 
-      return getGridClone(grid);
+      return snapshot.view();
     }
   }
 
@@ -103,16 +110,7 @@ public class AnalyticsCache {
    * @param grid the associated Grid.
    */
   public void put(DataQueryParams params, Grid grid) {
-    if (analyticsCacheSettings.isProgressiveCachingEnabled()) {
-      // Uses the progressive TTL
-      put(
-          params.getKey(),
-          grid,
-          analyticsCacheSettings.progressiveExpirationTimeOrDefault(params.getLatestEndDate()));
-    } else {
-      // Respects the fixed (predefined) caching TTL
-      put(params.getKey(), grid, analyticsCacheSettings.fixedExpirationTimeOrDefault());
-    }
+    putSnapshot(params, getSnapshot(grid));
   }
 
   /**
@@ -124,7 +122,7 @@ public class AnalyticsCache {
    * @param ttlInSeconds the time to live (expiration time) in seconds.
    */
   public void put(String key, Grid grid, long ttlInSeconds) {
-    queryCache.put(key, getGridClone(grid), ttlInSeconds);
+    queryCache.put(key, getSnapshot(grid), ttlInSeconds);
   }
 
   /** Clears the current cache by removing all existing entries. */
@@ -138,15 +136,36 @@ public class AnalyticsCache {
     return analyticsCacheSettings.isCachingEnabled();
   }
 
-  private Grid getGridClone(Grid grid) {
-    if (grid != null) {
-      return SerializationUtils.clone(grid);
+  /**
+   * Caches the given snapshot with the TTL given by the cache settings.
+   *
+   * @param params the DataQueryParams.
+   * @param snapshot the {@link SnapshotGrid}.
+   */
+  private void putSnapshot(DataQueryParams params, SnapshotGrid snapshot) {
+    if (analyticsCacheSettings.isProgressiveCachingEnabled()) {
+      // Uses the progressive TTL
+      queryCache.put(
+          params.getKey(),
+          snapshot,
+          analyticsCacheSettings.progressiveExpirationTimeOrDefault(params.getLatestEndDate()));
+    } else {
+      // Respects the fixed (predefined) caching TTL
+      queryCache.put(
+          params.getKey(), snapshot, analyticsCacheSettings.fixedExpirationTimeOrDefault());
     }
-
-    return null;
   }
 
-  private Optional<Grid> getGridClone(Optional<Grid> grid) {
-    return grid.map(SerializationUtils::clone);
+  /**
+   * Returns a snapshot of the given grid. Snapshots are shared as is, whereas other grids are
+   * cloned once, as the caller keeps a reference to the grid and might modify it.
+   *
+   * @param grid the {@link Grid}.
+   * @return a {@link SnapshotGrid}.
+   */
+  private SnapshotGrid getSnapshot(Grid grid) {
+    return grid instanceof SnapshotGrid snapshot
+        ? SnapshotGrid.of(snapshot)
+        : SnapshotGrid.of(SerializationUtils.clone(grid));
   }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.QueryKey;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.DimensionalObject;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache for the values of analytics sub-queries, i.e. the queries produced by the query planner.
+ * Entries are held in a separate cache region per analytics table type, and the key of each entry
+ * starts with the table partitions which the query read. An analytics table update therefore only
+ * visits the keys of the updated table type, and only invalidates the entries of the partitions it
+ * rebuilt, without reading any cached values.
+ *
+ * <p>Results with more than {@link #MAX_CACHED_ROWS} rows are not cached, which bounds the memory
+ * held by the cache to the number of entries times that row count.
+ */
+@Slf4j
+@Component
+public class AnalyticsQueryCache {
+  /** Max number of rows of a query result which is cached. */
+  static final int MAX_CACHED_ROWS = 1_000;
+
+  /** Separates the partitions from the query hash in cache keys. */
+  private static final String PARTITION_SEP = "/";
+
+  private final CacheProvider cacheProvider;
+
+  private final AnalyticsCacheSettings analyticsCacheSettings;
+
+  private final Map<AnalyticsTableType, Cache<HashMap<String, Object>>> queryCaches =
+      new ConcurrentHashMap<>();
+
+  public AnalyticsQueryCache(
+      CacheProvider cacheProvider, AnalyticsCacheSettings analyticsCacheSettings) {
+    checkNotNull(cacheProvider);
+    checkNotNull(analyticsCacheSettings);
+
+    this.cacheProvider = cacheProvider;
+    this.analyticsCacheSettings = analyticsCacheSettings;
+  }
+
+  /**
+   * Returns the cached values of the given planned query. If not cached, the values are fetched by
+   * the given function and cached. Queries are not cached if caching is disabled, if the query is
+   * an explain query or if the query has subexpressions. Values are not cached if they have more
+   * than {@link #MAX_CACHED_ROWS} rows.
+   *
+   * @param params the planned {@link DataQueryParams}.
+   * @param tableType the {@link AnalyticsTableType}.
+   * @param maxLimit the max number of records to retrieve.
+   * @param function the function which fetches the values of the query.
+   * @return a mapping between dimension keys and aggregated values.
+   * @throws Exception if the function fails.
+   */
+  public Map<String, Object> getOrFetch(
+      DataQueryParams params,
+      AnalyticsTableType tableType,
+      int maxLimit,
+      Callable<Map<String, Object>> function)
+      throws Exception {
+    if (!isEnabled() || params.analyzeOnly() || params.hasSubexpressions()) {
+      return function.call();
+    }
+
+    Cache<HashMap<String, Object>> queryCache = getQueryCache(tableType);
+    String key = getKey(params, tableType, maxLimit);
+    Optional<HashMap<String, Object>> cachedValues = queryCache.get(key);
+
+    if (cachedValues.isPresent()) {
+      return Collections.unmodifiableMap(cachedValues.get());
+    }
+
+    Map<String, Object> values = function.call();
+
+    if (values != null && values.size() <= MAX_CACHED_ROWS) {
+      queryCache.put(key, new HashMap<>(values), getExpirationTime(params));
+    }
+
+    return values;
+  }
+
+  /**
+   * Invalidates the cached queries which read any partition of the given table type from the given
+   * year onwards. Queries which did not read specific partitions are always invalidated.
+   *
+   * @param tableType the {@link AnalyticsTableType}.
+   * @param fromYear the earliest rebuilt partition year, null to invalidate all partitions.
+   */
+  public void invalidate(AnalyticsTableType tableType, Integer fromYear) {
+    Cache<HashMap<String, Object>> queryCache = getQueryCache(tableType);
+
+    if (fromYear == null) {
+      queryCache.invalidateAll();
+
+      log.info("Analytics query cache invalidated for table type: {}", tableType);
+      return;
+    }
+
+    List<String> keys = new ArrayList<>();
+    queryCache.keys().forEach(keys::add);
+
+    int count = 0;
+
+    for (String key : keys) {
+      if (isStale(key, fromYear)) {
+        queryCache.invalidate(key);
+        count++;
+      }
+    }
+
+    log.info(
+        "Analytics query cache invalidated for table type: {}, from year: {}, entries: {}",
+        tableType,
+        fromYear,
+        count);
+  }
+
+  /** Clears the current cache by removing all existing entries. */
+  public void invalidateAll() {
+    Stream.of(AnalyticsTableType.values()).forEach(type -> getQueryCache(type).invalidateAll());
+
+    log.info("Analytics query cache cleared");
+  }
+
+  public boolean isEnabled() {
+    return analyticsCacheSettings.isCachingEnabled();
+  }
+
+  /**
+   * Returns a key which identifies the given planned query. Includes the properties which are set
+   * by the query planner and which are not part of the key of the original query. The key starts
+   * with the partitions read by the query, so that the entries of rebuilt partitions can be found
+   * from the keys alone.
+   *
+   * @param params the planned {@link DataQueryParams}.
+   * @param tableType the {@link AnalyticsTableType}.
+   * @param maxLimit the max number of records to retrieve.
+   * @return the cache key.
+   */
+  String getKey(DataQueryParams params, AnalyticsTableType tableType, int maxLimit) {
+    String partitions = getPartitions(params);
+    String queryKey =
+        new QueryKey()
+            .add("query", params.getKey())
+            .add("tableType", tableType)
+            .add("maxLimit", maxLimit)
+            .add("tableName", params.getTableName())
+            .add("partitions", partitions)
+            .add("dimensionNames", getDimensionNames(params))
+            .add("dataType", params.getDataType())
+            .add("valueColumn", params.getValueColumn())
+            .add("periodType", params.getPeriodType())
+            .add("dataPeriodType", params.getDataPeriodType())
+            .add("approvalLevels", getApprovalLevels(params))
+            .build();
+
+    return partitions + PARTITION_SEP + queryKey;
+  }
+
+  /**
+   * Indicates whether the entry with the given key read data which is rebuilt by an update from the
+   * given year onwards.
+   *
+   * @param key the cache key.
+   * @param fromYear the earliest rebuilt partition year.
+   * @return true if the entry is stale.
+   */
+  static boolean isStale(String key, int fromYear) {
+    String partitions = StringUtils.substringBefore(key, PARTITION_SEP);
+
+    return partitions.isEmpty()
+        || Stream.of(partitions.split(",")).anyMatch(year -> Integer.parseInt(year) >= fromYear);
+  }
+
+  /**
+   * Returns the cache of the given table type, creating it if necessary.
+   *
+   * @param tableType the {@link AnalyticsTableType}.
+   * @return the {@link Cache}.
+   */
+  private Cache<HashMap<String, Object>> getQueryCache(AnalyticsTableType tableType) {
+    return queryCaches.computeIfAbsent(tableType, cacheProvider::createAnalyticsQueryCache);
+  }
+
+  /**
+   * Returns the sorted, comma separated partitions read by the given query, or an empty string if
+   * the query does not read specific partitions.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return the partition years.
+   */
+  private String getPartitions(DataQueryParams params) {
+    return params.hasPartitions() && !params.isSkipPartitioning()
+        ? params.getPartitions().getPartitions().stream()
+            .sorted()
+            .map(String::valueOf)
+            .collect(Collectors.joining(","))
+        : "";
+  }
+
+  /**
+   * Returns the dimension names of the dimensions and filters of the given query, which are set to
+   * organisation unit level and period type columns by the query planner.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return the dimension names.
+   */
+  private String getDimensionNames(DataQueryParams params) {
+    List<DimensionalObject> dimensions = new ArrayList<>(params.getDimensions());
+    dimensions.addAll(params.getFilters());
+
+    return dimensions.stream()
+        .map(DimensionalObject::getDimensionName)
+        .collect(Collectors.joining(","));
+  }
+
+  /**
+   * Returns the data approval levels of the given query, which depend on the current user.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return the data approval levels.
+   */
+  private String getApprovalLevels(DataQueryParams params) {
+    return params.getDataApprovalLevels().entrySet().stream()
+        .map(e -> e.getKey().getUid() + ":" + e.getValue())
+        .sorted()
+        .collect(Collectors.joining(","));
+  }
+
+  /**
+   * Returns the expiration time of the given query according to the cache settings.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return the expiration time in seconds.
+   */
+  private long getExpirationTime(DataQueryParams params) {
+    return analyticsCacheSettings.isProgressiveCachingEnabled()
+        ? analyticsCacheSettings.progressiveExpirationTimeOrDefault(params.getLatestEndDate())
+        : analyticsCacheSettings.fixedExpirationTimeOrDefault();
+  }
+}
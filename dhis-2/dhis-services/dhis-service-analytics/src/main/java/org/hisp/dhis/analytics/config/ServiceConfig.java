@@ -29,6 +29,7 @@ package org.hisp.dhis.analytics.config;
 
 import org.hisp.dhis.analytics.AnalyticsTableManager;
 import org.hisp.dhis.analytics.AnalyticsTableService;
+import org.hisp.dhis.analytics.parquet.ParquetTableExporter;
 import org.hisp.dhis.analytics.table.DefaultAnalyticsTableService;
 import org.hisp.dhis.dataelement.DataElementService;
 import org.hisp.dhis.db.sql.SqlBuilder;
@@ -58,14 +59,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.TrackedEntityEventsAnalyticsTableService")
@@ -76,14 +79,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.TrackedEntityEnrollmentsAnalyticsTableService")
@@ -94,14 +99,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.AnalyticsTableService")
@@ -112,14 +119,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.CompletenessTableService")
@@ -130,14 +139,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.CompletenessTargetTableService")
@@ -148,14 +159,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.OrgUnitTargetTableService")
@@ -166,14 +179,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.OwnershipAnalyticsTableService")
@@ -184,14 +199,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.EventAnalyticsTableService")
@@ -202,14 +219,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.ValidationResultTableService")
@@ -220,14 +239,16 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 
   @Bean("org.hisp.dhis.analytics.EnrollmentAnalyticsTableService")
@@ -238,13 +259,15 @@ public class ServiceConfig {
       DataElementService dataElementService,
       ResourceTableService resourceTableService,
       SystemSettingManager systemSettingManager,
-      SqlBuilder sqlBuilder) {
+      SqlBuilder sqlBuilder,
+      ParquetTableExporter parquetExporter) {
     return new DefaultAnalyticsTableService(
         tableManager,
         organisationUnitService,
         dataElementService,
         resourceTableService,
         systemSettingManager,
-        sqlBuilder);
+        sqlBuilder,
+        parquetExporter);
   }
 }
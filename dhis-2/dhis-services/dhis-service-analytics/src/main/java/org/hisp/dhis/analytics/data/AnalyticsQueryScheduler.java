@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENCY;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_MAX_CONCURRENCY_PER_USER;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.user.CurrentUserUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for analytics data queries. Queries are executed on a dedicated thread pool where the
+ * number of concurrently executing queries is bounded both globally and per user. Queued queries
+ * are dispatched round-robin across users, so that a user submitting many queries cannot starve
+ * other users. Queries submitted together are cancelled together when one of them fails.
+ *
+ * <p>Cancelling a query which is executing also cancels the JDBC statement registered through
+ * {@link #setRunningStatement(Statement)}, which makes the database abort the statement.
+ *
+ * <p>The scheduler publishes the number of queued and executing queries, the time queries wait
+ * in the queue and the number of cancelled queries as metrics.
+ */
+@Slf4j
+@Component
+public class AnalyticsQueryScheduler implements DisposableBean {
+  private static final String SYSTEM_USER = "system";
+
+  private static final ThreadLocal<QueryTask<?>> CURRENT_TASK = new ThreadLocal<>();
+
+  private final int maxConcurrency;
+
+  private final int maxConcurrencyPerUser;
+
+  private final ExecutorService executor;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Queues of users with queued or executing queries. */
+  private final Map<String, UserQueue> userQueues = new HashMap<>();
+
+  /** Queues of users with queued queries which can be dispatched, in round-robin order. */
+  private final Deque<UserQueue> readyQueues = new ArrayDeque<>();
+
+  private volatile int queued;
+
+  private volatile int running;
+
+  private final Timer waitTimer;
+
+  private final Counter cancelCounter;
+
+  @Autowired
+  public AnalyticsQueryScheduler(DhisConfigurationProvider config, MeterRegistry meterRegistry) {
+    this(
+        Integer.parseInt(config.getProperty(ANALYTICS_QUERY_MAX_CONCURRENCY)),
+        Integer.parseInt(config.getProperty(ANALYTICS_QUERY_MAX_CONCURRENCY_PER_USER)),
+        meterRegistry);
+  }
+
+  /**
+   * @param maxConcurrency the max number of concurrently executing queries.
+   * @param maxConcurrencyPerUser the max number of concurrently executing queries per user.
+   * @param meterRegistry the {@link MeterRegistry}.
+   */
+  public AnalyticsQueryScheduler(
+      int maxConcurrency, int maxConcurrencyPerUser, MeterRegistry meterRegistry) {
+    this.maxConcurrency = Math.max(maxConcurrency, 1);
+    this.maxConcurrencyPerUser = Math.max(Math.min(maxConcurrencyPerUser, this.maxConcurrency), 1);
+    this.executor =
+        Executors.newFixedThreadPool(
+            this.maxConcurrency,
+            new ThreadFactoryBuilder().setNameFormat("ANALYTICS-QUERY-%d").setDaemon(true).build());
+
+    Gauge.builder("analytics.query.queued", this, s -> s.queued)
+        .description("Number of analytics queries waiting to execute")
+        .register(meterRegistry);
+    Gauge.builder("analytics.query.running", this, s -> s.running)
+        .description("Number of executing analytics queries")
+        .register(meterRegistry);
+    this.waitTimer =
+        Timer.builder("analytics.query.wait")
+            .description("Time analytics queries wait before execution")
+            .register(meterRegistry);
+    this.cancelCounter =
+        Counter.builder("analytics.query.cancelled")
+            .description("Number of cancelled analytics queries")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Executes the given queries on behalf of the current user and waits for all of them to
+   * complete. If a query fails, or the calling thread is interrupted, the remaining queries are
+   * cancelled.
+   *
+   * @param <T> the result type.
+   * @param queries the list of queries.
+   * @return the list of query results, in the order of the given queries.
+   * @throws InterruptedException if the calling thread is interrupted while waiting.
+   * @throws ExecutionException if a query fails.
+   */
+  public <T> List<T> executeAll(List<Callable<T>> queries)
+      throws InterruptedException, ExecutionException {
+    String user = getCurrentUser();
+
+    Batch batch = new Batch();
+
+    List<QueryTask<T>> tasks = new ArrayList<>(queries.size());
+
+    lock.lock();
+
+    try {
+      UserQueue queue = userQueues.computeIfAbsent(user, UserQueue::new);
+
+      for (Callable<T> query : queries) {
+        QueryTask<T> task = new QueryTask<>(queue, batch, query);
+        tasks.add(task);
+        batch.tasks.add(task);
+        queue.pending.add(task);
+        queued++;
+      }
+
+      updateReady(queue);
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      List<T> results = new ArrayList<>(tasks.size());
+
+      for (QueryTask<T> task : tasks) {
+        try {
+          results.add(task.get());
+        } catch (CancellationException ex) {
+          // Report the failure which caused the cancellation
+
+          Throwable failure = batch.failure.get();
+
+          if (failure != null) {
+            throw new ExecutionException(failure);
+          }
+
+          throw ex;
+        }
+      }
+
+      return results;
+    } finally {
+      batch.cancel();
+    }
+  }
+
+  /**
+   * Registers the given statement as the statement of the query executing on the current thread,
+   * so that the statement is cancelled if the query is cancelled. Has no effect if the current
+   * thread is not executing a query of this scheduler.
+   *
+   * @param statement the {@link Statement}, or null to clear the statement.
+   */
+  public static void setRunningStatement(Statement statement) {
+    QueryTask<?> task = CURRENT_TASK.get();
+
+    if (task != null) {
+      task.setStatement(statement);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Dispatches queued queries to the executor round-robin across users while the global limit
+   * allows. Must be invoked while holding the lock.
+   */
+  private void dispatch() {
+    while (running < maxConcurrency && !readyQueues.isEmpty()) {
+      UserQueue queue = readyQueues.poll();
+      queue.ready = false;
+
+      QueryTask<?> task = queue.pending.poll();
+      queued--;
+      queue.running++;
+      running++;
+
+      updateReady(queue);
+      executor.execute(task);
+    }
+  }
+
+  /**
+   * Adds the given queue to the back of the ready queues if it has queued queries and is below
+   * the per user limit, or removes it otherwise. Must be invoked while holding the lock.
+   *
+   * @param queue the {@link UserQueue}.
+   */
+  private void updateReady(UserQueue queue) {
+    boolean ready = !queue.pending.isEmpty() && queue.running < maxConcurrencyPerUser;
+
+    if (ready && !queue.ready) {
+      readyQueues.add(queue);
+    } else if (!ready && queue.ready) {
+      readyQueues.remove(queue);
+    }
+
+    queue.ready = ready;
+
+    if (queue.pending.isEmpty() && queue.running == 0) {
+      userQueues.remove(queue.user);
+    }
+  }
+
+  /**
+   * Invoked when the given task has completed execution.
+   *
+   * @param task the {@link QueryTask}.
+   */
+  private void onComplete(QueryTask<?> task) {
+    lock.lock();
+
+    try {
+      task.queue.running--;
+      running--;
+
+      updateReady(task.queue);
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Invoked when the given task was cancelled.
+   *
+   * @param task the {@link QueryTask}.
+   */
+  private void onCancel(QueryTask<?> task) {
+    cancelCounter.increment();
+
+    lock.lock();
+
+    try {
+      if (task.queue.pending.remove(task)) {
+        queued--;
+
+        updateReady(task.queue);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the username of the current user, or a system user if there is no current user. */
+  private String getCurrentUser() {
+    return CurrentUserUtil.hasCurrentUser() ? CurrentUserUtil.getCurrentUsername() : SYSTEM_USER;
+  }
+
+  /** Queue of queries of a single user. */
+  private static class UserQueue {
+    private final String user;
+
+    private final Deque<QueryTask<?>> pending = new ArrayDeque<>();
+
+    /** Number of executing queries. */
+    private int running;
+
+    /** Indicates whether this queue is among the ready queues. */
+    private boolean ready;
+
+    UserQueue(String user) {
+      this.user = user;
+    }
+  }
+
+  /** Queries submitted together, where a failing query cancels the other queries. */
+  private static class Batch {
+    private final List<QueryTask<?>> tasks = new ArrayList<>();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    void fail(Throwable ex) {
+      if (failure.compareAndSet(null, ex)) {
+        cancel();
+      }
+    }
+
+    void cancel() {
+      tasks.forEach(task -> task.cancel(true));
+    }
+  }
+
+  /** Query which cancels its running JDBC statement when cancelled. */
+  private class QueryTask<T> extends FutureTask<T> {
+    private final UserQueue queue;
+
+    private final Batch batch;
+
+    private final long queuedTime = System.nanoTime();
+
+    private volatile Statement statement;
+
+    QueryTask(UserQueue queue, Batch batch, Callable<T> callable) {
+      super(callable);
+      this.queue = queue;
+      this.batch = batch;
+    }
+
+    @Override
+    public void run() {
+      waitTimer.record(System.nanoTime() - queuedTime, NANOSECONDS);
+
+      CURRENT_TASK.set(this);
+
+      try {
+        super.run();
+      } finally {
+        CURRENT_TASK.remove();
+        statement = null;
+        onComplete(this);
+      }
+    }
+
+    @Override
+    protected void setException(Throwable ex) {
+      super.setException(ex);
+      batch.fail(ex);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+      if (cancelled) {
+        onCancel(this);
+        cancelStatement();
+      }
+
+      return cancelled;
+    }
+
+    void setStatement(Statement statement) {
+      this.statement = statement;
+
+      if (statement != null && isCancelled()) {
+        cancelStatement();
+      }
+    }
+
+    private void cancelStatement() {
+      Statement runningStatement = statement;
+
+      if (runningStatement != null) {
+        try {
+          runningStatement.cancel();
+        } catch (SQLException ex) {
+          log.warn("Failed to cancel analytics query statement", ex);
+        }
+      }
+    }
+  }
+}
@@ -27,18 +27,23 @@
  */
 package org.hisp.dhis.analytics.data;
 
+import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.hisp.dhis.analytics.DataQueryParams.LEVEL_PREFIX;
 import static org.hisp.dhis.analytics.util.AnalyticsUtils.throwIllegalQueryEx;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.ORGUNIT_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.PERIOD_DIM_ID;
+import static org.hisp.dhis.common.DimensionalObject.VALUE_COLUMN_NAME;
 import static org.hisp.dhis.util.DateUtils.getEarliest;
 import static org.hisp.dhis.util.DateUtils.getLatest;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -51,7 +56,9 @@ import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.QueryPlannerParams;
 import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
 import org.hisp.dhis.analytics.table.model.Partitions;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
 import org.hisp.dhis.analytics.table.util.PartitionUtils;
 import org.hisp.dhis.analytics.util.PeriodOffsetUtils;
 import org.hisp.dhis.common.BaseDimensionalObject;
@@ -67,6 +74,8 @@ import org.hisp.dhis.dataelement.DataElementGroup;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.util.MathUtils;
 import org.hisp.dhis.util.ObjectUtils;
 import org.springframework.stereotype.Component;
@@ -80,6 +89,13 @@ import org.springframework.stereotype.Component;
 public class DefaultQueryPlanner implements QueryPlanner {
   private final PartitionManager partitionManager;
 
+  private final AnalyticsTableSettings analyticsTableSettings;
+
+  private final SystemSettingManager systemSettingManager;
+
+  /** Existing rollup tables, refreshed when the analytics tables are updated. */
+  private volatile RollupTables rollupTables;
+
   // -------------------------------------------------------------------------
   // QueryPlanner implementation
   // -------------------------------------------------------------------------
@@ -117,6 +133,8 @@ public class DefaultQueryPlanner implements QueryPlanner {
       currentQueries.forEach(query -> queries.addAll(grouper.apply(query)));
     }
 
+    queries.replaceAll(query -> withRollupTable(query, plannerParams));
+
     // Split queries until the optimal number is reached
 
     DataQueryGroups queryGroups = DataQueryGroups.newBuilder().withQueries(queries).build();
@@ -696,6 +714,144 @@ public class DefaultQueryPlanner implements QueryPlanner {
   // Supportive methods
   // -------------------------------------------------------------------------
 
+  /**
+   * Sets the coarsest rollup table which can answer the given query as table name, if any. Applies
+   * to sum queries for numeric data against the analytics table only.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param plannerParams the {@link QueryPlannerParams}.
+   * @return a {@link DataQueryParams}.
+   */
+  DataQueryParams withRollupTable(DataQueryParams params, QueryPlannerParams plannerParams) {
+    List<AnalyticsRollup> rollups = analyticsTableSettings.getRollups();
+
+    if (rollups.isEmpty() || !isRollupQuery(params, plannerParams)) {
+      return params;
+    }
+
+    Date lastUpdate = getRollupTablesUpdate();
+
+    if (lastUpdate == null) {
+      return params;
+    }
+
+    Set<String> existingTables = getExistingRollupTables(rollups, lastUpdate);
+    Set<String> columns = getQueryColumns(params);
+
+    for (AnalyticsRollup rollup : rollups) {
+      if (rollup.hasColumns(columns) && existingTables.contains(rollup.getTableName())) {
+        log.debug("Using rollup table: '{}'", rollup.getTableName());
+
+        return DataQueryParams.newBuilder(params)
+            .withTableName(rollup.getTableName())
+            .withSkipPartitioning(true)
+            .build();
+      }
+    }
+
+    return params;
+  }
+
+  /**
+   * Returns the names of the given rollup tables which exist in the database. The result is cached
+   * and refreshed when the time of the last analytics table update changes, as rollup tables are
+   * generated with analytics table updates.
+   *
+   * @param rollups the list of {@link AnalyticsRollup}.
+   * @param lastUpdate the time of the last full or partial analytics table update.
+   * @return a set of table names.
+   */
+  private Set<String> getExistingRollupTables(List<AnalyticsRollup> rollups, Date lastUpdate) {
+    RollupTables tables = rollupTables;
+
+    if (tables == null || !lastUpdate.equals(tables.lastUpdate())) {
+      Set<String> tableNames =
+          rollups.stream()
+              .map(AnalyticsRollup::getTableName)
+              .filter(partitionManager::tableExists)
+              .collect(toUnmodifiableSet());
+
+      log.info("Found {} rollup tables: {}", tableNames.size(), tableNames);
+
+      tables = new RollupTables(lastUpdate, tableNames);
+      rollupTables = tables;
+    }
+
+    return tables.tableNames();
+  }
+
+  /**
+   * Indicates whether the given query can be answered from pre-aggregated sums of values, given a
+   * rollup table which has all required columns.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param plannerParams the {@link QueryPlannerParams}.
+   * @return true if the query can be answered from a rollup table.
+   */
+  private boolean isRollupQuery(DataQueryParams params, QueryPlannerParams plannerParams) {
+    AnalyticsAggregationType aggType = params.getAggregationType();
+
+    return plannerParams.getTableType() == AnalyticsTableType.DATA_VALUE
+        && aggType != null
+        && aggType.isAggregationType(AggregationType.SUM)
+        && aggType.isPeriodAggregationType(AggregationType.SUM)
+        && params.isDataType(DataType.NUMERIC)
+        && params.isAggregation()
+        && VALUE_COLUMN_NAME.equals(params.getValueColumn())
+        && !params.isDisaggregation()
+        && !params.hasSubexpressions()
+        && !params.hasPreAggregateMeasureCriteria()
+        && !params.hasStartDate()
+        && !params.hasEndDate()
+        && !params.isRestrictByOrgUnitOpeningClosedDate()
+        && !params.isRestrictByCategoryOptionStartEndDate()
+        && !params.isTimely();
+  }
+
+  /**
+   * Returns the time of the last full or partial analytics table update, if rollup tables reflect
+   * the analytics table. Rollup tables are generated with full and partial analytics table updates,
+   * and do not include data from subsequent "latest" partition updates.
+   *
+   * @return the time of the last analytics table update, or null if rollup tables do not reflect
+   *     the analytics table.
+   */
+  private Date getRollupTablesUpdate() {
+    Date lastFullUpdate =
+        systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE);
+    Date lastLatestUpdate =
+        systemSettingManager.getDateSetting(
+            SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE);
+
+    boolean current =
+        lastFullUpdate != null
+            && (lastLatestUpdate == null || !lastLatestUpdate.after(lastFullUpdate));
+
+    return current ? lastFullUpdate : null;
+  }
+
+  /**
+   * Returns the names of the analytics table columns referred to by the given query.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return a set of column names.
+   */
+  private Set<String> getQueryColumns(DataQueryParams params) {
+    Set<String> columns = new HashSet<>();
+
+    params.getDimensions().forEach(dim -> columns.add(dim.getDimensionName()));
+    params.getFilters().forEach(filter -> columns.add(filter.getDimensionName()));
+
+    if (params.isDataApproval()) {
+      params
+          .getDataApprovalLevels()
+          .keySet()
+          .forEach(unit -> columns.add(LEVEL_PREFIX + unit.getLevel()));
+    }
+
+    return columns;
+  }
+
   /**
    * Log query split operation.
    *
@@ -707,4 +863,12 @@ public class DefaultQueryPlanner implements QueryPlanner {
       log.debug("Split on '{}': {}", splitCriteria, queries.size());
     }
   }
+
+  /**
+   * Names of existing rollup tables along with the analytics table update they were looked up for.
+   *
+   * @param lastUpdate the time of the last analytics table update.
+   * @param tableNames the names of existing rollup tables.
+   */
+  private record RollupTables(Date lastUpdate, Set<String> tableNames) {}
 }
@@ -38,10 +38,7 @@ import static org.hisp.dhis.analytics.AggregationType.SUM;
 import static org.hisp.dhis.analytics.AggregationType.VARIANCE;
 import static org.hisp.dhis.analytics.AnalyticsConstants.ANALYTICS_TBL_ALIAS;
 import static org.hisp.dhis.analytics.DataQueryParams.LEVEL_PREFIX;
-import static org.hisp.dhis.analytics.DataQueryParams.VALUE_ID;
-import static org.hisp.dhis.analytics.DataType.TEXT;
 import static org.hisp.dhis.analytics.data.SubexpressionPeriodOffsetUtils.getParamsWithOffsetPeriods;
-import static org.hisp.dhis.analytics.util.AnalyticsUtils.throwIllegalQueryEx;
 import static org.hisp.dhis.analytics.util.AnalyticsUtils.withExceptionHandling;
 import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getUids;
@@ -54,7 +51,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -93,8 +89,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -162,7 +156,6 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
   // -------------------------------------------------------------------------
 
   @Override
-  @Async
   public Future<Map<String, Object>> getAggregatedDataValues(
       DataQueryParams params, AnalyticsTableType tableType, int maxLimit) {
     assertQuery(params);
@@ -198,7 +191,8 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
       try {
         map =
-            withExceptionHandling(() -> getKeyValueMap(immutableParams, sql, maxLimit))
+            withExceptionHandling(() -> getKeyValues(immutableParams, sql, maxLimit))
+                .map(KeyValueCollector::toMap)
                 .orElse(Map.of());
       } catch (BadSqlGrammarException ex) {
         if (relationDoesNotExist(ex.getSQLException())) {
@@ -927,55 +921,29 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
   }
 
   /**
-   * Retrieves data from the database based on the given query and SQL and puts into a value key and
-   * value mapping.
+   * Retrieves data from the database based on the given query and SQL and collects the keys and
+   * values. The result set is streamed with the fetch size of the JDBC template, and rows are
+   * collected through a {@link KeyValueCollector}, which is converted to a map only by the caller.
+   * The statement is registered with the {@link AnalyticsQueryScheduler} so that it is cancelled if
+   * the query is cancelled.
    *
    * @param params the {@link DataQueryParams}.
    * @param sql the SQL query.
    * @param maxLimit the max limit of records to return, 0 indicates unlimited.
+   * @return the {@link KeyValueCollector} holding the keys and values.
    */
-  private Map<String, Object> getKeyValueMap(DataQueryParams params, String sql, int maxLimit) {
-    Map<String, Object> map = new HashMap<>();
-
+  private KeyValueCollector getKeyValues(DataQueryParams params, String sql, int maxLimit) {
     log.debug("Analytics query SQL: '{}'", sql);
 
-    SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
-
-    int counter = 0;
-
-    while (rowSet.next()) {
-      boolean exceedsMaxLimit = maxLimit > 0 && ++counter > maxLimit;
-
-      if (exceedsMaxLimit) {
-        throwIllegalQueryEx(ErrorCode.E7128, maxLimit);
-      }
-
-      StringBuilder key = new StringBuilder();
-
-      for (DimensionalObject dim : params.getDimensions()) {
-        String value =
-            dim.isFixed() ? dim.getDimensionName() : rowSet.getString(dim.getDimensionName());
-
-        String queryModsId = params.getQueryModsId(dim);
+    KeyValueCollector collector = new KeyValueCollector(params, maxLimit);
 
-        key.append(value).append(queryModsId).append(DIMENSION_SEP);
-      }
-
-      key.deleteCharAt(key.length() - 1);
-
-      if (params.isDataType(TEXT)) {
-        String value = rowSet.getString(VALUE_ID);
-
-        map.put(key.toString(), value);
-      } else // NUMERIC
-      {
-        Double value = rowSet.getDouble(VALUE_ID);
-
-        map.put(key.toString(), value);
-      }
+    try {
+      jdbcTemplate.query(sql, AnalyticsQueryScheduler::setRunningStatement, collector);
+    } finally {
+      AnalyticsQueryScheduler.setRunningStatement(null);
     }
 
-    return map;
+    return collector;
   }
 
   /**
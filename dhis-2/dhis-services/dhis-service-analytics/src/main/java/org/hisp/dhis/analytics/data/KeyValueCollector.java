@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static org.hisp.dhis.analytics.DataQueryParams.VALUE_ID;
+import static org.hisp.dhis.analytics.DataType.TEXT;
+import static org.hisp.dhis.analytics.util.AnalyticsUtils.throwIllegalQueryEx;
+import static org.hisp.dhis.common.DimensionalObject.DIMENSION_SEP;
+
+import com.google.common.collect.Maps;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.common.DimensionalObject;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Collects aggregated data values from an analytics query result set, one row at a time. Dimension
+ * item identifiers are interned per dimension into int codes, and each row is stored as a composite
+ * key of int codes in a flat, open addressing hash table together with a primitive numeric value.
+ * This avoids keeping an in-memory copy of the result set and building a key string per row.
+ *
+ * <p>Rows with identical keys overwrite each other. The values are converted to a map of
+ * concatenated dimension item identifiers separated by {@link DimensionalObject#DIMENSION_SEP} and
+ * values once all rows are read, see {@link #toMap()}.
+ */
+class KeyValueCollector implements RowCallbackHandler {
+  private static final int INITIAL_CAPACITY = 256;
+
+  /** The number of dimensions, which is the width of a composite key. */
+  private final int width;
+
+  /** The column names of the dimensions, null for fixed dimensions. */
+  private final String[] columns;
+
+  /** The values of fixed dimensions, null for regular dimensions. */
+  private final String[] fixedValues;
+
+  /** The query modifier identifiers to append to the dimension item identifiers. */
+  private final String[] suffixes;
+
+  /** Mapping of dimension item identifiers to codes for each dimension. */
+  private final List<Map<String, Integer>> codes;
+
+  /** Dimension item identifiers indexed by code for each dimension. */
+  private final List<List<String>> items;
+
+  private final boolean textValues;
+
+  private final int maxLimit;
+
+  /** The int codes of the row currently being processed. */
+  private final int[] rowKey;
+
+  /** The composite keys of the entries, where entry i occupies [i * width, (i + 1) * width). */
+  private int[] keys;
+
+  /** Hash slots holding the entry index plus one, where zero indicates an empty slot. */
+  private int[] slots;
+
+  private double[] numbers;
+
+  private String[] texts;
+
+  /** The number of entries which can be held before the arrays must grow. */
+  private int capacity;
+
+  private int size;
+
+  private int rowCount;
+
+  /**
+   * @param params the {@link DataQueryParams}.
+   * @param maxLimit the max limit of records to read, 0 indicates unlimited.
+   */
+  KeyValueCollector(DataQueryParams params, int maxLimit) {
+    List<DimensionalObject> dimensions = params.getDimensions();
+
+    this.width = dimensions.size();
+    this.columns = new String[width];
+    this.fixedValues = new String[width];
+    this.suffixes = new String[width];
+    this.codes = new ArrayList<>(width);
+    this.items = new ArrayList<>(width);
+
+    for (int i = 0; i < width; i++) {
+      DimensionalObject dim = dimensions.get(i);
+
+      if (dim.isFixed()) {
+        fixedValues[i] = dim.getDimensionName();
+      } else {
+        columns[i] = dim.getDimensionName();
+      }
+
+      suffixes[i] = params.getQueryModsId(dim);
+      codes.add(new HashMap<>());
+      items.add(new ArrayList<>());
+    }
+
+    this.textValues = params.isDataType(TEXT);
+    this.maxLimit = maxLimit;
+    this.rowKey = new int[width];
+    this.capacity = INITIAL_CAPACITY;
+    this.keys = new int[capacity * width];
+    this.slots = new int[capacity * 2];
+
+    if (textValues) {
+      this.texts = new String[capacity];
+    } else {
+      this.numbers = new double[capacity];
+    }
+  }
+
+  @Override
+  public void processRow(ResultSet rs) throws SQLException {
+    boolean exceedsMaxLimit = maxLimit > 0 && ++rowCount > maxLimit;
+
+    if (exceedsMaxLimit) {
+      throwIllegalQueryEx(ErrorCode.E7128, maxLimit);
+    }
+
+    for (int i = 0; i < width; i++) {
+      String item = columns[i] != null ? rs.getString(columns[i]) : fixedValues[i];
+
+      rowKey[i] = intern(i, item);
+    }
+
+    int entry = getOrAddEntry();
+
+    if (textValues) {
+      texts[entry] = rs.getString(VALUE_ID);
+    } else {
+      numbers[entry] = rs.getDouble(VALUE_ID);
+    }
+  }
+
+  /** Returns the number of distinct keys collected. */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns a mapping between keys of dimension item identifiers separated by {@link
+   * DimensionalObject#DIMENSION_SEP} and values. Values are of type {@link Double} for numeric
+   * queries and {@link String} for text queries. This is the only place where keys are built and
+   * values are boxed, and is meant to be called once where a map is required.
+   *
+   * @return a mapping between keys and values.
+   */
+  Map<String, Object> toMap() {
+    Map<String, Object> map = Maps.newHashMapWithExpectedSize(size);
+
+    String[][] itemKeys = getItemKeys();
+    StringBuilder key = new StringBuilder();
+
+    for (int entry = 0; entry < size; entry++) {
+      key.setLength(0);
+
+      for (int i = 0; i < width; i++) {
+        if (i > 0) {
+          key.append(DIMENSION_SEP);
+        }
+
+        key.append(itemKeys[i][keys[entry * width + i]]);
+      }
+
+      map.put(key.toString(), textValues ? texts[entry] : Double.valueOf(numbers[entry]));
+    }
+
+    return map;
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Returns the key components of the dimension items indexed by code for each dimension, which
+   * are the dimension item identifiers with the query modifier identifiers appended.
+   *
+   * @return the key components of the dimension items.
+   */
+  private String[][] getItemKeys() {
+    String[][] itemKeys = new String[width][];
+
+    for (int i = 0; i < width; i++) {
+      List<String> dimensionItems = items.get(i);
+      itemKeys[i] = new String[dimensionItems.size()];
+
+      for (int code = 0; code < dimensionItems.size(); code++) {
+        itemKeys[i][code] = dimensionItems.get(code) + suffixes[i];
+      }
+    }
+
+    return itemKeys;
+  }
+
+  /**
+   * Returns the code of the given dimension item identifier, assigning the next code of the given
+   * dimension if the identifier was not seen before.
+   *
+   * @param dimension the dimension index.
+   * @param item the dimension item identifier.
+   * @return the code of the dimension item identifier.
+   */
+  private int intern(int dimension, String item) {
+    Map<String, Integer> dimensionCodes = codes.get(dimension);
+
+    Integer code = dimensionCodes.get(item);
+
+    if (code == null) {
+      List<String> dimensionItems = items.get(dimension);
+      code = dimensionItems.size();
+      dimensionItems.add(item);
+      dimensionCodes.put(item, code);
+    }
+
+    return code;
+  }
+
+  /**
+   * Returns the index of the entry for the current row key, adding an entry if the key does not
+   * exist.
+   *
+   * @return the entry index.
+   */
+  private int getOrAddEntry() {
+    int mask = slots.length - 1;
+    int slot = hash(rowKey) & mask;
+
+    while (slots[slot] != 0) {
+      int entry = slots[slot] - 1;
+
+      if (Arrays.equals(keys, entry * width, (entry + 1) * width, rowKey, 0, width)) {
+        return entry;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    if (size == capacity) {
+      grow();
+      return getOrAddEntry();
+    }
+
+    int entry = size++;
+    System.arraycopy(rowKey, 0, keys, entry * width, width);
+    slots[slot] = entry + 1;
+    return entry;
+  }
+
+  /** Doubles the capacity of the entry arrays and rehashes the slots. */
+  private void grow() {
+    capacity *= 2;
+
+    keys = Arrays.copyOf(keys, capacity * width);
+    slots = new int[capacity * 2];
+
+    if (textValues) {
+      texts = Arrays.copyOf(texts, capacity);
+    } else {
+      numbers = Arrays.copyOf(numbers, capacity);
+    }
+
+    int mask = slots.length - 1;
+
+    for (int entry = 0; entry < size; entry++) {
+      int slot = hash(keys, entry * width) & mask;
+
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+
+      slots[slot] = entry + 1;
+    }
+  }
+
+  private int hash(int[] key) {
+    return hash(key, 0);
+  }
+
+  private int hash(int[] array, int offset) {
+    int hash = 1;
+
+    for (int i = offset; i < offset + width; i++) {
+      hash = 31 * hash + array[i];
+    }
+
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -113,7 +113,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -129,8 +129,11 @@ import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.QueryPlannerParams;
 import org.hisp.dhis.analytics.RawAnalyticsManager;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.cache.AnalyticsQueryCache;
+import org.hisp.dhis.analytics.data.AnalyticsQueryScheduler;
 import org.hisp.dhis.analytics.event.EventAnalyticsService;
 import org.hisp.dhis.analytics.event.EventQueryParams;
+import org.hisp.dhis.analytics.parquet.ParquetAnalyticsManager;
 import org.hisp.dhis.analytics.resolver.ExpressionResolver;
 import org.hisp.dhis.analytics.resolver.ExpressionResolvers;
 import org.hisp.dhis.analytics.util.PeriodOffsetUtils;
@@ -156,6 +159,7 @@ import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.util.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -173,6 +177,7 @@ public class DataHandler {
 
   private final EventAnalyticsService eventAnalyticsService;
 
+  @Qualifier("org.hisp.dhis.analytics.RawAnalyticsManager")
   private final RawAnalyticsManager rawAnalyticsManager;
 
   private final ExpressionResolvers resolvers;
@@ -183,8 +188,15 @@ public class DataHandler {
 
   private final SystemSettingManager systemSettingManager;
 
+  @Qualifier("org.hisp.dhis.analytics.AnalyticsManager")
   private final AnalyticsManager analyticsManager;
 
+  private final ParquetAnalyticsManager parquetAnalyticsManager;
+
+  private final AnalyticsQueryScheduler queryScheduler;
+
+  private final AnalyticsQueryCache queryCache;
+
   private final OrganisationUnitService organisationUnitService;
 
   private DataAggregator dataAggregator;
@@ -549,7 +561,11 @@ public class DataHandler {
       params = queryPlanner.withTableNameAndPartitions(params, plannerParams);
 
       final DataQueryParams immutableParams = DataQueryParams.newBuilder(params).build();
-      withExceptionHandling(() -> rawAnalyticsManager.getRawDataValues(immutableParams, grid));
+      RawAnalyticsManager manager =
+          parquetAnalyticsManager.isRawDataQueryable(immutableParams)
+              ? parquetAnalyticsManager
+              : rawAnalyticsManager;
+      withExceptionHandling(() -> manager.getRawDataValues(immutableParams, grid));
     }
   }
 
@@ -1255,7 +1271,9 @@ public class DataHandler {
   }
 
   /**
-   * Executes the given list of queries in parallel.
+   * Executes the given list of queries in parallel through the {@link AnalyticsQueryScheduler}.
+   * Values of queries are served from the {@link AnalyticsQueryCache} if available. The remaining
+   * queries are cancelled if a query fails.
    *
    * @param tableType the {@link AnalyticsTableType}.
    * @param maxLimit the max limit of records to retrieve.
@@ -1267,33 +1285,55 @@ public class DataHandler {
       int maxLimit,
       Map<String, Object> map,
       List<DataQueryParams> queries) {
-    List<Future<Map<String, Object>>> futures = new ArrayList<>();
+    List<Callable<Map<String, Object>>> tasks = new ArrayList<>();
 
     for (DataQueryParams query : queries) {
-      futures.add(analyticsManager.getAggregatedDataValues(query, tableType, maxLimit));
+      tasks.add(
+          () ->
+              queryCache.getOrFetch(
+                  query,
+                  tableType,
+                  maxLimit,
+                  () ->
+                      getAnalyticsManager(query)
+                          .getAggregatedDataValues(query, tableType, maxLimit)
+                          .get()));
     }
 
-    for (Future<Map<String, Object>> future : futures) {
-      try {
-        Map<String, Object> taskValues = future.get();
-
+    try {
+      for (Map<String, Object> taskValues : queryScheduler.executeAll(tasks)) {
         if (taskValues != null) {
           map.putAll(taskValues);
         }
-      } catch (Exception ex) {
-        log.error(getStackTrace(ex));
-        log.error(getStackTrace(ex.getCause()));
-
-        if (ex.getCause() instanceof RuntimeException) {
-          // Throw the real exception
-          throw (RuntimeException) ex.getCause();
-        } else {
-          throw new RuntimeException("Error during execution of aggregation query task", ex);
-        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+
+      throw new RuntimeException("Interrupted during execution of aggregation query task", ex);
+    } catch (Exception ex) {
+      log.error(getStackTrace(ex));
+      log.error(getStackTrace(ex.getCause()));
+
+      if (ex.getCause() instanceof RuntimeException) {
+        // Throw the real exception
+        throw (RuntimeException) ex.getCause();
+      } else {
+        throw new RuntimeException("Error during execution of aggregation query task", ex);
       }
     }
   }
 
+  /**
+   * Returns the {@link AnalyticsManager} for the given query. Queries are answered from exported
+   * Parquet files when possible, and from the analytics database otherwise.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return the {@link AnalyticsManager}.
+   */
+  private AnalyticsManager getAnalyticsManager(DataQueryParams params) {
+    return parquetAnalyticsManager.isQueryable(params) ? parquetAnalyticsManager : analyticsManager;
+  }
+
   /**
    * Gets the number of available cores. Uses explicit number from system setting if available.
    * Detects number of cores from current server runtime if not.
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.event;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.feedback.ErrorCode;
+
+/**
+ * Cursor for keyset paging of events. Represents the position of the last event of a page, made up
+ * of the occurred date and the event identifier. The cursor is encoded as an opaque URL-safe
+ * string.
+ *
+ * @param occurredDate the occurred date of the event, null for events which have not occurred.
+ * @param event the event identifier.
+ */
+public record EventPageCursor(LocalDateTime occurredDate, String event) {
+  private static final String SEPARATOR = ",";
+
+  /**
+   * Encodes this cursor as an URL-safe string.
+   *
+   * @return the encoded cursor.
+   */
+  public String encode() {
+    String date = occurredDate != null ? occurredDate.toString() : StringUtils.EMPTY;
+    String value = date + SEPARATOR + event;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(UTF_8));
+  }
+
+  /**
+   * Decodes the given cursor.
+   *
+   * @param cursor the encoded cursor.
+   * @return an {@link EventPageCursor}.
+   * @throws IllegalQueryException if the cursor is invalid.
+   */
+  public static EventPageCursor decode(String cursor) {
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+
+      if (!value.contains(SEPARATOR)) {
+        throw new IllegalQueryException(ErrorCode.E7240, cursor);
+      }
+
+      String date = StringUtils.substringBeforeLast(value, SEPARATOR);
+      String event = StringUtils.substringAfterLast(value, SEPARATOR);
+
+      if (!CodeGenerator.isValidUid(event)) {
+        throw new IllegalQueryException(ErrorCode.E7240, cursor);
+      }
+
+      return new EventPageCursor(date.isEmpty() ? null : LocalDateTime.parse(date), event);
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      throw new IllegalQueryException(ErrorCode.E7240, cursor);
+    }
+  }
+}
@@ -162,6 +162,15 @@ public class EventQueryParams extends DataQueryParams {
   /** The total pages flag. */
   private boolean totalPages;
 
+  /** Whether to page by seeking past the last event of the previous page. */
+  private boolean keysetPaging;
+
+  /** The cursor of the last event of the previous page for keyset paging. */
+  private EventPageCursor pageAfter;
+
+  /** Whether to estimate the total number of pages instead of counting. */
+  private boolean estimateTotalPages;
+
   /** The value sort order. */
   private SortOrder sortOrder;
 
@@ -279,6 +288,9 @@ public class EventQueryParams extends DataQueryParams {
     params.pageSize = this.pageSize;
     params.paging = this.paging;
     params.totalPages = this.totalPages;
+    params.keysetPaging = this.keysetPaging;
+    params.pageAfter = this.pageAfter;
+    params.estimateTotalPages = this.estimateTotalPages;
     params.sortOrder = this.sortOrder;
     params.limit = this.limit;
     params.outputType = this.outputType;
@@ -399,6 +411,9 @@ public class EventQueryParams extends DataQueryParams {
         .addIgnoreNull("page", page)
         .addIgnoreNull("pageSize", pageSize)
         .addIgnoreNull("paging", paging)
+        .addIgnoreNull("keysetPaging", keysetPaging)
+        .addIgnoreNull("pageAfter", pageAfter, () -> pageAfter.encode())
+        .addIgnoreNull("estimateTotalPages", estimateTotalPages)
         .addIgnoreNull("sortOrder", sortOrder)
         .addIgnoreNull("limit", limit)
         .addIgnoreNull("outputType", outputType)
@@ -706,6 +721,22 @@ public class EventQueryParams extends DataQueryParams {
     return totalPages;
   }
 
+  /**
+   * Indicates whether events are paged by seeking past the last event of the previous page, sorted
+   * by occurred date and event, instead of skipping an offset.
+   */
+  public boolean isKeysetPaging() {
+    return isPaging() && (keysetPaging || pageAfter != null);
+  }
+
+  public boolean hasPageAfter() {
+    return pageAfter != null;
+  }
+
+  public boolean isEstimateTotalPages() {
+    return estimateTotalPages;
+  }
+
   public int getPageWithDefault() {
     return page != null && page > 0 ? page : 1;
   }
@@ -928,6 +959,10 @@ public class EventQueryParams extends DataQueryParams {
     return paging;
   }
 
+  public EventPageCursor getPageAfter() {
+    return pageAfter;
+  }
+
   public SortOrder getSortOrder() {
     return sortOrder;
   }
@@ -1180,6 +1215,21 @@ public class EventQueryParams extends DataQueryParams {
       return this;
     }
 
+    public Builder withKeysetPaging(boolean keysetPaging) {
+      this.params.keysetPaging = keysetPaging;
+      return this;
+    }
+
+    public Builder withPageAfter(EventPageCursor pageAfter) {
+      this.params.pageAfter = pageAfter;
+      return this;
+    }
+
+    public Builder withEstimateTotalPages(boolean estimateTotalPages) {
+      this.params.estimateTotalPages = estimateTotalPages;
+      return this;
+    }
+
     public Builder withPartitions(Partitions partitions) {
       this.params.partitions = partitions;
       return this;
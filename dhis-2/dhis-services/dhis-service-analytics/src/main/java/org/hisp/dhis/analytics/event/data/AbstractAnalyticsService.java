@@ -37,6 +37,7 @@ import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.joinWith;
 import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.DIMENSIONS;
 import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.ITEMS;
+import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.NEXT_PAGE_AFTER;
 import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.ORG_UNIT_HIERARCHY;
 import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.ORG_UNIT_NAME_HIERARCHY;
 import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.PAGER;
@@ -359,6 +360,12 @@ public abstract class AbstractAnalyticsService {
                   grid.hasLastDataRow());
 
       grid.getMetaData().put(PAGER.getKey(), pager);
+
+      String nextPageAfter = NEXT_PAGE_AFTER.getKey();
+
+      if (params.isKeysetPaging() && grid.hasInternalMetaDataKey(nextPageAfter)) {
+        grid.getMetaData().put(nextPageAfter, grid.getInternalMetaData().get(nextPageAfter));
+      }
     }
   }
 
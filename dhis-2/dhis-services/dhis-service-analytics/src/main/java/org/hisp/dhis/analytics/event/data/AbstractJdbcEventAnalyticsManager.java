@@ -1393,7 +1393,7 @@ public abstract class AbstractJdbcEventAnalyticsManager {
 
   /**
    * returns true if the amount of rows red is greater than the page size and the query is not
-   * unlimited.
+   * unlimited. Keyset paged queries always retrieve one row more than the page size.
    *
    * @param params the {@link EventQueryParams}.
    * @param unlimitedPaging the analytics unlimited paging setting.
@@ -1404,7 +1404,7 @@ public abstract class AbstractJdbcEventAnalyticsManager {
   protected boolean isLastRowAfterPageSize(
       EventQueryParams params, boolean unlimitedPaging, int rowsRed) {
     return rowsRed > params.getPageSizeWithDefault()
-        && !params.isTotalPages()
+        && (!params.isTotalPages() || params.isKeysetPaging())
         && !isUnlimitedQuery(params, unlimitedPaging);
   }
 
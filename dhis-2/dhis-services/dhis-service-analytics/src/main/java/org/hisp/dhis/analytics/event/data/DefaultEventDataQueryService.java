@@ -61,6 +61,7 @@ import org.hisp.dhis.analytics.EventOutputType;
 import org.hisp.dhis.analytics.OrgUnitField;
 import org.hisp.dhis.analytics.common.ColumnHeader;
 import org.hisp.dhis.analytics.event.EventDataQueryService;
+import org.hisp.dhis.analytics.event.EventPageCursor;
 import org.hisp.dhis.analytics.event.EventQueryParams;
 import org.hisp.dhis.analytics.event.QueryItemLocator;
 import org.hisp.dhis.common.BaseDimensionalItemObject;
@@ -176,6 +177,10 @@ public class DefaultEventDataQueryService implements EventDataQueryService {
           AnalyticsAggregationType.fromAggregationType(request.getAggregationType()));
     }
 
+    if (StringUtils.isNotEmpty(request.getPageAfter())) {
+      params.withPageAfter(EventPageCursor.decode(request.getPageAfter()));
+    }
+
     EventQueryParams.Builder builder =
         params
             .withValue(getValueDimension(request.getValue()))
@@ -209,6 +214,8 @@ public class DefaultEventDataQueryService implements EventDataQueryService {
             .withPageSize(request.getPageSize())
             .withPaging(request.isPaging())
             .withTotalPages(request.isTotalPages())
+            .withKeysetPaging(request.isKeysetPaging())
+            .withEstimateTotalPages(request.isEstimateTotalPages())
             .withEnrollmentStatuses(request.getEnrollmentStatus())
             .withApiVersion(request.getApiVersion())
             .withLocale(locale)
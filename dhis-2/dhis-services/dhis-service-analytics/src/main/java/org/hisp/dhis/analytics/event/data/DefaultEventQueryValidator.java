@@ -115,6 +115,9 @@ public class DefaultEventQueryValidator implements EventQueryValidator {
     if (params.getPageSize() != null && params.getPageSize() < 0) {
       return new ErrorMessage(ErrorCode.E7208, params.getPageSize());
     }
+    if (params.isKeysetPaging() && params.isSorting()) {
+      return new ErrorMessage(ErrorCode.E7239);
+    }
     if (params.hasLimit() && getMaxLimit() > 0 && params.getLimit() > getMaxLimit()) {
       return new ErrorMessage(ErrorCode.E7209, params.getLimit(), getMaxLimit());
     }
@@ -32,6 +32,7 @@ import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 import static org.apache.commons.lang3.time.DateUtils.addYears;
 import static org.hisp.dhis.analytics.AnalyticsConstants.ANALYTICS_TBL_ALIAS;
 import static org.hisp.dhis.analytics.AnalyticsConstants.DATE_PERIOD_STRUCT_ALIAS;
+import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.NEXT_PAGE_AFTER;
 import static org.hisp.dhis.analytics.DataType.BOOLEAN;
 import static org.hisp.dhis.analytics.DataType.NUMERIC;
 import static org.hisp.dhis.analytics.common.ColumnHeader.LATITUDE;
@@ -49,11 +50,14 @@ import static org.postgresql.util.PSQLState.DIVISION_BY_ZERO;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -65,6 +69,7 @@ import org.hisp.dhis.analytics.TimeField;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.common.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.event.EventAnalyticsManager;
+import org.hisp.dhis.analytics.event.EventPageCursor;
 import org.hisp.dhis.analytics.event.EventQueryParams;
 import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.DimensionalItemObject;
@@ -105,6 +110,12 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
     implements EventAnalyticsManager {
   protected static final String OPEN_IN = " in (";
 
+  private static final String COL_EVENT = "event";
+
+  private static final String COL_OCCURRED_DATE = "occurreddate";
+
+  private static final Pattern PLAN_ROWS_PATTERN = Pattern.compile("rows=(\\d+)");
+
   private final EventTimeFieldSqlRenderer timeFieldSqlRenderer;
 
   public JdbcEventAnalyticsManager(
@@ -125,7 +136,10 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
 
   @Override
   public Grid getEvents(EventQueryParams params, Grid grid, int maxLimit) {
-    String sql = getAggregatedEnrollmentsSql(params, maxLimit);
+    String sql =
+        params.isKeysetPaging()
+            ? getKeysetPagedEventsSql(params)
+            : getAggregatedEnrollmentsSql(params, maxLimit);
 
     if (params.analyzeOnly()) {
       withExceptionHandling(
@@ -152,6 +166,8 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
 
     int rowsRed = 0;
 
+    EventPageCursor cursor = null;
+
     grid.setLastDataRow(true);
 
     while (rowSet.next()) {
@@ -163,6 +179,10 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
         }
       }
 
+      if (params.isKeysetPaging()) {
+        cursor = getPageCursor(rowSet);
+      }
+
       grid.addRow();
 
       int index = 1;
@@ -179,6 +199,86 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
         index++;
       }
     }
+
+    if (params.isKeysetPaging() && !grid.hasLastDataRow() && cursor != null) {
+      grid.getInternalMetaData().put(NEXT_PAGE_AFTER.getKey(), cursor.encode());
+    }
+  }
+
+  /**
+   * Returns a SQL statement which retrieves a page of events using keyset paging. Events are sorted
+   * by occurred date and event, descending, and the page starts after the event of the page cursor,
+   * which lets the database seek directly to the page through the index on occurred date and event
+   * instead of scanning and skipping all preceding events. One row more than the page size is
+   * retrieved in order to determine whether a next page exists.
+   *
+   * @param params the {@link EventQueryParams}.
+   * @return a SQL statement.
+   */
+  private String getKeysetPagedEventsSql(EventQueryParams params) {
+    String sql = getSelectClause(params);
+
+    sql += getFromClause(params);
+
+    String where = getWhereClause(params);
+
+    sql += where;
+
+    if (params.hasPageAfter()) {
+      sql +=
+          (StringUtils.isBlank(where) ? " where " : " and ")
+              + getPageAfterCondition(params.getPageAfter())
+              + " ";
+    }
+
+    sql +=
+        "order by "
+            + quoteAlias(COL_OCCURRED_DATE)
+            + " desc nulls first, "
+            + quoteAlias(COL_EVENT)
+            + " desc ";
+
+    return sql + "limit " + (params.getPageSizeWithDefault() + 1);
+  }
+
+  /**
+   * Returns a SQL condition which matches events positioned after the given page cursor in the
+   * keyset paging sort order. Events which have not occurred are sorted first.
+   *
+   * @param cursor the {@link EventPageCursor}.
+   * @return a SQL condition.
+   */
+  private String getPageAfterCondition(EventPageCursor cursor) {
+    String occurredDate = quoteAlias(COL_OCCURRED_DATE);
+    String event = quoteAlias(COL_EVENT);
+    String eventValue = sqlBuilder.singleQuote(cursor.event());
+
+    if (cursor.occurredDate() == null) {
+      return "(" + occurredDate + " is not null or " + event + " < " + eventValue + ")";
+    }
+
+    return "("
+        + occurredDate
+        + ", "
+        + event
+        + ") < (cast("
+        + sqlBuilder.singleQuote(cursor.occurredDate().toString())
+        + " as timestamp), "
+        + eventValue
+        + ")";
+  }
+
+  /**
+   * Returns the page cursor of the event at the current row of the given row set.
+   *
+   * @param rowSet the {@link SqlRowSet}.
+   * @return an {@link EventPageCursor}.
+   */
+  private EventPageCursor getPageCursor(SqlRowSet rowSet) {
+    Timestamp occurredDate = rowSet.getTimestamp(COL_OCCURRED_DATE);
+
+    return new EventPageCursor(
+        occurredDate != null ? occurredDate.toLocalDateTime() : null, rowSet.getString(COL_EVENT));
   }
 
   @Override
@@ -234,6 +334,10 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
 
   @Override
   public long getEventCount(EventQueryParams params) {
+    if (params.isEstimateTotalPages() && !params.analyzeOnly()) {
+      return getEventCountEstimate(params);
+    }
+
     String sql = "select count(1) ";
 
     sql += getFromClause(params);
@@ -259,6 +363,43 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
     return count;
   }
 
+  /**
+   * Returns an estimate of the number of events matching the given query, based on the row
+   * estimate of the query plan. The estimate is retrieved in constant time regardless of the number
+   * of matching events, but its accuracy depends on the table statistics.
+   *
+   * @param params the {@link EventQueryParams}.
+   * @return the estimated count of events.
+   */
+  private long getEventCountEstimate(EventQueryParams params) {
+    String sql = "explain select 1 ";
+
+    sql += getFromClause(params);
+
+    sql += getWhereClause(params);
+
+    log.debug("Analytics event count estimate SQL: '{}'", sql);
+
+    final String finalSqlValue = sql;
+
+    return withExceptionHandling(() -> jdbcTemplate.queryForList(finalSqlValue, String.class))
+        .filter(plan -> !plan.isEmpty())
+        .map(plan -> getPlanRows(plan.get(0)))
+        .orElse(0L);
+  }
+
+  /**
+   * Returns the estimated number of rows of the top node of the given query plan line.
+   *
+   * @param plan the query plan line.
+   * @return the estimated number of rows, or 0 if not present.
+   */
+  static long getPlanRows(String plan) {
+    Matcher matcher = PLAN_ROWS_PATTERN.matcher(plan);
+
+    return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+  }
+
   @Override
   public Rectangle getRectangle(EventQueryParams params) {
     String sql =
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.parquet;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsManager;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.QueryPlanner;
+import org.hisp.dhis.analytics.RawAnalyticsManager;
+import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.data.JdbcAnalyticsManager;
+import org.hisp.dhis.analytics.data.JdbcRawAnalyticsManager;
+import org.hisp.dhis.analytics.table.util.PartitionUtils;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.ListMap;
+import org.hisp.dhis.db.sql.DuckDbSqlBuilder;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.resourcetable.table.OrganisationUnitStructureResourceTable;
+import org.hisp.dhis.resourcetable.table.PeriodResourceTable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Manager which answers aggregate and raw data value queries from analytics tables exported to
+ * Parquet files, in order to offload queries from the analytics database. Queries are generated by
+ * {@link JdbcAnalyticsManager} and {@link JdbcRawAnalyticsManager} with a {@link DuckDbSqlBuilder}
+ * and are executed by the embedded DuckDB database of the {@link ParquetFileStore}.
+ *
+ * <p>A query can only be answered if all tables it reads have been exported, see {@link
+ * #isQueryable(DataQueryParams)}.
+ */
+@Slf4j
+@Service("org.hisp.dhis.analytics.ParquetAnalyticsManager")
+public class ParquetAnalyticsManager implements AnalyticsManager, RawAnalyticsManager {
+  /** Tables which are joined by raw data queries. */
+  private static final List<String> RAW_DATA_TABLES =
+      List.of(
+          "organisationunit",
+          OrganisationUnitStructureResourceTable.TABLE_NAME,
+          PeriodResourceTable.TABLE_NAME);
+
+  private final ParquetFileStore fileStore;
+
+  private final JdbcAnalyticsManager analyticsManager;
+
+  private final JdbcRawAnalyticsManager rawAnalyticsManager;
+
+  public ParquetAnalyticsManager(
+      ParquetFileStore fileStore,
+      QueryPlanner queryPlanner,
+      ExecutionPlanStore executionPlanStore) {
+    SqlBuilder sqlBuilder = new DuckDbSqlBuilder();
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(fileStore.getDataSource());
+
+    this.fileStore = fileStore;
+    this.analyticsManager =
+        new JdbcAnalyticsManager(queryPlanner, jdbcTemplate, executionPlanStore, sqlBuilder);
+    this.rawAnalyticsManager = new JdbcRawAnalyticsManager(sqlBuilder, jdbcTemplate);
+  }
+
+  /**
+   * Indicates whether the given aggregate data query can be answered from Parquet files, which is
+   * the case if Parquet queries are enabled and all tables and partitions read by the query have
+   * been exported. Queries with subexpressions are not supported.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return true if the query can be answered from Parquet files.
+   */
+  public boolean isQueryable(DataQueryParams params) {
+    return fileStore.isQueryEnabled()
+        && !params.hasSubexpressions()
+        && fileStore.hasTables(getTables(params));
+  }
+
+  /**
+   * Indicates whether the given raw data query can be answered from Parquet files, which is the
+   * case if Parquet queries are enabled and the analytics table and the tables joined by raw data
+   * queries have been exported.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return true if the query can be answered from Parquet files.
+   */
+  public boolean isRawDataQueryable(DataQueryParams params) {
+    Set<String> tables = new HashSet<>(RAW_DATA_TABLES);
+    tables.add(params.getTableName());
+
+    return fileStore.isQueryEnabled() && fileStore.hasTables(tables);
+  }
+
+  @Override
+  public Future<Map<String, Object>> getAggregatedDataValues(
+      DataQueryParams params, AnalyticsTableType tableType, int maxLimit) {
+    log.debug("Querying Parquet files for table: '{}'", params.getTableName());
+
+    return analyticsManager.getAggregatedDataValues(params, tableType, maxLimit);
+  }
+
+  @Override
+  public void replaceDataPeriodsWithAggregationPeriods(
+      Map<String, Object> dataValueMap,
+      DataQueryParams params,
+      ListMap<DimensionalItemObject, DimensionalItemObject> dataPeriodAggregationPeriodMap) {
+    analyticsManager.replaceDataPeriodsWithAggregationPeriods(
+        dataValueMap, params, dataPeriodAggregationPeriodMap);
+  }
+
+  @Override
+  public Grid getRawDataValues(DataQueryParams params, Grid grid) {
+    return rawAnalyticsManager.getRawDataValues(params, grid);
+  }
+
+  /**
+   * Returns the names of the tables read by the given query. This includes the main table, which
+   * is read for aggregation types which look back across partitions.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return a set of table names.
+   */
+  Set<String> getTables(DataQueryParams params) {
+    Set<String> tables = new HashSet<>();
+    tables.add(params.getTableName());
+
+    if (!params.isSkipPartitioning() && params.hasPartitions()) {
+      for (Integer partition : params.getPartitions().getPartitions()) {
+        tables.add(PartitionUtils.getPartitionName(params.getTableName(), partition));
+      }
+    }
+
+    return tables;
+  }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.parquet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.duckdb.DuckDBConnection;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
+import org.hisp.dhis.db.sql.DuckDbSqlBuilder;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.external.location.LocationManager;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store of analytics tables exported to Parquet files. Files are located in the analytics directory
+ * of the file store, with one directory per table containing one file per table partition:
+ *
+ * <pre>
+ * {external dir}/{file store container}/analytics/{table}/{partition}.parquet
+ * </pre>
+ *
+ * <p>The files are queried through an embedded, in-memory DuckDB database. A view is registered for
+ * each table, reading all partition files of the table, and for each partition. Views have the
+ * same name as the corresponding PostgreSQL tables, so that the same SQL can be used to query both.
+ * DuckDB performs vectorized scans of the Parquet files across multiple threads.
+ *
+ * <p>The views are held in memory by each server. Views are registered again when the time of the
+ * last successful analytics table update changes, which may be written by another server, and when
+ * files of registered views have been removed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParquetFileStore {
+  static final String FILE_EXTENSION = ".parquet";
+
+  private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+  private static final String DIRECTORY = "analytics";
+
+  private static final String TEMP_DIRECTORY = ".tmp";
+
+  private static final String FILESYSTEM_PROVIDER = "filesystem";
+
+  private static final String DUCKDB_URL = "jdbc:duckdb:";
+
+  private final DhisConfigurationProvider config;
+
+  private final LocationManager locationManager;
+
+  private final AnalyticsTableSettings analyticsTableSettings;
+
+  private final SystemSettingManager systemSettingManager;
+
+  private final DuckDbSqlBuilder sqlBuilder = new DuckDbSqlBuilder();
+
+  private final DataSource dataSource = new ParquetDataSource();
+
+  /**
+   * Registered views, i.e. tables and partitions available for queries, mapped to the directory
+   * of the table or the file of the partition which they read.
+   */
+  private final Map<String, Path> views = new HashMap<>();
+
+  /** Times of the last analytics table updates when the views were registered. */
+  private List<Date> registeredUpdates;
+
+  /** Connection to the in-memory database holding the views. */
+  private DuckDBConnection connection;
+
+  /**
+   * Indicates whether analytics tables should be exported to Parquet files. Export requires the
+   * file system file store provider.
+   *
+   * @return true if export is enabled.
+   */
+  public boolean isExportEnabled() {
+    return analyticsTableSettings.isParquetExport() && isFileSystemProvider();
+  }
+
+  /**
+   * Indicates whether analytics queries should be answered from Parquet files when possible.
+   *
+   * @return true if queries are enabled.
+   */
+  public boolean isQueryEnabled() {
+    return analyticsTableSettings.isParquetQuery() && isFileSystemProvider();
+  }
+
+  /**
+   * Indicates whether views for all of the given tables or partitions are registered and their
+   * files exist. Views are registered again if analytics tables have been updated since they were
+   * registered, or if files of the given tables have been removed.
+   *
+   * @param names the table or partition names.
+   * @return true if all given tables are available.
+   */
+  public synchronized boolean hasTables(Collection<String> names) {
+    if (connection == null || !Objects.equals(registeredUpdates, getLastTableUpdates())) {
+      registerViews();
+    }
+
+    boolean available = names.stream().allMatch(this::isAvailable);
+
+    if (!available && views.keySet().containsAll(names)) {
+      log.info("Parquet files of registered tables were removed: {}", names);
+      registerViews();
+    }
+
+    return available;
+  }
+
+  /**
+   * Returns the {@link DataSource} for querying the registered views. Each connection is a
+   * duplicate of the connection to the in-memory database holding the views.
+   *
+   * @return a {@link DataSource}.
+   */
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  /**
+   * Returns the path of the Parquet file for the given partition of the given table. The directory
+   * of the table is created if it does not exist.
+   *
+   * @param table the table name.
+   * @param partition the partition name.
+   * @return the path of the Parquet file.
+   */
+  public Path getFile(String table, String partition) {
+    return getTableDirectory(table).resolve(partition + FILE_EXTENSION);
+  }
+
+  /**
+   * Returns the path of the temporary file to write before replacing the given file.
+   *
+   * @param file the path of the Parquet file.
+   * @return the path of the temporary file.
+   */
+  public Path getTempFile(Path file) {
+    return file.resolveSibling(file.getFileName() + TEMP_FILE_EXTENSION);
+  }
+
+  /**
+   * Opens a connection to a new, empty in-memory DuckDB database, used for writing Parquet files.
+   * The database spills to a temporary directory in the file store when it runs out of memory.
+   *
+   * @return a {@link Connection}.
+   * @throws SQLException if the connection could not be opened.
+   */
+  public Connection openConnection() throws SQLException {
+    Connection conn = DriverManager.getConnection(DUCKDB_URL);
+
+    try (Statement statement = conn.createStatement()) {
+      statement.execute(
+          sqlBuilder.setTempDirectory(getDirectory(DIRECTORY, TEMP_DIRECTORY).toString()));
+    }
+
+    return conn;
+  }
+
+  /**
+   * Removes the Parquet files of the given table, except the files of the given partitions.
+   *
+   * @param table the table name.
+   * @param partitions the names of partitions to keep.
+   */
+  public void removeFiles(String table, Set<String> partitions) {
+    try (Stream<Path> files = Files.list(getTableDirectory(table))) {
+      for (Path file : files.toList()) {
+        if (!partitions.contains(getName(file))) {
+          Files.deleteIfExists(file);
+          log.info("Removed Parquet file: '{}'", file);
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Registers a view for each table and partition in the store, and drops views of tables and
+   * partitions which no longer exist.
+   */
+  public synchronized void registerViews() {
+    List<Date> lastUpdates = getLastTableUpdates();
+    Map<String, Path> names = new HashMap<>();
+
+    try (Statement statement = getConnection().createStatement();
+        Stream<Path> directories = Files.list(getDirectory(DIRECTORY))) {
+      for (Path directory : directories.filter(Files::isDirectory).toList()) {
+        String table = directory.getFileName().toString();
+        List<Path> files = getFiles(directory);
+
+        if (table.startsWith(".") || files.isEmpty()) {
+          continue;
+        }
+
+        String pattern = directory.resolve("*" + FILE_EXTENSION).toString();
+        statement.execute(sqlBuilder.createParquetView(table, pattern));
+        names.put(table, directory);
+
+        for (Path file : files) {
+          String partition = getName(file);
+
+          if (!partition.equals(table)) {
+            statement.execute(sqlBuilder.createParquetView(partition, file.toString()));
+            names.put(partition, file);
+          }
+        }
+      }
+
+      for (String view : views.keySet()) {
+        if (!names.containsKey(view)) {
+          statement.execute(sqlBuilder.dropViewIfExists(view));
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } catch (SQLException ex) {
+      throw new IllegalStateException("Failed to register Parquet views", ex);
+    }
+
+    views.clear();
+    views.putAll(names);
+    registeredUpdates = lastUpdates;
+
+    log.info("Registered {} Parquet tables and partitions", views.size());
+  }
+
+  @PreDestroy
+  public synchronized void close() throws SQLException {
+    if (connection != null) {
+      connection.close();
+      connection = null;
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Returns the connection to the in-memory database holding the views, opening it if necessary.
+   *
+   * @return a {@link DuckDBConnection}.
+   * @throws SQLException if the connection could not be opened.
+   */
+  private synchronized DuckDBConnection getConnection() throws SQLException {
+    if (connection == null) {
+      connection = DriverManager.getConnection(DUCKDB_URL).unwrap(DuckDBConnection.class);
+    }
+
+    return connection;
+  }
+
+  /**
+   * Indicates whether the view with the given name is registered and the files it reads exist.
+   *
+   * @param name the table or partition name.
+   * @return true if the view is available.
+   */
+  private boolean isAvailable(String name) {
+    Path path = views.get(name);
+
+    if (path == null) {
+      return false;
+    }
+
+    try {
+      return Files.isDirectory(path) ? !getFiles(path).isEmpty() : Files.exists(path);
+    } catch (IOException ex) {
+      log.warn("Failed to list Parquet files: '{}'", path, ex);
+      return false;
+    }
+  }
+
+  /**
+   * Returns the times of the last successful full and "latest" partition analytics table updates.
+   * The times are stored in the database, and so change on all servers after an update.
+   *
+   * @return the times of the last updates, which may be null.
+   */
+  private List<Date> getLastTableUpdates() {
+    return Arrays.asList(
+        systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE),
+        systemSettingManager.getDateSetting(
+            SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE));
+  }
+
+  private boolean isFileSystemProvider() {
+    return FILESYSTEM_PROVIDER.equals(config.getProperty(ConfigurationKey.FILESTORE_PROVIDER))
+        && locationManager.externalDirectorySet();
+  }
+
+  private Path getTableDirectory(String table) {
+    return getDirectory(DIRECTORY, table);
+  }
+
+  private Path getDirectory(String... directories) {
+    String container = config.getProperty(ConfigurationKey.FILESTORE_CONTAINER);
+    String[] path = new String[directories.length + 1];
+    path[0] = container;
+    System.arraycopy(directories, 0, path, 1, directories.length);
+    return locationManager.buildDirectory(path).toPath();
+  }
+
+  private List<Path> getFiles(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(f -> f.getFileName().toString().endsWith(FILE_EXTENSION)).toList();
+    }
+  }
+
+  private String getName(Path file) {
+    return StringUtils.removeEnd(file.getFileName().toString(), FILE_EXTENSION);
+  }
+
+  /** Data source which returns duplicates of the connection holding the views. */
+  private class ParquetDataSource extends AbstractDataSource {
+    @Override
+    public Connection getConnection() throws SQLException {
+      synchronized (ParquetFileStore.this) {
+        return ParquetFileStore.this.getConnection().duplicate();
+      }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return getConnection();
+    }
+  }
+}
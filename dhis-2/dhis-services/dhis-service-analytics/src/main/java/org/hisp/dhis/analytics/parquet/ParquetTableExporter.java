@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.parquet;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+import org.hisp.dhis.analytics.table.model.AnalyticsTablePartition;
+import org.hisp.dhis.db.model.Column;
+import org.hisp.dhis.db.model.DataType;
+import org.hisp.dhis.db.model.Table;
+import org.hisp.dhis.db.sql.DuckDbSqlBuilder;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.resourcetable.table.OrganisationUnitStructureResourceTable;
+import org.hisp.dhis.resourcetable.table.PeriodResourceTable;
+import org.hisp.dhis.system.util.Clock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports analytics tables from the analytics database to Parquet files in the {@link
+ * ParquetFileStore}. Rows are streamed from the analytics database into an in-memory DuckDB table,
+ * which is then written to a temporary Parquet file. The temporary file replaces the existing file
+ * of the partition once completely written, so that queries never read a partially written file.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParquetTableExporter {
+  private static final int FETCH_SIZE = 10_000;
+
+  private static final String STAGING_TABLE = "staging";
+
+  private static final String TABLE_ORGUNIT = "organisationunit";
+
+  private final ParquetFileStore fileStore;
+
+  @Qualifier("analyticsJdbcTemplate")
+  private final JdbcTemplate jdbcTemplate;
+
+  private final SqlBuilder sqlBuilder;
+
+  private final DuckDbSqlBuilder duckDbSqlBuilder = new DuckDbSqlBuilder();
+
+  /**
+   * Indicates whether analytics tables should be exported to Parquet files.
+   *
+   * @return true if export is enabled.
+   */
+  public boolean isEnabled() {
+    return fileStore.isExportEnabled();
+  }
+
+  /**
+   * Exports the given populated analytics table partition. The partition is read from the main
+   * table, i.e. the partition must be swapped before export.
+   *
+   * @param partition the {@link AnalyticsTablePartition}.
+   */
+  public void exportPartition(AnalyticsTablePartition partition) {
+    exportPartition(partition.getMasterTable().getMainName(), partition.getMainName());
+  }
+
+  /**
+   * Exports the given partition of the given analytics table, as read from the analytics
+   * database.
+   *
+   * @param table the table name.
+   * @param partition the partition name.
+   */
+  public void exportPartition(String table, String partition) {
+    exportTable(table, partition, String.format("select * from %s", sqlBuilder.quote(partition)));
+  }
+
+  /**
+   * Exports the resource tables which are required for raw data queries, which are the
+   * organisation unit structure, period structure and organisation unit tables.
+   */
+  public void exportResourceTables() {
+    List<String> tables =
+        List.of(OrganisationUnitStructureResourceTable.TABLE_NAME, PeriodResourceTable.TABLE_NAME);
+
+    for (String table : tables) {
+      exportTable(table, table, String.format("select * from %s", sqlBuilder.quote(table)));
+    }
+
+    exportTable(
+        TABLE_ORGUNIT,
+        TABLE_ORGUNIT,
+        "select ou.organisationunitid, ou.uid, ou.code, ou.name, ou.path, ou.hierarchylevel "
+            + "from organisationunit ou");
+  }
+
+  /**
+   * Removes the Parquet files of the given table, except the files of the given partitions. Used
+   * to remove partitions which are no longer present after a full table update.
+   *
+   * @param table the table name.
+   * @param partitions the names of partitions to keep.
+   */
+  public void removeFiles(String table, Set<String> partitions) {
+    fileStore.removeFiles(table, partitions);
+  }
+
+  /**
+   * Registers the exported tables for queries, and drops the views of removed tables. Invoked
+   * after tables have been exported or removed.
+   */
+  public void registerTables() {
+    fileStore.registerViews();
+  }
+
+  /**
+   * Exports the rows of the given query to the Parquet file of the given partition.
+   *
+   * @param table the table name.
+   * @param partition the partition name.
+   * @param sql the SQL query for the rows to export.
+   */
+  void exportTable(String table, String partition, String sql) {
+    Clock clock = new Clock().startClock();
+    Path file = fileStore.getFile(table, partition);
+    Path tempFile = fileStore.getTempFile(file);
+
+    try (Connection duckDb = fileStore.openConnection()) {
+      Long rows =
+          jdbcTemplate.execute((ConnectionCallback<Long>) conn -> copyRows(conn, sql, duckDb));
+
+      try (Statement statement = duckDb.createStatement()) {
+        statement.execute(duckDbSqlBuilder.copyToParquet(STAGING_TABLE, tempFile.toString()));
+      }
+
+      Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+
+      log.info(
+          "Exported {} rows of '{}' to Parquet file: '{}' in: {}",
+          rows,
+          partition,
+          file,
+          clock.time());
+    } catch (SQLException ex) {
+      throw new IllegalStateException("Failed to export table to Parquet: " + partition, ex);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Copies the rows of the given query from the analytics database to a staging table in the given
+   * DuckDB database. Rows are fetched in batches, which for PostgreSQL requires that auto-commit is
+   * disabled.
+   *
+   * @param conn the analytics database {@link Connection}.
+   * @param sql the SQL query.
+   * @param duckDb the DuckDB {@link Connection}.
+   * @return the number of copied rows.
+   * @throws SQLException if the copy failed.
+   */
+  private long copyRows(Connection conn, String sql, Connection duckDb) throws SQLException {
+    boolean autoCommit = conn.getAutoCommit();
+    conn.setAutoCommit(false);
+
+    try (Statement statement = conn.createStatement()) {
+      statement.setFetchSize(FETCH_SIZE);
+
+      try (ResultSet rs = statement.executeQuery(sql)) {
+        List<Column> columns = getColumns(rs.getMetaData());
+
+        try (Statement ddl = duckDb.createStatement()) {
+          ddl.execute(duckDbSqlBuilder.createTable(new Table(STAGING_TABLE, columns, List.of())));
+        }
+
+        return appendRows(rs, columns, duckDb);
+      }
+    } finally {
+      conn.commit();
+      conn.setAutoCommit(autoCommit);
+    }
+  }
+
+  /**
+   * Appends the rows of the given result set to the staging table.
+   *
+   * @param rs the {@link ResultSet}.
+   * @param columns the list of {@link Column}.
+   * @param duckDb the DuckDB {@link Connection}.
+   * @return the number of appended rows.
+   * @throws SQLException if the append failed.
+   */
+  private long appendRows(ResultSet rs, List<Column> columns, Connection duckDb)
+      throws SQLException {
+    long rows = 0;
+
+    try (DuckDBAppender appender =
+        duckDb
+            .unwrap(DuckDBConnection.class)
+            .createAppender(DuckDBConnection.DEFAULT_SCHEMA, STAGING_TABLE)) {
+      while (rs.next()) {
+        appender.beginRow();
+
+        for (int i = 0; i < columns.size(); i++) {
+          appendValue(appender, rs, i + 1, columns.get(i).getDataType());
+        }
+
+        appender.endRow();
+        rows++;
+      }
+    }
+
+    return rows;
+  }
+
+  /**
+   * Appends the value of the given column. Numeric and boolean values are appended as is, other
+   * values are appended as text and converted to the column type by DuckDB.
+   *
+   * @param appender the {@link DuckDBAppender}.
+   * @param rs the {@link ResultSet}.
+   * @param index the column index, starting at 1.
+   * @param dataType the {@link DataType} of the column.
+   * @throws SQLException if the append failed.
+   */
+  private void appendValue(DuckDBAppender appender, ResultSet rs, int index, DataType dataType)
+      throws SQLException {
+    switch (dataType) {
+      case SMALLINT, INTEGER -> {
+        int value = rs.getInt(index);
+        appendOrNull(appender, rs, () -> appender.append(value));
+      }
+      case BIGINT -> {
+        long value = rs.getLong(index);
+        appendOrNull(appender, rs, () -> appender.append(value));
+      }
+      case DOUBLE -> {
+        double value = rs.getDouble(index);
+        appendOrNull(appender, rs, () -> appender.append(value));
+      }
+      case BOOLEAN -> {
+        boolean value = rs.getBoolean(index);
+        appendOrNull(appender, rs, () -> appender.append(value));
+      }
+      default -> {
+        String value = rs.getString(index);
+        appendOrNull(appender, rs, () -> appender.append(value));
+      }
+    }
+  }
+
+  private void appendOrNull(DuckDBAppender appender, ResultSet rs, Append append)
+      throws SQLException {
+    if (rs.wasNull()) {
+      appender.appendNull();
+    } else {
+      append.run();
+    }
+  }
+
+  /**
+   * Returns the columns of the given result set metadata.
+   *
+   * @param metaData the {@link ResultSetMetaData}.
+   * @return a list of {@link Column}.
+   * @throws SQLException if the metadata could not be read.
+   */
+  private List<Column> getColumns(ResultSetMetaData metaData) throws SQLException {
+    List<Column> columns = new ArrayList<>();
+
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      columns.add(new Column(metaData.getColumnLabel(i), toDataType(metaData.getColumnType(i))));
+    }
+
+    return columns;
+  }
+
+  /**
+   * Returns the {@link DataType} for the given JDBC type. Unknown types, including geometries, are
+   * mapped to text.
+   *
+   * @param jdbcType the JDBC type, see {@link Types}.
+   * @return the {@link DataType}.
+   */
+  static DataType toDataType(int jdbcType) {
+    return switch (jdbcType) {
+      case Types.SMALLINT, Types.TINYINT -> DataType.SMALLINT;
+      case Types.INTEGER -> DataType.INTEGER;
+      case Types.BIGINT -> DataType.BIGINT;
+      case Types.NUMERIC, Types.DECIMAL, Types.REAL, Types.FLOAT, Types.DOUBLE -> DataType.DOUBLE;
+      case Types.BOOLEAN, Types.BIT -> DataType.BOOLEAN;
+      case Types.DATE -> DataType.DATE;
+      case Types.TIMESTAMP -> DataType.TIMESTAMP;
+      case Types.TIMESTAMP_WITH_TIMEZONE -> DataType.TIMESTAMPTZ;
+      default -> DataType.TEXT;
+    };
+  }
+
+  /** Append operation which may throw a {@link SQLException}. */
+  @FunctionalInterface
+  private interface Append {
+    void run() throws SQLException;
+  }
+}
@@ -35,6 +35,8 @@ import static org.hisp.dhis.db.model.DataType.CHARACTER_11;
 import static org.hisp.dhis.db.model.DataType.TEXT;
 import static org.hisp.dhis.util.DateUtils.toLongDate;
 
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -86,6 +88,7 @@ import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.database.DatabaseInfoProvider;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.Assert;
 
@@ -114,6 +117,9 @@ public abstract class AbstractJdbcTableManager implements AnalyticsTableManager
   protected static final Set<ValueType> NO_INDEX_VAL_TYPES =
       Set.of(ValueType.TEXT, ValueType.LONG_TEXT);
 
+  /** Lower bound in megabytes for the maintenance memory used when creating an index. */
+  private static final int MIN_MAINTENANCE_MEMORY = 64;
+
   protected static final String PREFIX_ORGUNITLEVEL = "uidlevel";
 
   protected static final String PREFIX_ORGUNITNAMELEVEL = "namelevel";
@@ -226,6 +232,75 @@ public abstract class AbstractJdbcTableManager implements AnalyticsTableManager
     jdbcTemplate.execute(sql);
   }
 
+  @Override
+  public void createIndex(Index index, long tableSize, int parallelJobs) {
+    int memory = getMaintenanceMemory(tableSize, parallelJobs);
+
+    if (memory <= 0 || !sqlBuilder.supportsMaintenanceMemory()) {
+      createIndex(index);
+      return;
+    }
+
+    log.debug("Creating index: '{}' with maintenance memory: {} MB", index.getName(), memory);
+
+    String sql = sqlBuilder.createIndex(index);
+
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              try (Statement statement = connection.createStatement()) {
+                statement.execute(sqlBuilder.setMaintenanceMemory(memory));
+                try {
+                  statement.execute(sql);
+                } finally {
+                  statement.execute(sqlBuilder.resetMaintenanceMemory());
+                }
+              }
+              return null;
+            });
+  }
+
+  /**
+   * Returns the maintenance memory in megabytes to use for creating an index on a table of the
+   * given size. The configured memory is shared between the parallel jobs, and a table is not
+   * given more memory than its own size, with a lower bound of 64 MB. Returns 0 if maintenance
+   * memory is not configured, meaning the database default is used.
+   *
+   * @param tableSize the size of the table in bytes.
+   * @param parallelJobs the number of parallel jobs.
+   * @return the maintenance memory in megabytes.
+   */
+  int getMaintenanceMemory(long tableSize, int parallelJobs) {
+    int configured = analyticsTableSettings.getMaintenanceMemory();
+
+    if (configured <= 0) {
+      return 0;
+    }
+
+    int share = configured / Math.max(1, parallelJobs);
+    long tableMegabytes = tableSize / (1024 * 1024);
+    long required = Math.max(MIN_MAINTENANCE_MEMORY, tableMegabytes);
+
+    return (int) Math.min(share, required);
+  }
+
+  @Override
+  public Map<String, Long> getTableSizes(Collection<String> names) {
+    Map<String, Long> sizes = new HashMap<>();
+
+    if (names.isEmpty()) {
+      return sizes;
+    }
+
+    jdbcTemplate.query(
+        sqlBuilder.tableSizes(names),
+        rs -> {
+          sizes.put(rs.getString("table_name"), rs.getLong("table_size"));
+        });
+
+    return sizes;
+  }
+
   @Override
   public void swapTable(AnalyticsTableUpdateParams params, AnalyticsTable table) {
     boolean tableExists = tableExists(table.getMainName());
@@ -313,7 +388,7 @@ public abstract class AbstractJdbcTableManager implements AnalyticsTableManager
    * @param name the table name.
    * @return true if a table with the given name exists.
    */
-  private boolean tableExists(String name) {
+  protected boolean tableExists(String name) {
     return !jdbcTemplate.queryForList(sqlBuilder.tableExists(name)).isEmpty();
   }
 
@@ -431,6 +506,45 @@ public abstract class AbstractJdbcTableManager implements AnalyticsTableManager
     log.info("{} in: {}", logMessage, timer.stop().toString());
   }
 
+  /**
+   * Executes the given SQL statements in a single transaction, which is rolled back if any
+   * statement fails. Logs and times the operation.
+   *
+   * @param statements the SQL statements.
+   * @param logPattern the log message pattern.
+   * @param args the log message arguments.
+   */
+  protected void invokeInTransaction(List<String> statements, String logPattern, Object... args) {
+    Timer timer = new SystemTimer().start();
+
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              boolean autoCommit = connection.getAutoCommit();
+              connection.setAutoCommit(false);
+
+              try (Statement statement = connection.createStatement()) {
+                for (String sql : statements) {
+                  log.debug("Transaction SQL: '{}'", sql);
+
+                  statement.execute(sql);
+                }
+
+                connection.commit();
+              } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+              } finally {
+                connection.setAutoCommit(autoCommit);
+              }
+              return null;
+            });
+
+    String logMessage = format(logPattern, args);
+
+    log.info("{} in: {}", logMessage, timer.stop().toString());
+  }
+
   /**
    * Filters out analytics table columns which were created after the time of the last successful
    * resource table update. This so that the create table query does not refer to columns not
@@ -28,9 +28,11 @@
 package org.hisp.dhis.analytics.table;
 
 import static org.hisp.dhis.common.collection.CollectionUtils.emptyIfNull;
+import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_STAGE;
 import static org.hisp.dhis.util.DateUtils.toLongDate;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -44,7 +46,11 @@ import org.hisp.dhis.analytics.AnalyticsTableService;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
+import org.hisp.dhis.analytics.cache.AnalyticsQueryCache;
 import org.hisp.dhis.analytics.cache.OutliersCache;
+import org.hisp.dhis.analytics.parquet.ParquetTableExporter;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
+import org.hisp.dhis.calendar.DateTimeUnit;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.setting.SettingKey;
@@ -67,8 +73,14 @@ public class DefaultAnalyticsTableGenerator implements AnalyticsTableGenerator {
 
   private final AnalyticsCache analyticsCache;
 
+  private final AnalyticsQueryCache analyticsQueryCache;
+
   private final OutliersCache outliersCache;
 
+  private final JdbcRollupTableManager rollupTableManager;
+
+  private final ParquetTableExporter parquetExporter;
+
   // TODO introduce last successful timestamps per table type
 
   @Override
@@ -108,10 +120,19 @@ public class DefaultAnalyticsTableGenerator implements AnalyticsTableGenerator {
       }
     }
 
+    if (!params.isLatestUpdate() && !skipTypes.contains(AnalyticsTableType.DATA_VALUE)) {
+      generateRollupTables(progress);
+    }
+
+    if (parquetExporter.isEnabled()) {
+      exportParquetTables(params, progress);
+    }
+
     progress.startingStage("Updating system settings");
     progress.runStage(() -> updateLastSuccessfulSystemSettings(params, clock));
 
     progress.startingStage("Invalidate analytics caches", SKIP_STAGE);
+    progress.runStage(() -> invalidateQueryCache(params, skipTypes));
     progress.runStage(analyticsCache::invalidateAll);
     progress.runStage(outliersCache::invalidateAll);
     progress.completedProcess("Analytics tables updated: {}", clock.time());
@@ -151,6 +172,72 @@ public class DefaultAnalyticsTableGenerator implements AnalyticsTableGenerator {
   // Supportive methods
   // -------------------------------------------------------------------------
 
+  /**
+   * Generates rollup tables from the analytics table, if any are configured. Rollup tables are only
+   * generated for full and partial updates, and are not used for queries after a "latest" partition
+   * update until the next full or partial update.
+   *
+   * @param progress the {@link JobProgress}.
+   */
+  private void generateRollupTables(JobProgress progress) {
+    List<AnalyticsRollup> rollups = rollupTableManager.getRollups();
+
+    if (rollups.isEmpty()) {
+      return;
+    }
+
+    List<AnalyticsRollup> generated = new ArrayList<>();
+
+    progress.startingStage(
+        "Generating " + rollups.size() + " rollup tables", rollups.size(), SKIP_ITEM);
+    progress.runStage(
+        rollups,
+        AnalyticsRollup::getTableName,
+        rollup -> {
+          rollupTableManager.generateRollupTable(rollup, generated);
+          generated.add(rollup);
+        });
+  }
+
+  /**
+   * Exports the resource tables required by raw data queries to Parquet files, and registers the
+   * exported tables for queries. Resource tables are not exported for "latest" partition updates.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param progress the {@link JobProgress}.
+   */
+  private void exportParquetTables(AnalyticsTableUpdateParams params, JobProgress progress) {
+    if (!params.isLatestUpdate()) {
+      progress.startingStage("Exporting resource tables to Parquet", SKIP_STAGE);
+      progress.runStage(parquetExporter::exportResourceTables);
+    }
+
+    progress.startingStage("Registering Parquet tables", SKIP_STAGE);
+    progress.runStage(parquetExporter::registerTables);
+  }
+
+  /**
+   * Invalidates the cached analytics queries of the updated table types. A partial update only
+   * invalidates queries which read the rebuilt partitions. A full update and a "latest" partition
+   * update invalidate all queries of the table type, as a "latest" partition update removes updated
+   * data from all partitions.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param skipTypes the table types which were not updated.
+   */
+  private void invalidateQueryCache(
+      AnalyticsTableUpdateParams params, Set<AnalyticsTableType> skipTypes) {
+    Integer fromYear =
+        params.isPartialUpdate() && !params.isLatestUpdate()
+            ? DateTimeUnit.fromJdkDate(params.getFromDate()).getYear()
+            : null;
+
+    analyticsTableServices.stream()
+        .map(AnalyticsTableService::getAnalyticsTableType)
+        .filter(tableType -> !skipTypes.contains(tableType))
+        .forEach(tableType -> analyticsQueryCache.invalidate(tableType, fromYear));
+  }
+
   private void generateResourceTablesInternal(JobProgress progress) {
     resourceTableService.dropAllSqlViews(progress);
 
@@ -28,20 +28,27 @@
 package org.hisp.dhis.analytics.table;
 
 import static org.hisp.dhis.analytics.util.AnalyticsIndexHelper.getIndexes;
+import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM_OUTLIER;
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_STAGE;
 import static org.hisp.dhis.util.DateUtils.toLongDate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.analytics.AnalyticsTableManager;
 import org.hisp.dhis.analytics.AnalyticsTableService;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
+import org.hisp.dhis.analytics.parquet.ParquetTableExporter;
+import org.hisp.dhis.analytics.table.MaintenanceScheduler.Task;
 import org.hisp.dhis.analytics.table.model.AnalyticsTable;
+import org.hisp.dhis.analytics.table.model.AnalyticsTableColumn;
 import org.hisp.dhis.analytics.table.model.AnalyticsTablePartition;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.commons.util.SystemUtils;
@@ -74,6 +81,10 @@ public class DefaultAnalyticsTableService implements AnalyticsTableService {
 
   private final SqlBuilder sqlBuilder;
 
+  private final ParquetTableExporter parquetExporter;
+
+  private final MaintenanceScheduler maintenanceScheduler = new MaintenanceScheduler();
+
   @Override
   public AnalyticsTableType getAnalyticsTableType() {
     return tableManager.getAnalyticsTableType();
@@ -148,12 +159,21 @@ public class DefaultAnalyticsTableService implements AnalyticsTableService {
     tableUpdates += applyAggregationLevels(tableType, partitions, progress);
     clock.logTime("Applied aggregation levels");
 
+    if (params.isIncrementalUpdate() && tableManager.supportsIncrementalUpdate()) {
+      progress.startingStage("Merging changed data into analytics tables " + tableType);
+      List<String> mergedPartitions =
+          progress.runStage(List.of(), () -> mergeTables(params, tables));
+      exportMergedTables(tables, mergedPartitions, progress);
+      clock.logTime("Table incremental update done: '{}'", tableType.getTableName());
+      return;
+    }
+
     List<Index> indexes = getIndexes(partitions);
     int indexSize = indexes.size();
 
     progress.startingStage(
         "Creating " + indexSize + " indexes " + tableType, indexSize, SKIP_ITEM_OUTLIER);
-    createIndexes(indexes, progress);
+    createIndexes(partitions, indexes, progress);
     clock.logTime("Created indexes");
 
     if (tableUpdates > 0 && sqlBuilder.supportsVacuum()) {
@@ -174,6 +194,14 @@ public class DefaultAnalyticsTableService implements AnalyticsTableService {
 
     swapTables(params, tables, progress);
 
+    exportTables(params, tables, partitions, progress);
+
+    if (!params.isLatestUpdate()) {
+      progress.startingStage("Removing applied change log entries " + tableType, SKIP_STAGE);
+      progress.runStage(() -> tableManager.removeChangeLog(params, tables));
+      clock.logTime("Removed applied change log entries");
+    }
+
     clock.logTime("Table update done: '{}'", tableType.getTableName());
   }
 
@@ -279,36 +307,99 @@ public class DefaultAnalyticsTableService implements AnalyticsTableService {
   }
 
   /**
-   * Creates indexes on the given tables.
+   * Creates indexes on the given tables. The largest indexes are created first, where the size of
+   * each index is estimated from the size of its table and the data types of its columns.
    *
+   * @param partitions the list of {@link AnalyticsTablePartition}.
    * @param indexes the list of {@link Index}.
    * @param progress the {@link JobProgress}.
    */
-  private void createIndexes(List<Index> indexes, JobProgress progress) {
-    progress.runStageInParallel(
-        getParallelJobs(), indexes, index -> index.getName(), tableManager::createIndex);
+  private void createIndexes(
+      List<AnalyticsTablePartition> partitions, List<Index> indexes, JobProgress progress) {
+    int parallelJobs = getParallelJobs();
+    Map<String, Long> sizes =
+        tableManager.getTableSizes(indexes.stream().map(Index::getTableName).distinct().toList());
+    Map<String, List<AnalyticsTableColumn>> columns = new HashMap<>();
+    partitions.forEach(
+        p -> columns.put(p.getName(), p.getMasterTable().getAnalyticsTableColumns()));
+
+    List<Task<Index>> tasks =
+        indexes.stream()
+            .map(
+                index ->
+                    new Task<>(
+                        index,
+                        index.getName(),
+                        index.getTableName(),
+                        MaintenanceScheduler.estimateIndexSize(
+                            sizes.getOrDefault(index.getTableName(), 0L),
+                            columns.getOrDefault(index.getTableName(), List.of()),
+                            index.getColumns())))
+            .toList();
+
+    maintenanceScheduler.runStage(
+        progress,
+        "index",
+        parallelJobs,
+        tasks,
+        index ->
+            tableManager.createIndex(
+                index, sizes.getOrDefault(index.getTableName(), 0L), parallelJobs));
   }
 
   /**
-   * Vacuums the given tables.
+   * Vacuums the given tables. The largest tables are vacuumed first.
    *
    * @param tables the list of {@link Table}.
    * @param progress the {@link JobProgress}.
    */
   private void vacuumTables(List<? extends Table> tables, JobProgress progress) {
-    progress.runStageInParallel(
-        getParallelJobs(), tables, Table::getName, tableManager::vacuumTable);
+    maintenanceScheduler.runStage(
+        progress, "vacuum", getParallelJobs(), getTableTasks(tables), tableManager::vacuumTable);
   }
 
   /**
-   * Analyzes the given tables.
+   * Analyzes the given tables. The largest tables are analyzed first.
    *
    * @param tables the list of {@link Table}.
    * @param progress the {@link JobProgress}.
    */
   private void analyzeTables(List<? extends Table> tables, JobProgress progress) {
-    progress.runStageInParallel(
-        getParallelJobs(), tables, Table::getName, tableManager::analyzeTable);
+    maintenanceScheduler.runStage(
+        progress, "analyze", getParallelJobs(), getTableTasks(tables), tableManager::analyzeTable);
+  }
+
+  /**
+   * Returns a list of maintenance tasks for the given tables, where the cost of each task is the
+   * table size.
+   *
+   * @param tables the list of {@link Table}.
+   * @return a list of {@link Task}.
+   */
+  private List<Task<Table>> getTableTasks(List<? extends Table> tables) {
+    Map<String, Long> sizes =
+        tableManager.getTableSizes(tables.stream().map(Table::getName).toList());
+
+    return tables.stream()
+        .map(
+            table -> {
+              String name = table.getName();
+              return new Task<Table>(table, name, name, sizes.getOrDefault(name, 0L));
+            })
+        .toList();
+  }
+
+  /**
+   * Merges the given staging tables into the existing analytics tables, for incremental updates.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param tables the list of {@link AnalyticsTable}.
+   * @return the names of the table partitions into which data was merged.
+   */
+  private List<String> mergeTables(AnalyticsTableUpdateParams params, List<AnalyticsTable> tables) {
+    return tables.stream()
+        .flatMap(table -> tableManager.mergeTable(params, table).stream())
+        .toList();
   }
 
   /**
@@ -329,6 +420,116 @@ public class DefaultAnalyticsTableService implements AnalyticsTableService {
     resourceTableService.createAllSqlViews(progress);
   }
 
+  /**
+   * Exports the given analytics table partitions to Parquet files, if enabled. A full update also
+   * removes the files of partitions which no longer exist. A "latest" partition update which is
+   * not incremental removes updated data from all partitions, so the files of the tables are
+   * removed instead, and are exported again by the next full or partial update. The views of the
+   * tables are registered again after export or removal.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param tables the list of {@link AnalyticsTable}.
+   * @param partitions the list of {@link AnalyticsTablePartition}.
+   * @param progress the {@link JobProgress}.
+   */
+  private void exportTables(
+      AnalyticsTableUpdateParams params,
+      List<AnalyticsTable> tables,
+      List<AnalyticsTablePartition> partitions,
+      JobProgress progress) {
+    if (!parquetExporter.isEnabled()) {
+      return;
+    }
+
+    AnalyticsTableType tableType = getAnalyticsTableType();
+
+    if (params.isLatestUpdate()) {
+      progress.startingStage("Removing Parquet files " + tableType, SKIP_STAGE);
+      progress.runStage(
+          () ->
+              tables.forEach(table -> parquetExporter.removeFiles(table.getMainName(), Set.of())));
+      registerParquetTables(progress);
+      return;
+    }
+
+    progress.startingStage(
+        "Exporting " + partitions.size() + " tables to Parquet " + tableType,
+        partitions.size(),
+        SKIP_ITEM);
+    progress.runStageInParallel(
+        getParallelJobs(),
+        partitions,
+        AnalyticsTablePartition::getMainName,
+        parquetExporter::exportPartition);
+
+    if (!params.isPartialUpdate()) {
+      progress.startingStage("Removing obsolete Parquet files " + tableType, SKIP_STAGE);
+      progress.runStage(
+          () ->
+              tables.forEach(
+                  table ->
+                      parquetExporter.removeFiles(
+                          table.getMainName(), getPartitionNames(table, partitions))));
+    }
+
+    registerParquetTables(progress);
+  }
+
+  /**
+   * Exports the table partitions into which changed data was merged by an incremental update to
+   * Parquet files, if enabled. The partitions are read from the main tables.
+   *
+   * @param tables the list of {@link AnalyticsTable}.
+   * @param partitions the names of the merged partitions.
+   * @param progress the {@link JobProgress}.
+   */
+  private void exportMergedTables(
+      List<AnalyticsTable> tables, List<String> partitions, JobProgress progress) {
+    if (!parquetExporter.isEnabled() || tables.isEmpty() || partitions.isEmpty()) {
+      return;
+    }
+
+    String tableName = tables.get(0).getMainName();
+
+    progress.startingStage(
+        "Exporting " + partitions.size() + " merged tables to Parquet " + getAnalyticsTableType(),
+        partitions.size(),
+        SKIP_ITEM);
+    progress.runStageInParallel(
+        getParallelJobs(),
+        partitions,
+        partition -> partition,
+        partition -> parquetExporter.exportPartition(tableName, partition));
+
+    registerParquetTables(progress);
+  }
+
+  /**
+   * Registers the exported Parquet tables for queries, so that views of exported partitions are
+   * added and views of removed partitions are dropped.
+   *
+   * @param progress the {@link JobProgress}.
+   */
+  private void registerParquetTables(JobProgress progress) {
+    progress.startingStage("Registering Parquet tables " + getAnalyticsTableType(), SKIP_STAGE);
+    progress.runStage(parquetExporter::registerTables);
+  }
+
+  /**
+   * Returns the main names of the given partitions which belong to the given table.
+   *
+   * @param table the {@link AnalyticsTable}.
+   * @param partitions the list of {@link AnalyticsTablePartition}.
+   * @return a set of partition names.
+   */
+  private Set<String> getPartitionNames(
+      AnalyticsTable table, List<AnalyticsTablePartition> partitions) {
+    return partitions.stream()
+        .filter(partition -> partition.getMasterTable() == table)
+        .map(AnalyticsTablePartition::getMainName)
+        .collect(Collectors.toSet());
+  }
+
   /**
    * Returns a list of table partitions based on the given analytics tables. For master tables with
    * no partitions, a fake partition representing the master table is used.
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.analytics.table;
 
+import static java.util.stream.Collectors.joining;
 import static org.hisp.dhis.analytics.table.model.AnalyticsValueType.FACT;
 import static org.hisp.dhis.analytics.table.util.PartitionUtils.getLatestTablePartition;
 import static org.hisp.dhis.commons.util.TextUtils.format;
@@ -84,6 +85,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 
 /**
  * This class manages the analytics tables. The analytics table is a denormalized table designed for
@@ -104,6 +106,13 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service("org.hisp.dhis.analytics.AnalyticsTableManager")
 public class JdbcAnalyticsTableManager extends AbstractJdbcTableManager {
+  /** Key of the upper bound of change log entries to apply in an incremental update. */
+  private static final String MAX_CHANGE_ID_KEY = "maxChangeId";
+
+  /** Names of the triggers which capture changed data values in the change log. */
+  private static final List<String> CHANGE_LOG_TRIGGERS =
+      List.of("datavalue_change_insert", "datavalue_change_update", "datavalue_change_delete");
+
   private static final List<AnalyticsTableColumn> FIXED_COLS =
       List.of(
           AnalyticsTableColumn.builder()
@@ -202,10 +211,16 @@ public class JdbcAnalyticsTableManager extends AbstractJdbcTableManager {
   @Override
   @Transactional
   public List<AnalyticsTable> getAnalyticsTables(AnalyticsTableUpdateParams params) {
-    AnalyticsTable table =
-        params.isLatestUpdate()
-            ? getLatestAnalyticsTable(params, getColumns(params))
-            : getRegularAnalyticsTable(params, getDataYears(params), getColumns(params));
+    AnalyticsTable table;
+
+    if (params.isIncrementalUpdate() && supportsIncrementalUpdate()) {
+      table = getIncrementalAnalyticsTable(params, getColumns(params));
+    } else if (params.isLatestUpdate()) {
+      disableChangeLog();
+      table = getLatestAnalyticsTable(params, getColumns(params));
+    } else {
+      table = getRegularAnalyticsTable(params, getDataYears(params), getColumns(params));
+    }
 
     return table.hasTablePartitions() ? List.of(table) : List.of();
   }
@@ -260,6 +275,159 @@ public class JdbcAnalyticsTableManager extends AbstractJdbcTableManager {
     invokeTimeAndLog(sql, "Remove updated data values");
   }
 
+  /**
+   * Incremental updates are supported when partitions are separate tables in the same database as
+   * the data value change log, i.e. when declarative partitioning is not used.
+   */
+  @Override
+  public boolean supportsIncrementalUpdate() {
+    return !sqlBuilder.supportsDeclarativePartitioning();
+  }
+
+  /**
+   * Merges the changed data in a single transaction, so that readers never see changed rows
+   * removed but not yet inserted. Years without an existing table partition are skipped and
+   * their change log entries are kept, so that the changes are not lost before the next full
+   * update.
+   */
+  @Override
+  public List<String> mergeTable(AnalyticsTableUpdateParams params, AnalyticsTable table) {
+    String tableName = getTableName();
+    String maxChangeId = String.valueOf(getMaxChangeId(params));
+    List<Integer> years =
+        jdbcTemplate.queryForList(
+            replace(
+                """
+                select distinct ps.year from datavaluechangelog cl \
+                inner join analytics_rs_periodstructure ps on cl.periodid=ps.periodid \
+                where cl.changeid <= ${maxChangeId};""",
+                Map.of("maxChangeId", maxChangeId)),
+            Integer.class);
+    List<Integer> mergedYears = new ArrayList<>();
+
+    for (Integer year : years) {
+      String partitionName = tableName + "_" + year;
+
+      if (tableExists(partitionName)) {
+        mergedYears.add(year);
+      } else {
+        log.warn(
+            "Table partition does not exist: '{}', changed data is included in next full update",
+            partitionName);
+      }
+    }
+
+    if (!mergedYears.isEmpty()) {
+      invokeInTransaction(
+          getMergeStatements(table, tableName, maxChangeId, mergedYears),
+          "Merged changed data into table: '{}' for years: {}",
+          tableName,
+          mergedYears);
+    }
+
+    dropTable(table);
+
+    return mergedYears.stream().map(year -> tableName + "_" + year).toList();
+  }
+
+  /**
+   * Returns the statements which merge the changed data of the given years into the existing table
+   * partitions. The statements remove the changed rows, insert the rows of the staging table and
+   * remove the applied change log entries.
+   *
+   * @param table the staging {@link AnalyticsTable}.
+   * @param tableName the name of the existing table.
+   * @param maxChangeId the upper bound of the change log entries to apply.
+   * @param years the years to merge.
+   * @return a list of SQL statements.
+   */
+  private List<String> getMergeStatements(
+      AnalyticsTable table, String tableName, String maxChangeId, List<Integer> years) {
+    String yearList = years.stream().map(String::valueOf).collect(joining(","));
+    String columns = getMergeColumns(table, tableName);
+    List<String> statements = new ArrayList<>();
+
+    statements.add(
+        replace(
+            """
+            delete from ${tableName} ax \
+            where ax.id in ( \
+            select concat(de.uid,'-',ps.iso,'-',ou.uid,'-',co.uid,'-',ao.uid) as id \
+            from datavaluechangelog cl \
+            inner join dataelement de on cl.dataelementid=de.dataelementid \
+            inner join analytics_rs_periodstructure ps on cl.periodid=ps.periodid \
+            inner join organisationunit ou on cl.sourceid=ou.organisationunitid \
+            inner join categoryoptioncombo co on cl.categoryoptioncomboid=co.categoryoptioncomboid \
+            inner join categoryoptioncombo ao on cl.attributeoptioncomboid=ao.categoryoptioncomboid \
+            where cl.changeid <= ${maxChangeId} \
+            and ps.year in (${years}));""",
+            Map.of("tableName", quote(tableName), "maxChangeId", maxChangeId, "years", yearList)));
+
+    for (AnalyticsTablePartition partition : table.getTablePartitions()) {
+      for (Integer year : years) {
+        statements.add(
+            replace(
+                """
+                insert into ${partitionName} (${columns}) \
+                select ${columns} from ${stagingName} \
+                where year = ${year};""",
+                Map.of(
+                    "partitionName", quote(tableName + "_" + year),
+                    "columns", columns,
+                    "stagingName", quote(partition.getName()),
+                    "year", String.valueOf(year))));
+      }
+    }
+
+    statements.add(
+        replace(
+            """
+            delete from datavaluechangelog cl \
+            using analytics_rs_periodstructure ps \
+            where cl.periodid=ps.periodid \
+            and cl.changeid <= ${maxChangeId} \
+            and ps.year in (${years});""",
+            Map.of("maxChangeId", maxChangeId, "years", yearList)));
+
+    return statements;
+  }
+
+  @Override
+  public void removeChangeLog(AnalyticsTableUpdateParams params, List<AnalyticsTable> tables) {
+    if (!supportsIncrementalUpdate()) {
+      return;
+    }
+
+    String startTime = toLongDate(params.getStartTime());
+    String sql;
+
+    if (params.isPartialUpdate()) {
+      List<String> years =
+          tables.stream()
+              .flatMap(table -> table.getTablePartitions().stream())
+              .map(partition -> String.valueOf(partition.getYear()))
+              .toList();
+
+      if (years.isEmpty()) {
+        return;
+      }
+
+      sql =
+          replace(
+              """
+              delete from datavaluechangelog cl \
+              using analytics_rs_periodstructure ps \
+              where cl.periodid=ps.periodid \
+              and ps.year in (${years}) \
+              and cl.created < '${startTime}';""",
+              Map.of("years", String.join(",", years), "startTime", startTime));
+    } else {
+      sql = format("delete from datavaluechangelog where created < '{}';", startTime);
+    }
+
+    invokeTimeAndLog(sql, "Removed change log entries covered by table update");
+  }
+
   @Override
   protected List<String> getPartitionChecks(Integer year, Date endDate) {
     Objects.requireNonNull(year);
@@ -341,7 +509,7 @@ public class JdbcAnalyticsTableManager extends AbstractJdbcTableManager {
             SettingKey.RESPECT_META_DATA_START_END_DATES_IN_ANALYTICS_TABLE_EXPORT);
     String approvalSelectExpression = getApprovalSelectExpression(partition.getYear());
     String approvalClause = getApprovalJoinClause(partition.getYear());
-    String partitionClause = getPartitionClause(partition);
+    String partitionClause = getPartitionClause(params, partition);
 
     StringBuilder sql =
         new StringBuilder(replace("insert into ${tableName} (", Map.of("tableName", tableName)));
@@ -472,12 +640,28 @@ public class JdbcAnalyticsTableManager extends AbstractJdbcTableManager {
   }
 
   /**
-   * Returns a partition SQL clause.
+   * Returns a partition SQL clause. For incremental updates, the clause restricts data to keys which
+   * are present in the change log.
    *
+   * @param params the {@link AnalyticsTableUpdateParams}.
    * @param partition the {@link AnalyticsTablePartition}.
    * @return a partition SQL clause.
    */
-  private String getPartitionClause(AnalyticsTablePartition partition) {
+  private String getPartitionClause(
+      AnalyticsTableUpdateParams params, AnalyticsTablePartition partition) {
+    if (params.isIncrementalUpdate()) {
+      return replace(
+          """
+          and exists (select 1 from datavaluechangelog cl \
+          where cl.dataelementid=dv.dataelementid \
+          and cl.periodid=dv.periodid \
+          and cl.sourceid=dv.sourceid \
+          and cl.categoryoptioncomboid=dv.categoryoptioncomboid \
+          and cl.attributeoptioncomboid=dv.attributeoptioncomboid \
+          and cl.changeid <= ${maxChangeId})\s""",
+          Map.of("maxChangeId", String.valueOf(getMaxChangeId(params))));
+    }
+
     String latestFilter =
         format("and dv.lastupdated >= '{}' ", toLongDate(partition.getStartDate()));
     String partitionFilter = format("and ps.year = {} ", partition.getYear());
@@ -485,6 +669,165 @@ public class JdbcAnalyticsTableManager extends AbstractJdbcTableManager {
     return partition.isLatestPartition() ? latestFilter : partitionFilter;
   }
 
+  /**
+   * Creates a {@link AnalyticsTable} with a partition for incremental updates, which holds data for
+   * the keys in the change log. The partition is only added if the change log has entries. The
+   * upper bound of entries to apply is recorded in the given parameters, so that entries added
+   * during the update are left for the next update.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @param columns the list of {@link AnalyticsTableColumn}.
+   */
+  private AnalyticsTable getIncrementalAnalyticsTable(
+      AnalyticsTableUpdateParams params, List<AnalyticsTableColumn> columns) {
+    Date lastFullTableUpdate =
+        systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE);
+
+    Assert.notNull(
+        lastFullTableUpdate,
+        "A full analytics table update must be run prior to an incremental update");
+
+    enableChangeLog(lastFullTableUpdate);
+
+    Long maxChangeId =
+        jdbcTemplate.queryForObject("select max(changeid) from datavaluechangelog;", Long.class);
+
+    AnalyticsTable table =
+        new AnalyticsTable(
+            getAnalyticsTableType(), columns, analyticsTableSettings.getTableLogged());
+
+    if (maxChangeId != null) {
+      params.addExtraParam("", MAX_CHANGE_ID_KEY, maxChangeId);
+      table.addTablePartition(
+          List.of(),
+          AnalyticsTablePartition.LATEST_PARTITION,
+          lastFullTableUpdate,
+          params.getStartTime());
+      log.info("Added incremental analytics partition with changes up to: '{}'", maxChangeId);
+    } else {
+      log.info("No changed data found in data value change log");
+    }
+
+    return table;
+  }
+
+  /**
+   * Enables the capture of changed data values in the change log, unless already enabled. The
+   * change log is seeded with the keys of data values updated since the given date, so that changes
+   * made before the capture was enabled are included in the next incremental update.
+   *
+   * @param since the date of the last full analytics table update.
+   */
+  private void enableChangeLog(Date since) {
+    if (isChangeLogEnabled()) {
+      return;
+    }
+
+    dropChangeLogTriggers();
+
+    jdbcTemplate.execute(
+        """
+        create trigger datavalue_change_insert after insert on datavalue \
+        referencing new table as newrows \
+        for each statement execute function dhis2_capture_datavalue_change();""");
+    jdbcTemplate.execute(
+        """
+        create trigger datavalue_change_update after update on datavalue \
+        referencing old table as oldrows new table as newrows \
+        for each statement execute function dhis2_capture_datavalue_change();""");
+    jdbcTemplate.execute(
+        """
+        create trigger datavalue_change_delete after delete on datavalue \
+        referencing old table as oldrows \
+        for each statement execute function dhis2_capture_datavalue_change();""");
+
+    String sql =
+        replace(
+            """
+            insert into datavaluechangelog (dataelementid, periodid, sourceid, \
+            categoryoptioncomboid, attributeoptioncomboid) \
+            select dataelementid, periodid, sourceid, \
+            categoryoptioncomboid, attributeoptioncomboid \
+            from datavalue \
+            where lastupdated >= '${since}';""",
+            Map.of("since", toLongDate(since)));
+
+    invokeTimeAndLog(sql, "Enabled data value change log");
+  }
+
+  /**
+   * Disables the capture of changed data values and removes the change log, if enabled. The change
+   * log is only used by incremental updates, so data value writes should not pay for the capture
+   * when the "latest" partition is rebuilt instead.
+   */
+  private void disableChangeLog() {
+    if (!supportsIncrementalUpdate() || !isChangeLogEnabled()) {
+      return;
+    }
+
+    dropChangeLogTriggers();
+
+    invokeTimeAndLog("truncate table datavaluechangelog;", "Disabled data value change log");
+  }
+
+  /** Drops the triggers which capture changed data values, if they exist. */
+  private void dropChangeLogTriggers() {
+    for (String trigger : CHANGE_LOG_TRIGGERS) {
+      jdbcTemplate.execute(format("drop trigger if exists {} on datavalue;", trigger));
+    }
+  }
+
+  /**
+   * Indicates whether all triggers which capture changed data values exist.
+   *
+   * @return true if the data value change log is enabled.
+   */
+  private boolean isChangeLogEnabled() {
+    Integer count =
+        jdbcTemplate.queryForObject(
+            "select count(*) from pg_trigger where tgname in (?, ?, ?);",
+            Integer.class,
+            CHANGE_LOG_TRIGGERS.toArray());
+
+    return count != null && count == CHANGE_LOG_TRIGGERS.size();
+  }
+
+  /**
+   * Returns the upper bound of change log entries to apply in an incremental update.
+   *
+   * @param params the {@link AnalyticsTableUpdateParams}.
+   * @return the upper bound change log identifier.
+   */
+  private Long getMaxChangeId(AnalyticsTableUpdateParams params) {
+    Long maxChangeId = (Long) params.getExtraParam("", MAX_CHANGE_ID_KEY);
+    Assert.notNull(maxChangeId, "Change log upper bound is not set for incremental update");
+    return maxChangeId;
+  }
+
+  /**
+   * Returns the quoted and comma separated names of the columns of the given staging table which
+   * are present in the given existing table. Columns may differ when metadata has changed since the
+   * last full analytics table update.
+   *
+   * @param table the {@link AnalyticsTable}.
+   * @param tableName the name of the existing table.
+   * @return the quoted and comma separated column names.
+   */
+  private String getMergeColumns(AnalyticsTable table, String tableName) {
+    Set<String> existingColumns =
+        Set.copyOf(
+            jdbcTemplate.queryForList(
+                "select column_name from information_schema.columns where table_name = ?;",
+                String.class,
+                tableName));
+
+    return table.getAnalyticsTableColumns().stream()
+        .map(AnalyticsTableColumn::getName)
+        .filter(existingColumns::contains)
+        .map(this::quote)
+        .collect(joining(","));
+  }
+
   private List<AnalyticsTableColumn> getColumns(AnalyticsTableUpdateParams params) {
     String idColAlias =
         "concat(des.dataelementuid,'-',ps.iso,'-',ous.organisationunituid,'-',dcs.categoryoptioncombouid,'-',acs.categoryoptioncombouid) as id ";
@@ -149,6 +149,7 @@ public class JdbcEventAnalyticsTableManager extends AbstractEventJdbcTableManage
               .name("occurreddate")
               .dataType(TIMESTAMP)
               .selectExpression("ev.occurreddate")
+              .indexColumns(List.of("occurreddate", "event"))
               .build(),
           AnalyticsTableColumn.builder()
               .name("scheduleddate")
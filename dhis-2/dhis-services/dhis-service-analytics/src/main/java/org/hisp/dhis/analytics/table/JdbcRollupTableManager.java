@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table;
+
+import static java.util.stream.Collectors.joining;
+import static org.hisp.dhis.commons.util.TextUtils.replace;
+import static org.hisp.dhis.db.model.DataType.CHARACTER_11;
+import static org.hisp.dhis.db.model.DataType.DOUBLE;
+import static org.hisp.dhis.db.model.DataType.INTEGER;
+import static org.hisp.dhis.db.model.DataType.TEXT;
+import static org.hisp.dhis.db.model.Table.toStaging;
+import static org.hisp.dhis.db.model.constraint.Nullable.NOT_NULL;
+import static org.hisp.dhis.system.util.SqlUtils.appendRandom;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.common.TableInfoReader;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
+import org.hisp.dhis.db.model.Column;
+import org.hisp.dhis.db.model.Index;
+import org.hisp.dhis.db.model.Table;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.system.util.Clock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Manager for rollup tables, which hold data of the analytics table pre-aggregated to a set of
+ * organisation unit levels and period types. Rollup tables are generated from finest to coarsest
+ * granularity, where each rollup table is populated from the smallest previously generated rollup
+ * table which has all required columns, or from the analytics table if none exists.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JdbcRollupTableManager {
+  private final AnalyticsTableSettings analyticsTableSettings;
+
+  private final TableInfoReader tableInfoReader;
+
+  @Qualifier("analyticsJdbcTemplate")
+  private final JdbcTemplate jdbcTemplate;
+
+  private final SqlBuilder sqlBuilder;
+
+  /**
+   * Returns the configured rollup tables ordered from finest to coarsest granularity. Rollup tables
+   * which refer to columns not present in the analytics table are excluded.
+   *
+   * @return a list of {@link AnalyticsRollup}.
+   */
+  public List<AnalyticsRollup> getRollups() {
+    List<AnalyticsRollup> rollups = new ArrayList<>(analyticsTableSettings.getRollups());
+
+    if (rollups.isEmpty()) {
+      return rollups;
+    }
+
+    Set<String> columns =
+        tableInfoReader.getInfo(AnalyticsTableType.DATA_VALUE.getTableName()).getColumns();
+
+    rollups.removeIf(
+        rollup -> {
+          boolean missingColumns = !columns.containsAll(rollup.getDimensionColumns());
+
+          if (missingColumns) {
+            log.warn(
+                "Skipping rollup table: '{}', analytics table is missing columns",
+                rollup.getTableName());
+          }
+
+          return missingColumns;
+        });
+
+    Collections.reverse(rollups);
+
+    return rollups;
+  }
+
+  /**
+   * Generates the given rollup table. The rollup table is populated from the smallest of the given
+   * rollup tables which has all required columns, or from the analytics table if none exists. If
+   * generation fails, the existing rollup table is dropped, as it would no longer match the
+   * analytics table.
+   *
+   * @param rollup the {@link AnalyticsRollup} to generate.
+   * @param generated the list of {@link AnalyticsRollup} generated in this update.
+   */
+  public void generateRollupTable(AnalyticsRollup rollup, Collection<AnalyticsRollup> generated) {
+    Clock clock = new Clock().startClock();
+    String tableName = rollup.getTableName();
+    String sourceName = getSourceTableName(rollup, generated);
+    Table table =
+        new Table(
+            toStaging(tableName),
+            getColumns(rollup),
+            List.of(),
+            analyticsTableSettings.getTableLogged());
+
+    try {
+      jdbcTemplate.execute(sqlBuilder.dropTableIfExists(table));
+      jdbcTemplate.execute(sqlBuilder.createTable(table));
+      jdbcTemplate.execute(getPopulateSql(rollup, table, sourceName));
+      jdbcTemplate.execute(sqlBuilder.createIndex(getIndex(rollup, table)));
+
+      if (sqlBuilder.supportsAnalyze()) {
+        jdbcTemplate.execute(sqlBuilder.analyzeTable(table));
+      }
+
+      jdbcTemplate.execute(sqlBuilder.swapTable(table, tableName));
+    } catch (RuntimeException ex) {
+      jdbcTemplate.execute(sqlBuilder.dropTableIfExists(tableName));
+      throw ex;
+    }
+
+    log.info(
+        "Rollup table update done: '{}' from source: '{}' {}", tableName, sourceName, clock.time());
+  }
+
+  /**
+   * Returns the name of the table from which to populate the given rollup table.
+   *
+   * @param rollup the {@link AnalyticsRollup}.
+   * @param generated the list of {@link AnalyticsRollup} generated in this update.
+   * @return the source table name.
+   */
+  String getSourceTableName(AnalyticsRollup rollup, Collection<AnalyticsRollup> generated) {
+    return generated.stream()
+        .filter(source -> source.hasColumns(rollup.getDimensionColumns()))
+        .min(AnalyticsRollup.COARSEST_FIRST)
+        .map(AnalyticsRollup::getTableName)
+        .orElse(AnalyticsTableType.DATA_VALUE.getTableName());
+  }
+
+  /**
+   * Returns the SQL statement for populating the given rollup table.
+   *
+   * @param rollup the {@link AnalyticsRollup}.
+   * @param table the staging {@link Table}.
+   * @param sourceName the name of the source table.
+   * @return the SQL statement.
+   */
+  String getPopulateSql(AnalyticsRollup rollup, Table table, String sourceName) {
+    String columns =
+        rollup.getDimensionColumns().stream().map(sqlBuilder::quote).collect(joining(","));
+
+    return replace(
+        """
+        insert into ${tableName} (${columns},value) \
+        select ${columns},sum(value) as value \
+        from ${sourceName} \
+        where value is not null \
+        group by ${columns};""",
+        Map.of(
+            "tableName", sqlBuilder.quote(table.getName()),
+            "columns", columns,
+            "sourceName", sqlBuilder.quote(sourceName)));
+  }
+
+  /**
+   * Returns the columns of the given rollup table.
+   *
+   * @param rollup the {@link AnalyticsRollup}.
+   * @return a list of {@link Column}.
+   */
+  private List<Column> getColumns(AnalyticsRollup rollup) {
+    List<Column> columns = new ArrayList<>();
+    columns.add(new Column("dx", CHARACTER_11, NOT_NULL));
+    columns.add(new Column("co", CHARACTER_11, NOT_NULL));
+    columns.add(new Column("ao", CHARACTER_11, NOT_NULL));
+    columns.add(new Column("approvallevel", INTEGER));
+    columns.add(new Column("year", INTEGER, NOT_NULL));
+    rollup.getPeriodColumns().forEach(column -> columns.add(new Column(column, TEXT)));
+    rollup.getLevelColumns().forEach(column -> columns.add(new Column(column, CHARACTER_11)));
+    columns.add(new Column("value", DOUBLE));
+    return columns;
+  }
+
+  /**
+   * Returns the index on the data element column of the given rollup table.
+   *
+   * @param rollup the {@link AnalyticsRollup}.
+   * @param table the staging {@link Table}.
+   * @return an {@link Index}.
+   */
+  private Index getIndex(AnalyticsRollup rollup, Table table) {
+    return Index.builder()
+        .name(appendRandom("in_" + rollup.getTableName() + "_dx"))
+        .tableName(table.getName())
+        .columns(List.of("dx"))
+        .build();
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.hisp.dhis.analytics.table.model.AnalyticsTableColumn;
+import org.hisp.dhis.db.model.DataType;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.system.util.Clock;
+
+/**
+ * Schedules maintenance work on analytics tables, such as index creation, vacuum and analyze,
+ * across a number of parallel jobs. Work items are started in order of descending cost, so that
+ * the most expensive items do not end up running alone at the end of the stage. Work items of
+ * equal cost are interleaved across tables. The observed throughput is recorded per kind of work
+ * and is used to estimate the duration of subsequent stages of the same kind.
+ */
+@Slf4j
+class MaintenanceScheduler {
+  /** Estimated width in bytes of the header and line pointer of a table row. */
+  private static final int ROW_OVERHEAD = 28;
+
+  /** Estimated width in bytes of the header and line pointer of an index entry. */
+  private static final int ENTRY_OVERHEAD = 12;
+
+  /** Observed throughput per kind of work, in cost units per millisecond per job. */
+  private final Map<String, Double> throughput = new ConcurrentHashMap<>();
+
+  /**
+   * A unit of maintenance work.
+   *
+   * @param item the item to process.
+   * @param name the name of the work item.
+   * @param table the name of the table which the work item applies to.
+   * @param cost the estimated cost of the work item, typically the size in bytes of the table or
+   *     index which the work item produces or processes.
+   */
+  record Task<T>(T item, String name, String table, long cost) {}
+
+  /**
+   * Runs the given tasks as the current stage of the given {@link JobProgress} through {@link
+   * JobProgress#runStageInParallel}, which starts the tasks in order of descending cost. The stage
+   * must have been started by the caller and is completed by this method.
+   *
+   * @param <T> the item type.
+   * @param progress the {@link JobProgress}.
+   * @param kind the kind of work, used to record the observed throughput.
+   * @param parallelism the number of parallel jobs.
+   * @param tasks the list of {@link Task}.
+   * @param work the work to perform for each item.
+   */
+  <T> void runStage(
+      JobProgress progress, String kind, int parallelism, List<Task<T>> tasks, Consumer<T> work) {
+    List<Task<T>> ordered = order(tasks);
+    int jobs = Math.max(1, Math.min(parallelism, ordered.size()));
+    long totalCost = ordered.stream().mapToLong(Task::cost).sum();
+    String estimate = getEstimate(kind, ordered, jobs);
+    AtomicInteger success = new AtomicInteger();
+
+    Clock clock = new Clock().startClock();
+
+    progress.runStageInParallel(
+        jobs,
+        ordered,
+        Task::name,
+        task -> {
+          work.accept(task.item());
+          success.incrementAndGet();
+        });
+
+    long elapsed = clock.getTime();
+
+    if (success.get() == ordered.size()) {
+      recordThroughput(kind, totalCost, elapsed, jobs);
+      log.info(
+          "Completed {} of {} items, estimated: {}, actual: {}",
+          kind,
+          success,
+          estimate,
+          DurationFormatUtils.formatDurationHMS(elapsed));
+    }
+  }
+
+  /**
+   * Orders the given tasks by descending cost. Tasks of equal cost are interleaved across tables,
+   * meaning the first task of each table comes before the second task of any table.
+   *
+   * @param <T> the item type.
+   * @param tasks the list of {@link Task}.
+   * @return an ordered list of {@link Task}.
+   */
+  static <T> List<Task<T>> order(List<Task<T>> tasks) {
+    Map<String, Integer> tableCounts = new HashMap<>();
+    Map<Task<T>, Integer> ordinals = new IdentityHashMap<>();
+
+    for (Task<T> task : tasks) {
+      ordinals.put(task, tableCounts.merge(task.table(), 1, Integer::sum));
+    }
+
+    List<Task<T>> ordered = new ArrayList<>(tasks);
+    ordered.sort(
+        Comparator.<Task<T>>comparingLong(Task::cost)
+            .reversed()
+            .thenComparing(ordinals::get)
+            .thenComparing(Task::table));
+    return ordered;
+  }
+
+  /**
+   * Estimates the duration of processing the given costs across the given number of parallel jobs,
+   * where each cost is assigned to the job which becomes available first.
+   *
+   * @param costs the list of costs, in processing order.
+   * @param jobs the number of parallel jobs.
+   * @param throughput the throughput in cost units per millisecond per job.
+   * @return the estimated duration in milliseconds.
+   */
+  static long estimateDuration(List<Long> costs, int jobs, double throughput) {
+    PriorityQueue<Double> finishTimes = new PriorityQueue<>();
+
+    for (int i = 0; i < Math.max(1, jobs); i++) {
+      finishTimes.add(0d);
+    }
+
+    double duration = 0d;
+
+    for (long cost : costs) {
+      double finish = finishTimes.poll() + cost / throughput;
+      finishTimes.add(finish);
+      duration = Math.max(duration, finish);
+    }
+
+    return Math.round(duration);
+  }
+
+  /**
+   * Estimates the size of an index from the size of its table. The table size is divided by the
+   * estimated width of a table row, which gives the number of rows, and multiplied by the estimated
+   * width of an index entry. Widths are estimated from the data types of the columns. Index columns
+   * which are expressions rather than table columns are estimated as text.
+   *
+   * @param tableSize the table size in bytes.
+   * @param columns the list of {@link AnalyticsTableColumn} of the table.
+   * @param indexColumns the index column names.
+   * @return the estimated index size in bytes.
+   */
+  static long estimateIndexSize(
+      long tableSize, List<AnalyticsTableColumn> columns, List<String> indexColumns) {
+    Map<String, DataType> dataTypes = new HashMap<>();
+    columns.stream()
+        .filter(c -> c.getDataType() != null)
+        .forEach(c -> dataTypes.put(unquote(c.getName()), c.getDataType()));
+
+    long rowWidth =
+        ROW_OVERHEAD + dataTypes.values().stream().mapToLong(MaintenanceScheduler::getWidth).sum();
+    long entryWidth =
+        ENTRY_OVERHEAD
+            + indexColumns.stream()
+                .mapToLong(c -> getWidth(dataTypes.getOrDefault(unquote(c), DataType.TEXT)))
+                .sum();
+
+    return Math.round((double) tableSize * entryWidth / rowWidth);
+  }
+
+  /**
+   * Returns the estimated duration of the given tasks as a formatted string, or "unknown" if no
+   * throughput has been recorded for the given kind of work.
+   *
+   * @param kind the kind of work.
+   * @param tasks the list of {@link Task}.
+   * @param jobs the number of parallel jobs.
+   * @return the estimated duration.
+   */
+  private String getEstimate(String kind, List<? extends Task<?>> tasks, int jobs) {
+    Double rate = throughput.get(kind);
+
+    if (rate == null || rate <= 0) {
+      return "unknown";
+    }
+
+    List<Long> costs = tasks.stream().map(Task::cost).toList();
+    return DurationFormatUtils.formatDurationHMS(estimateDuration(costs, jobs, rate));
+  }
+
+  /**
+   * Records the observed throughput of the given kind of work.
+   *
+   * @param kind the kind of work.
+   * @param totalCost the total cost of the processed tasks.
+   * @param elapsed the elapsed time in milliseconds.
+   * @param jobs the number of parallel jobs.
+   */
+  void recordThroughput(String kind, long totalCost, long elapsed, int jobs) {
+    if (totalCost > 0 && elapsed > 0) {
+      throughput.put(kind, (double) totalCost / (elapsed * jobs));
+    }
+  }
+
+  /**
+   * Returns the estimated width in bytes of a value of the given data type.
+   *
+   * @param dataType the {@link DataType}.
+   * @return the estimated width.
+   */
+  private static int getWidth(DataType dataType) {
+    return switch (dataType) {
+      case BOOLEAN -> 1;
+      case SMALLINT -> 2;
+      case INTEGER, DATE -> 4;
+      case BIGINT, FLOAT, DOUBLE, TIMESTAMP, TIMESTAMPTZ -> 8;
+      case CHARACTER_11 -> 12;
+      case DECIMAL -> 16;
+      case CHARACTER_32, VARCHAR_50, VARCHAR_255, TEXT, GEOMETRY_POINT -> 32;
+      case GEOMETRY, JSONB -> 128;
+    };
+  }
+
+  private static String unquote(String name) {
+    return StringUtils.remove(name, '"');
+  }
+}
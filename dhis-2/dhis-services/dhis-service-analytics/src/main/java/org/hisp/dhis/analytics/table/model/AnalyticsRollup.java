@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table.model;
+
+import static org.hisp.dhis.analytics.DataQueryParams.LEVEL_PREFIX;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.period.PeriodType;
+
+/**
+ * Represents a rollup table, which holds data of the analytics table pre-aggregated by data
+ * element, category option combo, attribute option combo, approval level, organisation unit levels
+ * up to and including a given level and period types of the same or lower frequency as a given
+ * period type.
+ *
+ * <p>A rollup table can answer aggregate queries for which all dimensions and filters refer to
+ * columns of the rollup table.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class AnalyticsRollup {
+  /** Orders rollup tables from fewest to most rows, i.e. from coarsest to finest granularity. */
+  public static final Comparator<AnalyticsRollup> COARSEST_FIRST =
+      Comparator.comparingInt(AnalyticsRollup::getLevel)
+          .thenComparing(r -> r.getPeriodType().getFrequencyOrder(), Comparator.reverseOrder());
+
+  private static final String TABLE_PREFIX = "analytics_rollup_";
+
+  private static final List<String> FIXED_COLUMNS =
+      List.of("dx", "co", "ao", "approvallevel", "year");
+
+  /** The finest organisation unit level. */
+  private final int level;
+
+  /** The period type of highest frequency. */
+  private final PeriodType periodType;
+
+  /** The names of the period type columns. */
+  private final List<String> periodColumns;
+
+  /**
+   * Returns the rollup table name.
+   *
+   * @return the rollup table name.
+   */
+  public String getTableName() {
+    return TABLE_PREFIX + level + "_" + periodType.getName().toLowerCase();
+  }
+
+  /**
+   * Returns the names of the organisation unit level columns.
+   *
+   * @return the names of the organisation unit level columns.
+   */
+  public List<String> getLevelColumns() {
+    List<String> columns = new ArrayList<>();
+
+    for (int i = 1; i <= level; i++) {
+      columns.add(LEVEL_PREFIX + i);
+    }
+
+    return columns;
+  }
+
+  /**
+   * Returns the names of all dimension columns, excluding the value column.
+   *
+   * @return the names of all dimension columns.
+   */
+  public List<String> getDimensionColumns() {
+    List<String> columns = new ArrayList<>(FIXED_COLUMNS);
+    columns.addAll(periodColumns);
+    columns.addAll(getLevelColumns());
+    return columns;
+  }
+
+  /**
+   * Indicates whether this rollup table has all of the given columns.
+   *
+   * @param columns the column names.
+   * @return true if this rollup table has all of the given columns.
+   */
+  public boolean hasColumns(Collection<String> columns) {
+    return getDimensionColumns().containsAll(columns);
+  }
+}
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.analytics.table.scheduling;
 
+import static org.apache.commons.lang3.BooleanUtils.isTrue;
 import static org.apache.commons.lang3.ObjectUtils.firstNonNull;
 import static org.hisp.dhis.util.DateUtils.toLongDate;
 
@@ -121,6 +122,7 @@ public class ContinuousAnalyticsTableJob implements Job {
       AnalyticsTableUpdateParams params =
           AnalyticsTableUpdateParams.newBuilder()
               .withLatestPartition()
+              .withIncrementalUpdate(isTrue(parameters.getIncrementalUpdate()))
               .withSkipResourceTables(true)
               .withSkipOutliers(parameters.getSkipOutliers())
               .withSkipTableTypes(parameters.getSkipTableTypes())
@@ -34,23 +34,37 @@ import static org.hisp.dhis.db.model.Logged.UNLOGGED;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_DATABASE;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_DATABASE_CATALOG;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_DATABASE_DRIVER_FILENAME;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_PARQUET_EXPORT;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_PARQUET_QUERY;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_MAINTENANCE_MEMORY;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_ROLLUP_LEVELS;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_SKIP_COLUMN;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_SKIP_INDEX;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_UNLOGGED;
 import static org.hisp.dhis.setting.SettingKey.ANALYTICS_MAX_PERIOD_YEARS_OFFSET;
+import static org.hisp.dhis.setting.SettingKey.DATABASE_SERVER_CPUS;
+import static org.hisp.dhis.setting.SettingKey.PARALLEL_JOBS_IN_ANALYTICS_TABLE_EXPORT;
 import static org.hisp.dhis.util.ObjectUtils.isNull;
 
 import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
 import org.hisp.dhis.analytics.table.model.Skip;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.db.model.Database;
 import org.hisp.dhis.db.model.Logged;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.springframework.stereotype.Component;
 
@@ -60,6 +74,7 @@ import org.springframework.stereotype.Component;
  *
  * @author maikel arabori
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AnalyticsTableSettings {
@@ -67,6 +82,9 @@ public class AnalyticsTableSettings {
 
   private final SystemSettingManager systemSettings;
 
+  /** Rollup tables parsed from configuration, lazily initialized. */
+  private volatile List<AnalyticsRollup> rollups;
+
   /**
    * Returns the setting indicating whether resource and analytics tables should be logged or
    * unlogged.
@@ -93,6 +111,39 @@ public class AnalyticsTableSettings {
         : systemSettings.getIntSetting(ANALYTICS_MAX_PERIOD_YEARS_OFFSET);
   }
 
+  /**
+   * Returns the number of parallel jobs to use for generating resource and analytics tables. Takes
+   * the following into account, in order of precedence:
+   *
+   * <ul>
+   *   <li>The system setting for parallel jobs in analytics table export, if set.
+   *   <li>The system setting for number of available processors of the database server, if set.
+   *   <li>The number of available processors of the application server, minus 1 if > 2.
+   * </ul>
+   *
+   * @return the number of parallel jobs.
+   */
+  public int getParallelJobs() {
+    Integer parallelJobs =
+        systemSettings.getIntegerSetting(PARALLEL_JOBS_IN_ANALYTICS_TABLE_EXPORT);
+    Integer databaseCpus = systemSettings.getIntegerSetting(DATABASE_SERVER_CPUS);
+    int serverCpus = SystemUtils.getCpuCores();
+
+    if (parallelJobs != null && parallelJobs > 0) {
+      return parallelJobs;
+    }
+
+    if (databaseCpus != null && databaseCpus > 0) {
+      return databaseCpus;
+    }
+
+    if (serverCpus > 2) {
+      return serverCpus - 1;
+    }
+
+    return serverCpus;
+  }
+
   /**
    * Indicates whether an analytics database instance is configured.
    *
@@ -150,6 +201,137 @@ public class AnalyticsTableSettings {
     return toSet(config.getProperty(ANALYTICS_TABLE_SKIP_COLUMN));
   }
 
+  /**
+   * Returns the memory in megabytes available to index creation on analytics tables across all
+   * parallel jobs.
+   *
+   * @return the maintenance memory in megabytes, or 0 if not configured.
+   */
+  public int getMaintenanceMemory() {
+    String value = config.getProperty(ANALYTICS_TABLE_MAINTENANCE_MEMORY);
+    return isBlank(value) ? 0 : Integer.parseInt(value.trim());
+  }
+
+  /**
+   * Indicates whether populated analytics table partitions should be exported to Parquet files.
+   *
+   * @return true if Parquet export is enabled.
+   */
+  public boolean isParquetExport() {
+    return config.isEnabled(ANALYTICS_PARQUET_EXPORT);
+  }
+
+  /**
+   * Indicates whether analytics queries should be answered from exported Parquet files when
+   * possible.
+   *
+   * @return true if Parquet queries are enabled.
+   */
+  public boolean isParquetQuery() {
+    return config.isEnabled(ANALYTICS_PARQUET_QUERY);
+  }
+
+  /**
+   * Returns the configured rollup tables, ordered from coarsest to finest granularity. There is one
+   * rollup table per combination of configured organisation unit level and period type. Period type
+   * columns which are skipped for analytics tables are not included. The configuration is parsed
+   * once, and invalid levels and period types are logged and skipped.
+   *
+   * @return an immutable list of {@link AnalyticsRollup}, empty if rollup tables are not
+   *     configured.
+   */
+  public List<AnalyticsRollup> getRollups() {
+    if (rollups == null) {
+      rollups = List.copyOf(parseRollups());
+    }
+
+    return rollups;
+  }
+
+  /**
+   * Parses the configured rollup tables.
+   *
+   * @return a list of {@link AnalyticsRollup}.
+   */
+  private List<AnalyticsRollup> parseRollups() {
+    List<Integer> levels = getRollupLevels();
+    Set<String> skipColumns = getSkipColumnDimensions();
+    List<AnalyticsRollup> result = new ArrayList<>();
+
+    for (String periodTypeName : toSet(config.getProperty(ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES))) {
+      PeriodType periodType;
+
+      try {
+        periodType = getAndValidatePeriodType(periodTypeName);
+      } catch (IllegalArgumentException ex) {
+        log.warn("Skipping rollup tables: {}", ex.getMessage());
+        continue;
+      }
+
+      List<String> periodColumns =
+          PeriodType.getAvailablePeriodTypes().stream()
+              .filter(pt -> pt.getFrequencyOrder() >= periodType.getFrequencyOrder())
+              .map(pt -> pt.getName().toLowerCase())
+              .filter(name -> !skipColumns.contains(name))
+              .toList();
+
+      for (Integer level : levels) {
+        result.add(new AnalyticsRollup(level, periodType, periodColumns));
+      }
+    }
+
+    result.sort(AnalyticsRollup.COARSEST_FIRST);
+
+    return result;
+  }
+
+  /**
+   * Returns the configured rollup organisation unit levels. Values which are not positive integers
+   * are logged and skipped.
+   *
+   * @return a list of organisation unit levels.
+   */
+  private List<Integer> getRollupLevels() {
+    List<Integer> levels = new ArrayList<>();
+
+    for (String level : toSet(config.getProperty(ANALYTICS_TABLE_ROLLUP_LEVELS))) {
+      int value = NumberUtils.toInt(level, 0);
+
+      if (value > 0) {
+        levels.add(value);
+      } else {
+        log.warn(
+            "Skipping rollup tables: property '{}' has illegal value: '{}'",
+            ANALYTICS_TABLE_ROLLUP_LEVELS.getKey(),
+            level);
+      }
+    }
+
+    return levels;
+  }
+
+  /**
+   * Returns the {@link PeriodType} matching the given name.
+   *
+   * @param name the period type name.
+   * @return the {@link PeriodType}.
+   * @throws IllegalArgumentException if the name does not match a valid period type.
+   */
+  PeriodType getAndValidatePeriodType(String name) {
+    PeriodType periodType = PeriodType.getByNameIgnoreCase(name);
+
+    if (isNull(periodType)) {
+      String message =
+          format(
+              "Property '{}' has illegal value: '{}'",
+              ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES.getKey(),
+              name);
+      throw new IllegalArgumentException(message);
+    }
+
+    return periodType;
+  }
+
   /**
    * Returns the {@link Database} matching the given value.
    *
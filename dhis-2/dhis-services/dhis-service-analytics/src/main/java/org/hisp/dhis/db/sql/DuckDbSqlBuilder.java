@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.db.sql;
+
+import static org.hisp.dhis.commons.util.TextUtils.removeLastComma;
+
+import org.hisp.dhis.db.model.Column;
+import org.hisp.dhis.db.model.Table;
+
+/**
+ * Implementation of {@link SqlBuilder} for DuckDB. DuckDB is used as an embedded, in-process query
+ * engine for analytics tables exported to Parquet files. The SQL dialect of DuckDB is close to
+ * PostgreSQL, so only data types, capabilities and DuckDB specific statements differ.
+ */
+public class DuckDbSqlBuilder extends PostgreSqlBuilder {
+
+  // Data types
+
+  /** Decimal values are stored as double as the DuckDB decimal type has a fixed precision. */
+  @Override
+  public String dataTypeDecimal() {
+    return "double";
+  }
+
+  @Override
+  public String dataTypeDouble() {
+    return "double";
+  }
+
+  @Override
+  public String dataTypeCharacter(int length) {
+    return "varchar";
+  }
+
+  @Override
+  public String dataTypeVarchar(int length) {
+    return "varchar";
+  }
+
+  @Override
+  public String dataTypeText() {
+    return "varchar";
+  }
+
+  /** Geometries are stored in the PostGIS hex encoded well-known binary format. */
+  @Override
+  public String dataTypeGeometry() {
+    return "varchar";
+  }
+
+  @Override
+  public String dataTypeGeometryPoint() {
+    return "varchar";
+  }
+
+  @Override
+  public String dataTypeJson() {
+    return "json";
+  }
+
+  // Capabilities
+
+  @Override
+  public boolean supportsGeospatialData() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsAnalyze() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsVacuum() {
+    return false;
+  }
+
+  @Override
+  public boolean supportsMaintenanceMemory() {
+    return false;
+  }
+
+  @Override
+  public boolean requiresIndexesForAnalytics() {
+    return false;
+  }
+
+  // Statements
+
+  /** Creates a table without constraints, as the table is only used for staging of rows. */
+  @Override
+  public String createTable(Table table) {
+    StringBuilder sql =
+        new StringBuilder("create table ").append(quote(table.getName())).append(" (");
+
+    for (Column column : table.getColumns()) {
+      sql.append(quote(column.getName()) + " ")
+          .append(getDataTypeName(column.getDataType()))
+          .append(COMMA);
+    }
+
+    return removeLastComma(sql).append(");").toString();
+  }
+
+  /**
+   * Returns a statement which writes the given table to a Parquet file at the given path.
+   *
+   * @param name the table name.
+   * @param path the path of the Parquet file.
+   * @return a copy statement.
+   */
+  public String copyToParquet(String name, String path) {
+    return String.format(
+        "copy %s to %s (format parquet, compression zstd);", quote(name), singleQuote(path));
+  }
+
+  /**
+   * Returns a statement which creates or replaces a view with the given name which reads the
+   * Parquet files matching the given path pattern. The files are combined by column name.
+   *
+   * @param name the view name.
+   * @param path the path or glob pattern of the Parquet files.
+   * @return a create view statement.
+   */
+  public String createParquetView(String name, String path) {
+    return String.format(
+        "create or replace view %s as select * from read_parquet(%s, union_by_name = true);",
+        quote(name), singleQuote(path));
+  }
+
+  /**
+   * Returns a statement which drops the view with the given name if it exists.
+   *
+   * @param name the view name.
+   * @return a drop view statement.
+   */
+  public String dropViewIfExists(String name) {
+    return String.format("drop view if exists %s;", quote(name));
+  }
+
+  /**
+   * Returns a statement which sets the directory used by DuckDB for spilling to disk.
+   *
+   * @param path the directory path.
+   * @return a set statement.
+   */
+  public String setTempDirectory(String path) {
+    return String.format("set temp_directory = %s;", singleQuote(path));
+  }
+}
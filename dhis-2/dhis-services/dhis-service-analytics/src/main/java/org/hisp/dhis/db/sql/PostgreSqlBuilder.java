@@ -29,6 +29,7 @@ package org.hisp.dhis.db.sql;
 
 import static org.hisp.dhis.commons.util.TextUtils.removeLastComma;
 
+import java.util.Collection;
 import java.util.stream.Collectors;
 import org.hisp.dhis.db.model.Collation;
 import org.hisp.dhis.db.model.Column;
@@ -185,6 +186,11 @@ public class PostgreSqlBuilder extends AbstractSqlBuilder {
     return true;
   }
 
+  @Override
+  public boolean supportsMaintenanceMemory() {
+    return true;
+  }
+
   @Override
   public boolean requiresIndexesForAnalytics() {
     return true;
@@ -335,6 +341,27 @@ public class PostgreSqlBuilder extends AbstractSqlBuilder {
         singleQuote(name));
   }
 
+  @Override
+  public String tableSizes(Collection<String> names) {
+    return String.format(
+        """
+        select c.relname as table_name, pg_relation_size(c.oid) as table_size \
+        from pg_class c \
+        inner join pg_namespace n on c.relnamespace = n.oid \
+        where n.nspname = 'public' and c.relkind = 'r' and c.relname in (%s);""",
+        singleQuotedCommaDelimited(names));
+  }
+
+  @Override
+  public String setMaintenanceMemory(int megabytes) {
+    return String.format("set maintenance_work_mem = '%dMB';", megabytes);
+  }
+
+  @Override
+  public String resetMaintenanceMemory() {
+    return "reset maintenance_work_mem;";
+  }
+
   @Override
   public String createIndex(Index index) {
     String unique = index.getUnique() == Unique.UNIQUE ? "unique " : "";
@@ -173,6 +173,12 @@ public interface SqlBuilder {
    */
   boolean supportsVacuum();
 
+  /**
+   * @return true if the DBMS supports setting the memory available to maintenance operations such
+   *     as index creation for a session.
+   */
+  boolean supportsMaintenanceMemory();
+
   /**
    * @return true if the DBMS requires indexes for analytics tables for performance.
    */
@@ -335,6 +341,25 @@ public interface SqlBuilder {
    */
   String countRows(Table table);
 
+  /**
+   * @param names the table names.
+   * @return a statement which will return rows with the table name and the table size in bytes for
+   *     the given tables which exist.
+   */
+  String tableSizes(Collection<String> names);
+
+  /**
+   * @param megabytes the amount of memory in megabytes.
+   * @return a statement which sets the memory available to maintenance operations for the session.
+   */
+  String setMaintenanceMemory(int megabytes);
+
+  /**
+   * @return a statement which resets the memory available to maintenance operations for the
+   *     session to the default.
+   */
+  String resetMaintenanceMemory();
+
   /**
    * @param index the {@link Index}.
    * @return a create index statement.
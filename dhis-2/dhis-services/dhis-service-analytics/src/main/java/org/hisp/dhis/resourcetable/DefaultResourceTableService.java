@@ -37,7 +37,10 @@ import com.google.common.collect.Lists;
 import java.time.Year;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
@@ -51,7 +54,9 @@ import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroupSet;
 import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.db.model.Index;
 import org.hisp.dhis.db.model.Logged;
+import org.hisp.dhis.db.model.Table;
 import org.hisp.dhis.indicator.IndicatorGroupSet;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroupSet;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -76,6 +81,7 @@ import org.hisp.dhis.sqlview.SqlView;
 import org.hisp.dhis.sqlview.SqlViewService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Lars Helge Overland
@@ -102,20 +108,37 @@ public class DefaultResourceTableService implements ResourceTableService {
 
   private final PeriodDataProvider periodDataProvider;
 
+  private final TransactionTemplate transactionTemplate;
+
   @Override
   @Transactional
   public void generateResourceTables() {
-    for (ResourceTable table : getResourceTables()) {
-      resourceTableStore.generateResourceTable(table);
-    }
+    generateResourceTables(getResourceTables());
   }
 
   @Override
   @Transactional
   public void generateDataApprovalResourceTables() {
-    for (ResourceTable table : getApprovalResourceTables()) {
-      resourceTableStore.generateResourceTable(table);
-    }
+    generateResourceTables(getApprovalResourceTables());
+  }
+
+  /**
+   * Generates the given resource tables. Resource tables which do not depend on each other are
+   * generated concurrently, each in a separate transaction. The table definitions and content are
+   * resolved up front in the calling thread, as metadata objects are bound to the current session.
+   *
+   * @param tables the list of {@link ResourceTable}.
+   */
+  private void generateResourceTables(List<ResourceTable> tables) {
+    List<ResourceTable> preparedTables =
+        tables.stream().<ResourceTable>map(PreparedResourceTable::new).toList();
+
+    ResourceTableExecutor.execute(
+        preparedTables,
+        analyticsTableSettings.getParallelJobs(),
+        table ->
+            transactionTemplate.executeWithoutResult(
+                status -> resourceTableStore.generateResourceTable(table)));
   }
 
   /**
@@ -222,6 +245,37 @@ public class DefaultResourceTableService implements ResourceTableService {
     }
   }
 
+  /**
+   * Resource table with the table definitions and content resolved from a source resource table,
+   * which can be generated from any thread.
+   */
+  @Getter
+  private static final class PreparedResourceTable implements ResourceTable {
+    private final Table table;
+
+    private final Table mainTable;
+
+    private final List<Index> indexes;
+
+    private final ResourceTableType tableType;
+
+    private final Set<ResourceTableType> dependencies;
+
+    private final Optional<String> populateTempTableStatement;
+
+    private final Optional<List<Object[]>> populateTempTableContent;
+
+    PreparedResourceTable(ResourceTable source) {
+      this.table = source.getTable();
+      this.mainTable = source.getMainTable();
+      this.indexes = source.getIndexes();
+      this.tableType = source.getTableType();
+      this.dependencies = source.getDependencies();
+      this.populateTempTableStatement = source.getPopulateTempTableStatement();
+      this.populateTempTableContent = source.getPopulateTempTableContent();
+    }
+  }
+
   // -------------------------------------------------------------------------
   // SQL Views. Each view is created/dropped in separate transactions so that
   // process continues even if individual operations fail.
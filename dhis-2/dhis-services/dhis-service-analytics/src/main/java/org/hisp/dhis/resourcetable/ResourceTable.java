@@ -29,6 +29,7 @@ package org.hisp.dhis.resourcetable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.hisp.dhis.db.model.Index;
 import org.hisp.dhis.db.model.Table;
 
@@ -68,6 +69,16 @@ public interface ResourceTable {
    */
   ResourceTableType getTableType();
 
+  /**
+   * Returns the types of the resource tables which this resource table is populated from, and
+   * which must hence be generated before this resource table.
+   *
+   * @return a set of {@link ResourceTableType}, may be empty.
+   */
+  default Set<ResourceTableType> getDependencies() {
+    return Set.of();
+  }
+
   /**
    * Returns an optional SQL statement for populating the resource table.
    *
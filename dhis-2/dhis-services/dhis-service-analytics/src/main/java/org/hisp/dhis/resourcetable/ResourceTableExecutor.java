@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.resourcetable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates resource tables in the order given by their dependencies. Resource tables which do not
+ * depend on each other are generated concurrently, while a resource table is only generated once
+ * all resource tables it depends on are generated.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ResourceTableExecutor {
+  /**
+   * Returns the given resource tables sorted so that each resource table appears after the resource
+   * tables it depends on. The order of the given list is retained where possible. Dependencies on
+   * resource tables which are not part of the given list are ignored.
+   *
+   * @param tables the list of {@link ResourceTable}.
+   * @return a sorted list of {@link ResourceTable}.
+   * @throws IllegalArgumentException if the dependencies contain a cycle.
+   */
+  static List<ResourceTable> getDependencyOrder(List<ResourceTable> tables) {
+    Map<ResourceTable, Set<ResourceTableType>> pending = getPendingDependencies(tables);
+    List<ResourceTable> sorted = new ArrayList<>();
+
+    while (!pending.isEmpty()) {
+      ResourceTable next =
+          pending.entrySet().stream()
+              .filter(e -> e.getValue().isEmpty())
+              .map(Map.Entry::getKey)
+              .findFirst()
+              .orElseThrow(() -> new IllegalArgumentException(getCycleMessage(pending)));
+
+      pending.remove(next);
+      pending.values().forEach(deps -> deps.remove(next.getTableType()));
+      sorted.add(next);
+    }
+
+    return sorted;
+  }
+
+  /**
+   * Generates the given resource tables using the given generator. Resource tables are generated
+   * sequentially in dependency order if the number of parallel jobs is 1 or less, otherwise
+   * concurrently where their dependencies allow.
+   *
+   * @param tables the list of {@link ResourceTable}.
+   * @param parallelJobs the maximum number of resource tables to generate concurrently.
+   * @param generator the generator of a single {@link ResourceTable}.
+   * @throws IllegalArgumentException if the dependencies contain a cycle.
+   */
+  static void execute(
+      List<ResourceTable> tables, int parallelJobs, Consumer<ResourceTable> generator) {
+    List<ResourceTable> sorted = getDependencyOrder(tables);
+
+    if (parallelJobs <= 1 || sorted.size() <= 1) {
+      sorted.forEach(generator);
+      return;
+    }
+
+    int threads = Math.min(parallelJobs, sorted.size());
+
+    log.info("Generating {} resource tables with {} parallel jobs", sorted.size(), threads);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    try {
+      executeConcurrently(sorted, executor, generator);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Generates the given resource tables with the given executor. A resource table is submitted once
+   * all of its dependencies have completed.
+   *
+   * @param tables the list of {@link ResourceTable} in dependency order.
+   * @param executor the {@link ExecutorService}.
+   * @param generator the generator of a single {@link ResourceTable}.
+   */
+  private static void executeConcurrently(
+      List<ResourceTable> tables, ExecutorService executor, Consumer<ResourceTable> generator) {
+    CompletionService<ResourceTable> completion = new ExecutorCompletionService<>(executor);
+    Map<ResourceTable, Set<ResourceTableType>> pending = getPendingDependencies(tables);
+    int running = 0;
+
+    while (!pending.isEmpty() || running > 0) {
+      List<ResourceTable> ready =
+          pending.entrySet().stream()
+              .filter(e -> e.getValue().isEmpty())
+              .map(Map.Entry::getKey)
+              .toList();
+
+      for (ResourceTable table : ready) {
+        pending.remove(table);
+        completion.submit(() -> generator.accept(table), table);
+        running++;
+      }
+
+      ResourceTable completed = take(completion);
+      running--;
+      pending.values().forEach(deps -> deps.remove(completed.getTableType()));
+    }
+  }
+
+  /**
+   * Waits for the next resource table to complete, and propagates any failure.
+   *
+   * @param completion the {@link CompletionService}.
+   * @return the completed {@link ResourceTable}.
+   */
+  private static ResourceTable take(CompletionService<ResourceTable> completion) {
+    try {
+      return completion.take().get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Resource table generation was interrupted", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+
+      throw new IllegalStateException("Resource table generation failed", ex.getCause());
+    }
+  }
+
+  /**
+   * Returns a mapping between each resource table and the types of the resource tables it depends
+   * on, limited to the resource tables of the given list. The mapping retains the given order.
+   *
+   * @param tables the list of {@link ResourceTable}.
+   * @return a mapping between resource table and dependencies.
+   */
+  private static Map<ResourceTable, Set<ResourceTableType>> getPendingDependencies(
+      List<ResourceTable> tables) {
+    Set<ResourceTableType> types =
+        tables.stream()
+            .map(ResourceTable::getTableType)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(ResourceTableType.class)));
+    Map<ResourceTable, Set<ResourceTableType>> pending = new LinkedHashMap<>();
+
+    for (ResourceTable table : tables) {
+      Set<ResourceTableType> dependencies = new HashSet<>(table.getDependencies());
+      dependencies.retainAll(types);
+      pending.put(table, dependencies);
+    }
+
+    return pending;
+  }
+
+  /**
+   * Returns a message describing resource tables with cyclic dependencies.
+   *
+   * @param pending the mapping between resource table and remaining dependencies.
+   * @return a message.
+   */
+  private static String getCycleMessage(Map<ResourceTable, Set<ResourceTableType>> pending) {
+    return "Resource tables have cyclic dependencies: "
+        + pending.keySet().stream().map(ResourceTable::getTableType).toList();
+  }
+}
@@ -33,6 +33,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheBuilder;
@@ -113,4 +115,54 @@ class AnalyticsCacheTest {
 
     assertEquals(2, optCachedGrid.get().getRows().size());
   }
+
+  @Test
+  void returnIsolatedGridsFromGetOrFetch() {
+    // arrange
+    AnalyticsCacheSettings settings = new AnalyticsCacheSettings(systemSettingManager);
+
+    CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+    cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
+
+    Cache<Grid> cache = new LocalCache<>(cacheBuilder);
+
+    Mockito.<Cache<Grid>>when(cacheProvider.createAnalyticsCache()).thenReturn(cache);
+
+    AnalyticsCache analyticsCache = new AnalyticsCache(cacheProvider, settings);
+
+    DataQueryParams params =
+        DataQueryParams.newBuilder()
+            .withDataElements(List.of(new DataElement("dataElementA")))
+            .build();
+
+    AtomicInteger fetchCount = new AtomicInteger();
+
+    Function<DataQueryParams, Grid> fetch =
+        p -> {
+          fetchCount.incrementAndGet();
+          return new ListGrid()
+              .addHeader(new GridHeader("Header1"))
+              .addRow()
+              .addValue("Value11")
+              .addRow()
+              .addValue("Value21");
+        };
+
+    // act
+    Grid gridA = analyticsCache.getOrFetch(params, fetch);
+
+    gridA.addRow().addValue("Value31").addMetaData("key", "value");
+
+    Grid gridB = analyticsCache.getOrFetch(params, fetch);
+
+    // assert
+    assertEquals(1, fetchCount.get());
+
+    assertEquals(3, gridA.getHeight());
+
+    assertEquals(2, gridB.getHeight());
+
+    assertTrue(gridB.getMetaData().isEmpty());
+  }
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.cache;
+
+import static org.hisp.dhis.analytics.AnalyticsTableType.DATA_VALUE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.table.model.Partitions;
+import org.hisp.dhis.cache.CacheBuilder;
+import org.hisp.dhis.cache.DefaultCacheProvider;
+import org.hisp.dhis.cache.LocalCache;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
+import org.hisp.dhis.dataelement.DataElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+class AnalyticsQueryCacheTest {
+  @Mock private DefaultCacheProvider cacheProvider;
+
+  @Mock private AnalyticsCacheSettings settings;
+
+  private AnalyticsQueryCache queryCache;
+
+  private final AtomicInteger fetchCount = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    when(cacheProvider.createAnalyticsQueryCache(any()))
+        .thenAnswer(
+            invocation -> {
+              CacheBuilder<Object> cacheBuilder = new SimpleCacheBuilder<>();
+              cacheBuilder.expireAfterWrite(1L, TimeUnit.MINUTES);
+              return new LocalCache<>(cacheBuilder);
+            });
+    when(settings.isCachingEnabled()).thenReturn(true);
+    when(settings.fixedExpirationTimeOrDefault()).thenReturn(60L);
+
+    queryCache = new AnalyticsQueryCache(cacheProvider, settings);
+  }
+
+  @Test
+  void testGetOrFetchCachesValues() throws Exception {
+    DataQueryParams params = getParams("analytics_2023", 2023);
+
+    assertEquals(Map.of("a-b", 1.0), fetch(params, AnalyticsTableType.DATA_VALUE));
+    assertEquals(Map.of("a-b", 1.0), fetch(params, AnalyticsTableType.DATA_VALUE));
+    assertEquals(1, fetchCount.get());
+  }
+
+  @Test
+  void testGetOrFetchCachingDisabled() throws Exception {
+    when(settings.isCachingEnabled()).thenReturn(false);
+
+    DataQueryParams params = getParams("analytics_2023", 2023);
+
+    fetch(params, AnalyticsTableType.DATA_VALUE);
+    fetch(params, AnalyticsTableType.DATA_VALUE);
+    assertEquals(2, fetchCount.get());
+  }
+
+  @Test
+  void testGetKeyIncludesPlannedProperties() {
+    DataQueryParams paramsA = getParams("analytics_2022", 2022);
+    DataQueryParams paramsB = getParams("analytics_2023", 2023);
+
+    assertNotEquals(
+        queryCache.getKey(paramsA, AnalyticsTableType.DATA_VALUE, 0),
+        queryCache.getKey(paramsB, AnalyticsTableType.DATA_VALUE, 0));
+    assertNotEquals(
+        queryCache.getKey(paramsA, AnalyticsTableType.DATA_VALUE, 0),
+        queryCache.getKey(paramsA, AnalyticsTableType.COMPLETENESS, 0));
+    assertEquals(
+        queryCache.getKey(paramsA, AnalyticsTableType.DATA_VALUE, 0),
+        queryCache.getKey(getParams("analytics_2022", 2022), AnalyticsTableType.DATA_VALUE, 0));
+  }
+
+  @Test
+  void testInvalidateFromYear() throws Exception {
+    DataQueryParams params2022 = getParams("analytics_2022", 2022);
+    DataQueryParams params2023 = getParams("analytics_2023", 2023);
+    DataQueryParams rollup = getParams("analytics_rollup_1_yearly", null);
+
+    fetch(params2022, AnalyticsTableType.DATA_VALUE);
+    fetch(params2023, AnalyticsTableType.DATA_VALUE);
+    fetch(rollup, AnalyticsTableType.DATA_VALUE);
+    fetch(params2023, AnalyticsTableType.COMPLETENESS);
+    assertEquals(4, fetchCount.get());
+
+    queryCache.invalidate(AnalyticsTableType.DATA_VALUE, 2023);
+
+    fetch(params2022, AnalyticsTableType.DATA_VALUE);
+    fetch(params2023, AnalyticsTableType.COMPLETENESS);
+    assertEquals(4, fetchCount.get());
+
+    fetch(params2023, AnalyticsTableType.DATA_VALUE);
+    fetch(rollup, AnalyticsTableType.DATA_VALUE);
+    assertEquals(6, fetchCount.get());
+  }
+
+  @Test
+  void testInvalidateAllPartitions() throws Exception {
+    DataQueryParams params2022 = getParams("analytics_2022", 2022);
+
+    fetch(params2022, AnalyticsTableType.DATA_VALUE);
+    fetch(params2022, AnalyticsTableType.COMPLETENESS);
+
+    queryCache.invalidate(AnalyticsTableType.DATA_VALUE, null);
+
+    fetch(params2022, AnalyticsTableType.DATA_VALUE);
+    fetch(params2022, AnalyticsTableType.COMPLETENESS);
+    assertEquals(3, fetchCount.get());
+  }
+
+  @Test
+  void testGetOrFetchSkipsLargeResults() throws Exception {
+    DataQueryParams params = getParams("analytics_2023", 2023);
+    Map<String, Object> values = new HashMap<>();
+    IntStream.rangeClosed(0, AnalyticsQueryCache.MAX_CACHED_ROWS)
+        .forEach(i -> values.put("a-" + i, 1.0));
+
+    fetch(params, AnalyticsTableType.DATA_VALUE, values);
+    fetch(params, AnalyticsTableType.DATA_VALUE, values);
+    assertEquals(2, fetchCount.get());
+  }
+
+  @Test
+  void testIsStale() {
+    String key2022 = queryCache.getKey(getParams("analytics_2022", 2022), DATA_VALUE, 0);
+    String rollup = queryCache.getKey(getParams("analytics_rollup_1_yearly", null), DATA_VALUE, 0);
+
+    assertTrue(AnalyticsQueryCache.isStale(key2022, 2021));
+    assertTrue(AnalyticsQueryCache.isStale(key2022, 2022));
+    assertFalse(AnalyticsQueryCache.isStale(key2022, 2023));
+    assertTrue(AnalyticsQueryCache.isStale(rollup, 2023));
+  }
+
+  private Map<String, Object> fetch(DataQueryParams params, AnalyticsTableType tableType)
+      throws Exception {
+    return fetch(params, tableType, Map.of("a-b", 1.0));
+  }
+
+  private Map<String, Object> fetch(
+      DataQueryParams params, AnalyticsTableType tableType, Map<String, Object> values)
+      throws Exception {
+    return queryCache.getOrFetch(
+        params,
+        tableType,
+        0,
+        () -> {
+          fetchCount.incrementAndGet();
+          return values;
+        });
+  }
+
+  private DataQueryParams getParams(String tableName, Integer partition) {
+    return DataQueryParams.newBuilder()
+        .withDataElements(List.of(new DataElement("dataElementA")))
+        .withTableName(tableName)
+        .withPartitions(partition != null ? new Partitions(Set.of(partition)) : new Partitions())
+        .build();
+  }
+}
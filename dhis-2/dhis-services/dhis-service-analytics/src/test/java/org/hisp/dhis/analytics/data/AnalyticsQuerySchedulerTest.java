@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link AnalyticsQueryScheduler}. */
+class AnalyticsQuerySchedulerTest {
+  private SimpleMeterRegistry meterRegistry;
+
+  private AnalyticsQueryScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    scheduler = new AnalyticsQueryScheduler(8, 2, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    scheduler.destroy();
+  }
+
+  @Test
+  void testExecuteAllReturnsResultsInOrder() throws Exception {
+    List<Callable<Integer>> queries = new ArrayList<>();
+
+    for (int i = 0; i < 10; i++) {
+      int value = i;
+      queries.add(() -> value);
+    }
+
+    List<Integer> results = scheduler.executeAll(queries);
+
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), results);
+    assertEquals(10, meterRegistry.get("analytics.query.wait").timer().count());
+    assertEquals(0d, meterRegistry.get("analytics.query.queued").gauge().value());
+    assertEquals(0d, meterRegistry.get("analytics.query.running").gauge().value());
+  }
+
+  @Test
+  void testConcurrencyPerUserIsBounded() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    List<Callable<Boolean>> queries = new ArrayList<>();
+
+    for (int i = 0; i < 12; i++) {
+      queries.add(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+            return true;
+          });
+    }
+
+    scheduler.executeAll(queries);
+
+    assertTrue(maxRunning.get() <= 2);
+  }
+
+  @Test
+  void testFailureCancelsRunningStatement() {
+    Statement statement = mock(Statement.class);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    Callable<Boolean> blockingQuery =
+        () -> {
+          AnalyticsQueryScheduler.setRunningStatement(statement);
+          started.countDown();
+          return release.await(10, TimeUnit.SECONDS);
+        };
+
+    Callable<Boolean> failingQuery =
+        () -> {
+          started.await(10, TimeUnit.SECONDS);
+          throw new IllegalStateException("Query failed");
+        };
+
+    ExecutionException ex =
+        assertThrows(
+            ExecutionException.class,
+            () -> scheduler.executeAll(List.of(blockingQuery, failingQuery)));
+
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+    verify(statement, timeout(5000)).cancel();
+    assertEquals(1d, meterRegistry.get("analytics.query.cancelled").counter().count());
+  }
+}
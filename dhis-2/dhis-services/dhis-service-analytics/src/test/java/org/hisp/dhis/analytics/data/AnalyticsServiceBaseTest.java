@@ -31,6 +31,7 @@ import static com.google.common.collect.Lists.newArrayList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hisp.dhis.analytics.AnalyticsManager;
 import org.hisp.dhis.analytics.AnalyticsSecurityManager;
 import org.hisp.dhis.analytics.DataQueryGroups;
@@ -42,13 +43,16 @@ import org.hisp.dhis.analytics.RawAnalyticsManager;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.cache.AnalyticsCache;
 import org.hisp.dhis.analytics.cache.AnalyticsCacheSettings;
+import org.hisp.dhis.analytics.cache.AnalyticsQueryCache;
 import org.hisp.dhis.analytics.data.handler.DataAggregator;
 import org.hisp.dhis.analytics.data.handler.DataHandler;
 import org.hisp.dhis.analytics.data.handler.HeaderHandler;
 import org.hisp.dhis.analytics.data.handler.MetadataHandler;
 import org.hisp.dhis.analytics.data.handler.SchemeIdResponseMapper;
 import org.hisp.dhis.analytics.event.EventAnalyticsService;
+import org.hisp.dhis.analytics.parquet.ParquetAnalyticsManager;
 import org.hisp.dhis.analytics.resolver.ExpressionResolvers;
+import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -72,6 +76,8 @@ abstract class AnalyticsServiceBaseTest {
 
   @Mock private RawAnalyticsManager rawAnalyticsManager;
 
+  @Mock private ParquetAnalyticsManager parquetAnalyticsManager;
+
   @Mock private AnalyticsSecurityManager securityManager;
 
   @Mock private QueryPlanner queryPlanner;
@@ -94,6 +100,8 @@ abstract class AnalyticsServiceBaseTest {
 
   @Mock private AnalyticsCacheSettings analyticsCacheSettings;
 
+  @Mock private CacheProvider cacheProvider;
+
   @Mock private ExpressionResolvers resolvers;
 
   @Mock private NestedIndicatorCyclicDependencyInspector nestedIndicatorCyclicDependencyInspector;
@@ -118,6 +126,9 @@ abstract class AnalyticsServiceBaseTest {
             queryPlanner,
             systemSettingManager,
             analyticsManager,
+            parquetAnalyticsManager,
+            new AnalyticsQueryScheduler(4, 4, new SimpleMeterRegistry()),
+            new AnalyticsQueryCache(cacheProvider, analyticsCacheSettings),
             organisationUnitService,
             executionPlanStore);
 
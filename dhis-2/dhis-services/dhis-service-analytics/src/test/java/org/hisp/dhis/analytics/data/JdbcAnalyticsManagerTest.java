@@ -36,7 +36,8 @@ import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
 import static org.hisp.dhis.test.TestBase.createDataElement;
 import static org.hisp.dhis.test.TestBase.createOrganisationUnit;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
 
 import java.util.List;
 import org.hisp.dhis.analytics.AggregationType;
@@ -47,6 +48,7 @@ import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
 import org.hisp.dhis.common.BaseDimensionalObject;
 import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.ValueType;
@@ -65,7 +67,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 /**
  * @author Luciano Fiandesio
@@ -76,9 +79,9 @@ class JdbcAnalyticsManagerTest {
 
   @Mock private PartitionManager partitionManager;
 
-  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private AnalyticsTableSettings analyticsTableSettings;
 
-  @Mock private SqlRowSet rowSet;
+  @Mock private JdbcTemplate jdbcTemplate;
 
   @Mock private NestedIndicatorCyclicDependencyInspector nestedIndicatorCyclicDependencyInspector;
 
@@ -92,14 +95,15 @@ class JdbcAnalyticsManagerTest {
 
   @BeforeEach
   public void setUp() {
-    QueryPlanner queryPlanner = new DefaultQueryPlanner(partitionManager);
+    QueryPlanner queryPlanner =
+        new DefaultQueryPlanner(partitionManager, analyticsTableSettings, systemSettingManager);
 
     subject = new JdbcAnalyticsManager(queryPlanner, jdbcTemplate, executionPlanStore, sqlBuilder);
   }
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasLastAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.LAST);
 
@@ -110,7 +114,7 @@ class JdbcAnalyticsManagerTest {
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasLastAvgOrgUnitAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.LAST_AVERAGE_ORG_UNIT);
 
@@ -121,7 +125,7 @@ class JdbcAnalyticsManagerTest {
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasLastLastOrgUnitAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.LAST_LAST_ORG_UNIT);
 
@@ -139,7 +143,7 @@ class JdbcAnalyticsManagerTest {
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasLastInPeriodAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.LAST_IN_PERIOD);
 
@@ -150,7 +154,7 @@ class JdbcAnalyticsManagerTest {
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasLastInPeriodAvgOrgUnitAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.LAST_IN_PERIOD_AVERAGE_ORG_UNIT);
 
@@ -161,7 +165,7 @@ class JdbcAnalyticsManagerTest {
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasMaxSumOrgUnitAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.MAX_SUM_ORG_UNIT);
 
@@ -172,7 +176,7 @@ class JdbcAnalyticsManagerTest {
 
   @Test
   void verifyQueryGeneratedWhenDataElementHasMinSumOrgUnitAggregationType() {
-    mockRowSet();
+    mockQuery();
 
     DataQueryParams params = createParams(AggregationType.MIN_SUM_ORG_UNIT);
 
@@ -206,9 +210,10 @@ class JdbcAnalyticsManagerTest {
   // Supportive methods
   // -------------------------------------------------------------------------
 
-  private void mockRowSet() {
-    when(rowSet.next()).thenReturn(false);
-    when(jdbcTemplate.queryForRowSet(sql.capture())).thenReturn(rowSet);
+  private void mockQuery() {
+    doNothing()
+        .when(jdbcTemplate)
+        .query(sql.capture(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
   }
 
   private DataQueryParams createParams(AggregationType aggregationType) {
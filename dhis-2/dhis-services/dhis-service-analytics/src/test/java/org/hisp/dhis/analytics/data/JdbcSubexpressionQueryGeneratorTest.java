@@ -48,6 +48,7 @@ import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
 import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.BaseDimensionalObject;
 import org.hisp.dhis.common.DimensionType;
@@ -59,6 +60,7 @@ import org.hisp.dhis.db.sql.PostgreSqlBuilder;
 import org.hisp.dhis.db.sql.SqlBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.subexpression.SubexpressionDimensionItem;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -76,6 +78,10 @@ import org.springframework.jdbc.core.JdbcTemplate;
 class JdbcSubexpressionQueryGeneratorTest {
   @Mock private PartitionManager partitionManager;
 
+  @Mock private AnalyticsTableSettings analyticsTableSettings;
+
+  @Mock private SystemSettingManager systemSettingManager;
+
   @Mock private JdbcTemplate jdbcTemplate;
 
   @Mock private ExecutionPlanStore executionPlanStore;
@@ -89,7 +95,8 @@ class JdbcSubexpressionQueryGeneratorTest {
 
   @BeforeAll
   public void setUp() {
-    QueryPlanner queryPlanner = new DefaultQueryPlanner(partitionManager);
+    QueryPlanner queryPlanner =
+        new DefaultQueryPlanner(partitionManager, analyticsTableSettings, systemSettingManager);
 
     jam = new JdbcAnalyticsManager(queryPlanner, jdbcTemplate, executionPlanStore, sqlBuilder);
   }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
+import static org.hisp.dhis.common.DimensionalObject.PERIOD_DIM_ID;
+import static org.hisp.dhis.common.DimensionalObjectUtils.getList;
+import static org.hisp.dhis.test.TestBase.createDataElement;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.DataType;
+import org.hisp.dhis.common.BaseDimensionalObject;
+import org.hisp.dhis.common.DimensionType;
+import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.period.PeriodType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for {@link KeyValueCollector}. */
+@ExtendWith(MockitoExtension.class)
+class KeyValueCollectorTest {
+  @Mock private ResultSet rs;
+
+  @Test
+  void testCollectNumericValues() throws SQLException {
+    when(rs.getString("dx")).thenReturn("deA", "deA", "deB", "deA");
+    when(rs.getString("pe")).thenReturn("202401", "202402", "202401", "202401");
+    when(rs.getDouble("value")).thenReturn(1d, 2d, 3d, 4d);
+
+    KeyValueCollector collector = new KeyValueCollector(createParams(DataType.NUMERIC), 0);
+
+    for (int i = 0; i < 4; i++) {
+      collector.processRow(rs);
+    }
+
+    Map<String, Object> map = collector.toMap();
+
+    assertEquals(3, collector.size());
+    assertEquals(Map.of("deA-202401", 4d, "deA-202402", 2d, "deB-202401", 3d), map);
+  }
+
+  @Test
+  void testCollectTextValues() throws SQLException {
+    when(rs.getString("dx")).thenReturn("deA", "deB");
+    when(rs.getString("pe")).thenReturn("202401", "202401");
+    when(rs.getString("value")).thenReturn("yes", "no");
+
+    KeyValueCollector collector = new KeyValueCollector(createParams(DataType.TEXT), 0);
+
+    collector.processRow(rs);
+    collector.processRow(rs);
+
+    assertEquals(Map.of("deA-202401", "yes", "deB-202401", "no"), collector.toMap());
+  }
+
+  @Test
+  void testCollectBeyondInitialCapacity() throws SQLException {
+    KeyValueCollector collector = new KeyValueCollector(createParams(DataType.NUMERIC), 0);
+
+    when(rs.getString("pe")).thenReturn("202401");
+
+    for (int i = 0; i < 1000; i++) {
+      when(rs.getString("dx")).thenReturn("de" + i);
+      when(rs.getDouble("value")).thenReturn((double) i);
+
+      collector.processRow(rs);
+    }
+
+    Map<String, Object> map = collector.toMap();
+
+    assertEquals(1000, map.size());
+    assertEquals(0d, map.get("de0-202401"));
+    assertEquals(999d, map.get("de999-202401"));
+  }
+
+  @Test
+  void testExceedMaxLimit() throws SQLException {
+    when(rs.getString("dx")).thenReturn("deA", "deB");
+    when(rs.getString("pe")).thenReturn("202401", "202401");
+    when(rs.getDouble("value")).thenReturn(1d, 2d);
+
+    KeyValueCollector collector = new KeyValueCollector(createParams(DataType.NUMERIC), 2);
+
+    collector.processRow(rs);
+    collector.processRow(rs);
+
+    assertThrows(IllegalQueryException.class, () -> collector.processRow(rs));
+  }
+
+  private DataQueryParams createParams(DataType dataType) {
+    return DataQueryParams.newBuilder()
+        .withDataType(dataType)
+        .addDimension(
+            new BaseDimensionalObject(
+                DATA_X_DIM_ID, DimensionType.DATA_X, getList(createDataElement('A'))))
+        .addDimension(
+            new BaseDimensionalObject(
+                PERIOD_DIM_ID,
+                DimensionType.PERIOD,
+                getList(PeriodType.getPeriodFromIsoString("202401"))))
+        .build();
+  }
+}
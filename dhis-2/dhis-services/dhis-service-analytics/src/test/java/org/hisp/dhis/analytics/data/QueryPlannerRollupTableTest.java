@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.data;
+
+import static org.hisp.dhis.analytics.DataQueryParams.DISPLAY_NAME_DATA_X;
+import static org.hisp.dhis.analytics.DataQueryParams.DISPLAY_NAME_ORGUNIT;
+import static org.hisp.dhis.analytics.DataQueryParams.DISPLAY_NAME_PERIOD;
+import static org.hisp.dhis.test.TestBase.createDataElement;
+import static org.hisp.dhis.test.TestBase.createOrganisationUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.hisp.dhis.analytics.AnalyticsAggregationType;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.DataType;
+import org.hisp.dhis.analytics.QueryPlannerParams;
+import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.common.BaseDimensionalObject;
+import org.hisp.dhis.common.DimensionType;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.period.YearlyPeriodType;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class QueryPlannerRollupTableTest {
+  @Mock private PartitionManager partitionManager;
+
+  @Mock private AnalyticsTableSettings analyticsTableSettings;
+
+  @Mock private SystemSettingManager systemSettingManager;
+
+  private DefaultQueryPlanner subject;
+
+  private final Period period =
+      new YearlyPeriodType().createPeriod(new DateTime(2024, 1, 1, 0, 0).toDate());
+
+  private final QueryPlannerParams plannerParams =
+      QueryPlannerParams.newBuilder().withTableType(AnalyticsTableType.DATA_VALUE).build();
+
+  @BeforeEach
+  void setUp() {
+    subject =
+        new DefaultQueryPlanner(partitionManager, analyticsTableSettings, systemSettingManager);
+
+    when(analyticsTableSettings.getRollups())
+        .thenReturn(
+            List.of(
+                rollup(1, new YearlyPeriodType()),
+                rollup(2, new YearlyPeriodType()),
+                rollup(1, new MonthlyPeriodType()),
+                rollup(2, new MonthlyPeriodType())));
+  }
+
+  @Test
+  void testWithRollupTableCoarsest() {
+    mockUpdates(new DateTime(2024, 5, 1, 0, 0), null);
+    when(partitionManager.tableExists("analytics_rollup_2_yearly")).thenReturn(true);
+
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("yearly", 2, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertEquals("analytics_rollup_2_yearly", params.getTableName());
+    assertTrue(params.isSkipPartitioning());
+  }
+
+  @Test
+  void testWithRollupTableFinerPeriodType() {
+    mockUpdates(new DateTime(2024, 5, 1, 0, 0), new DateTime(2024, 4, 1, 0, 0));
+    when(partitionManager.tableExists("analytics_rollup_1_monthly")).thenReturn(true);
+
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("monthly", 1, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertEquals("analytics_rollup_1_monthly", params.getTableName());
+  }
+
+  @Test
+  void testWithRollupTableMissingTable() {
+    mockUpdates(new DateTime(2024, 5, 1, 0, 0), null);
+    when(partitionManager.tableExists("analytics_rollup_2_yearly")).thenReturn(false);
+    when(partitionManager.tableExists("analytics_rollup_2_monthly")).thenReturn(false);
+
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("yearly", 2, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertNull(params.getTableName());
+    assertFalse(params.isSkipPartitioning());
+  }
+
+  @Test
+  void testWithRollupTableCachesExistingTables() {
+    mockUpdates(new DateTime(2024, 5, 1, 0, 0), null);
+    when(partitionManager.tableExists("analytics_rollup_2_yearly")).thenReturn(true);
+
+    subject.withRollupTable(getParams("yearly", 2, AnalyticsAggregationType.SUM), plannerParams);
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("yearly", 2, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertEquals("analytics_rollup_2_yearly", params.getTableName());
+    verify(partitionManager, times(1)).tableExists("analytics_rollup_2_yearly");
+  }
+
+  @Test
+  void testWithRollupTableRefreshesExistingTablesAfterUpdate() {
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(
+            new DateTime(2024, 5, 1, 0, 0).toDate(), new DateTime(2024, 6, 1, 0, 0).toDate());
+    when(partitionManager.tableExists("analytics_rollup_2_yearly")).thenReturn(false, true);
+
+    DataQueryParams before =
+        subject.withRollupTable(
+            getParams("yearly", 2, AnalyticsAggregationType.SUM), plannerParams);
+    DataQueryParams after =
+        subject.withRollupTable(
+            getParams("yearly", 2, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertNull(before.getTableName());
+    assertEquals("analytics_rollup_2_yearly", after.getTableName());
+  }
+
+  @Test
+  void testWithRollupTableLatestUpdate() {
+    mockUpdates(new DateTime(2024, 5, 1, 0, 0), new DateTime(2024, 5, 2, 0, 0));
+
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("yearly", 1, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertNull(params.getTableName());
+  }
+
+  @Test
+  void testWithRollupTableAverage() {
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("yearly", 1, AnalyticsAggregationType.AVERAGE), plannerParams);
+
+    assertNull(params.getTableName());
+  }
+
+  @Test
+  void testWithRollupTableUnsupportedPeriodType() {
+    mockUpdates(new DateTime(2024, 5, 1, 0, 0), null);
+
+    DataQueryParams params =
+        subject.withRollupTable(
+            getParams("weekly", 1, AnalyticsAggregationType.SUM), plannerParams);
+
+    assertNull(params.getTableName());
+  }
+
+  private void mockUpdates(DateTime lastFullUpdate, DateTime lastLatestUpdate) {
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(lastFullUpdate.toDate());
+    when(systemSettingManager.getDateSetting(
+            SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE))
+        .thenReturn(lastLatestUpdate != null ? lastLatestUpdate.toDate() : null);
+  }
+
+  private AnalyticsRollup rollup(int level, PeriodType periodType) {
+    List<String> periodColumns =
+        periodType instanceof YearlyPeriodType
+            ? List.of("yearly")
+            : List.of("yearly", "quarterly", "monthly");
+
+    return new AnalyticsRollup(level, periodType, periodColumns);
+  }
+
+  private DataQueryParams getParams(
+      String periodType, int level, AnalyticsAggregationType aggregationType) {
+    return DataQueryParams.newBuilder()
+        .withDimensions(
+            List.of(
+                new BaseDimensionalObject(
+                    "dx",
+                    DimensionType.DATA_X,
+                    DISPLAY_NAME_DATA_X,
+                    "Data",
+                    List.of(createDataElement('A', new CategoryCombo()))),
+                new BaseDimensionalObject(
+                    "pe",
+                    DimensionType.PERIOD,
+                    periodType,
+                    DISPLAY_NAME_PERIOD,
+                    List.of(period))))
+        .withFilters(
+            List.of(
+                new BaseDimensionalObject(
+                    "ou",
+                    DimensionType.ORGANISATION_UNIT,
+                    "uidlevel" + level,
+                    DISPLAY_NAME_ORGUNIT,
+                    List.of(createOrganisationUnit('A')))))
+        .withAggregationType(aggregationType)
+        .withDataType(DataType.NUMERIC)
+        .build();
+  }
+}
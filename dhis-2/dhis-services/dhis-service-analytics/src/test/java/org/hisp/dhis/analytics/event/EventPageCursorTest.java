@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+class EventPageCursorTest {
+  @Test
+  void testEncodeDecode() {
+    EventPageCursor cursor =
+        new EventPageCursor(LocalDateTime.of(2024, 5, 17, 13, 45, 12, 250_000_000), "eventUidA1");
+
+    assertEquals(cursor, EventPageCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void testEncodeDecodeWithoutOccurredDate() {
+    EventPageCursor cursor = new EventPageCursor(null, "eventUidA1");
+
+    assertEquals(cursor, EventPageCursor.decode(cursor.encode()));
+  }
+
+  @Test
+  void testDecodeInvalid() {
+    IllegalQueryException ex =
+        assertThrows(IllegalQueryException.class, () -> EventPageCursor.decode("invalid!"));
+
+    assertEquals(ErrorCode.E7240, ex.getErrorCode());
+  }
+
+  @Test
+  void testDecodeInvalidEvent() {
+    String cursor = new EventPageCursor(LocalDateTime.of(2024, 5, 17, 0, 0), "x'; drop").encode();
+
+    IllegalQueryException ex =
+        assertThrows(IllegalQueryException.class, () -> EventPageCursor.decode(cursor));
+
+    assertEquals(ErrorCode.E7240, ex.getErrorCode());
+  }
+}
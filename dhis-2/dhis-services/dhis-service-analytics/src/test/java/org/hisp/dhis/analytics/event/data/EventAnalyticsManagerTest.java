@@ -30,8 +30,10 @@ package org.hisp.dhis.analytics.event.data;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hisp.dhis.analytics.AnalyticsMetaDataKey.NEXT_PAGE_AFTER;
 import static org.hisp.dhis.analytics.QueryKey.NV;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 import static org.hisp.dhis.common.DimensionalObject.OPTION_SEP;
@@ -51,10 +53,13 @@ import static org.hisp.dhis.test.TestBase.createProgram;
 import static org.hisp.dhis.test.TestBase.createProgramIndicator;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -64,6 +69,7 @@ import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.event.EventPageCursor;
 import org.hisp.dhis.analytics.event.EventQueryParams;
 import org.hisp.dhis.analytics.event.data.programindicator.DefaultProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.common.BaseDimensionalObject;
@@ -664,6 +670,88 @@ class EventAnalyticsManagerTest extends EventAnalyticsTest {
     assertThat(sql.getValue(), containsString(expectedFirstOrLastSubquery));
   }
 
+  @Test
+  void verifyGetEventsWithKeysetPaging() {
+    mockGivenRowsRowSet(3);
+    when(rowSet.getTimestamp("occurreddate"))
+        .thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 3, 1, 10, 30)));
+    when(rowSet.getString("event")).thenReturn("eventUidA1");
+
+    EventQueryParams params =
+        createRequestParamsBuilder()
+            .withEndpointAction(QUERY)
+            .withPageSize(2)
+            .withPaging(true)
+            .withPageAfter(new EventPageCursor(LocalDateTime.of(2024, 3, 2, 8, 0), "eventUidB1"))
+            .build();
+
+    Grid grid = subject.getEvents(params, createGrid(), 100);
+
+    verify(jdbcTemplate).queryForRowSet(sql.capture());
+
+    assertThat(
+        sql.getValue(),
+        containsString(
+            " and (ax.\"occurreddate\", ax.\"event\") < "
+                + "(cast('2024-03-02T08:00' as timestamp), 'eventUidB1') "
+                + "order by ax.\"occurreddate\" desc nulls first, ax.\"event\" desc limit 3"));
+    assertThat(sql.getValue(), not(containsString("offset")));
+    assertThat(grid.getRows(), hasSize(2));
+    assertThat(grid.hasLastDataRow(), is(false));
+    assertThat(
+        grid.getInternalMetaData().get(NEXT_PAGE_AFTER.getKey()),
+        is(new EventPageCursor(LocalDateTime.of(2024, 3, 1, 10, 30), "eventUidA1").encode()));
+  }
+
+  @Test
+  void verifyGetEventsWithKeysetPagingFirstPage() {
+    mockGivenRowsRowSet(1);
+
+    EventQueryParams params =
+        createRequestParamsBuilder()
+            .withEndpointAction(QUERY)
+            .withPageSize(2)
+            .withPaging(true)
+            .withKeysetPaging(true)
+            .build();
+
+    Grid grid = subject.getEvents(params, createGrid(), 100);
+
+    verify(jdbcTemplate).queryForRowSet(sql.capture());
+
+    assertThat(
+        sql.getValue(),
+        containsString(
+            "in ('ouabcdefghA') order by ax.\"occurreddate\" desc nulls first, "
+                + "ax.\"event\" desc limit 3"));
+    assertThat(grid.hasLastDataRow(), is(true));
+    assertThat(grid.hasInternalMetaDataKey(NEXT_PAGE_AFTER.getKey()), is(false));
+  }
+
+  @Test
+  void verifyGetEventCountEstimate() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+        .thenReturn(
+            List.of(
+                "Append  (cost=0.00..2841.32 rows=51234 width=4)",
+                "  ->  Seq Scan on analytics_event (cost=0.00..2585.15 rows=51234 width=4)"));
+
+    EventQueryParams params = createRequestParamsBuilder().withEstimateTotalPages(true).build();
+
+    assertThat(subject.getEventCount(params), is(51234L));
+
+    verify(jdbcTemplate).queryForList(sql.capture(), eq(String.class));
+
+    assertThat(sql.getValue(), startsWith("explain select 1  from "));
+  }
+
+  @Test
+  void verifyGetPlanRows() {
+    assertThat(
+        JdbcEventAnalyticsManager.getPlanRows("Result  (cost=0.00..0.01 rows=1 width=4)"), is(1L));
+    assertThat(JdbcEventAnalyticsManager.getPlanRows("Result"), is(0L));
+  }
+
   private EventQueryParams createRequestParamsWithFilter(ValueType queryItemValueType) {
     EventQueryParams.Builder params =
         new EventQueryParams.Builder(createRequestParams(queryItemValueType));
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.parquet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import javax.sql.DataSource;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.QueryPlanner;
+import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.table.model.Partitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ParquetAnalyticsManagerTest {
+  @Mock private ParquetFileStore fileStore;
+
+  @Mock private DataSource dataSource;
+
+  @Mock private QueryPlanner queryPlanner;
+
+  @Mock private ExecutionPlanStore executionPlanStore;
+
+  private ParquetAnalyticsManager manager;
+
+  @BeforeEach
+  void setUp() {
+    when(fileStore.getDataSource()).thenReturn(dataSource);
+
+    manager = new ParquetAnalyticsManager(fileStore, queryPlanner, executionPlanStore);
+  }
+
+  @Test
+  void testGetTables() {
+    DataQueryParams params =
+        DataQueryParams.newBuilder()
+            .withTableName("analytics")
+            .withPartitions(new Partitions(Set.of(2023, 2024)))
+            .build();
+
+    assertEquals(
+        Set.of("analytics", "analytics_2023", "analytics_2024"), manager.getTables(params));
+  }
+
+  @Test
+  void testGetTablesSkipPartitioning() {
+    DataQueryParams params =
+        DataQueryParams.newBuilder()
+            .withTableName("analytics")
+            .withPartitions(new Partitions(Set.of(2023, 2024)))
+            .withSkipPartitioning(true)
+            .build();
+
+    assertEquals(Set.of("analytics"), manager.getTables(params));
+  }
+
+  @Test
+  void testIsQueryable() {
+    DataQueryParams params =
+        DataQueryParams.newBuilder()
+            .withTableName("analytics")
+            .withPartitions(new Partitions(Set.of(2023)))
+            .build();
+
+    when(fileStore.isQueryEnabled()).thenReturn(true);
+    when(fileStore.hasTables(Set.of("analytics", "analytics_2023"))).thenReturn(true);
+
+    assertTrue(manager.isQueryable(params));
+  }
+
+  @Test
+  void testIsQueryableMissingPartition() {
+    DataQueryParams params =
+        DataQueryParams.newBuilder()
+            .withTableName("analytics")
+            .withPartitions(new Partitions(Set.of(2023)))
+            .build();
+
+    when(fileStore.isQueryEnabled()).thenReturn(true);
+    when(fileStore.hasTables(any())).thenReturn(false);
+
+    assertFalse(manager.isQueryable(params));
+  }
+
+  @Test
+  void testIsQueryableDisabled() {
+    DataQueryParams params = DataQueryParams.newBuilder().withTableName("analytics").build();
+
+    when(fileStore.isQueryEnabled()).thenReturn(false);
+
+    assertFalse(manager.isQueryable(params));
+  }
+}
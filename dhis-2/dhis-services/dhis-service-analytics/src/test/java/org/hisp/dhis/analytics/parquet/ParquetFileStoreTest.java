@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.parquet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.external.location.LocationManager;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+class ParquetFileStoreTest {
+  @TempDir private Path externalDir;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private LocationManager locationManager;
+
+  @Mock private AnalyticsTableSettings analyticsTableSettings;
+
+  @Mock private SystemSettingManager systemSettingManager;
+
+  private ParquetFileStore fileStore;
+
+  @BeforeEach
+  void setUp() {
+    when(config.getProperty(ConfigurationKey.FILESTORE_PROVIDER)).thenReturn("filesystem");
+    when(config.getProperty(ConfigurationKey.FILESTORE_CONTAINER)).thenReturn("files");
+    when(locationManager.externalDirectorySet()).thenReturn(true);
+    when(locationManager.buildDirectory(any(String[].class)))
+        .thenAnswer(
+            invocation -> {
+              Path directory = externalDir;
+              for (Object name : invocation.getArguments()) {
+                directory = directory.resolve((String) name);
+              }
+              return Files.createDirectories(directory).toFile();
+            });
+
+    fileStore = new ParquetFileStore(
+            config, locationManager, analyticsTableSettings, systemSettingManager);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    fileStore.close();
+  }
+
+  @Test
+  void testGetFile() {
+    Path expected = externalDir.resolve("files/analytics/analytics/analytics_2023.parquet");
+
+    assertEquals(expected, fileStore.getFile("analytics", "analytics_2023"));
+  }
+
+  @Test
+  void testIsExportEnabled() {
+    when(analyticsTableSettings.isParquetExport()).thenReturn(true);
+
+    assertTrue(fileStore.isExportEnabled());
+  }
+
+  @Test
+  void testIsExportEnabledRequiresFileSystemProvider() {
+    when(analyticsTableSettings.isParquetExport()).thenReturn(true);
+    when(config.getProperty(ConfigurationKey.FILESTORE_PROVIDER)).thenReturn("aws-s3");
+
+    assertFalse(fileStore.isExportEnabled());
+  }
+
+  @Test
+  void testRegisterViewsAndQuery() throws SQLException {
+    writeFile("analytics", "analytics_2023", "select 'fbfJHSPpUQD' as dx, 10.0 as value");
+    writeFile("analytics", "analytics_2024", "select 'fbfJHSPpUQD' as dx, 5.0 as value");
+
+    fileStore.registerViews();
+
+    assertTrue(fileStore.hasTables(List.of("analytics", "analytics_2023", "analytics_2024")));
+    assertFalse(fileStore.hasTables(List.of("analytics_2025")));
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(fileStore.getDataSource());
+
+    assertEquals(
+        15.0, jdbcTemplate.queryForObject("select sum(value) from analytics", Double.class));
+    assertEquals(
+        10.0, jdbcTemplate.queryForObject("select sum(value) from analytics_2023", Double.class));
+  }
+
+  @Test
+  void testRemoveFiles() throws SQLException {
+    writeFile("analytics", "analytics_2023", "select 'fbfJHSPpUQD' as dx, 10.0 as value");
+    writeFile("analytics", "analytics_2024", "select 'fbfJHSPpUQD' as dx, 5.0 as value");
+
+    fileStore.registerViews();
+    fileStore.removeFiles("analytics", Set.of("analytics_2024"));
+    fileStore.registerViews();
+
+    assertFalse(Files.exists(fileStore.getFile("analytics", "analytics_2023")));
+    assertFalse(fileStore.hasTables(List.of("analytics_2023")));
+    assertTrue(fileStore.hasTables(List.of("analytics", "analytics_2024")));
+  }
+
+  @Test
+  void testHasTablesWithRemovedFiles() throws Exception {
+    writeFile("analytics", "analytics_2023", "select 'fbfJHSPpUQD' as dx, 10.0 as value");
+    writeFile("analytics", "analytics_2024", "select 'fbfJHSPpUQD' as dx, 5.0 as value");
+
+    fileStore.registerViews();
+    Files.delete(fileStore.getFile("analytics", "analytics_2023"));
+
+    assertFalse(fileStore.hasTables(List.of("analytics", "analytics_2023")));
+    assertTrue(fileStore.hasTables(List.of("analytics", "analytics_2024")));
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(fileStore.getDataSource());
+
+    assertEquals(
+        5.0, jdbcTemplate.queryForObject("select sum(value) from analytics", Double.class));
+  }
+
+  @Test
+  void testHasTablesRegistersViewsAfterTableUpdate() throws SQLException {
+    writeFile("analytics", "analytics_2023", "select 'fbfJHSPpUQD' as dx, 10.0 as value");
+
+    fileStore.registerViews();
+    writeFile("analytics", "analytics_2024", "select 'fbfJHSPpUQD' as dx, 5.0 as value");
+
+    assertFalse(fileStore.hasTables(List.of("analytics_2024")));
+
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(new Date());
+
+    assertTrue(fileStore.hasTables(List.of("analytics_2024")));
+  }
+
+  private void writeFile(String table, String partition, String select) throws SQLException {
+    try (Connection connection = fileStore.openConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          String.format(
+              "copy (%s) to '%s' (format parquet);", select, fileStore.getFile(table, partition)));
+    }
+  }
+}
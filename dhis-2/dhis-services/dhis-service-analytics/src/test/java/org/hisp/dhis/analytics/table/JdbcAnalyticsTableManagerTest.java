@@ -36,10 +36,16 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -70,13 +76,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
@@ -260,6 +269,243 @@ class JdbcAnalyticsTableManagerTest {
     assertThrows(IllegalArgumentException.class, () -> subject.getAnalyticsTables(params));
   }
 
+  @Test
+  void testGetIncrementalAnalyticsTable() {
+    Date lastFullTableUpdate = new DateTime(2019, 3, 1, 2, 0).toDate();
+    Date startTime = new DateTime(2019, 3, 1, 10, 0).toDate();
+
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(startTime)
+            .withLatestPartition()
+            .withIncrementalUpdate(true)
+            .build();
+
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(lastFullTableUpdate);
+    when(analyticsTableSettings.getTableLogged()).thenReturn(UNLOGGED);
+    when(jdbcTemplate.queryForObject(Mockito.anyString(), eq(Long.class))).thenReturn(42L);
+
+    List<AnalyticsTable> tables = subject.getAnalyticsTables(params);
+
+    assertEquals(1, tables.size());
+
+    AnalyticsTablePartition partition = tables.get(0).getLatestTablePartition();
+
+    assertNotNull(partition);
+    assertTrue(partition.isLatestPartition());
+    assertEquals(lastFullTableUpdate, partition.getStartDate());
+    assertEquals(startTime, partition.getEndDate());
+    assertEquals(42L, params.getExtraParam("", "maxChangeId"));
+  }
+
+  @Test
+  void testGetIncrementalAnalyticsTableNoChanges() {
+    Date lastFullTableUpdate = new DateTime(2019, 3, 1, 2, 0).toDate();
+    Date startTime = new DateTime(2019, 3, 1, 10, 0).toDate();
+
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(startTime)
+            .withLatestPartition()
+            .withIncrementalUpdate(true)
+            .build();
+
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(lastFullTableUpdate);
+    when(jdbcTemplate.queryForObject(Mockito.anyString(), eq(Long.class))).thenReturn(null);
+
+    assertTrue(subject.getAnalyticsTables(params).isEmpty());
+  }
+
+  @Test
+  void testGetIncrementalAnalyticsTableEnablesChangeLog() {
+    Date lastFullTableUpdate = new DateTime(2019, 3, 1, 2, 0).toDate();
+    Date startTime = new DateTime(2019, 3, 1, 10, 0).toDate();
+
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(startTime)
+            .withLatestPartition()
+            .withIncrementalUpdate(true)
+            .build();
+
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(lastFullTableUpdate);
+    when(jdbcTemplate.queryForObject(
+            Mockito.contains("pg_trigger"), eq(Integer.class), any(Object[].class)))
+        .thenReturn(0);
+
+    subject.getAnalyticsTables(params);
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(jdbcTemplate, Mockito.atLeastOnce()).execute(sql.capture());
+    assertTrue(
+        sql.getAllValues().stream()
+            .anyMatch(s -> s.startsWith("create trigger datavalue_change_insert")));
+    assertTrue(
+        sql.getAllValues().stream()
+            .anyMatch(
+                s ->
+                    s.startsWith("insert into datavaluechangelog")
+                        && s.contains("lastupdated >= '2019-03-01T02:00:00")));
+  }
+
+  @Test
+  void testGetLatestAnalyticsTableDisablesChangeLog() {
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(new DateTime(2019, 3, 1, 10, 0).toDate())
+            .withLatestPartition()
+            .build();
+
+    when(systemSettingManager.getDateSetting(SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE))
+        .thenReturn(new DateTime(2019, 3, 1, 2, 0).toDate());
+    when(systemSettingManager.getDateSetting(
+            SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE))
+        .thenReturn(new DateTime(2019, 3, 1, 9, 0).toDate());
+    when(jdbcTemplate.queryForObject(
+            Mockito.contains("pg_trigger"), eq(Integer.class), any(Object[].class)))
+        .thenReturn(3);
+
+    subject.getAnalyticsTables(params);
+
+    verify(jdbcTemplate).execute("drop trigger if exists datavalue_change_insert on datavalue;");
+    verify(jdbcTemplate).execute("drop trigger if exists datavalue_change_update on datavalue;");
+    verify(jdbcTemplate).execute("drop trigger if exists datavalue_change_delete on datavalue;");
+    verify(jdbcTemplate).execute("truncate table datavaluechangelog;");
+  }
+
+  @Test
+  void testRemoveChangeLogForPartialUpdate() {
+    Date startTime = new DateTime(2019, 3, 1, 10, 0).toDate();
+    AnalyticsTable table =
+        new AnalyticsTable(
+            AnalyticsTableType.DATA_VALUE,
+            List.of(
+                AnalyticsTableColumn.builder()
+                    .name("year")
+                    .dataType(INTEGER)
+                    .selectExpression("")
+                    .build()),
+            LOGGED);
+    table.addTablePartition(List.of(), 2018, new DateTime(2018, 1, 1, 0, 0).toDate(), null);
+    table.addTablePartition(List.of(), 2019, new DateTime(2019, 1, 1, 0, 0).toDate(), null);
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder().withStartTime(startTime).withLastYears(2).build();
+
+    subject.removeChangeLog(params, List.of(table));
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(jdbcTemplate).execute(sql.capture());
+    assertTrue(sql.getValue().contains("ps.year in (2018,2019)"));
+    assertTrue(sql.getValue().contains("cl.created < '2019-03-01T10:00:00"));
+  }
+
+  @Test
+  void testMergeTableInTransaction() throws SQLException {
+    AnalyticsTable table =
+        new AnalyticsTable(
+            AnalyticsTableType.DATA_VALUE,
+            List.of(
+                AnalyticsTableColumn.builder()
+                    .name("year")
+                    .dataType(INTEGER)
+                    .selectExpression("")
+                    .build()),
+            UNLOGGED);
+    table.addTablePartition(List.of(), 2019, new DateTime(2019, 1, 1, 0, 0).toDate(), null);
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(new DateTime(2019, 3, 1, 10, 0).toDate())
+            .withLatestPartition()
+            .withIncrementalUpdate(true)
+            .build();
+    params.addExtraParam("", "maxChangeId", 42L);
+    Connection connection = mock(Connection.class);
+    Statement statement = mock(Statement.class);
+
+    when(jdbcTemplate.queryForList(Mockito.contains("datavaluechangelog"), eq(Integer.class)))
+        .thenReturn(List.of(2018, 2019));
+    when(jdbcTemplate.queryForList(Mockito.contains("analytics_2019")))
+        .thenReturn(List.of(Map.of("table_name", "analytics_2019")));
+    when(jdbcTemplate.queryForList(
+            Mockito.contains("information_schema.columns"), eq(String.class), any()))
+        .thenReturn(List.of("year"));
+    when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+        .thenAnswer(i -> i.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(connection.createStatement()).thenReturn(statement);
+
+    assertEquals(List.of("analytics_2019"), subject.mergeTable(params, table));
+
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    InOrder inOrder = inOrder(connection, statement);
+    inOrder.verify(connection).setAutoCommit(false);
+    inOrder.verify(statement, Mockito.times(3)).execute(sql.capture());
+    inOrder.verify(connection).commit();
+    inOrder.verify(connection).setAutoCommit(true);
+
+    List<String> statements = sql.getAllValues();
+    assertTrue(statements.get(0).startsWith("delete from \"analytics\""));
+    assertTrue(statements.get(0).contains("cl.changeid <= 42 and ps.year in (2019)"));
+    assertTrue(statements.get(1).startsWith("insert into \"analytics_2019\""));
+    assertTrue(statements.get(2).startsWith("delete from datavaluechangelog"));
+    assertTrue(statements.get(2).contains("cl.changeid <= 42 and ps.year in (2019)"));
+  }
+
+  @Test
+  void testMergeTableRollsBackOnFailure() throws SQLException {
+    AnalyticsTable table = new AnalyticsTable(AnalyticsTableType.DATA_VALUE, List.of(), UNLOGGED);
+    table.addTablePartition(List.of(), 2019, new DateTime(2019, 1, 1, 0, 0).toDate(), null);
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(new DateTime(2019, 3, 1, 10, 0).toDate())
+            .withLatestPartition()
+            .withIncrementalUpdate(true)
+            .build();
+    params.addExtraParam("", "maxChangeId", 42L);
+    Connection connection = mock(Connection.class);
+    Statement statement = mock(Statement.class);
+
+    when(jdbcTemplate.queryForList(Mockito.contains("datavaluechangelog"), eq(Integer.class)))
+        .thenReturn(List.of(2019));
+    when(jdbcTemplate.queryForList(Mockito.contains("analytics_2019")))
+        .thenReturn(List.of(Map.of("table_name", "analytics_2019")));
+    when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+        .thenAnswer(i -> i.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+    when(connection.getAutoCommit()).thenReturn(true);
+    when(connection.createStatement()).thenReturn(statement);
+    when(statement.execute(Mockito.startsWith("insert into"))).thenThrow(new SQLException());
+
+    assertThrows(SQLException.class, () -> subject.mergeTable(params, table));
+
+    verify(connection).rollback();
+    verify(connection, never()).commit();
+    verify(statement, never()).execute(Mockito.startsWith("delete from datavaluechangelog"));
+  }
+
+  @Test
+  void testMergeTableWithoutPartitionKeepsChangeLog() {
+    AnalyticsTable table = new AnalyticsTable(AnalyticsTableType.DATA_VALUE, List.of(), UNLOGGED);
+    table.addTablePartition(List.of(), 2019, new DateTime(2019, 1, 1, 0, 0).toDate(), null);
+    AnalyticsTableUpdateParams params =
+        AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime(new DateTime(2019, 3, 1, 10, 0).toDate())
+            .withLatestPartition()
+            .withIncrementalUpdate(true)
+            .build();
+    params.addExtraParam("", "maxChangeId", 42L);
+
+    when(jdbcTemplate.queryForList(Mockito.contains("datavaluechangelog"), eq(Integer.class)))
+        .thenReturn(List.of(2018));
+
+    assertTrue(subject.mergeTable(params, table).isEmpty());
+
+    verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    verify(jdbcTemplate, never()).execute(Mockito.contains("datavaluechangelog"));
+  }
+
   @Test
   @DisplayName(
       "Verify if the method swapParentTable is called with the swapped table name not the staging table name")
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table;
+
+import static org.hisp.dhis.db.model.DataType.CHARACTER_11;
+import static org.hisp.dhis.db.model.Logged.UNLOGGED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.hisp.dhis.analytics.common.TableInfoReader;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
+import org.hisp.dhis.db.model.Column;
+import org.hisp.dhis.db.model.Table;
+import org.hisp.dhis.db.sql.PostgreSqlBuilder;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.YearlyPeriodType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcRollupTableManagerTest {
+  @Mock private AnalyticsTableSettings analyticsTableSettings;
+
+  @Mock private TableInfoReader tableInfoReader;
+
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @Spy private final SqlBuilder sqlBuilder = new PostgreSqlBuilder();
+
+  private JdbcRollupTableManager subject;
+
+  private final AnalyticsRollup level1Yearly =
+      new AnalyticsRollup(1, new YearlyPeriodType(), List.of("yearly"));
+
+  private final AnalyticsRollup level2Yearly =
+      new AnalyticsRollup(2, new YearlyPeriodType(), List.of("yearly"));
+
+  private final AnalyticsRollup level2Monthly =
+      new AnalyticsRollup(2, new MonthlyPeriodType(), List.of("yearly", "quarterly", "monthly"));
+
+  @BeforeEach
+  void setUp() {
+    subject =
+        new JdbcRollupTableManager(
+            analyticsTableSettings, tableInfoReader, jdbcTemplate, sqlBuilder);
+  }
+
+  @Test
+  void testGetSourceTableNameFromAnalyticsTable() {
+    assertEquals("analytics", subject.getSourceTableName(level2Monthly, List.of()));
+  }
+
+  @Test
+  void testGetSourceTableNameFromRollupTable() {
+    assertEquals(
+        "analytics_rollup_2_yearly",
+        subject.getSourceTableName(level1Yearly, List.of(level2Monthly, level2Yearly)));
+    assertEquals(
+        "analytics_rollup_2_monthly",
+        subject.getSourceTableName(level2Yearly, List.of(level2Monthly)));
+    assertEquals("analytics", subject.getSourceTableName(level2Monthly, List.of(level2Yearly)));
+  }
+
+  @Test
+  void testGetPopulateSql() {
+    Table table =
+        new Table(
+            "analytics_rollup_1_yearly_temp",
+            List.of(new Column("dx", CHARACTER_11)),
+            List.of(),
+            UNLOGGED);
+
+    String expected =
+        """
+        insert into "analytics_rollup_1_yearly_temp" \
+        ("dx","co","ao","approvallevel","year","yearly","uidlevel1",value) \
+        select "dx","co","ao","approvallevel","year","yearly","uidlevel1",sum(value) as value \
+        from "analytics_rollup_2_yearly" \
+        where value is not null \
+        group by "dx","co","ao","approvallevel","year","yearly","uidlevel1";""";
+
+    assertEquals(
+        expected, subject.getPopulateSql(level1Yearly, table, "analytics_rollup_2_yearly"));
+  }
+}
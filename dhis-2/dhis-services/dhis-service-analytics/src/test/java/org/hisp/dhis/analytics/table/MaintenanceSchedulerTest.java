@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table;
+
+import static org.hisp.dhis.db.model.DataType.CHARACTER_11;
+import static org.hisp.dhis.db.model.DataType.DOUBLE;
+import static org.hisp.dhis.db.model.DataType.INTEGER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hisp.dhis.analytics.table.MaintenanceScheduler.Task;
+import org.hisp.dhis.analytics.table.model.AnalyticsTableColumn;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.junit.jupiter.api.Test;
+
+class MaintenanceSchedulerTest {
+  @Test
+  void testOrderByDescendingCost() {
+    List<Task<String>> tasks =
+        List.of(
+            new Task<>("a", "a", "analytics_2022", 100),
+            new Task<>("b", "b", "analytics_2023", 300),
+            new Task<>("c", "c", "analytics_2024", 200));
+
+    List<String> ordered = MaintenanceScheduler.order(tasks).stream().map(Task::item).toList();
+
+    assertEquals(List.of("b", "c", "a"), ordered);
+  }
+
+  @Test
+  void testOrderInterleavesTablesOfEqualCost() {
+    List<Task<String>> tasks =
+        List.of(
+            new Task<>("a1", "a1", "analytics_2023", 100),
+            new Task<>("a2", "a2", "analytics_2023", 100),
+            new Task<>("b1", "b1", "analytics_2024", 100),
+            new Task<>("b2", "b2", "analytics_2024", 100));
+
+    List<String> ordered = MaintenanceScheduler.order(tasks).stream().map(Task::item).toList();
+
+    assertEquals(List.of("a1", "b1", "a2", "b2"), ordered);
+  }
+
+  @Test
+  void testEstimateDuration() {
+    assertEquals(600, MaintenanceScheduler.estimateDuration(List.of(300L, 200L, 100L), 1, 1d));
+    assertEquals(300, MaintenanceScheduler.estimateDuration(List.of(300L, 200L, 100L), 2, 1d));
+    assertEquals(150, MaintenanceScheduler.estimateDuration(List.of(300L, 200L, 100L), 3, 2d));
+  }
+
+  @Test
+  void testEstimateIndexSize() {
+    List<AnalyticsTableColumn> columns =
+        List.of(
+            AnalyticsTableColumn.builder().name("dx").dataType(CHARACTER_11).build(),
+            AnalyticsTableColumn.builder().name("\"uidlevel1\"").dataType(CHARACTER_11).build(),
+            AnalyticsTableColumn.builder().name("year").dataType(INTEGER).build(),
+            AnalyticsTableColumn.builder().name("value").dataType(DOUBLE).build());
+
+    // Row width is 28 + 12 + 12 + 4 + 8 = 64, entry width is 12 + 4 = 16 and 12 + 12 = 24
+    assertEquals(16_000, MaintenanceScheduler.estimateIndexSize(64_000, columns, List.of("year")));
+    assertEquals(
+        24_000, MaintenanceScheduler.estimateIndexSize(64_000, columns, List.of("uidlevel1")));
+    assertEquals(
+        44_000,
+        MaintenanceScheduler.estimateIndexSize(64_000, columns, List.of("(value ->> 'x')")));
+  }
+
+  @Test
+  void testRunStageStartsTasksByDescendingCost() {
+    List<String> started = new CopyOnWriteArrayList<>();
+    List<Task<String>> tasks =
+        List.of(
+            new Task<>("a", "a", "analytics_2022", 100),
+            new Task<>("b", "b", "analytics_2023", 300),
+            new Task<>("c", "c", "analytics_2024", 200));
+
+    new MaintenanceScheduler().runStage(JobProgress.noop(), "index", 1, tasks, started::add);
+
+    assertEquals(List.of("b", "c", "a"), started);
+  }
+
+  @Test
+  void testRunStage() {
+    Set<String> processed = ConcurrentHashMap.newKeySet();
+    List<Task<String>> tasks =
+        List.of(
+            new Task<>("a", "a", "analytics_2022", 100),
+            new Task<>("b", "b", "analytics_2023", 300),
+            new Task<>("c", "c", "analytics_2024", 200));
+
+    new MaintenanceScheduler().runStage(JobProgress.noop(), "index", 2, tasks, processed::add);
+
+    assertEquals(Set.of("a", "b", "c"), processed);
+  }
+
+  @Test
+  void testRunStageContinuesAfterFailedItem() {
+    Set<String> processed = ConcurrentHashMap.newKeySet();
+    List<Task<String>> tasks =
+        List.of(
+            new Task<>("a", "a", "analytics_2022", 100),
+            new Task<>("b", "b", "analytics_2023", 300),
+            new Task<>("c", "c", "analytics_2024", 200));
+
+    new MaintenanceScheduler()
+        .runStage(
+            JobProgress.noop(),
+            "vacuum",
+            2,
+            tasks,
+            item -> {
+              if ("b".equals(item)) {
+                throw new IllegalStateException("Vacuum failed");
+              }
+              processed.add(item);
+            });
+
+    assertTrue(processed.contains("a"));
+    assertTrue(processed.contains("c"));
+    assertFalse(processed.contains("b"));
+  }
+}
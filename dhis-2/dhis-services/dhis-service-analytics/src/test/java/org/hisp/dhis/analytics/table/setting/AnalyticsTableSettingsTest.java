@@ -29,13 +29,19 @@ package org.hisp.dhis.analytics.table.setting;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Set;
+import org.hisp.dhis.analytics.table.model.AnalyticsRollup;
 import org.hisp.dhis.analytics.table.model.Skip;
 import org.hisp.dhis.db.model.Database;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -102,6 +108,96 @@ class AnalyticsTableSettingsTest {
         settings.getSkipColumnDimensions());
   }
 
+  @Test
+  void testGetRollupsDefault() {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_LEVELS))
+        .thenReturn(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_LEVELS.getDefaultValue());
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES))
+        .thenReturn(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES.getDefaultValue());
+
+    assertTrue(settings.getRollups().isEmpty());
+  }
+
+  @Test
+  void testGetRollups() {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_LEVELS)).thenReturn("2, 1");
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES))
+        .thenReturn("Monthly,Yearly");
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_SKIP_COLUMN))
+        .thenReturn("financialapril");
+
+    List<AnalyticsRollup> rollups = settings.getRollups();
+
+    assertEquals(
+        List.of(
+            "analytics_rollup_1_yearly",
+            "analytics_rollup_1_monthly",
+            "analytics_rollup_2_yearly",
+            "analytics_rollup_2_monthly"),
+        rollups.stream().map(AnalyticsRollup::getTableName).toList());
+    assertTrue(rollups.get(0).getPeriodColumns().contains("yearly"));
+    assertTrue(rollups.get(1).getPeriodColumns().containsAll(List.of("monthly", "quarterly")));
+    assertTrue(rollups.stream().noneMatch(r -> r.getPeriodColumns().contains("financialapril")));
+    assertTrue(rollups.stream().noneMatch(r -> r.getPeriodColumns().contains("weekly")));
+  }
+
+  @Test
+  void testGetRollupsSkipsInvalidValues() {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_LEVELS)).thenReturn("2,x,0");
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES))
+        .thenReturn("Hourly,Yearly");
+
+    assertEquals(
+        List.of("analytics_rollup_2_yearly"),
+        settings.getRollups().stream().map(AnalyticsRollup::getTableName).toList());
+  }
+
+  @Test
+  void testGetRollupsParsedOnce() {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_LEVELS)).thenReturn("1");
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES))
+        .thenReturn("Yearly");
+
+    assertEquals(settings.getRollups(), settings.getRollups());
+    verify(config, times(1)).getProperty(ConfigurationKey.ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES);
+  }
+
+  @Test
+  void testGetAndValidateInvalidPeriodType() {
+    assertThrows(IllegalArgumentException.class, () -> settings.getAndValidatePeriodType("Hourly"));
+  }
+
+  @Test
+  void testGetMaintenanceMemory() {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_MAINTENANCE_MEMORY)).thenReturn("");
+    assertEquals(0, settings.getMaintenanceMemory());
+  }
+
+  @Test
+  void testGetMaintenanceMemoryConfigured() {
+    when(config.getProperty(ConfigurationKey.ANALYTICS_TABLE_MAINTENANCE_MEMORY))
+        .thenReturn("2048");
+    assertEquals(2048, settings.getMaintenanceMemory());
+  }
+
+  @Test
+  void testGetParallelJobsFromSetting() {
+    when(systemSettings.getIntegerSetting(SettingKey.PARALLEL_JOBS_IN_ANALYTICS_TABLE_EXPORT))
+        .thenReturn(2);
+    when(systemSettings.getIntegerSetting(SettingKey.DATABASE_SERVER_CPUS)).thenReturn(8);
+
+    assertEquals(2, settings.getParallelJobs());
+  }
+
+  @Test
+  void testGetParallelJobsFromDatabaseCpus() {
+    when(systemSettings.getIntegerSetting(SettingKey.PARALLEL_JOBS_IN_ANALYTICS_TABLE_EXPORT))
+        .thenReturn(null);
+    when(systemSettings.getIntegerSetting(SettingKey.DATABASE_SERVER_CPUS)).thenReturn(8);
+
+    assertEquals(8, settings.getParallelJobs());
+  }
+
   @Test
   void testToSet() {
     Set<String> expected = Set.of("kJ7yGrfR413", "Hg5tGfr2fas", "Ju71jG19Kaq", "b5TgfRL9pUq");
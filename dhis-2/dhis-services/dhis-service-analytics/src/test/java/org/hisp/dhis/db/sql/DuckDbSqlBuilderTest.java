@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.db.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import org.hisp.dhis.db.model.Column;
+import org.hisp.dhis.db.model.DataType;
+import org.hisp.dhis.db.model.Logged;
+import org.hisp.dhis.db.model.Table;
+import org.hisp.dhis.db.model.constraint.Nullable;
+import org.junit.jupiter.api.Test;
+
+class DuckDbSqlBuilderTest {
+  private final DuckDbSqlBuilder sqlBuilder = new DuckDbSqlBuilder();
+
+  @Test
+  void testDataTypes() {
+    assertEquals("double", sqlBuilder.dataTypeDecimal());
+    assertEquals("double", sqlBuilder.dataTypeDouble());
+    assertEquals("varchar", sqlBuilder.dataTypeCharacter(11));
+    assertEquals("varchar", sqlBuilder.dataTypeGeometry());
+    assertEquals("json", sqlBuilder.dataTypeJson());
+  }
+
+  @Test
+  void testCapabilities() {
+    assertFalse(sqlBuilder.supportsAnalyze());
+    assertFalse(sqlBuilder.supportsVacuum());
+    assertFalse(sqlBuilder.supportsMaintenanceMemory());
+    assertFalse(sqlBuilder.requiresIndexesForAnalytics());
+  }
+
+  @Test
+  void testCreateTable() {
+    List<Column> columns =
+        List.of(
+            new Column("id", DataType.BIGINT, Nullable.NOT_NULL),
+            new Column("dx", DataType.CHARACTER_11),
+            new Column("value", DataType.DOUBLE));
+
+    Table table = new Table("staging", columns, List.of("id"), Logged.UNLOGGED);
+
+    String expected =
+        """
+        create table "staging" ("id" bigint, "dx" varchar, "value" double);""";
+
+    assertEquals(expected, sqlBuilder.createTable(table));
+  }
+
+  @Test
+  void testCopyToParquet() {
+    assertEquals(
+        "copy \"staging\" to '/opt/dhis2/files/analytics/analytics/analytics_2023.parquet.tmp' "
+            + "(format parquet, compression zstd);",
+        sqlBuilder.copyToParquet(
+            "staging", "/opt/dhis2/files/analytics/analytics/analytics_2023.parquet.tmp"));
+  }
+
+  @Test
+  void testCreateParquetView() {
+    String expected =
+        """
+        create or replace view "analytics" as select * from \
+        read_parquet('/data/analytics/*.parquet', union_by_name = true);""";
+
+    assertEquals(
+        expected,
+        sqlBuilder.createParquetView("analytics", "/data/analytics/*.parquet"));
+  }
+
+  @Test
+  void testDropViewIfExists() {
+    assertEquals(
+        "drop view if exists \"analytics_2023\";", sqlBuilder.dropViewIfExists("analytics_2023"));
+  }
+}
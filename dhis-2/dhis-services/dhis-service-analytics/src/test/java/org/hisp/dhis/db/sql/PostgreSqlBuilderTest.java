@@ -140,6 +140,11 @@ class PostgreSqlBuilderTest {
     assertTrue(sqlBuilder.supportsVacuum());
   }
 
+  @Test
+  void testSupportsMaintenanceMemory() {
+    assertTrue(sqlBuilder.supportsMaintenanceMemory());
+  }
+
   // Utilities
 
   @Test
@@ -357,6 +362,25 @@ class PostgreSqlBuilderTest {
     assertEquals(expected, sqlBuilder.countRows(getTableA()));
   }
 
+  @Test
+  void testTableSizes() {
+    String expected =
+        """
+        select c.relname as table_name, pg_relation_size(c.oid) as table_size \
+        from pg_class c \
+        inner join pg_namespace n on c.relnamespace = n.oid \
+        where n.nspname = 'public' and c.relkind = 'r' \
+        and c.relname in ('analytics_2023', 'analytics_2024');""";
+
+    assertEquals(expected, sqlBuilder.tableSizes(List.of("analytics_2023", "analytics_2024")));
+  }
+
+  @Test
+  void testSetMaintenanceMemory() {
+    assertEquals("set maintenance_work_mem = '512MB';", sqlBuilder.setMaintenanceMemory(512));
+    assertEquals("reset maintenance_work_mem;", sqlBuilder.resetMaintenanceMemory());
+  }
+
   @Test
   void testCreateIndexA() {
     List<Index> indexes = getIndexesA();
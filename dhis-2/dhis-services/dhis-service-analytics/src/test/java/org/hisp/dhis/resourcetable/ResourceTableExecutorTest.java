@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.resourcetable;
+
+import static org.hisp.dhis.resourcetable.ResourceTableType.DATA_APPROVAL_MIN_LEVEL;
+import static org.hisp.dhis.resourcetable.ResourceTableType.DATA_APPROVAL_REMAP_LEVEL;
+import static org.hisp.dhis.resourcetable.ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE;
+import static org.hisp.dhis.resourcetable.ResourceTableType.ORG_UNIT_STRUCTURE;
+import static org.hisp.dhis.resourcetable.ResourceTableType.PERIOD_STRUCTURE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hisp.dhis.db.model.Table;
+import org.junit.jupiter.api.Test;
+
+/** Tests the {@link ResourceTableExecutor}. */
+class ResourceTableExecutorTest {
+  private final ResourceTable orgUnitGroupSet =
+      new TestResourceTable(ORG_UNIT_GROUP_SET_STRUCTURE, Set.of(ORG_UNIT_STRUCTURE));
+
+  private final ResourceTable orgUnit = new TestResourceTable(ORG_UNIT_STRUCTURE, Set.of());
+
+  private final ResourceTable period = new TestResourceTable(PERIOD_STRUCTURE, Set.of());
+
+  private final ResourceTable approvalMinLevel =
+      new TestResourceTable(
+          DATA_APPROVAL_MIN_LEVEL, Set.of(DATA_APPROVAL_REMAP_LEVEL, ORG_UNIT_STRUCTURE));
+
+  @Test
+  void testGetDependencyOrder() {
+    List<ResourceTable> tables = List.of(orgUnitGroupSet, orgUnit, period);
+
+    List<ResourceTable> sorted = ResourceTableExecutor.getDependencyOrder(tables);
+
+    assertEquals(List.of(orgUnit, orgUnitGroupSet, period), sorted);
+  }
+
+  @Test
+  void testGetDependencyOrderIgnoresMissingDependencies() {
+    List<ResourceTable> tables = List.of(approvalMinLevel, period);
+
+    assertEquals(tables, ResourceTableExecutor.getDependencyOrder(tables));
+  }
+
+  @Test
+  void testGetDependencyOrderWithCycle() {
+    ResourceTable tableA = new TestResourceTable(ORG_UNIT_STRUCTURE, Set.of(PERIOD_STRUCTURE));
+    ResourceTable tableB = new TestResourceTable(PERIOD_STRUCTURE, Set.of(ORG_UNIT_STRUCTURE));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ResourceTableExecutor.getDependencyOrder(List.of(tableA, tableB)));
+  }
+
+  @Test
+  void testExecuteSequentially() {
+    List<ResourceTable> generated = new CopyOnWriteArrayList<>();
+
+    ResourceTableExecutor.execute(List.of(orgUnitGroupSet, orgUnit, period), 1, generated::add);
+
+    assertEquals(List.of(orgUnit, orgUnitGroupSet, period), generated);
+  }
+
+  @Test
+  void testExecuteConcurrently() {
+    List<ResourceTable> generated = new CopyOnWriteArrayList<>();
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    ResourceTableExecutor.execute(
+        List.of(approvalMinLevel, orgUnitGroupSet, orgUnit, period),
+        4,
+        table -> {
+          threads.add(Thread.currentThread().getName());
+          generated.add(table);
+        });
+
+    assertEquals(4, generated.size());
+    assertTrue(generated.indexOf(orgUnit) < generated.indexOf(orgUnitGroupSet));
+    assertTrue(generated.indexOf(orgUnit) < generated.indexOf(approvalMinLevel));
+    assertFalse(threads.contains(Thread.currentThread().getName()));
+  }
+
+  @Test
+  void testExecuteConcurrentlyPropagatesFailure() {
+    List<ResourceTable> tables = List.of(orgUnit, period);
+
+    IllegalStateException ex =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                ResourceTableExecutor.execute(
+                    tables,
+                    2,
+                    table -> {
+                      throw new IllegalStateException("Failed: " + table.getTableType());
+                    }));
+
+    assertTrue(ex.getMessage().startsWith("Failed: "));
+  }
+
+  private record TestResourceTable(
+      ResourceTableType tableType, Set<ResourceTableType> dependencies) implements ResourceTable {
+    @Override
+    public Table getTable() {
+      return null;
+    }
+
+    @Override
+    public Table getMainTable() {
+      return null;
+    }
+
+    @Override
+    public ResourceTableType getTableType() {
+      return tableType;
+    }
+
+    @Override
+    public Set<ResourceTableType> getDependencies() {
+      return dependencies;
+    }
+
+    @Override
+    public Optional<String> getPopulateTempTableStatement() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<List<Object[]>> getPopulateTempTableContent() {
+      return Optional.empty();
+    }
+  }
+}
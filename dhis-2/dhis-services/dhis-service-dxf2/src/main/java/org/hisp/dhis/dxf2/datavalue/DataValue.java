@@ -94,6 +94,27 @@ public final class DataValue implements DataValueEntry {
   @JacksonXmlProperty(isAttribute = true)
   private Boolean deleted;
 
+  /**
+   * Creates a copy of the given data value entry. Readers may return themselves as entry, in which
+   * case the entry changes when the next value is read.
+   *
+   * @param entry the {@link DataValueEntry} to copy.
+   */
+  public DataValue(DataValueEntry entry) {
+    this.dataElement = entry.getDataElement();
+    this.period = entry.getPeriod();
+    this.orgUnit = entry.getOrgUnit();
+    this.categoryOptionCombo = entry.getCategoryOptionCombo();
+    this.attributeOptionCombo = entry.getAttributeOptionCombo();
+    this.value = entry.getValue();
+    this.storedBy = entry.getStoredBy();
+    this.created = entry.getCreated();
+    this.lastUpdated = entry.getLastUpdated();
+    this.comment = entry.getComment();
+    this.followup = entry.getFollowup();
+    this.deleted = entry.getDeleted();
+  }
+
   @Override
   public boolean getFollowup() {
     return followup;
@@ -30,8 +30,10 @@ package org.hisp.dhis.dxf2.datavalueset;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Date;
+import java.util.List;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.datavalue.DataExportParams;
+import org.hisp.dhis.datavalue.DataValue;
 
 /**
  * @author Lars Helge Overland
@@ -63,4 +65,15 @@ public interface DataValueSetStore {
    */
   void exportDataValueSetJson(
       Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize, int page);
+
+  /**
+   * Returns the persisted data values, including soft deleted ones, matching the keys of the given
+   * data values, using a single query. The returned data values have the value, stored by,
+   * created, comment, follow-up and deleted properties populated.
+   *
+   * @param values the data values to look up.
+   * @return a list with the persisted data value for each of the given data values in the same
+   *     order, with null for data values which do not exist.
+   */
+  List<DataValue> getExistingDataValues(List<DataValue> values);
 }
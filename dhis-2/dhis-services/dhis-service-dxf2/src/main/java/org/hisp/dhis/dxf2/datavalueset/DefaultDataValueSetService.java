@@ -48,9 +48,17 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
+import javax.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
@@ -65,6 +73,7 @@ import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableProperty;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
 import org.hisp.dhis.dataset.CompleteDataSetRegistration;
@@ -74,8 +83,11 @@ import org.hisp.dhis.dataset.LockExceptionStore;
 import org.hisp.dhis.datavalue.DataExportParams;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueAudit;
+import org.hisp.dhis.dbms.DbmsUtils;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.dxf2.datavalueset.ImportContext.DataSetContext;
+import org.hisp.dhis.dxf2.datavalueset.ImportContext.DataValueRowKey;
+import org.hisp.dhis.dxf2.datavalueset.ImportContext.PendingDataValue;
 import org.hisp.dhis.dxf2.importsummary.ImportCount;
 import org.hisp.dhis.dxf2.importsummary.ImportStatus;
 import org.hisp.dhis.dxf2.importsummary.ImportSummary;
@@ -101,6 +113,7 @@ import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.security.Authorities;
+import org.hisp.dhis.security.SecurityContextRunnable;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
@@ -138,6 +151,15 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private static final int CACHE_MISS_THRESHOLD = 250;
 
+  /** Number of validated data values for which existing values are looked up in one query. */
+  private static final int EXISTING_CHECK_CHUNK_SIZE = 1000;
+
+  /** Number of data values which can be queued for each import shard. */
+  private static final int SHARD_QUEUE_CAPACITY = 1000;
+
+  /** Marks the end of the data values of an import shard. */
+  private static final ShardedDataValue END_OF_SHARD = new ShardedDataValue(-1, null);
+
   private final IdentifiableObjectManager identifiableObjectManager;
 
   private final CategoryService categoryService;
@@ -178,6 +200,8 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private final UserService userService;
 
+  private final EntityManagerFactory entityManagerFactory;
+
   // -------------------------------------------------------------------------
   // DataValueSet implementation
   // -------------------------------------------------------------------------
@@ -727,7 +751,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
       context.getSummary().setDataSetComplete(Boolean.FALSE.toString());
     }
 
-    final ImportCount importCount = new ImportCount();
+    ImportCount importCount = new ImportCount();
 
     // ---------------------------------------------------------------------
     // Data values
@@ -738,17 +762,28 @@ public class DefaultDataValueSetService implements DataValueSetService {
     clock.logTime("Validated outer meta-data");
     notifier.notify(id, notificationLevel, "Importing data values");
 
-    List<? extends DataValueEntry> values = dataValueSet.getDataValues();
-    int index = 0;
-    if (values != null && !values.isEmpty()) {
-      for (DataValueEntry dataValue : values) {
+    int parallelism = Math.min(options.getParallelism(), SystemUtils.getCpuCores());
+
+    // Values are sharded by organisation unit, which is the same for all values when given in the
+    // header, so such imports are not sharded
+
+    if (parallelism > 1 && dataSetContext.getOuterOrgUnit() == null) {
+      importDataValuesInShards(options, dataValueSet, reader, context, now, parallelism);
+      importCount = context.getSummary().getImportCount();
+    } else {
+      List<? extends DataValueEntry> values = dataValueSet.getDataValues();
+      int index = 0;
+      if (values != null && !values.isEmpty()) {
+        for (DataValueEntry dataValue : values) {
+          importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+        }
+      }
+      DataValueEntry dataValue = reader.readNext();
+      while (dataValue != null) {
         importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+        dataValue = reader.readNext();
       }
-    }
-    DataValueEntry dataValue = reader.readNext();
-    while (dataValue != null) {
-      importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
-      dataValue = reader.readNext();
+      savePendingDataValues(context, importCount);
     }
 
     context
@@ -771,6 +806,166 @@ public class DefaultDataValueSetService implements DataValueSetService {
     return context.getSummary();
   }
 
+  /**
+   * Imports the data values of the given data value set and reader with the given number of
+   * workers. Data values are sharded by organisation unit, so that all data values of the same
+   * organisation unit are imported by the same worker. Each worker has its own {@link
+   * ImportContext} with its own caches and batch handlers. The import counts, conflicts and
+   * rejected indexes of the workers are merged into the summary of the given context.
+   */
+  private void importDataValuesInShards(
+      ImportOptions options,
+      DataValueSet dataValueSet,
+      DataValueSetReader reader,
+      ImportContext context,
+      Date now,
+      int parallelism) {
+    List<BlockingQueue<ShardedDataValue>> queues = new ArrayList<>();
+    List<CompletableFuture<ImportSummary>> futures = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+    try {
+      for (int i = 0; i < parallelism; i++) {
+        BlockingQueue<ShardedDataValue> queue = new ArrayBlockingQueue<>(SHARD_QUEUE_CAPACITY);
+        CompletableFuture<ImportSummary> future = new CompletableFuture<>();
+        executor.execute(
+            new SecurityContextRunnable() {
+              @Override
+              public void call() {
+                future.complete(importShard(options, dataValueSet, now, queue));
+              }
+
+              @Override
+              public void handleError(Throwable ex) {
+                future.completeExceptionally(ex);
+              }
+            });
+        queues.add(queue);
+        futures.add(future);
+      }
+
+      try {
+        int index = 0;
+        List<? extends DataValueEntry> values = dataValueSet.getDataValues();
+        if (values != null) {
+          for (DataValueEntry dataValue : values) {
+            addToShard(queues, new ShardedDataValue(index++, dataValue));
+          }
+        }
+        DataValueEntry dataValue = reader.readNext();
+        while (dataValue != null) {
+          addToShard(
+              queues,
+              new ShardedDataValue(
+                  index++, new org.hisp.dhis.dxf2.datavalue.DataValue(dataValue)));
+          dataValue = reader.readNext();
+        }
+      } finally {
+        for (BlockingQueue<ShardedDataValue> queue : queues) {
+          putUninterruptibly(queue, END_OF_SHARD);
+        }
+      }
+
+      for (CompletableFuture<ImportSummary> future : futures) {
+        context.getSummary().mergeWith(future.join());
+      }
+    } catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Imports the data values of the given queue until the end of the shard is reached. Runs on a
+   * worker thread with its own session, batch handlers and {@link ImportContext}.
+   *
+   * @return the summary of the shard, holding the import count of the shard.
+   */
+  private ImportSummary importShard(
+      ImportOptions options,
+      DataValueSet dataValueSet,
+      Date now,
+      BlockingQueue<ShardedDataValue> queue) {
+    boolean sessionBound = false;
+    boolean endOfShard = false;
+
+    try {
+      DbmsUtils.bindSessionToThread(entityManagerFactory);
+      sessionBound = true;
+
+      try (BatchHandler<DataValue> dvBatch =
+              batchHandlerFactory.createBatchHandler(DataValueBatchHandler.class);
+          BatchHandler<DataValueAudit> dvaBatch =
+              batchHandlerFactory.createBatchHandler(DataValueAuditBatchHandler.class)) {
+        ImportContext context =
+            createDataValueSetImportContext(options, dataValueSet, dvBatch, dvaBatch);
+        preheatCaches(context);
+        DataSetContext dataSetContext = createDataSetContext(context, dataValueSet);
+        ImportCount importCount = new ImportCount();
+
+        ShardedDataValue value = takeUninterruptibly(queue);
+        while (value != END_OF_SHARD) {
+          importDataValue(
+              context, dataSetContext, importCount, now, value.index(), value.dataValue());
+          value = takeUninterruptibly(queue);
+        }
+        endOfShard = true;
+        savePendingDataValues(context, importCount);
+
+        dvBatch.flush();
+        dvaBatch.flush();
+
+        return context.getSummary().setImportCount(importCount);
+      }
+    } finally {
+      try {
+        // Keep consuming so that the reader does not block on a full queue
+        while (!endOfShard) {
+          endOfShard = takeUninterruptibly(queue) == END_OF_SHARD;
+        }
+      } finally {
+        if (sessionBound) {
+          DbmsUtils.unbindSessionFromThread(entityManagerFactory);
+        }
+      }
+    }
+  }
+
+  private static void addToShard(
+      List<BlockingQueue<ShardedDataValue>> queues, ShardedDataValue value) {
+    String orgUnit = trimToNull(value.dataValue().getOrgUnit());
+    int shard = Math.floorMod(Objects.hashCode(orgUnit), queues.size());
+    putUninterruptibly(queues.get(shard), value);
+  }
+
+  private static void putUninterruptibly(
+      BlockingQueue<ShardedDataValue> queue, ShardedDataValue value) {
+    try {
+      queue.put(value);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while queueing data value", ex);
+    }
+  }
+
+  private static ShardedDataValue takeUninterruptibly(BlockingQueue<ShardedDataValue> queue) {
+    try {
+      return queue.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for data value", ex);
+    }
+  }
+
+  /**
+   * A data value of a data value set together with its index in the data value set.
+   *
+   * @param index the index of the data value.
+   * @param dataValue the data value.
+   */
+  private record ShardedDataValue(int index, DataValueEntry dataValue) {}
+
   static LocalDate getCompletionDate(String completeDate) {
     if (completeDate == null || completeDate.isEmpty()) return null;
     LocalDate today = LocalDate.now();
@@ -811,13 +1006,68 @@ public class DefaultDataValueSetService implements DataValueSetService {
     // -----------------------------------------------------------------
     DataValue internalValue = createDataValue(dataValue, context, valueContext, now);
 
+    context
+        .getPendingDataValues()
+        .add(
+            new PendingDataValue(
+                new org.hisp.dhis.dxf2.datavalue.DataValue(dataValue), valueContext, internalValue));
+
+    if (context.getPendingDataValues().size() >= EXISTING_CHECK_CHUNK_SIZE) {
+      savePendingDataValues(context, importCount);
+    }
+  }
+
+  /**
+   * Saves the pending data values of the given context. The existing values for the pending data
+   * values are looked up with a single query, instead of one query per data value.
+   *
+   * @param context the {@link ImportContext}.
+   * @param importCount the {@link ImportCount}.
+   */
+  private void savePendingDataValues(ImportContext context, ImportCount importCount) {
+    List<PendingDataValue> pendingValues = context.getPendingDataValues();
+
+    if (pendingValues.isEmpty()) {
+      return;
+    }
+
+    List<DataValue> existingValues =
+        !context.isSkipExistingCheck()
+            ? dataValueSetStore.getExistingDataValues(
+                pendingValues.stream().map(PendingDataValue::internalValue).toList())
+            : Collections.nCopies(pendingValues.size(), null);
+
+    Map<DataValueRowKey, DataValue> updatedValues = context.getUpdatedDataValues();
+
+    for (int i = 0; i < pendingValues.size(); i++) {
+      PendingDataValue pendingValue = pendingValues.get(i);
+      DataValue internalValue = pendingValue.internalValue();
+      DataValue existingValue =
+          updatedValues.getOrDefault(DataValueRowKey.of(internalValue), existingValues.get(i));
+
+      saveDataValue(
+          context,
+          importCount,
+          pendingValue.dataValue(),
+          pendingValue.valueContext(),
+          internalValue,
+          existingValue);
+    }
+
+    pendingValues.clear();
+    updatedValues.clear();
+  }
+
+  private void saveDataValue(
+      ImportContext context,
+      ImportCount importCount,
+      DataValueEntry dataValue,
+      ImportContext.DataValueContext valueContext,
+      DataValue internalValue,
+      DataValue existingValue) {
     // -----------------------------------------------------------------
     // Save, update or delete data value
     // -----------------------------------------------------------------
-    DataValue existingValue =
-        !context.isSkipExistingCheck()
-            ? context.getDataValueBatchHandler().findObject(internalValue)
-            : null;
 
     // -----------------------------------
     // Preserve any existing created date
@@ -874,7 +1124,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
       importCount.incrementImported();
 
       if (!context.isDryRun()) {
-        context.getDataValueBatchHandler().updateObject(internalValue);
+        updateDataValue(context, internalValue);
 
         if (valueContext.getDataElement().isFileType()) {
           FileResource fr = fileResourceService.getFileResource(internalValue.getValue());
@@ -925,7 +1175,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
         }
       }
 
-      context.getDataValueBatchHandler().updateObject(internalValue);
+      updateDataValue(context, internalValue);
 
       if (!context.isSkipAudit()) {
         DataValueAudit auditValue =
@@ -963,7 +1213,7 @@ public class DefaultDataValueSetService implements DataValueSetService {
       } else importCount.incrementUpdated();
     }
     if (!context.isDryRun()) {
-      context.getDataValueBatchHandler().updateObject(internalValue);
+      updateDataValue(context, internalValue);
 
       if (!context.isSkipAudit()
           && !Objects.equals(existingValue.getValue(), internalValue.getValue())) {
@@ -992,6 +1242,21 @@ public class DefaultDataValueSetService implements DataValueSetService {
     }
   }
 
+  /**
+   * Updates the given data value. The updated data value is kept, so that subsequent values with
+   * the same key within the pending data values see the updated state.
+   *
+   * @param context the {@link ImportContext}.
+   * @param internalValue the {@link DataValue}.
+   */
+  private void updateDataValue(ImportContext context, DataValue internalValue) {
+    context.getDataValueBatchHandler().updateObject(internalValue);
+
+    if (!context.isSkipExistingCheck()) {
+      context.getUpdatedDataValues().put(DataValueRowKey.of(internalValue), internalValue);
+    }
+  }
+
   private static boolean dataValueUpdateShouldBeIgnored(
       DataValue internalValue, DataValue existingValue) {
     return !internalValue.isDeleted()
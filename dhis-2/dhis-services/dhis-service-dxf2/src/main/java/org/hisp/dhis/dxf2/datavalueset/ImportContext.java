@@ -31,7 +31,9 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import lombok.AccessLevel;
@@ -181,6 +183,13 @@ public final class ImportContext {
 
   private final CachingMap<String, Boolean> periodOpenForDataElement = new CachingMap<>();
 
+  /** Validated data values which are waiting to be saved. */
+  private final List<PendingDataValue> pendingDataValues = new ArrayList<>();
+
+  /** Data values updated while saving the pending data values, by key. */
+  private final Map<DataValueRowKey, org.hisp.dhis.datavalue.DataValue> updatedDataValues =
+      new HashMap<>();
+
   /*
    * Data fetching and processing
    */
@@ -353,4 +362,49 @@ public final class ImportContext {
           getAttrOptionCombo());
     }
   }
+
+  /**
+   * A validated {@link DataValue} of a {@link DataValueSet} which is saved once the existing
+   * values of its chunk have been resolved.
+   *
+   * @param dataValue the imported value.
+   * @param valueContext the context of the imported value.
+   * @param internalValue the data value to save.
+   */
+  public record PendingDataValue(
+      DataValueEntry dataValue,
+      DataValueContext valueContext,
+      org.hisp.dhis.datavalue.DataValue internalValue) {}
+
+  /**
+   * The key which uniquely identifies a data value.
+   *
+   * @param dataElement the data element.
+   * @param period the period.
+   * @param source the organisation unit.
+   * @param categoryOptionCombo the category option combo.
+   * @param attributeOptionCombo the attribute option combo.
+   */
+  public record DataValueRowKey(
+      DataElement dataElement,
+      Period period,
+      OrganisationUnit source,
+      CategoryOptionCombo categoryOptionCombo,
+      CategoryOptionCombo attributeOptionCombo) {
+
+    /**
+     * Returns the key of the given data value.
+     *
+     * @param value the data value.
+     * @return the {@link DataValueRowKey}.
+     */
+    public static DataValueRowKey of(org.hisp.dhis.datavalue.DataValue value) {
+      return new DataValueRowKey(
+          value.getDataElement(),
+          value.getPeriod(),
+          value.getSource(),
+          value.getCategoryOptionCombo(),
+          value.getAttributeOptionCombo());
+    }
+  }
 }
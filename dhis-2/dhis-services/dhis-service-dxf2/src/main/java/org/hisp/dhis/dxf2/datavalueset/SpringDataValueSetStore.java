@@ -36,10 +36,14 @@ import static org.hisp.dhis.util.DateUtils.toMediumDate;
 import com.google.common.base.Preconditions;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.calendar.Calendar;
@@ -47,6 +51,7 @@ import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.datavalue.DataExportParams;
+import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.query.JpaQueryUtils;
@@ -129,6 +134,54 @@ public class SpringDataValueSetStore implements DataValueSetStore {
     }
   }
 
+  @Override
+  public List<DataValue> getExistingDataValues(List<DataValue> values) {
+    List<DataValue> existing = new ArrayList<>(Collections.nCopies(values.size(), null));
+
+    if (values.isEmpty()) {
+      return existing;
+    }
+
+    Long[][] keys = new Long[5][values.size()];
+
+    for (int i = 0; i < values.size(); i++) {
+      DataValue value = values.get(i);
+      keys[0][i] = value.getDataElement().getId();
+      keys[1][i] = value.getPeriod().getId();
+      keys[2][i] = value.getSource().getId();
+      keys[3][i] = value.getCategoryOptionCombo().getId();
+      keys[4][i] = value.getAttributeOptionCombo().getId();
+    }
+
+    final String sql =
+        "select k.ix, dv.value, dv.storedby, dv.created, dv.comment, dv.followup, dv.deleted "
+            + "from unnest(?, ?, ?, ?, ?) with ordinality as k (de, pe, ou, coc, aoc, ix) "
+            + "join datavalue dv on dv.dataelementid = k.de and dv.periodid = k.pe "
+            + "and dv.sourceid = k.ou and dv.categoryoptioncomboid = k.coc "
+            + "and dv.attributeoptioncomboid = k.aoc";
+
+    jdbcTemplate.query(
+        sql,
+        (PreparedStatement ps) -> {
+          for (int p = 0; p < keys.length; p++) {
+            ps.setArray(p + 1, ps.getConnection().createArrayOf("bigint", keys[p]));
+          }
+        },
+        (ResultSet rs) -> {
+          DataValue dv = new DataValue();
+          dv.setValue(rs.getString("value"));
+          dv.setStoredBy(rs.getString("storedby"));
+          dv.setCreated(rs.getTimestamp("created"));
+          dv.setComment(rs.getString("comment"));
+          dv.setFollowup(rs.getBoolean("followup"));
+          dv.setDeleted(rs.getBoolean("deleted"));
+
+          existing.set(rs.getInt("ix") - 1, dv);
+        });
+
+    return existing;
+  }
+
   private String buildDataValueSql(Date lastUpdated, IdSchemes idSchemes) {
     String deScheme = idSchemes.getDataElementIdScheme().getIdentifiableString().toLowerCase();
     String ouScheme = idSchemes.getOrgUnitIdScheme().getIdentifiableString().toLowerCase();
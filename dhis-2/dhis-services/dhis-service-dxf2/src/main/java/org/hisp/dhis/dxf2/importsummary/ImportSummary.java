@@ -34,6 +34,7 @@ import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -262,12 +263,43 @@ public class ImportSummary extends AbstractWebMessageResponse implements ImportC
 
   @Override
   public void addConflict(ImportConflict conflict) {
-    totalConflictOccurrenceCount++;
+    addConflict(conflict, 1);
+  }
+
+  /**
+   * Adds the given conflict, which stands for the given number of conflict occurrences. All
+   * conflicts, including conflicts merged from other summaries, are added through this method.
+   *
+   * @param conflict the {@link ImportConflict}.
+   * @param occurrences the number of conflict occurrences.
+   */
+  private void addConflict(ImportConflict conflict, int occurrences) {
+    totalConflictOccurrenceCount += occurrences;
     conflicts.compute(
         conflict.getGroupingKey(),
         (key, aggregate) -> aggregate == null ? conflict : aggregate.mergeWith(conflict));
   }
 
+  /**
+   * Merges the import count, conflicts and rejected indexes of the given summary into this summary.
+   *
+   * @param other the {@link ImportSummary} to merge.
+   */
+  public void mergeWith(ImportSummary other) {
+    importCount.incrementImported(other.importCount.getImported());
+    importCount.incrementUpdated(other.importCount.getUpdated());
+    importCount.incrementDeleted(other.importCount.getDeleted());
+    importCount.incrementIgnored(other.importCount.getIgnored());
+
+    for (ImportConflict conflict : other.conflicts.values()) {
+      addConflict(conflict, 0);
+    }
+
+    totalConflictOccurrenceCount += other.totalConflictOccurrenceCount;
+    rejectedIndexes.addAll(other.rejectedIndexes);
+    Collections.sort(rejectedIndexes);
+  }
+
   @Override
   public int getTotalConflictOccurrenceCount() {
     return totalConflictOccurrenceCount;
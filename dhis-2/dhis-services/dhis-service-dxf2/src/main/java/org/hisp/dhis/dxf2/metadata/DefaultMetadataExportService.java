@@ -68,6 +68,7 @@ import org.hisp.dhis.dataentryform.DataEntryForm;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetElement;
 import org.hisp.dhis.dataset.Section;
+import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.document.Document;
 import org.hisp.dhis.dxf2.common.OrderParams;
 import org.hisp.dhis.eventchart.EventChart;
@@ -96,8 +97,10 @@ import org.hisp.dhis.programrule.ProgramRuleAction;
 import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
+import org.hisp.dhis.query.Order;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.query.planner.QueryPlanner;
 import org.hisp.dhis.report.Report;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
@@ -122,10 +125,14 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 @Service("org.hisp.dhis.dxf2.metadata.MetadataExportService")
 public class DefaultMetadataExportService implements MetadataExportService {
+  private static final int EXPORT_PAGE_SIZE = 1000;
+
   private final SchemaService schemaService;
 
   private final QueryService queryService;
 
+  private final QueryPlanner queryPlanner;
+
   private final FieldFilterService fieldFilterService;
 
   private final ProgramRuleService programRuleService;
@@ -140,8 +147,9 @@ public class DefaultMetadataExportService implements MetadataExportService {
 
   private final UserService userService;
 
+  private final DbmsManager dbmsManager;
+
   @Override
-  @SuppressWarnings("unchecked")
   @Transactional(readOnly = true)
   public Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> getMetadata(
       MetadataExportParams params) {
@@ -149,49 +157,14 @@ public class DefaultMetadataExportService implements MetadataExportService {
     Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata =
         new HashMap<>();
 
-    String username =
-        params.getCurrentUserDetails() != null
-            ? params.getCurrentUserDetails().getUsername()
-            : "system-process";
+    String username = getUsername(params);
 
-    if (params.getCurrentUserDetails() == null) {
-      params.setCurrentUserDetails(CurrentUserUtil.getCurrentUserDetails());
-    }
-
-    if (params.getClasses().isEmpty()) {
-      schemaService.getMetadataSchemas().stream()
-          .filter(schema -> schema.isIdentifiableObject() && schema.isPersisted())
-          .filter(s -> !s.isSecondaryMetadata())
-          .filter(DEPRECATED_ANALYTICS_SCHEMAS)
-          .forEach(
-              schema ->
-                  params.getClasses().add((Class<? extends IdentifiableObject>) schema.getKlass()));
-    }
+    initParams(params);
 
     log.info("(" + username + ") Export:Start");
 
     for (Class<? extends IdentifiableObject> klass : params.getClasses()) {
-      Query query;
-
-      if (params.getQuery(klass) != null) {
-        query = params.getQuery(klass);
-      } else {
-        OrderParams orderParams = new OrderParams(Sets.newHashSet(params.getDefaultOrder()));
-        query =
-            queryService.getQueryFromUrl(
-                klass,
-                params.getDefaultFilter(),
-                orderParams.getOrders(schemaService.getDynamicSchema(klass)));
-      }
-
-      if (query.getCurrentUserDetails() == null && params.getCurrentUserDetails() != null) {
-        query.setCurrentUserDetails(params.getCurrentUserDetails());
-      }
-
-      query.setDefaultOrder();
-      query.setDefaults(params.getDefaults());
-
-      List<? extends IdentifiableObject> objects = queryService.query(query);
+      List<? extends IdentifiableObject> objects = queryService.query(getQuery(params, klass));
 
       if (!objects.isEmpty()) {
         log.info(
@@ -211,6 +184,67 @@ public class DefaultMetadataExportService implements MetadataExportService {
     return metadata;
   }
 
+  /**
+   * Sets the current user details and, if no classes are given, all exportable metadata classes on
+   * the given params.
+   *
+   * @param params the {@link MetadataExportParams}.
+   */
+  @SuppressWarnings("unchecked")
+  private void initParams(MetadataExportParams params) {
+    if (params.getCurrentUserDetails() == null) {
+      params.setCurrentUserDetails(CurrentUserUtil.getCurrentUserDetails());
+    }
+
+    if (params.getClasses().isEmpty()) {
+      schemaService.getMetadataSchemas().stream()
+          .filter(schema -> schema.isIdentifiableObject() && schema.isPersisted())
+          .filter(s -> !s.isSecondaryMetadata())
+          .filter(DEPRECATED_ANALYTICS_SCHEMAS)
+          .forEach(
+              schema ->
+                  params.getClasses().add((Class<? extends IdentifiableObject>) schema.getKlass()));
+    }
+  }
+
+  /**
+   * Returns the query for objects of the given class, which is either the query given by the params
+   * or a query based on the default filter and order of the params.
+   *
+   * @param params the {@link MetadataExportParams}.
+   * @param klass the class of objects to query.
+   * @return the {@link Query}.
+   */
+  private Query getQuery(MetadataExportParams params, Class<? extends IdentifiableObject> klass) {
+    Query query;
+
+    if (params.getQuery(klass) != null) {
+      query = params.getQuery(klass);
+    } else {
+      OrderParams orderParams = new OrderParams(Sets.newHashSet(params.getDefaultOrder()));
+      query =
+          queryService.getQueryFromUrl(
+              klass,
+              params.getDefaultFilter(),
+              orderParams.getOrders(schemaService.getDynamicSchema(klass)));
+    }
+
+    if (query.getCurrentUserDetails() == null && params.getCurrentUserDetails() != null) {
+      query.setCurrentUserDetails(params.getCurrentUserDetails());
+    }
+
+    query.setDefaultOrder();
+    query.setDefaults(params.getDefaults());
+
+    return query;
+  }
+
+  private String getUsername(MetadataExportParams params) {
+    return params.getCurrentUserDetails() != null
+        ? params.getCurrentUserDetails().getUsername()
+        : "system-process";
+  }
+
   /**
    * This predicate is used to filter out deprecated Analytics schemas, {@link EventChart} & {@link
    * EventReport}.As they are no longer used ({@link EventVisualization} has replaced them), they
@@ -268,8 +302,12 @@ public class DefaultMetadataExportService implements MetadataExportService {
       return;
     }
 
-    Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata =
-        getMetadata(params);
+    Timer timer = new SystemTimer().start();
+    String username = getUsername(params);
+
+    initParams(params);
+
+    log.info("(" + username + ") Export:Start");
 
     try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
       generator.writeStartObject();
@@ -281,30 +319,97 @@ public class DefaultMetadataExportService implements MetadataExportService {
       generator.writeStringField(SYSTEM_DATE, DateUtils.toIso8601(systemInfo.getServerDate()));
       generator.writeEndObject();
 
-      for (Class<? extends IdentifiableObject> klass : metadata.keySet()) {
-        List<Object> objects = new ArrayList<>(metadata.get(klass));
+      for (Class<? extends IdentifiableObject> klass : params.getClasses()) {
+        int count = writeMetadataStream(params, klass, generator);
+
+        if (count > 0) {
+          log.info(
+              "(" + username + ") Exported " + count + " objects of type " + klass.getSimpleName());
+        }
+      }
+
+      generator.writeEndObject();
+    }
 
-        if (objects.isEmpty()) {
-          continue;
+    log.info("(" + username + ") Export:Done took " + timer.toString());
+  }
+
+  /**
+   * Writes the objects of the given class as an array to the given generator. Objects are queried
+   * and written page by page, and the session is cleared after each page, so that only a single
+   * page of objects is held in memory. Queries which are paged or hold objects already are written
+   * in one go. So are queries which cannot be run fully in the database, such as queries with
+   * non-persisted filters or orders, as those are paged in memory after loading all objects.
+   * Nothing is written if there are no objects.
+   *
+   * @param params the {@link MetadataExportParams}.
+   * @param klass the class of objects to write.
+   * @param generator the {@link JsonGenerator}.
+   * @return the number of objects written.
+   */
+  private int writeMetadataStream(
+      MetadataExportParams params,
+      Class<? extends IdentifiableObject> klass,
+      JsonGenerator generator)
+      throws IOException {
+    Query query = getQuery(params, klass);
+
+    boolean paged =
+        query.getObjects() == null
+            && query.getFirstResult() == 0
+            && query.getMaxResults() == Integer.MAX_VALUE
+            && queryPlanner.planQuery(query).getNonPersistedQuery().isEmpty();
+
+    if (paged) {
+      // Order by id last so that pages do not overlap
+
+      Schema schema = schemaService.getDynamicSchema(klass);
+      boolean orderedById =
+          query.getOrders().stream().anyMatch(order -> "id".equals(order.getProperty().getName()));
+
+      if (!orderedById && schema.hasPersistedProperty("id")) {
+        query.addOrder(Order.asc(schema.getPersistedProperty("id")));
+      }
+
+      query.setMaxResults(EXPORT_PAGE_SIZE);
+    }
+
+    int count = 0;
+    List<? extends IdentifiableObject> objects;
+
+    do {
+      objects = queryService.query(query);
+
+      if (!objects.isEmpty()) {
+        if (count == 0) {
+          generator.writeArrayFieldStart(schemaService.getDynamicSchema(klass).getPlural());
         }
 
         User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
         FieldFilterParams<?> fieldFilterParams =
             FieldFilterParams.builder()
-                .objects(objects)
+                .objects(new ArrayList<>(objects))
                 .filters(params.getFields(klass))
                 .skipSharing(params.getSkipSharing())
                 .user(currentUser)
                 .build();
 
-        String plural = schemaService.getDynamicSchema(klass).getPlural();
-        generator.writeArrayFieldStart(plural);
         fieldFilterService.toObjectNodesStream(fieldFilterParams, generator);
-        generator.writeEndArray();
+        generator.flush();
+        count += objects.size();
       }
 
-      generator.writeEndObject();
+      if (paged) {
+        dbmsManager.clearSession();
+        query.setFirstResult(query.getFirstResult() + EXPORT_PAGE_SIZE);
+      }
+    } while (paged && !objects.isEmpty());
+
+    if (count > 0) {
+      generator.writeEndArray();
     }
+
+    return count;
   }
 
   @Override
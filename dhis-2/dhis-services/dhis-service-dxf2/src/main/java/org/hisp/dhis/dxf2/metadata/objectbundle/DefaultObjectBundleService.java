@@ -32,6 +32,7 @@ import static org.hisp.dhis.dxf2.metadata.objectbundle.EventReportCompatibilityG
 import static org.hisp.dhis.eventhook.EventUtils.metadataCreate;
 import static org.hisp.dhis.eventhook.EventUtils.metadataDelete;
 import static org.hisp.dhis.eventhook.EventUtils.metadataUpdate;
+import static org.hisp.dhis.external.conf.ConfigurationKey.METADATA_IMPORT_JDBC_BATCH_SIZE;
 
 import java.util.HashMap;
 import java.util.List;
@@ -52,6 +53,7 @@ import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.dxf2.metadata.FlushMode;
 import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleCommitReport;
 import org.hisp.dhis.eventhook.EventHookPublisher;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.feedback.ErrorMessage;
 import org.hisp.dhis.feedback.ErrorReport;
@@ -90,6 +92,7 @@ public class DefaultObjectBundleService implements ObjectBundleService {
   private final ObjectBundleHooks objectBundleHooks;
   private final EventHookPublisher eventHookPublisher;
   private final DeletionManager deletionManager;
+  private final DhisConfigurationProvider config;
 
   @Override
   @Transactional(readOnly = true)
@@ -133,15 +136,32 @@ public class DefaultObjectBundleService implements ObjectBundleService {
     List<Class<? extends IdentifiableObject>> klasses = getSortedClasses(bundle);
     Session session = entityManager.unwrap(Session.class);
 
-    List<ObjectBundleHook<?>> commitHooks = objectBundleHooks.getCommitHooks(klasses);
-    commitHooks.forEach(hook -> hook.preCommit(bundle));
+    // Objects are written class by class in dependency order, so statements for the same table
+    // can be sent in JDBC batches when configured. Not batched when flushing per object, which
+    // reports errors per object
 
-    for (Class<? extends IdentifiableObject> klass : klasses) {
-      commitObjectType(bundle, typeReports, session, klass, progress);
+    Integer jdbcBatchSize = session.getJdbcBatchSize();
+    int importJdbcBatchSize = Integer.parseInt(config.getProperty(METADATA_IMPORT_JDBC_BATCH_SIZE));
+
+    if (FlushMode.AUTO == bundle.getFlushMode() && importJdbcBatchSize > 0) {
+      session.setJdbcBatchSize(importJdbcBatchSize);
     }
 
-    if (!bundle.getImportMode().isDelete()) {
-      commitHooks.forEach(hook -> hook.postCommit(bundle));
+    try {
+      List<ObjectBundleHook<?>> commitHooks = objectBundleHooks.getCommitHooks(klasses);
+      commitHooks.forEach(hook -> hook.preCommit(bundle));
+
+      for (Class<? extends IdentifiableObject> klass : klasses) {
+        commitObjectType(bundle, typeReports, session, klass, progress);
+      }
+
+      if (!bundle.getImportMode().isDelete()) {
+        commitHooks.forEach(hook -> hook.postCommit(bundle));
+      }
+
+      session.flush();
+    } finally {
+      session.setJdbcBatchSize(jdbcBatchSize);
     }
 
     dbmsManager.clearSession();
@@ -32,8 +32,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -155,7 +157,8 @@ class DataValueSetServiceImportTest extends TestBase {
 
     // simulate that the imported DataValue already exists and is identical
     // (no changes)
-    when(batchHandler.findObject(any())).then(AdditionalAnswers.returnsFirstArg());
+    when(dataValueSetStore.getExistingDataValues(any()))
+        .then(AdditionalAnswers.returnsFirstArg());
 
     ImportSummary summary =
         dataValueSetService.importDataValueSetXml(
@@ -163,6 +166,9 @@ class DataValueSetServiceImportTest extends TestBase {
 
     assertSuccessWithImportedUpdatedDeleted(0, 0, 0, 3, summary);
     verify(batchHandler, never()).updateObject(any());
+    verify(batchHandler, never()).findObject(any());
+    verify(dataValueSetStore, times(1))
+        .getExistingDataValues(argThat(values -> values.size() == 3));
   }
 
   private InputStream readFile(String filename) {
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.importsummary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ImportSummaryTest {
+
+  @Test
+  void testMergeWith() {
+    ImportSummary summary =
+        new ImportSummary(ImportStatus.SUCCESS, "Shard A", new ImportCount(4, 2, 1, 2));
+    summary.addConflict("dataElementA", "Data element not found");
+    summary.addRejected(3);
+
+    ImportSummary other =
+        new ImportSummary(ImportStatus.SUCCESS, "Shard B", new ImportCount(1, 2, 3, 0));
+    other.addConflict("orgUnitA", "Org unit not found");
+    other.addRejected(1);
+    other.addRejected(5);
+
+    summary.mergeWith(other);
+
+    assertEquals(5, summary.getImportCount().getImported());
+    assertEquals(4, summary.getImportCount().getUpdated());
+    assertEquals(4, summary.getImportCount().getIgnored());
+    assertEquals(2, summary.getImportCount().getDeleted());
+    assertEquals(2, summary.getConflictCount());
+    assertEquals(2, summary.getTotalConflictOccurrenceCount());
+    assertEquals(List.of(1, 3, 5), summary.getRejectedIndexes());
+  }
+}
@@ -28,14 +28,25 @@
 package org.hisp.dhis.dxf2.metadata;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,9 +58,11 @@ import org.hisp.dhis.common.SetMap;
 import org.hisp.dhis.dashboard.Dashboard;
 import org.hisp.dhis.dashboard.DashboardItem;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.eventchart.EventChart;
 import org.hisp.dhis.eventreport.EventReport;
 import org.hisp.dhis.eventvisualization.EventVisualization;
+import org.hisp.dhis.fieldfiltering.FieldFilterService;
 import org.hisp.dhis.mapping.MapView;
 import org.hisp.dhis.option.Option;
 import org.hisp.dhis.option.OptionGroup;
@@ -61,9 +74,15 @@ import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.query.Restrictions;
+import org.hisp.dhis.query.planner.QueryPlan;
+import org.hisp.dhis.query.planner.QueryPlanner;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.system.SystemInfo;
+import org.hisp.dhis.system.SystemService;
+import org.hisp.dhis.user.UserService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -74,6 +93,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 /**
@@ -91,6 +111,18 @@ class DefaultMetadataExportServiceTest {
 
   @Mock private QueryService queryService;
 
+  @Mock private QueryPlanner queryPlanner;
+
+  @Mock private FieldFilterService fieldFilterService;
+
+  @Mock private SystemService systemService;
+
+  @Mock private UserService userService;
+
+  @Mock private DbmsManager dbmsManager;
+
+  @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
   @InjectMocks private DefaultMetadataExportService service;
 
   @Test
@@ -227,6 +259,76 @@ class DefaultMetadataExportServiceTest {
         3, params.getClasses().size(), "EventChart and EventReport classes should not be present");
   }
 
+  @Test
+  void getMetadataAsObjectNodeStreamWritesPages() throws IOException {
+    MetadataExportParams params = new MetadataExportParams();
+    params.getClasses().add(DataElement.class);
+
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    when(schemaService.getDynamicSchema(DataElement.class)).thenReturn(schema);
+    when(queryService.getQueryFromUrl(any(), any(), any())).thenReturn(Query.from(schema));
+    when(queryPlanner.planQuery(any(Query.class)))
+        .thenReturn(new QueryPlan(Query.from(schema), Query.from(schema)));
+    when(systemService.getSystemInfo())
+        .thenReturn(SystemInfo.builder().systemId("system").serverDate(new Date()).build());
+    doReturn(Collections.nCopies(1000, new DataElement()), List.of(new DataElement()), List.of())
+        .when(queryService)
+        .query(any(Query.class));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.getMetadataAsObjectNodeStream(params, out);
+
+    verify(queryService, times(3)).query(any(Query.class));
+    verify(fieldFilterService, times(2)).toObjectNodesStream(any(), any());
+    verify(dbmsManager, times(3)).clearSession();
+    assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"dataElements\":[]"));
+  }
+
+  @Test
+  void getMetadataAsObjectNodeStreamSkipsEmptyClasses() throws IOException {
+    MetadataExportParams params = new MetadataExportParams();
+    params.getClasses().add(DataElement.class);
+
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    when(schemaService.getDynamicSchema(DataElement.class)).thenReturn(schema);
+    when(queryService.getQueryFromUrl(any(), any(), any())).thenReturn(Query.from(schema));
+    when(queryPlanner.planQuery(any(Query.class)))
+        .thenReturn(new QueryPlan(Query.from(schema), Query.from(schema)));
+    when(systemService.getSystemInfo())
+        .thenReturn(SystemInfo.builder().systemId("system").serverDate(new Date()).build());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.getMetadataAsObjectNodeStream(params, out);
+
+    verify(fieldFilterService, times(0)).toObjectNodesStream(any(), any());
+    assertFalse(out.toString(StandardCharsets.UTF_8).contains("dataElements"));
+  }
+
+  @Test
+  void getMetadataAsObjectNodeStreamDoesNotPageNonPersistedQueries() throws IOException {
+    MetadataExportParams params = new MetadataExportParams();
+    params.getClasses().add(DataElement.class);
+
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    Query nonPersistedQuery = Query.from(schema).add(Restrictions.eq("displayName", "a"));
+    when(schemaService.getDynamicSchema(DataElement.class)).thenReturn(schema);
+    when(queryService.getQueryFromUrl(any(), any(), any())).thenReturn(Query.from(schema));
+    when(queryPlanner.planQuery(any(Query.class)))
+        .thenReturn(new QueryPlan(Query.from(schema), nonPersistedQuery));
+    when(systemService.getSystemInfo())
+        .thenReturn(SystemInfo.builder().systemId("system").serverDate(new Date()).build());
+    doReturn(Collections.nCopies(1000, new DataElement()))
+        .when(queryService)
+        .query(any(Query.class));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.getMetadataAsObjectNodeStream(params, out);
+
+    verify(queryService, times(1)).query(any(Query.class));
+    verify(fieldFilterService, times(1)).toObjectNodesStream(any(), any());
+    verify(dbmsManager, never()).clearSession();
+  }
+
   @ParameterizedTest
   @MethodSource(value = "schemaSources")
   @DisplayName("Deprecated Analytic schema predicate returns the correct result")
@@ -29,9 +29,12 @@ package org.hisp.dhis.fieldfiltering;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.cfg.MapperConfig;
 import com.fasterxml.jackson.databind.introspect.Annotated;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
@@ -39,6 +42,7 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
@@ -215,43 +219,17 @@ public class FieldFilterService {
       User user,
       boolean isSkipSharing,
       Consumer<ObjectNode> consumer) {
-
-    UserDetails currentUserDetails = null;
-    if (user == null) {
-      currentUserDetails = CurrentUserUtil.getCurrentUserDetails();
-    } else {
-      currentUserDetails = UserDetails.fromUser(user);
-    }
-
-    // In case we get a proxied object in we can't just use o.getClass(), we
-    // need to figure out the real class name by using HibernateProxyUtils.
-    Object firstObject = objects.iterator().next();
-    List<FieldPath> paths =
-        fieldPathHelper.apply(filter, HibernateProxyUtils.getRealClass(firstObject));
-
-    SimpleFilterProvider filterProvider = getSimpleFilterProvider(paths, isSkipSharing);
-
-    // only set filter provider on a local copy so that we don't affect
-    // other object mappers (running across other threads)
-    ObjectMapper objectMapper = jsonMapper.copy().setFilterProvider(filterProvider);
-
-    Map<String, List<FieldTransformer>> fieldTransformers = getTransformers(paths);
+    FilterContext context = getFilterContext(objects, filter, user, isSkipSharing);
 
     for (Object object : objects) {
-      applyAccess(object, paths, isSkipSharing, currentUserDetails);
-      applySharingDisplayNames(object, paths, isSkipSharing);
-      applyAttributeValuesAttribute(object, paths, isSkipSharing);
-
-      ObjectNode objectNode = objectMapper.valueToTree(object);
-      applyAttributeValueFields(object, objectNode, paths);
-      applyTransformers(objectNode, null, "", fieldTransformers);
-
-      consumer.accept(objectNode);
+      consumer.accept(toObjectNode(object, context));
     }
   }
 
   /**
-   * Streams filtered object nodes using given JsonGenerator.
+   * Streams filtered object nodes using given JsonGenerator. Objects are written directly to the
+   * generator without building intermediate object nodes, unless transformers or attribute value
+   * fields are requested.
    *
    * @param params Filter params to apply
    * @param generator Pre-created json generator
@@ -264,26 +242,94 @@ public class FieldFilterService {
     if (params.getObjects().isEmpty()) {
       return;
     }
+
     List<FieldPath> fieldPaths = FieldFilterParser.parse(params.getFilters());
+    FilterContext context =
+        getFilterContext(params.getObjects(), fieldPaths, params.getUser(), params.isSkipSharing());
+
+    // The field filter resolves property paths from the output context of the
+    // generator, hence objects can only be written directly if no enclosing
+    // context holds a value which would become part of the paths
+
+    boolean treeRequired = context.isTreeRequired() || hasCurrentValue(generator);
+
+    for (Object object : params.getObjects()) {
+      if (treeRequired) {
+        generator.writeObject(toObjectNode(object, context));
+      } else {
+        applyObjectProperties(object, context);
+        context.writer().writeValue(generator, object);
+      }
+    }
+  }
+
+  private boolean hasCurrentValue(JsonGenerator generator) {
+    for (JsonStreamContext ctx = generator.getOutputContext(); ctx != null; ctx = ctx.getParent()) {
+      if (ctx.getCurrentValue() != null) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Resolves the field paths, transformers and object writer for filtering the given objects, which
+   * are expected to be of the same class.
+   */
+  private <T> FilterContext getFilterContext(
+      List<T> objects, List<FieldPath> filter, User user, boolean isSkipSharing) {
+    UserDetails currentUserDetails = null;
+    if (user == null) {
+      currentUserDetails = CurrentUserUtil.getCurrentUserDetails();
+    } else {
+      currentUserDetails = UserDetails.fromUser(user);
+    }
+
+    // In case we get a proxied object in we can't just use o.getClass(), we
+    // need to figure out the real class name by using HibernateProxyUtils.
+    Object firstObject = objects.iterator().next();
+    List<FieldPath> paths =
+        fieldPathHelper.apply(filter, HibernateProxyUtils.getRealClass(firstObject));
+
+    SimpleFilterProvider filterProvider = getSimpleFilterProvider(paths, isSkipSharing);
+
+    // only set filter provider on the writer so that we don't affect other
+    // object mappers (running across other threads), while sharing the
+    // serializer cache of the mapper
+    ObjectWriter writer =
+        jsonMapper
+            .writer(filterProvider)
+            .without(SerializationFeature.WRAP_ROOT_VALUE)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    return new FilterContext(
+        paths, writer, getTransformers(paths), currentUserDetails, isSkipSharing);
+  }
+
+  private ObjectNode toObjectNode(Object object, FilterContext context) {
+    applyObjectProperties(object, context);
+
+    TokenBuffer buffer = new TokenBuffer(jsonMapper, false);
 
     try {
-      toObjectNodes(
-          params.getObjects(),
-          fieldPaths,
-          params.getUser(),
-          params.isSkipSharing(),
-          n -> {
-            try {
-              generator.writeObject(n);
-            } catch (IOException e) {
-              throw new UncheckedIOException(e);
-            }
-          });
-    } catch (UncheckedIOException e) {
-      throw e.getCause();
+      context.writer().writeValue(buffer, object);
+      ObjectNode objectNode = jsonMapper.readTree(buffer.asParser());
+      applyAttributeValueFields(object, objectNode, context.paths());
+      applyTransformers(objectNode, null, "", context.transformers());
+
+      return objectNode;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
   }
 
+  private void applyObjectProperties(Object object, FilterContext context) {
+    applyAccess(object, context.paths(), context.skipSharing(), context.currentUserDetails());
+    applySharingDisplayNames(object, context.paths(), context.skipSharing());
+    applyAttributeValuesAttribute(object, context.paths(), context.skipSharing());
+  }
+
   private void applyAttributeValueFields(
       Object object, ObjectNode objectNode, List<FieldPath> fieldPaths) {
     if (!(object instanceof BaseIdentifiableObject)) {
@@ -485,4 +531,30 @@ public class FieldFilterService {
           }
         });
   }
+
+  /**
+   * Field paths, transformers and object writer for filtering objects of a single class.
+   *
+   * @param paths the resolved field paths.
+   * @param writer the object writer applying the field filter.
+   * @param transformers the field transformers by full path.
+   * @param currentUserDetails the user to compute access for.
+   * @param skipSharing whether to skip sharing properties.
+   */
+  private record FilterContext(
+      List<FieldPath> paths,
+      ObjectWriter writer,
+      Map<String, List<FieldTransformer>> transformers,
+      UserDetails currentUserDetails,
+      boolean skipSharing) {
+    /**
+     * Indicates whether intermediate object nodes are required, which is the case if transformers
+     * or attribute value fields are requested.
+     */
+    boolean isTreeRequired() {
+      return transformers.values().stream().anyMatch(t -> !t.isEmpty())
+          || paths.stream()
+              .anyMatch(p -> p.getProperty() == null && CodeGenerator.isValidUid(p.getFullPath()));
+    }
+  }
 }
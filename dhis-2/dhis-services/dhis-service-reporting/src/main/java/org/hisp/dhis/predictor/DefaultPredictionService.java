@@ -28,6 +28,8 @@
 package org.hisp.dhis.predictor;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
@@ -50,10 +52,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
 import org.hisp.dhis.analytics.AnalyticsService;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.category.CategoryOptionCombo;
@@ -64,6 +70,7 @@ import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.ListMap;
 import org.hisp.dhis.common.MapMap;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.datavalue.DataValue;
@@ -98,6 +105,12 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 @RequiredArgsConstructor
 public class DefaultPredictionService implements PredictionService {
+  /** Number of org units for which predictions are evaluated together, in parallel. */
+  private static final int ORG_UNIT_BATCH_SIZE = 500;
+
+  /** Minimum number of org units in a batch for which predictions are evaluated in parallel. */
+  private static final int MIN_PARALLEL_BATCH_SIZE = 10;
+
   private final PredictorService predictorService;
 
   private final ExpressionService expressionService;
@@ -240,7 +253,6 @@ public class DefaultPredictionService implements PredictionService {
   public void predictSimple(
       Predictor predictor, Date startDate, Date endDate, PredictionSummary predictionSummary) {
     Expression generator = predictor.getGenerator();
-    Expression skipTest = predictor.getSampleSkipTest();
     DataElement outputDataElement = predictor.getOutput();
     DataType expressionDataType = DataType.fromValueType(outputDataElement.getValueType());
 
@@ -288,6 +300,20 @@ public class DefaultPredictionService implements PredictionService {
 
     predictionSummary.incrementPredictors();
 
+    initializeOrgUnitCollections(baseExParams);
+
+    PredictionRun run =
+        new PredictionRun(
+            predictor,
+            expressionDataType,
+            exInfo,
+            baseExParams,
+            samplePeriodsMap,
+            allSamplePeriods,
+            requireData,
+            forwardReference,
+            currentUser);
+
     for (OrganisationUnitLevel orgUnitLevel : predictor.getOrganisationUnitLevels()) {
       List<OrganisationUnit> orgUnits =
           organisationUnitService.getOrganisationUnitsAtOrgUnitLevels(
@@ -301,61 +327,23 @@ public class DefaultPredictionService implements PredictionService {
           existingOutputPeriods,
           outputDataElementOperand);
 
+      List<OrgUnitPrediction> batch = new ArrayList<>();
       PredictionData data;
 
       while ((data = filter(consolidator.getData())) != null) {
-        List<DataValue> predictions = new ArrayList<>();
-
         List<PredictionContext> contexts =
             PredictionContextGenerator.getContexts(
                 outputPeriods, data.getValues(), defaultCategoryOptionCombo, preDis);
 
-        for (PredictionContext c : contexts) {
-          Map<DimensionalItemObject, Object> valueMap =
-              firstNonNull(c.getPeriodValueMap().get(c.getOutputPeriod()), new HashMap<>());
-
-          List<Period> samplePeriods = new ArrayList<>(samplePeriodsMap.get(c.getOutputPeriod()));
-
-          samplePeriods.removeAll(
-              getSkippedPeriods(
-                  allSamplePeriods,
-                  baseExParams,
-                  c.getPeriodValueMap(),
-                  skipTest,
-                  data.getOrgUnit()));
-
-          if (!isEvaluationRequired(
-              requireData,
-              exInfo,
-              samplePeriods,
-              valueMap,
-              c.getPeriodValueMap(),
-              baseExParams.getItemMap())) {
-            continue;
-          }
+        batch.add(new OrgUnitPrediction(data, contexts));
 
-          Object value =
-              expressionService.getExpressionValue(
-                  baseExParams.toBuilder()
-                      .expression(predictor.getGenerator().getExpression())
-                      .parseType(PREDICTOR_EXPRESSION)
-                      .dataType(expressionDataType)
-                      .valueMap(valueMap)
-                      .days(c.getOutputPeriod().getDaysInPeriod())
-                      .missingValueStrategy(generator.getMissingValueStrategy())
-                      .orgUnit(data.getOrgUnit())
-                      .samplePeriods(samplePeriods)
-                      .periodValueMap(c.getPeriodValueMap())
-                      .build());
-
-          DataValue prediction =
-              processPrediction(predictor, c, value, currentUser, data.getOrgUnit());
-
-          rememberPredictedValue(prediction, predictions, contexts, forwardReference);
+        if (batch.size() == ORG_UNIT_BATCH_SIZE) {
+          predictBatch(run, batch, predictionWriter);
+          batch.clear();
         }
-
-        predictionWriter.write(predictions, data.getOldPredictions());
       }
+
+      predictBatch(run, batch, predictionWriter);
     }
 
     predictionWriter.flush();
@@ -365,6 +353,139 @@ public class DefaultPredictionService implements PredictionService {
   // Supportive Methods
   // -------------------------------------------------------------------------
 
+  /** Settings of a simple predictor run, shared by the predictions for all org units. */
+  private record PredictionRun(
+      Predictor predictor,
+      DataType expressionDataType,
+      ExpressionInfo exInfo,
+      ExpressionParams baseExParams,
+      ListMap<Period, Period> samplePeriodsMap,
+      Set<Period> allSamplePeriods,
+      boolean requireData,
+      boolean forwardReference,
+      User currentUser) {}
+
+  /** Prediction data for an org unit, with the prediction contexts to evaluate. */
+  private record OrgUnitPrediction(PredictionData data, List<PredictionContext> contexts) {}
+
+  /**
+   * Initializes the org unit collections of any org unit groups, data sets and programs referenced
+   * by the expressions, so the expressions can be evaluated on threads without a session.
+   */
+  private void initializeOrgUnitCollections(ExpressionParams baseExParams) {
+    baseExParams.getOrgUnitGroupMap().values().forEach(g -> Hibernate.initialize(g.getMembers()));
+    baseExParams.getDataSetMap().values().forEach(ds -> Hibernate.initialize(ds.getSources()));
+    baseExParams
+        .getProgramMap()
+        .values()
+        .forEach(p -> Hibernate.initialize(p.getOrganisationUnits()));
+  }
+
+  /**
+   * Evaluates the predictions for a batch of org units and writes them.
+   *
+   * <p>The org units are evaluated in parallel, as the predictions for one org unit do not depend
+   * on those of another. Everything that needs the database, fetching the data and writing the
+   * predictions, stays on the calling thread which owns the transaction. The parallel evaluation
+   * runs in a pool of its own, bounded by the CPU cores, so it neither competes with other users
+   * of the common pool nor lets the common pool run it on the calling thread.
+   */
+  private void predictBatch(
+      PredictionRun run, List<OrgUnitPrediction> batch, PredictionWriter predictionWriter) {
+    List<List<DataValue>> predictions =
+        batch.size() < MIN_PARALLEL_BATCH_SIZE
+            ? predictOrgUnits(run, batch.stream())
+            : predictOrgUnitsInParallel(run, batch);
+
+    for (int i = 0; i < batch.size(); i++) {
+      predictionWriter.write(predictions.get(i), batch.get(i).data().getOldPredictions());
+    }
+  }
+
+  /** Evaluates the predictions for a batch of org units in a bounded pool of its own. */
+  private List<List<DataValue>> predictOrgUnitsInParallel(
+      PredictionRun run, List<OrgUnitPrediction> batch) {
+    int parallelism = min(batch.size(), max(2, SystemUtils.getCpuCores() - 1));
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      // running a parallel stream as task in a FJP makes the stream use the pool
+      return pool.submit(() -> predictOrgUnits(run, batch.parallelStream())).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while evaluating predictions", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Failed to evaluate predictions", ex.getCause());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private List<List<DataValue>> predictOrgUnits(
+      PredictionRun run, Stream<OrgUnitPrediction> orgUnitPredictions) {
+    return orgUnitPredictions.map(p -> predictOrgUnit(run, p.data(), p.contexts())).toList();
+  }
+
+  /**
+   * Evaluates the predictions for an org unit. The contexts are evaluated in order, so predicted
+   * values can be carried forward to later periods.
+   */
+  private List<DataValue> predictOrgUnit(
+      PredictionRun run, PredictionData data, List<PredictionContext> contexts) {
+    Predictor predictor = run.predictor();
+    Expression generator = predictor.getGenerator();
+    ExpressionParams baseExParams = run.baseExParams();
+    List<DataValue> predictions = new ArrayList<>();
+
+    for (PredictionContext c : contexts) {
+      Map<DimensionalItemObject, Object> valueMap =
+          firstNonNull(c.getPeriodValueMap().get(c.getOutputPeriod()), new HashMap<>());
+
+      List<Period> samplePeriods = new ArrayList<>(run.samplePeriodsMap().get(c.getOutputPeriod()));
+
+      samplePeriods.removeAll(
+          getSkippedPeriods(
+              run.allSamplePeriods(),
+              baseExParams,
+              c.getPeriodValueMap(),
+              predictor.getSampleSkipTest(),
+              data.getOrgUnit()));
+
+      if (!isEvaluationRequired(
+          run.requireData(),
+          run.exInfo(),
+          samplePeriods,
+          valueMap,
+          c.getPeriodValueMap(),
+          baseExParams.getItemMap())) {
+        continue;
+      }
+
+      Object value =
+          expressionService.getExpressionValue(
+              baseExParams.toBuilder()
+                  .expression(generator.getExpression())
+                  .parseType(PREDICTOR_EXPRESSION)
+                  .dataType(run.expressionDataType())
+                  .valueMap(valueMap)
+                  .days(c.getOutputPeriod().getDaysInPeriod())
+                  .missingValueStrategy(generator.getMissingValueStrategy())
+                  .orgUnit(data.getOrgUnit())
+                  .samplePeriods(samplePeriods)
+                  .periodValueMap(c.getPeriodValueMap())
+                  .build());
+
+      DataValue prediction =
+          processPrediction(predictor, c, value, run.currentUser(), data.getOrgUnit());
+
+      rememberPredictedValue(prediction, predictions, contexts, run.forwardReference());
+    }
+
+    return predictions;
+  }
+
   private DataValue processPrediction(
       Predictor predictor,
       PredictionContext c,
@@ -108,13 +108,18 @@ public class DataValidationRunner {
   @Setter private AnalyticsService analyticsService;
 
   /**
-   * Evaluates validation rules for a single organisation unit. This is the central method in
-   * validation rule evaluation.
+   * Evaluates validation rules for the given organisation units and period. Used by {@link
+   * Validator} to run one task per period and chunk of organisation units, where each task uses its
+   * own read-only transaction.
    */
-  @Transactional
-  public void run(List<OrganisationUnit> orgUnits, ValidationRunContext context) {
+  @Transactional(readOnly = true)
+  public void run(
+      List<OrganisationUnit> orgUnits,
+      PeriodTypeExtended periodTypeX,
+      Period period,
+      ValidationRunContext context) {
     try {
-      runInternal(orgUnits, context);
+      runPeriod(orgUnits, periodTypeX, period, context);
     } catch (Exception ex) {
       log.error(DebugUtils.getStackTrace(ex));
 
@@ -123,30 +128,30 @@ public class DataValidationRunner {
   }
 
   /**
-   * Get the data needed for this task, then evaluate each combination of organisation unit / period
+   * Get the data needed for the given period, then evaluate each combination of organisation unit
    * / validation rule.
    */
-  private void runInternal(List<OrganisationUnit> orgUnits, ValidationRunContext context) {
+  private void runPeriod(
+      List<OrganisationUnit> orgUnits,
+      PeriodTypeExtended ptx,
+      Period p,
+      ValidationRunContext context) {
     if (context.isAnalysisComplete()) {
       return;
     }
 
-    for (PeriodTypeExtended ptx : context.getPeriodTypeXs()) {
-      for (Period p : ptx.getPeriods()) {
-        DataValidationRun run = new DataValidationRun(context, ptx, p);
-        run.getData(orgUnits);
-
-        for (OrganisationUnit ou : orgUnits) {
-          for (ValidationRuleExtended ruleX : ptx.getRuleXs()) {
-            if (context.isAnalysisComplete()) {
-              return;
-            }
-            // Skip validation if org unit level does not match
-            Set<Integer> levels = ruleX.getOrganisationUnitLevels();
-            if (levels.isEmpty() || levels.contains(ou.getLevel())) {
-              run.addValidationResultsToContext(run.validateRule(ou, ruleX));
-            }
-          }
+    DataValidationRun run = new DataValidationRun(context, ptx, p);
+    run.getData(orgUnits);
+
+    for (OrganisationUnit ou : orgUnits) {
+      for (ValidationRuleExtended ruleX : ptx.getRuleXs()) {
+        if (context.isAnalysisComplete()) {
+          return;
+        }
+        // Skip validation if org unit level does not match
+        Set<Integer> levels = ruleX.getOrganisationUnitLevels();
+        if (levels.isEmpty() || levels.contains(ou.getLevel())) {
+          run.addValidationResultsToContext(run.validateRule(ou, ruleX));
         }
       }
     }
@@ -63,6 +63,10 @@ import org.hisp.dhis.period.Period;
 public class ValidationRunContext {
   public static final int ORG_UNITS_PER_TASK = 500;
 
+  public static final int MIN_ORG_UNITS_PER_TASK = 50;
+
+  public static final int CHUNKS_PER_THREAD = 4;
+
   private final Queue<ValidationResult> validationResults = new ConcurrentLinkedQueue<>();
 
   private final List<OrganisationUnit> orgUnits;
@@ -179,10 +183,6 @@ public class ValidationRunContext {
     return false;
   }
 
-  public int getNumberOfTasks() {
-    return (orgUnits.size() + ORG_UNITS_PER_TASK - 1) / ORG_UNITS_PER_TASK;
-  }
-
   public boolean isAnalysisComplete() {
     return validationResults.size() >= maxResults;
   }
@@ -40,6 +40,7 @@ import lombok.Getter;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
 import org.hisp.dhis.scheduling.JobProgress;
 
 /**
@@ -50,8 +51,9 @@ import org.hisp.dhis.scheduling.JobProgress;
 public class Validator {
   /**
    * Evaluates validation rules for a collection of organisation units. This method breaks the job
-   * down by organisation unit. It assigns the evaluation for each organisation unit to a task that
-   * can be evaluated independently in a multi-threaded environment.
+   * down by period and organisation unit. It assigns the evaluation for each period and chunk of
+   * organisation units to a task that can be evaluated independently in a multi-threaded
+   * environment.
    *
    * <p>Return early with no results if there are no organisation units or no validation rules.
    *
@@ -59,24 +61,27 @@ public class Validator {
    */
   public static List<ValidationResult> validate(
       ValidationRunContext context, DataValidationRunner runner, JobProgress progress) {
-    int threadPoolSize = getThreadPoolSize(context);
+    int periodCount =
+        context.getPeriodTypeXs().stream().mapToInt(ptx -> ptx.getPeriods().size()).sum();
 
-    if (threadPoolSize == 0 || context.getPeriodTypeXs().isEmpty()) {
+    if (context.getOrgUnits().isEmpty() || periodCount == 0) {
       return new ArrayList<>(context.getValidationResults());
     }
 
-    int chunkSize = ValidationRunContext.ORG_UNITS_PER_TASK;
-    List<ValidationChunk> orgUnitLists = splitIntoChunks(context, chunkSize);
+    int parallelism = max(2, SystemUtils.getCpuCores() - 1);
+    int chunkSize = getChunkSize(context.getOrgUnits().size(), periodCount, parallelism);
+    List<ValidationChunk> chunks = splitIntoChunks(context, chunkSize);
 
     progress.startingStage(
-        "Evaluating validation rules in chunks of " + chunkSize,
-        orgUnitLists.size(),
+        "Evaluating validation rules per period in chunks of " + chunkSize,
+        chunks.size(),
         SKIP_ITEM_OUTLIER);
     progress.runStageInParallel(
-        threadPoolSize,
-        orgUnitLists,
+        min(parallelism, chunks.size()),
+        chunks,
         ValidationChunk::toString,
-        chunk -> runner.run(chunk.getOrgUnits(), context));
+        chunk ->
+            runner.run(chunk.getOrgUnits(), chunk.getPeriodTypeX(), chunk.getPeriod(), context));
 
     progress.startingStage("Reloading attribute option combos");
     progress.runStage(
@@ -87,23 +92,42 @@ public class Validator {
     return new ArrayList<>(context.getValidationResults());
   }
 
+  /**
+   * Splits the validation run into one chunk per period and partition of organisation units. The
+   * chunks are processed in parallel and idle threads pick up the remaining chunks, so that
+   * periods with many organisation units do not leave threads idle.
+   */
   private static List<ValidationChunk> splitIntoChunks(
       ValidationRunContext context, int chunkSize) {
+    List<List<OrganisationUnit>> partitions = Lists.partition(context.getOrgUnits(), chunkSize);
     List<ValidationChunk> chunks = new ArrayList<>();
-    for (List<OrganisationUnit> partition : Lists.partition(context.getOrgUnits(), chunkSize)) {
-      chunks.add(new ValidationChunk(chunks.size(), chunkSize, partition));
+    for (PeriodTypeExtended periodTypeX : context.getPeriodTypeXs()) {
+      for (Period period : periodTypeX.getPeriods()) {
+        for (int i = 0; i < partitions.size(); i++) {
+          chunks.add(new ValidationChunk(i, chunkSize, partitions.get(i), periodTypeX, period));
+        }
+      }
     }
     return chunks;
   }
 
   /**
-   * Determines how many threads we should use for testing validation rules.
+   * Determines the number of organisation units per chunk. Chunks are made smaller than {@link
+   * ValidationRunContext#ORG_UNITS_PER_TASK} when there are too few chunks to keep all threads
+   * busy, down to {@link ValidationRunContext#MIN_ORG_UNITS_PER_TASK}.
    *
-   * @param context validation run context
-   * @return number of threads we should use for testing validation rules
+   * @param orgUnitCount the number of organisation units.
+   * @param periodCount the number of periods.
+   * @param parallelism the number of threads.
+   * @return the number of organisation units per chunk.
    */
-  private static int getThreadPoolSize(ValidationRunContext context) {
-    return min(max(2, SystemUtils.getCpuCores() - 1), context.getNumberOfTasks());
+  static int getChunkSize(int orgUnitCount, int periodCount, int parallelism) {
+    long targetChunks = (long) parallelism * ValidationRunContext.CHUNKS_PER_THREAD;
+    long chunkSize = ((long) orgUnitCount * periodCount + targetChunks - 1) / targetChunks;
+    return (int)
+        min(
+            ValidationRunContext.ORG_UNITS_PER_TASK,
+            max(ValidationRunContext.MIN_ORG_UNITS_PER_TASK, chunkSize));
   }
 
   /** Reload attribute category option combos into this Hibernate context. */
@@ -124,10 +148,14 @@ public class Validator {
 
     private final List<OrganisationUnit> orgUnits;
 
+    private final PeriodTypeExtended periodTypeX;
+
+    private final Period period;
+
     @Override
     public String toString() {
       int offset = chunkNo * chunkSize;
-      return offset + "-" + (offset + orgUnits.size() - 1);
+      return period.getIsoDate() + " " + offset + "-" + (offset + orgUnits.size() - 1);
     }
   }
 }
@@ -175,7 +175,9 @@ class DataValidationRunnerTest {
             ExpressionParams.builder().expression("8.4!=-10.0").parseType(SIMPLE_TEST).build()))
         .thenReturn(true);
 
-    subject.run(organisationUnits, ctx);
+    for (Period period : periodType.getPeriods()) {
+      subject.run(organisationUnits, periodType, period, ctx);
+    }
 
     assertThat(ctx.getValidationResults().size(), is(0));
   }
@@ -209,7 +211,9 @@ class DataValidationRunnerTest {
     when(dataValueService.getDeflatedDataValues(any(DataExportParams.class)))
         .thenReturn(deflatedDataValues);
 
-    subject.run(organisationUnits, ctx);
+    for (Period period : periodType.getPeriods()) {
+      subject.run(organisationUnits, periodType, period, ctx);
+    }
 
     assertThat(ctx.getValidationResults().size(), is(0));
   }
@@ -50,24 +50,34 @@ public class Page<T> {
   private final Integer prevPage;
   private final Integer nextPage;
 
+  /** Opaque token to pass as cursor to get the page following this one. */
+  private final String nextCursor;
+
   /**
    * Create a new page based on an existing one but with given {@code items}. Page related counts
    * will not be changed so make sure the given {@code items} match the previous page size.
    */
   public <U> Page<U> withItems(List<U> items) {
-    return new Page<>(items, this.page, this.pageSize, this.total, this.prevPage, this.nextPage);
+    return new Page<>(
+        items, this.page, this.pageSize, this.total, this.prevPage, this.nextPage, this.nextCursor);
+  }
+
+  /** Create a new page based on an existing one but with given {@code nextCursor}. */
+  public Page<T> withNextCursor(String nextCursor) {
+    return new Page<>(
+        this.items, this.page, this.pageSize, this.total, this.prevPage, this.nextPage, nextCursor);
   }
 
   public static <T> Page<T> withTotals(List<T> items, int page, int pageSize, long total) {
-    return new Page<>(items, page, pageSize, total, null, null);
+    return new Page<>(items, page, pageSize, total, null, null, null);
   }
 
   public static <T> Page<T> withoutTotals(List<T> items, int page, int pageSize) {
-    return new Page<>(items, page, pageSize, null, null, null);
+    return new Page<>(items, page, pageSize, null, null, null, null);
   }
 
   public static <T> Page<T> withPrevAndNext(
       List<T> items, int page, int pageSize, Integer prevPage, Integer nextPage) {
-    return new Page<>(items, page, pageSize, null, prevPage, nextPage);
+    return new Page<>(items, page, pageSize, null, prevPage, nextPage, null);
   }
 }
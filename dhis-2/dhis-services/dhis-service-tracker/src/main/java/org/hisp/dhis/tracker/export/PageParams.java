@@ -52,9 +52,25 @@ public class PageParams {
   /** Indicates whether to fetch the total number of items. */
   final boolean pageTotal;
 
+  /**
+   * Opaque token of the last item of the previous page. If set, the items following it are returned
+   * instead of the items of {@link #page}.
+   */
+  final String cursor;
+
   public PageParams(Integer page, Integer pageSize, Boolean pageTotal) {
+    this(page, pageSize, pageTotal, null);
+  }
+
+  public PageParams(Integer page, Integer pageSize, Boolean pageTotal, String cursor) {
     this.page = Objects.requireNonNullElse(page, DEFAULT_PAGE);
     this.pageSize = Objects.requireNonNullElse(pageSize, DEFAULT_PAGE_SIZE);
     this.pageTotal = Boolean.TRUE.equals(pageTotal);
+    this.cursor = cursor;
+  }
+
+  /** Indicates whether the page follows the item given by {@link #cursor}. */
+  public boolean hasCursor() {
+    return cursor != null;
   }
 }
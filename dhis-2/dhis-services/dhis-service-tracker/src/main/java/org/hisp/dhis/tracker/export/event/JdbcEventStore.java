@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.tracker.export.event;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Map.entry;
 import static org.hisp.dhis.common.ValueType.NUMERIC_TYPES;
 import static org.hisp.dhis.system.util.SqlUtils.castToNumber;
@@ -48,6 +49,7 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -244,7 +246,13 @@ class JdbcEventStore implements EventStore {
   public Page<Event> getEvents(EventQueryParams queryParams, PageParams pageParams) {
     List<Event> events = fetchEvents(queryParams, pageParams);
     LongSupplier eventCount = () -> getEventCount(queryParams);
-    return getPage(pageParams, events, eventCount);
+    Page<Event> page = getPage(pageParams, events, eventCount);
+
+    if (isKeysetPageable(queryParams) && events.size() == pageParams.getPageSize()) {
+      return page.withNextCursor(encodeCursor(events.get(events.size() - 1).getId()));
+    }
+
+    return page;
   }
 
   private List<Event> fetchEvents(EventQueryParams queryParams, PageParams pageParams) {
@@ -286,6 +294,7 @@ class JdbcEventStore implements EventStore {
               event = eventsByUid.get(eventUid);
             } else {
               event = new Event();
+              event.setId(resultSet.getLong(COLUMN_EVENT_ID));
               event.setUid(eventUid);
               eventsByUid.put(eventUid, event);
 
@@ -537,7 +546,7 @@ class JdbcEventStore implements EventStore {
 
     MapSqlParameterSource mapSqlParameterSource = new MapSqlParameterSource();
 
-    sql = getEventSelectQuery(params, mapSqlParameterSource, currentUser);
+    sql = getEventSelectQuery(params, null, mapSqlParameterSource, currentUser);
 
     sql = sql.replaceFirst("select .*? from", "select count(*) as ev_count from");
 
@@ -574,7 +583,7 @@ class JdbcEventStore implements EventStore {
       User user) {
     StringBuilder sqlBuilder = new StringBuilder().append("select * from (");
 
-    sqlBuilder.append(getEventSelectQuery(queryParams, mapSqlParameterSource, user));
+    sqlBuilder.append(getEventSelectQuery(queryParams, pageParams, mapSqlParameterSource, user));
 
     sqlBuilder.append(getOrderQuery(queryParams));
 
@@ -744,7 +753,10 @@ class JdbcEventStore implements EventStore {
   }
 
   private String getEventSelectQuery(
-      EventQueryParams params, MapSqlParameterSource mapSqlParameterSource, User user) {
+      EventQueryParams params,
+      PageParams pageParams,
+      MapSqlParameterSource mapSqlParameterSource,
+      User user) {
     SqlHelper hlp = new SqlHelper();
 
     StringBuilder selectBuilder =
@@ -841,9 +853,55 @@ class JdbcEventStore implements EventStore {
                 user,
                 hlp,
                 dataElementAndFiltersSql(params, mapSqlParameterSource, hlp, selectBuilder)))
+        .append(getCursorClause(params, pageParams, mapSqlParameterSource, hlp))
         .toString();
   }
 
+  /**
+   * Returns the condition selecting the events following the cursor of the given page, if any. As
+   * events are then ordered by id only, this seeks directly to the page in the primary key index
+   * instead of skipping all events of the preceding pages.
+   */
+  private String getCursorClause(
+      EventQueryParams params,
+      PageParams pageParams,
+      MapSqlParameterSource mapSqlParameterSource,
+      SqlHelper hlp) {
+    if (pageParams == null || !pageParams.hasCursor()) {
+      return "";
+    }
+
+    if (!isKeysetPageable(params)) {
+      throw new IllegalArgumentException(
+          "Paging by cursor is only supported with the default order of events");
+    }
+
+    mapSqlParameterSource.addValue("cursorEventId", decodeCursor(pageParams.getCursor()));
+
+    return hlp.whereAnd() + " ev.eventid < :cursorEventId ";
+  }
+
+  /**
+   * Indicates whether events can be paged by cursor, which requires events to be ordered by the
+   * default order, the descending event id.
+   */
+  private boolean isKeysetPageable(EventQueryParams params) {
+    return params.getOrder().isEmpty();
+  }
+
+  private static String encodeCursor(long eventId) {
+    byte[] bytes = Long.toString(eventId).getBytes(UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+
+  private static long decodeCursor(String cursor) {
+    try {
+      return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), UTF_8));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("Invalid cursor '%s'", cursor), e);
+    }
+  }
+
   private boolean checkForOwnership(EventQueryParams params) {
     return Optional.ofNullable(params.getProgram())
         .filter(
@@ -1515,6 +1573,11 @@ class JdbcEventStore implements EventStore {
 
   private String getLimitAndOffsetClause(final PageParams pageParams) {
     int pageSize = pageParams.getPageSize();
+
+    if (pageParams.hasCursor()) {
+      return " limit " + pageSize + " ";
+    }
+
     int offset = (pageParams.getPage() - 1) * pageParams.getPageSize();
     return " limit " + pageSize + " offset " + offset + " ";
   }
@@ -28,7 +28,6 @@
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
 
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
@@ -61,6 +60,8 @@ public class EnrollmentAggregate implements Aggregate {
   @Nonnull
   private final EventAggregate eventAggregate;
 
+  @Nonnull private final ThreadPoolManager threadPoolManager;
+
   /**
    * Key: te uid , value Enrollment
    *
@@ -83,22 +84,22 @@ public class EnrollmentAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().getEnrollmentParams().isIncludeEvents(),
             () -> eventAggregate.findByEnrollmentIds(enrollmentIds, ctx),
-            getPool());
+            threadPoolManager.getPool());
 
     final CompletableFuture<Multimap<String, RelationshipItem>> relationshipAsync =
         conditionalAsyncFetch(
             ctx.getParams().getEnrollmentParams().isIncludeRelationships(),
             () -> enrollmentStore.getRelationships(enrollmentIds, ctx),
-            getPool());
+            threadPoolManager.getPool());
 
     final CompletableFuture<Multimap<String, Note>> notesAsync =
-        asyncFetch(() -> enrollmentStore.getNotes(enrollmentIds), getPool());
+        asyncFetch(() -> enrollmentStore.getNotes(enrollmentIds), threadPoolManager.getPool());
 
     final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync =
         conditionalAsyncFetch(
             ctx.getParams().getTeEnrollmentParams().isIncludeAttributes(),
             () -> enrollmentStore.getAttributes(enrollmentIds, ctx),
-            getPool());
+            threadPoolManager.getPool());
 
     return allOf(eventAsync, notesAsync, relationshipAsync, attributesAsync)
         .thenApplyAsync(
@@ -128,7 +129,7 @@ public class EnrollmentAggregate implements Aggregate {
 
               return enrollments;
             },
-            getPool())
+            threadPoolManager.getPool())
         .join();
   }
 }
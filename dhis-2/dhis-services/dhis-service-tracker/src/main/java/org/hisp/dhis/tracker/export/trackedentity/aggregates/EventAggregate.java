@@ -29,7 +29,6 @@ package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
 
 import com.google.common.collect.Multimap;
 import java.util.ArrayList;
@@ -57,6 +56,8 @@ public class EventAggregate implements Aggregate {
   @Nonnull
   private final EventStore eventStore;
 
+  @Nonnull private final ThreadPoolManager threadPoolManager;
+
   /**
    * Key: enrollment uid -> Value: Event
    *
@@ -84,19 +85,19 @@ public class EventAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().getEventParams().isIncludeRelationships(),
             () -> eventStore.getRelationships(eventIds, ctx),
-            getPool());
+            threadPoolManager.getPool());
 
     /*
      * Async fetch Notes for the given Event ids
      */
     final CompletableFuture<Multimap<String, Note>> notesAsync =
-        asyncFetch(() -> eventStore.getNotes(eventIds), getPool());
+        asyncFetch(() -> eventStore.getNotes(eventIds), threadPoolManager.getPool());
 
     /*
      * Async fetch DataValues for the given Event ids
      */
     final CompletableFuture<Map<String, List<EventDataValue>>> dataValuesAsync =
-        supplyAsync(() -> eventStore.getDataValues(eventIds), getPool());
+        supplyAsync(() -> eventStore.getDataValues(eventIds), threadPoolManager.getPool());
 
     return allOf(dataValuesAsync, notesAsync, relationshipAsync)
         .thenApplyAsync(
@@ -119,7 +120,7 @@ public class EventAggregate implements Aggregate {
 
               return events;
             },
-            getPool())
+            threadPoolManager.getPool())
         .join();
   }
 }
@@ -27,31 +27,104 @@
  */
 package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 
+import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_POOL_MAX_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.TRACKER_EXPORT_AGGREGATE_MAX_THREADS;
+
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
 
 /**
- * Exposes a static method to fetch an Executor for the Aggregates operations
+ * Manages the Executor for the Aggregates operations. The number of threads is bounded, and is
+ * capped at half the size of the database connection pool, since every aggregate fetch holds a
+ * connection while it executes.
+ *
+ * <p>The Executor has no queue. Aggregate fetches running on the pool wait for nested fetches
+ * submitted to the same pool, hence a queue could hold the very fetches all threads are waiting
+ * for. Instead, when all threads are busy, a fetch is executed on the submitting thread, which
+ * slows down the submitting request until threads are available again.
+ *
+ * <p>The number of threads and active threads, and the number of fetches executed on the
+ * submitting thread are published as metrics.
  *
  * @author Luciano Fiandesio
  */
-public class ThreadPoolManager {
-  // Thread factory that sets a user-defined thread name (useful for debugging
-  // purposes)
-  private ThreadPoolManager() {
-    throw new IllegalStateException("only used for its static fields");
+@Component
+public class ThreadPoolManager implements DisposableBean {
+  private final ThreadPoolExecutor executor;
+
+  private final Counter callerRunsCounter;
+
+  @Autowired
+  public ThreadPoolManager(DhisConfigurationProvider config, MeterRegistry meterRegistry) {
+    this(
+        Math.min(
+            Integer.parseInt(config.getProperty(TRACKER_EXPORT_AGGREGATE_MAX_THREADS)),
+            Integer.parseInt(config.getProperty(CONNECTION_POOL_MAX_SIZE)) / 2),
+        meterRegistry);
   }
 
-  private static final ThreadFactory threadFactory =
-      new ThreadFactoryBuilder().setNameFormat("TRACKER-TE-FETCH-%d").setDaemon(true).build();
+  /**
+   * @param maxThreads the max number of threads.
+   * @param meterRegistry the {@link MeterRegistry}.
+   */
+  public ThreadPoolManager(int maxThreads, MeterRegistry meterRegistry) {
+    // Thread factory that sets a user-defined thread name (useful for debugging
+    // purposes)
+    this.executor =
+        new ThreadPoolExecutor(
+            0,
+            Math.max(maxThreads, 1),
+            60L,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("TRACKER-TE-FETCH-%d").setDaemon(true).build(),
+            this::runOnCaller);
+
+    Gauge.builder("tracker.export.aggregate.threads", executor, ThreadPoolExecutor::getPoolSize)
+        .description("Number of threads fetching tracked entity aggregates")
+        .register(meterRegistry);
+    Gauge.builder(
+            "tracker.export.aggregate.threads.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Number of threads actively fetching tracked entity aggregates")
+        .register(meterRegistry);
+    this.callerRunsCounter =
+        Counter.builder("tracker.export.aggregate.caller_runs")
+            .description("Number of tracked entity aggregate fetches run on the requesting thread")
+            .register(meterRegistry);
+  }
+
+  Executor getPool() {
+    return executor;
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
 
-  /** Cached thread pool: not bound to a size, but can reuse existing threads. */
-  private static final Executor AGGREGATE_THREAD_POOL =
-      Executors.newCachedThreadPool(threadFactory);
+  /**
+   * Runs the given task on the submitting thread when all threads are busy.
+   *
+   * @param task the task.
+   * @param executor the {@link ThreadPoolExecutor}.
+   */
+  private void runOnCaller(Runnable task, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("Tracked entity aggregate executor is shut down");
+    }
 
-  static Executor getPool() {
-    return AGGREGATE_THREAD_POOL;
+    callerRunsCounter.increment();
+    task.run();
   }
 }
@@ -30,7 +30,6 @@ package org.hisp.dhis.tracker.export.trackedentity.aggregates;
 import static java.util.concurrent.CompletableFuture.allOf;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static org.hisp.dhis.common.OrganisationUnitSelectionMode.ALL;
-import static org.hisp.dhis.tracker.export.trackedentity.aggregates.ThreadPoolManager.getPool;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -91,6 +90,8 @@ public class TrackedEntityAggregate implements Aggregate {
 
   @Nonnull private final CacheProvider cacheProvider;
 
+  @Nonnull private final ThreadPoolManager threadPoolManager;
+
   private Cache<Set<TrackedEntityAttribute>> teAttributesCache;
 
   private Cache<Map<Program, Set<TrackedEntityAttribute>>> programTeAttributesCache;
@@ -176,7 +177,7 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().isIncludeRelationships(),
             () -> trackedEntityStore.getRelationships(ids, ctx),
-            getPool());
+            threadPoolManager.getPool());
 
     /*
      * Async fetch Enrollments for the given TrackedEntity id (only if
@@ -186,7 +187,7 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().isIncludeEnrollments(),
             () -> enrollmentAggregate.findByTrackedEntityIds(ids, ctx),
-            getPool());
+            threadPoolManager.getPool());
 
     /*
      * Async fetch all ProgramOwner for the given TrackedEntity id
@@ -195,19 +196,20 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             ctx.getParams().isIncludeProgramOwners(),
             () -> trackedEntityStore.getProgramOwners(ids),
-            getPool());
+            threadPoolManager.getPool());
 
     /*
      * Async Fetch TrackedEntities by id
      */
     final CompletableFuture<Map<String, TrackedEntity>> trackedEntitiesAsync =
-        supplyAsync(() -> trackedEntityStore.getTrackedEntities(ids, ctx), getPool());
+        supplyAsync(
+            () -> trackedEntityStore.getTrackedEntities(ids, ctx), threadPoolManager.getPool());
 
     /*
      * Async fetch TrackedEntity Attributes by TrackedEntity id
      */
     final CompletableFuture<Multimap<String, TrackedEntityAttributeValue>> attributesAsync =
-        supplyAsync(() -> trackedEntityStore.getAttributes(ids), getPool());
+        supplyAsync(() -> trackedEntityStore.getAttributes(ids), threadPoolManager.getPool());
 
     /*
      * Async fetch Owned Tei mapped to the provided program attributes by
@@ -217,7 +219,7 @@ public class TrackedEntityAggregate implements Aggregate {
         conditionalAsyncFetch(
             user.isPresent(),
             () -> trackedEntityStore.getOwnedTeis(ids, ctx, orgUnitMode == ALL),
-            getPool());
+            threadPoolManager.getPool());
     /*
      * Execute all queries and merge the results
      */
@@ -270,7 +272,7 @@ public class TrackedEntityAggregate implements Aggregate {
                       })
                   .collect(Collectors.toList());
             },
-            getPool())
+            threadPoolManager.getPool())
         .join();
   }
 
@@ -339,17 +341,23 @@ public class TrackedEntityAggregate implements Aggregate {
   private Context getSecurityContext(String userUID, List<String> userGroupUIDs) {
     final CompletableFuture<List<Long>> getTeiTypes =
         supplyAsync(
-            () -> aclStore.getAccessibleTrackedEntityTypes(userUID, userGroupUIDs), getPool());
+            () -> aclStore.getAccessibleTrackedEntityTypes(userUID, userGroupUIDs),
+            threadPoolManager.getPool());
 
     final CompletableFuture<List<Long>> getPrograms =
-        supplyAsync(() -> aclStore.getAccessiblePrograms(userUID, userGroupUIDs), getPool());
+        supplyAsync(
+            () -> aclStore.getAccessiblePrograms(userUID, userGroupUIDs),
+            threadPoolManager.getPool());
 
     final CompletableFuture<List<Long>> getProgramStages =
-        supplyAsync(() -> aclStore.getAccessibleProgramStages(userUID, userGroupUIDs), getPool());
+        supplyAsync(
+            () -> aclStore.getAccessibleProgramStages(userUID, userGroupUIDs),
+            threadPoolManager.getPool());
 
     final CompletableFuture<List<Long>> getRelationshipTypes =
         supplyAsync(
-            () -> aclStore.getAccessibleRelationshipTypes(userUID, userGroupUIDs), getPool());
+            () -> aclStore.getAccessibleRelationshipTypes(userUID, userGroupUIDs),
+            threadPoolManager.getPool());
 
     return allOf(getTeiTypes, getPrograms, getProgramStages, getRelationshipTypes)
         .thenApplyAsync(
@@ -360,7 +368,7 @@ public class TrackedEntityAggregate implements Aggregate {
                     .programStages(getProgramStages.join())
                     .relationshipTypes(getRelationshipTypes.join())
                     .build(),
-            getPool())
+            threadPoolManager.getPool())
         .join();
   }
 }
@@ -27,18 +27,32 @@
  */
 package org.hisp.dhis.tracker.imports;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.common.IndirectTransactional;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.feedback.ForbiddenException;
 import org.hisp.dhis.feedback.NotFoundException;
 import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.security.SecurityContextRunnable;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.tracker.TrackerType;
 import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
 import org.hisp.dhis.tracker.imports.bundle.TrackerBundleService;
@@ -58,6 +72,7 @@ import org.springframework.stereotype.Service;
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DefaultTrackerImportService implements TrackerImportService {
@@ -69,6 +84,11 @@ public class DefaultTrackerImportService implements TrackerImportService {
 
   @Nonnull private final TrackerUserService trackerUserService;
 
+  @Nonnull private final TrackedEntityAttributeService trackedEntityAttributeService;
+
+  /** Executor running the partitions of all concurrent imports, bounded by the number of cores. */
+  private final ThreadPoolExecutor executor = newExecutor();
+
   private PersistenceReport commit(TrackerImportParams params, TrackerBundle trackerBundle)
       throws ForbiddenException, NotFoundException {
     if (TrackerImportStrategy.DELETE == params.getImportStrategy()) {
@@ -82,6 +102,16 @@ public class DefaultTrackerImportService implements TrackerImportService {
   @IndirectTransactional
   public ImportReport importTracker(
       TrackerImportParams params, TrackerObjects trackerObjects, JobProgress jobProgress) {
+    if (params.getParallelism() > 1 && !params.getImportStrategy().isDelete()) {
+      if (params.getAtomicMode() != AtomicMode.OBJECT) {
+        throw new IllegalArgumentException(
+            "Parallelism greater than 1 requires atomic mode OBJECT, "
+                + "as partitions are committed in separate transactions");
+      }
+
+      return importTrackerInPartitions(params, trackerObjects, jobProgress);
+    }
+
     User user = trackerUserService.getUser(params.getUserId());
 
     jobProgress.startingStage("Running PreHeat");
@@ -111,11 +141,7 @@ public class DefaultTrackerImportService implements TrackerImportService {
       jobProgress.startingStage("Running Rule Engine Validation");
       ValidationResult result =
           jobProgress.nonNullStagePostCondition(
-              jobProgress.runStage(() -> validationService.validateRuleEngine(trackerBundle)));
-      trackerBundle.setTrackedEntities(result.getTrackedEntities());
-      trackerBundle.setEnrollments(result.getEnrollments());
-      trackerBundle.setEvents(result.getEvents());
-      trackerBundle.setRelationships(result.getRelationships());
+              jobProgress.runStage(() -> validateRuleEngine(trackerBundle)));
 
       validationReport = ValidationReport.merge(validationResult, result);
     }
@@ -137,14 +163,182 @@ public class DefaultTrackerImportService implements TrackerImportService {
         Status.OK, persistenceReport, validationReport, bundleSize);
   }
 
+  /**
+   * Imports the tracker objects in partitions of unrelated tracked entities. The partitions are
+   * preheated, validated and run through the rule engine concurrently, and then committed
+   * concurrently in separate transactions, which is why only {@link AtomicMode#OBJECT} is
+   * supported. A partition which fails to persist does not roll back other partitions; the report
+   * then has status {@link Status#ERROR} and contains the objects of the committed partitions.
+   */
+  private ImportReport importTrackerInPartitions(
+      TrackerImportParams params, TrackerObjects trackerObjects, JobProgress jobProgress) {
+    Map<TrackerType, Integer> bundleSize = calculatePayloadSize(trackerObjects);
+
+    List<TrackerObjects> partitions =
+        TrackerObjectsPartitioner.partition(
+            trackerObjects,
+            Math.min(params.getParallelism(), SystemUtils.getCpuCores()),
+            trackedEntityAttributeService.getAllUniqueTrackedEntityAttributes());
+
+    jobProgress.startingStage(
+        "Running PreHeat, PreProcess and Validation in " + partitions.size() + " partitions");
+    List<ValidatedPartition> validatedPartitions =
+        jobProgress.nonNullStagePostCondition(
+            jobProgress.runStage(
+                () -> runInParallel(partitions, p -> validatePartition(params, p))));
+
+    ValidationReport validationReport = ValidationReport.emptyReport();
+
+    for (ValidatedPartition partition : validatedPartitions) {
+      validationReport.addErrors(partition.validationReport().getErrors());
+      validationReport.addWarnings(partition.validationReport().getWarnings());
+    }
+
+    if (exitOnError(validationReport, params)) {
+      return ImportReport.withValidationErrors(
+          validationReport, bundleSize.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    jobProgress.startingStage("Commit Transactions");
+    List<CommittedPartition> committedPartitions =
+        jobProgress.nonNullStagePostCondition(
+            jobProgress.runStage(
+                () -> runInParallel(validatedPartitions, p -> commitPartition(p.bundle()))));
+
+    PersistenceReport persistenceReport =
+        PersistenceReport.merge(
+            committedPartitions.stream().map(CommittedPartition::persistenceReport).toList());
+
+    List<String> commitErrors =
+        committedPartitions.stream()
+            .map(CommittedPartition::error)
+            .filter(Objects::nonNull)
+            .map(RuntimeException::getMessage)
+            .toList();
+
+    if (!commitErrors.isEmpty()) {
+      return ImportReport.withCommitErrors(
+          String.format(
+              "%d of %d partitions failed to commit: %s",
+              commitErrors.size(), committedPartitions.size(), String.join(", ", commitErrors)),
+          persistenceReport,
+          validationReport,
+          bundleSize);
+    }
+
+    return ImportReport.withImportCompleted(
+        Status.OK, persistenceReport, validationReport, bundleSize);
+  }
+
+  private ValidatedPartition validatePartition(
+      TrackerImportParams params, TrackerObjects trackerObjects) {
+    User user = trackerUserService.getUser(params.getUserId());
+    TrackerBundle trackerBundle = trackerBundleService.create(params, trackerObjects, user);
+    trackerPreprocessService.preprocess(trackerBundle);
+
+    ValidationResult validationResult = validateBundle(trackerBundle);
+
+    if (trackerBundle.isSkipRuleEngine()) {
+      return new ValidatedPartition(trackerBundle, ValidationReport.fromResult(validationResult));
+    }
+
+    trackerBundleService.runRuleEngine(trackerBundle);
+    ValidationResult result = validateRuleEngine(trackerBundle);
+
+    return new ValidatedPartition(
+        trackerBundle, ValidationReport.merge(validationResult, result));
+  }
+
+  private CommittedPartition commitPartition(TrackerBundle trackerBundle) {
+    try {
+      PersistenceReport persistenceReport = commitBundle(trackerBundle);
+      trackerBundleService.postCommit(trackerBundle);
+
+      return new CommittedPartition(persistenceReport, null);
+    } catch (RuntimeException ex) {
+      log.error("Failed to commit partition of tracker import", ex);
+
+      return new CommittedPartition(PersistenceReport.emptyReport(), ex);
+    }
+  }
+
+  /**
+   * Applies the given function to the given items concurrently, where the functions run in the
+   * security context of the caller and without the transaction of the caller.
+   *
+   * @return the results in the order of the items.
+   */
+  private <T, R> List<R> runInParallel(List<T> items, Function<T, R> function) {
+    if (items.isEmpty()) {
+      return List.of();
+    }
+
+    try {
+      List<CompletableFuture<R>> futures = new ArrayList<>();
+
+      for (T item : items) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        executor.execute(
+            new SecurityContextRunnable() {
+              @Override
+              public void call() {
+                future.complete(function.apply(item));
+              }
+
+              @Override
+              public void handleError(Throwable ex) {
+                future.completeExceptionally(ex);
+              }
+            });
+        futures.add(future);
+      }
+
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+      return futures.stream().map(CompletableFuture::join).toList();
+    } catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+  }
+
+  private static ThreadPoolExecutor newExecutor() {
+    int threads = SystemUtils.getCpuCores();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("TRACKER-IMPORT-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  @PreDestroy
+  public void close() {
+    executor.shutdown();
+  }
+
   protected ValidationResult validateBundle(TrackerBundle bundle) {
     ValidationResult result = validationService.validate(bundle);
+    setPersistables(bundle, result);
+
+    return result;
+  }
+
+  private ValidationResult validateRuleEngine(TrackerBundle bundle) {
+    ValidationResult result = validationService.validateRuleEngine(bundle);
+    setPersistables(bundle, result);
+
+    return result;
+  }
+
+  private static void setPersistables(TrackerBundle bundle, ValidationResult result) {
     bundle.setTrackedEntities(result.getTrackedEntities());
     bundle.setEnrollments(result.getEnrollments());
     bundle.setEvents(result.getEvents());
     bundle.setRelationships(result.getRelationships());
-
-    return result;
   }
 
   private boolean exitOnError(ValidationReport validationReport, TrackerImportParams params) {
@@ -159,6 +353,20 @@ public class DefaultTrackerImportService implements TrackerImportService {
         TrackerType.RELATIONSHIP, bundle.getRelationships().size());
   }
 
+  private Map<TrackerType, Integer> calculatePayloadSize(TrackerObjects trackerObjects) {
+    return Map.of(
+        TrackerType.TRACKED_ENTITY, trackerObjects.getTrackedEntities().size(),
+        TrackerType.ENROLLMENT, trackerObjects.getEnrollments().size(),
+        TrackerType.EVENT, trackerObjects.getEvents().size(),
+        TrackerType.RELATIONSHIP, trackerObjects.getRelationships().size());
+  }
+
+  /** A partition of tracker objects which has been preheated and validated. */
+  private record ValidatedPartition(TrackerBundle bundle, ValidationReport validationReport) {}
+
+  /** A partition of tracker objects which has been committed, or failed to commit with an error. */
+  private record CommittedPartition(PersistenceReport persistenceReport, RuntimeException error) {}
+
   protected PersistenceReport commitBundle(TrackerBundle trackerBundle) {
     PersistenceReport persistenceReport = trackerBundleService.commit(trackerBundle);
 
@@ -40,4 +40,11 @@ public enum FlushMode {
 
   /** Let the importer decide the flushing. */
   AUTO,
+
+  /**
+   * Write tracked entities, enrollments and events with JDBC batch statements, and flush once per
+   * type. Objects with notes are written through the entity manager. A failure fails all objects of
+   * the type, and entity audits are not generated for objects written in batches.
+   */
+  BATCH,
 }
@@ -61,9 +61,16 @@ public class TrackerImportParams implements JobParameters {
   /** Should import be treated as an atomic import (all or nothing). */
   @JsonProperty @Builder.Default private AtomicMode atomicMode = AtomicMode.ALL;
 
-  /** Flush for every object or per type. */
+  /** Flush for every object or per type, or write objects in batches per type. */
   @JsonProperty @Builder.Default private final FlushMode flushMode = FlushMode.AUTO;
 
+  /**
+   * Number of partitions of unrelated tracked entities to import concurrently. Each partition is
+   * committed in its own transaction, so a value greater than 1 requires {@link AtomicMode#OBJECT}.
+   * Default is 1, which imports all objects in one transaction.
+   */
+  @JsonProperty @Builder.Default private final int parallelism = 1;
+
   /** Validation mode to use, defaults to fully validated objects. */
   @JsonProperty @Builder.Default private final ValidationMode validationMode = ValidationMode.FULL;
 
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.tracker.imports.domain.Attribute;
+import org.hisp.dhis.tracker.imports.domain.Enrollment;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.Relationship;
+import org.hisp.dhis.tracker.imports.domain.RelationshipItem;
+import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+
+/**
+ * Splits {@link TrackerObjects} into partitions which do not share any tracker objects. A tracked
+ * entity is placed in the same partition as its enrollments, their events and the relationships
+ * of any of these. Objects which reference the same object, also when the referenced object is not
+ * part of the payload, are placed in the same partition. Tracked entities and enrollments which
+ * have the same value for a unique attribute are placed in the same partition, as the validation of
+ * unique attribute values only detects duplicates within a partition.
+ *
+ * <p>Partitions are balanced by the number of objects, and objects keep their relative order.
+ */
+final class TrackerObjectsPartitioner {
+  private TrackerObjectsPartitioner() {
+    throw new UnsupportedOperationException("util");
+  }
+
+  /**
+   * Splits the given tracker objects into at most the given number of partitions.
+   *
+   * @param trackerObjects the {@link TrackerObjects}.
+   * @param partitions the maximum number of partitions.
+   * @param uniqueAttributes the unique {@link TrackedEntityAttribute}.
+   * @return a list of non-empty {@link TrackerObjects}.
+   */
+  static List<TrackerObjects> partition(
+      TrackerObjects trackerObjects,
+      int partitions,
+      List<TrackedEntityAttribute> uniqueAttributes) {
+    UnionFind groups = new UnionFind();
+
+    for (TrackedEntity te : trackerObjects.getTrackedEntities()) {
+      groups.add(te.getTrackedEntity());
+      unionUniqueValues(groups, te.getTrackedEntity(), te.getAttributes(), uniqueAttributes);
+    }
+
+    for (Enrollment en : trackerObjects.getEnrollments()) {
+      groups.union(en.getEnrollment(), en.getTrackedEntity());
+      unionUniqueValues(groups, en.getEnrollment(), en.getAttributes(), uniqueAttributes);
+    }
+
+    trackerObjects.getEvents().forEach(ev -> groups.union(ev.getEvent(), ev.getEnrollment()));
+
+    for (Relationship relationship : trackerObjects.getRelationships()) {
+      groups.union(relationship.getRelationship(), getUid(relationship.getFrom()));
+      groups.union(relationship.getRelationship(), getUid(relationship.getTo()));
+    }
+
+    Map<String, Integer> partitionByGroup = assignGroups(groups, trackerObjects, partitions);
+
+    List<TrackerObjects> result =
+        IntStream.range(0, partitions).mapToObj(i -> TrackerObjects.builder().build()).toList();
+
+    for (TrackedEntity te : trackerObjects.getTrackedEntities()) {
+      result
+          .get(partitionByGroup.get(groups.find(te.getTrackedEntity())))
+          .getTrackedEntities()
+          .add(te);
+    }
+
+    for (Enrollment en : trackerObjects.getEnrollments()) {
+      result.get(partitionByGroup.get(groups.find(en.getEnrollment()))).getEnrollments().add(en);
+    }
+
+    for (Event ev : trackerObjects.getEvents()) {
+      result.get(partitionByGroup.get(groups.find(ev.getEvent()))).getEvents().add(ev);
+    }
+
+    for (Relationship rel : trackerObjects.getRelationships()) {
+      result
+          .get(partitionByGroup.get(groups.find(rel.getRelationship())))
+          .getRelationships()
+          .add(rel);
+    }
+
+    return result.stream().filter(TrackerObjectsPartitioner::isNotEmpty).toList();
+  }
+
+  /**
+   * Assigns each group of objects to a partition. Groups are assigned largest first to the
+   * partition with the fewest objects.
+   *
+   * @return a mapping between group and partition index.
+   */
+  private static Map<String, Integer> assignGroups(
+      UnionFind groups, TrackerObjects trackerObjects, int partitions) {
+    Map<String, Integer> groupSizes = new HashMap<>();
+
+    List<String> uids = new ArrayList<>();
+    trackerObjects.getTrackedEntities().forEach(te -> uids.add(te.getTrackedEntity()));
+    trackerObjects.getEnrollments().forEach(en -> uids.add(en.getEnrollment()));
+    trackerObjects.getEvents().forEach(ev -> uids.add(ev.getEvent()));
+    trackerObjects.getRelationships().forEach(rel -> uids.add(rel.getRelationship()));
+    uids.forEach(uid -> groupSizes.merge(groups.find(uid), 1, Integer::sum));
+
+    PriorityQueue<int[]> bins =
+        new PriorityQueue<>(Comparator.<int[]>comparingInt(b -> b[1]).thenComparingInt(b -> b[0]));
+    IntStream.range(0, partitions).forEach(i -> bins.add(new int[] {i, 0}));
+
+    Map<String, Integer> partitionByGroup = new HashMap<>();
+    groupSizes.entrySet().stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        .forEach(
+            group -> {
+              int[] bin = bins.poll();
+              partitionByGroup.put(group.getKey(), bin[0]);
+              bin[1] += group.getValue();
+              bins.add(bin);
+            });
+
+    return partitionByGroup;
+  }
+
+  /**
+   * Groups the given object with all other objects which have the same value for any of the given
+   * unique attributes. Values are grouped by a key which cannot clash with an object identifier.
+   */
+  private static void unionUniqueValues(
+      UnionFind groups,
+      String uid,
+      List<Attribute> attributes,
+      List<TrackedEntityAttribute> uniqueAttributes) {
+    if (uniqueAttributes.isEmpty()) {
+      return;
+    }
+
+    for (Attribute attribute : attributes) {
+      if (attribute.getAttribute() == null || attribute.getValue() == null) {
+        continue;
+      }
+
+      uniqueAttributes.stream()
+          .filter(uniqueAttribute -> attribute.getAttribute().isEqualTo(uniqueAttribute))
+          .findFirst()
+          .ifPresent(
+              uniqueAttribute ->
+                  groups.union(uid, uniqueAttribute.getUid() + ":" + attribute.getValue()));
+    }
+  }
+
+  private static String getUid(RelationshipItem item) {
+    if (item == null) {
+      return null;
+    } else if (item.getTrackedEntity() != null) {
+      return item.getTrackedEntity();
+    } else if (item.getEnrollment() != null) {
+      return item.getEnrollment();
+    }
+
+    return item.getEvent();
+  }
+
+  private static boolean isNotEmpty(TrackerObjects trackerObjects) {
+    return !trackerObjects.getTrackedEntities().isEmpty()
+        || !trackerObjects.getEnrollments().isEmpty()
+        || !trackerObjects.getEvents().isEmpty()
+        || !trackerObjects.getRelationships().isEmpty();
+  }
+
+  /** Disjoint sets of object identifiers. */
+  private static class UnionFind {
+    private final Map<String, String> parents = new HashMap<>();
+
+    void add(String uid) {
+      parents.putIfAbsent(uid, uid);
+    }
+
+    String find(String uid) {
+      add(uid);
+      String root = uid;
+
+      while (!Objects.equals(root, parents.get(root))) {
+        root = parents.get(root);
+      }
+
+      parents.put(uid, root);
+      return root;
+    }
+
+    void union(String uid, String otherUid) {
+      if (otherUid == null) {
+        add(uid);
+        return;
+      }
+
+      String root = find(uid);
+      String otherRoot = find(otherUid);
+
+      if (!Objects.equals(root, otherRoot)) {
+        parents.put(root, otherRoot);
+      }
+    }
+  }
+}
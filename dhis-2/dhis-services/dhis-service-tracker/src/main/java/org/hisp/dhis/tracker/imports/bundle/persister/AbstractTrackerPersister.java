@@ -39,6 +39,7 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -80,6 +81,8 @@ public abstract class AbstractTrackerPersister<
   protected final TrackedEntityAttributeValueChangeLogService
       trackedEntityAttributeValueChangeLogService;
 
+  protected final JdbcTrackerBatchStore batchStore;
+
   /**
    * Template method that can be used by classes extending this class to execute the persistence
    * flow of Tracker entities
@@ -104,6 +107,17 @@ public abstract class AbstractTrackerPersister<
 
     Set<String> updatedTrackedEntities = new HashSet<>();
 
+    //
+    // Entities written with JDBC batch statements are written once all
+    // objects are processed, so the entity manager must not flush before
+    //
+    TrackerBatch<V> batch = createBatch(bundle, dtos);
+    FlushModeType flushModeType = entityManager.getFlushMode();
+
+    if (batch.isEnabled()) {
+      entityManager.setFlushMode(FlushModeType.COMMIT);
+    }
+
     for (T trackerDto : dtos) {
 
       Entity objectReport = new Entity(getType(), trackerDto.getUid());
@@ -116,6 +130,12 @@ public abstract class AbstractTrackerPersister<
         //
         V convertedDto = convert(bundle, trackerDto);
 
+        boolean batched = batch.isEnabled() && getBatchPersister().isBatchable(trackerDto);
+
+        if (batched && isNew(bundle.getPreheat(), trackerDto)) {
+          convertedDto.setId(batch.nextId());
+        }
+
         //
         // Handle ownership records, if required
         //
@@ -127,14 +147,23 @@ public abstract class AbstractTrackerPersister<
         // Save or update the entity
         //
         if (isNew(bundle.getPreheat(), trackerDto)) {
-          entityManager.persist(convertedDto);
+          if (batched) {
+            batch.getInserts().add(convertedDto);
+          } else {
+            entityManager.persist(convertedDto);
+          }
           typeReport.getStats().incCreated();
           typeReport.addEntity(objectReport);
-          updateAttributes(entityManager, bundle.getPreheat(), trackerDto, convertedDto);
+          updateAttributes(entityManager, bundle.getPreheat(), trackerDto, convertedDto, batch);
         } else {
           if (isUpdatable()) {
-            updateAttributes(entityManager, bundle.getPreheat(), trackerDto, convertedDto);
-            entityManager.merge(convertedDto);
+            updateAttributes(entityManager, bundle.getPreheat(), trackerDto, convertedDto, batch);
+            if (batched) {
+              detach(entityManager, convertedDto);
+              batch.getUpdates().add(convertedDto);
+            } else {
+              entityManager.merge(convertedDto);
+            }
             typeReport.getStats().incUpdated();
             typeReport.addEntity(objectReport);
             Optional.ofNullable(getUpdatedTrackedEntity(convertedDto))
@@ -179,11 +208,78 @@ public abstract class AbstractTrackerPersister<
       }
     }
 
+    if (batch.isEnabled()) {
+      writeBatch(entityManager, batch);
+      entityManager.setFlushMode(flushModeType);
+    }
+
     typeReport.getNotificationDataBundles().addAll(notificationDataBundles);
 
     return typeReport;
   }
 
+  /**
+   * Creates a {@link TrackerBatch} for the given objects. The batch is enabled if the bundle uses
+   * {@link FlushMode#BATCH} and this persister implements {@link BatchTrackerPersister}, in which
+   * case identifiers for new entities are reserved up front, as entities written in batches must be
+   * referable by identifier before being written.
+   *
+   * @param bundle the {@link TrackerBundle}.
+   * @param dtos the objects to persist.
+   * @return a {@link TrackerBatch}.
+   */
+  private TrackerBatch<V> createBatch(TrackerBundle bundle, List<T> dtos) {
+    if (FlushMode.BATCH != bundle.getFlushMode() || !(this instanceof BatchTrackerPersister)) {
+      return TrackerBatch.disabled();
+    }
+
+    BatchTrackerPersister<T, V> batchPersister = getBatchPersister();
+
+    int newEntities =
+        (int)
+            dtos.stream()
+                .filter(batchPersister::isBatchable)
+                .filter(dto -> isNew(bundle.getPreheat(), dto))
+                .count();
+
+    return TrackerBatch.of(newEntities > 0 ? batchPersister.getNextIds(newEntities) : List.of());
+  }
+
+  @SuppressWarnings("unchecked")
+  private BatchTrackerPersister<T, V> getBatchPersister() {
+    return (BatchTrackerPersister<T, V>) this;
+  }
+
+  /**
+   * Writes the entities and attribute values of the given batch with JDBC batch statements, and
+   * then flushes the entity manager, so that dependent objects such as change logs are written
+   * after the entities they refer to.
+   *
+   * @param entityManager the {@link EntityManager}.
+   * @param batch the {@link TrackerBatch}.
+   */
+  private void writeBatch(EntityManager entityManager, TrackerBatch<V> batch) {
+    try {
+      getBatchPersister().writeBatch(entityManager, batch.getInserts(), batch.getUpdates());
+      batchStore.saveAttributeValues(batch.getAttributeValues());
+      batchStore.deleteAttributeValues(batch.getDeletedAttributeValues());
+      entityManager.flush();
+    } catch (Exception e) {
+      throw new PersistenceException(
+          "Tracker Entities of type '" + getType().getName() + "' failed to persist in batch.", e);
+    }
+  }
+
+  /**
+   * Detaches the given entity from the entity manager if managed, so that it is not written again
+   * by the entity manager after being written in a batch.
+   */
+  private static void detach(EntityManager entityManager, Object entity) {
+    if (entityManager.contains(entity)) {
+      entityManager.detach(entity);
+    }
+  }
+
   // // // // // // // //
   // // // // // // // //
   // TEMPLATE METHODS //
@@ -208,7 +304,11 @@ public abstract class AbstractTrackerPersister<
 
   /** Execute the persistence of Attribute values linked to the entity being processed */
   protected abstract void updateAttributes(
-      EntityManager entityManager, TrackerPreheat preheat, T trackerDto, V hibernateEntity);
+      EntityManager entityManager,
+      TrackerPreheat preheat,
+      T trackerDto,
+      V hibernateEntity,
+      TrackerBatch<V> batch);
 
   /** Updates the {@link TrackerPreheat} object with the entity that has been persisted */
   protected abstract void updatePreheat(TrackerPreheat preheat, V convertedDto);
@@ -299,7 +399,8 @@ public abstract class AbstractTrackerPersister<
       EntityManager entityManager,
       TrackerPreheat preheat,
       List<Attribute> payloadAttributes,
-      TrackedEntity trackedEntity) {
+      TrackedEntity trackedEntity,
+      TrackerBatch<?> batch) {
     if (payloadAttributes.isEmpty()) {
       return;
     }
@@ -331,7 +432,7 @@ public abstract class AbstractTrackerPersister<
           }
 
           if (isDelete) {
-            delete(entityManager, preheat, trackedEntityAttributeValue, trackedEntity);
+            delete(entityManager, preheat, trackedEntityAttributeValue, trackedEntity, batch);
           } else {
             if (!isNew) {
               isUpdated = !trackedEntityAttributeValue.getPlainValue().equals(attribute.getValue());
@@ -355,7 +456,8 @@ public abstract class AbstractTrackerPersister<
                 isNew,
                 trackedEntity,
                 trackedEntityAttributeValue,
-                isUpdated);
+                isUpdated,
+                batch);
           }
 
           handleReservedValue(trackedEntityAttributeValue);
@@ -366,16 +468,22 @@ public abstract class AbstractTrackerPersister<
       EntityManager entityManager,
       TrackerPreheat preheat,
       TrackedEntityAttributeValue trackedEntityAttributeValue,
-      TrackedEntity trackedEntity) {
+      TrackedEntity trackedEntity,
+      TrackerBatch<?> batch) {
     if (isFileResource(trackedEntityAttributeValue)) {
       unassignFileResource(
           entityManager, preheat, trackedEntity.getUid(), trackedEntityAttributeValue.getValue());
     }
 
-    entityManager.remove(
-        entityManager.contains(trackedEntityAttributeValue)
-            ? trackedEntityAttributeValue
-            : entityManager.merge(trackedEntityAttributeValue));
+    if (batch.isBatched(trackedEntityAttributeValue)) {
+      detach(entityManager, trackedEntityAttributeValue);
+      batch.getDeletedAttributeValues().add(trackedEntityAttributeValue);
+    } else {
+      entityManager.remove(
+          entityManager.contains(trackedEntityAttributeValue)
+              ? trackedEntityAttributeValue
+              : entityManager.merge(trackedEntityAttributeValue));
+    }
 
     logTrackedEntityAttributeValueHistory(
         preheat.getUsername(), trackedEntityAttributeValue, trackedEntity, ChangeLogType.DELETE);
@@ -387,22 +495,33 @@ public abstract class AbstractTrackerPersister<
       boolean isNew,
       TrackedEntity trackedEntity,
       TrackedEntityAttributeValue trackedEntityAttributeValue,
-      boolean isUpdated) {
+      boolean isUpdated,
+      TrackerBatch<?> batch) {
     if (isFileResource(trackedEntityAttributeValue)) {
       assignFileResource(
           entityManager, preheat, trackedEntity.getUid(), trackedEntityAttributeValue.getValue());
     }
 
     ChangeLogType changeLogType = null;
+    boolean batched = batch.isBatched(trackedEntityAttributeValue);
+
+    if (batched) {
+      detach(entityManager, trackedEntityAttributeValue);
+      batch.getAttributeValues().add(trackedEntityAttributeValue);
+    }
 
     if (isNew) {
-      entityManager.persist(trackedEntityAttributeValue);
+      if (!batched) {
+        entityManager.persist(trackedEntityAttributeValue);
+      }
       // In case it's a newly created attribute we'll add it back to TE,
       // so it can end up in preheat
       trackedEntity.getTrackedEntityAttributeValues().add(trackedEntityAttributeValue);
       changeLogType = ChangeLogType.CREATE;
     } else {
-      entityManager.merge(trackedEntityAttributeValue);
+      if (!batched) {
+        entityManager.merge(trackedEntityAttributeValue);
+      }
 
       if (isUpdated) {
         changeLogType = ChangeLogType.UPDATE;
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle.persister;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.hisp.dhis.tracker.imports.FlushMode;
+import org.hisp.dhis.tracker.imports.domain.TrackerDto;
+
+/**
+ * Interface for persisters which can write entities with JDBC batch statements in {@link
+ * FlushMode#BATCH}. Persisters which do not implement this interface write all entities through
+ * the entity manager.
+ */
+interface BatchTrackerPersister<T extends TrackerDto, V> {
+  /**
+   * Indicates whether the entity of the given trackerDto can be written with JDBC batch statements.
+   *
+   * @param trackerDto the tracker object.
+   * @return true if the entity can be written in a batch.
+   */
+  boolean isBatchable(T trackerDto);
+
+  /**
+   * Returns the given number of identifiers for new entities written in batches.
+   *
+   * @param count the number of identifiers.
+   * @return a list of identifiers.
+   */
+  List<Long> getNextIds(int count);
+
+  /**
+   * Writes the given new and updated entities with JDBC batch statements.
+   *
+   * @param entityManager the {@link EntityManager}.
+   * @param inserts the new entities.
+   * @param updates the updated entities.
+   */
+  void writeBatch(EntityManager entityManager, List<V> inserts, List<V> updates);
+}
@@ -50,7 +50,8 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class EnrollmentPersister
-    extends AbstractTrackerPersister<org.hisp.dhis.tracker.imports.domain.Enrollment, Enrollment> {
+    extends AbstractTrackerPersister<org.hisp.dhis.tracker.imports.domain.Enrollment, Enrollment>
+    implements BatchTrackerPersister<org.hisp.dhis.tracker.imports.domain.Enrollment, Enrollment> {
   private final TrackerConverterService<org.hisp.dhis.tracker.imports.domain.Enrollment, Enrollment>
       enrollmentConverter;
 
@@ -61,8 +62,9 @@ public class EnrollmentPersister
       TrackerConverterService<org.hisp.dhis.tracker.imports.domain.Enrollment, Enrollment>
           enrollmentConverter,
       TrackedEntityProgramOwnerService trackedEntityProgramOwnerService,
-      TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService) {
-    super(reservedValueService, trackedEntityAttributeValueChangeLogService);
+      TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService,
+      JdbcTrackerBatchStore batchStore) {
+    super(reservedValueService, trackedEntityAttributeValueChangeLogService, batchStore);
 
     this.enrollmentConverter = enrollmentConverter;
     this.trackedEntityProgramOwnerService = trackedEntityProgramOwnerService;
@@ -73,12 +75,14 @@ public class EnrollmentPersister
       EntityManager entityManager,
       TrackerPreheat preheat,
       org.hisp.dhis.tracker.imports.domain.Enrollment enrollment,
-      Enrollment enrollmentToPersist) {
+      Enrollment enrollmentToPersist,
+      TrackerBatch<Enrollment> batch) {
     handleTrackedEntityAttributeValues(
         entityManager,
         preheat,
         enrollment.getAttributes(),
-        preheat.getTrackedEntity(enrollmentToPersist.getTrackedEntity().getUid()));
+        preheat.getTrackedEntity(enrollmentToPersist.getTrackedEntity().getUid()),
+        batch);
   }
 
   @Override
@@ -104,6 +108,28 @@ public class EnrollmentPersister
     return preheat.getEnrollment(uid) == null;
   }
 
+  @Override
+  public boolean isBatchable(org.hisp.dhis.tracker.imports.domain.Enrollment enrollment) {
+    return enrollment.getNotes().isEmpty();
+  }
+
+  @Override
+  public List<Long> getNextIds(int count) {
+    return batchStore.getNextIds(JdbcTrackerBatchStore.ENROLLMENT_SEQUENCE, count);
+  }
+
+  @Override
+  public void writeBatch(
+      EntityManager entityManager, List<Enrollment> inserts, List<Enrollment> updates) {
+    batchStore.insertEnrollments(inserts);
+    batchStore.updateEnrollments(updates);
+
+    // Enrollments are cached in the second-level cache
+    if (!updates.isEmpty()) {
+      entityManager.getEntityManagerFactory().getCache().evict(Enrollment.class);
+    }
+  }
+
   @Override
   protected TrackerNotificationDataBundle handleNotifications(
       TrackerBundle bundle, Enrollment enrollment, List<NotificationTrigger> triggers) {
@@ -69,7 +69,8 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class EventPersister
-    extends AbstractTrackerPersister<org.hisp.dhis.tracker.imports.domain.Event, Event> {
+    extends AbstractTrackerPersister<org.hisp.dhis.tracker.imports.domain.Event, Event>
+    implements BatchTrackerPersister<org.hisp.dhis.tracker.imports.domain.Event, Event> {
   private final TrackerConverterService<org.hisp.dhis.tracker.imports.domain.Event, Event>
       eventConverter;
 
@@ -79,8 +80,9 @@ public class EventPersister
       ReservedValueService reservedValueService,
       TrackerConverterService<org.hisp.dhis.tracker.imports.domain.Event, Event> eventConverter,
       TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService,
-      TrackedEntityDataValueChangeLogService trackedEntityDataValueChangeLogService) {
-    super(reservedValueService, trackedEntityAttributeValueChangeLogService);
+      TrackedEntityDataValueChangeLogService trackedEntityDataValueChangeLogService,
+      JdbcTrackerBatchStore batchStore) {
+    super(reservedValueService, trackedEntityAttributeValueChangeLogService, batchStore);
     this.eventConverter = eventConverter;
     this.trackedEntityDataValueAuditService = trackedEntityDataValueChangeLogService;
   }
@@ -95,6 +97,22 @@ public class EventPersister
     return preheat.getEvent(uid) == null;
   }
 
+  @Override
+  public boolean isBatchable(org.hisp.dhis.tracker.imports.domain.Event event) {
+    return event.getNotes().isEmpty();
+  }
+
+  @Override
+  public List<Long> getNextIds(int count) {
+    return batchStore.getNextIds(JdbcTrackerBatchStore.EVENT_SEQUENCE, count);
+  }
+
+  @Override
+  public void writeBatch(EntityManager entityManager, List<Event> inserts, List<Event> updates) {
+    batchStore.insertEvents(inserts);
+    batchStore.updateEvents(updates);
+  }
+
   @Override
   protected TrackerNotificationDataBundle handleNotifications(
       TrackerBundle bundle, Event event, List<NotificationTrigger> triggers) {
@@ -148,7 +166,8 @@ public class EventPersister
       EntityManager entityManager,
       TrackerPreheat preheat,
       org.hisp.dhis.tracker.imports.domain.Event event,
-      Event hibernateEntity) {
+      Event hibernateEntity,
+      TrackerBatch<Event> batch) {
     // DO NOTHING - EVENT HAVE NO ATTRIBUTES
   }
 
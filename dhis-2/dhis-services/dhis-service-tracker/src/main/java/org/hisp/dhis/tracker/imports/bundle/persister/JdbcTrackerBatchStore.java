@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle.persister;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.collect.Lists;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.eventdatavalue.EventDataValue;
+import org.hisp.dhis.hibernate.jsonb.type.JsonBinaryType;
+import org.hisp.dhis.program.Enrollment;
+import org.hisp.dhis.program.Event;
+import org.hisp.dhis.trackedentity.TrackedEntity;
+import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Writes tracker entities with JDBC batch statements, used by the persisters in {@link
+ * org.hisp.dhis.tracker.imports.FlushMode#BATCH}. Entities must be converted and have identifiers
+ * assigned before being written. JSON and geometry columns are written in the same format as the
+ * corresponding Hibernate types.
+ */
+@Repository("org.hisp.dhis.tracker.imports.bundle.persister.JdbcTrackerBatchStore")
+@RequiredArgsConstructor
+class JdbcTrackerBatchStore {
+  static final String TRACKED_ENTITY_SEQUENCE = "trackedentityinstance_sequence";
+
+  static final String ENROLLMENT_SEQUENCE = "programinstance_sequence";
+
+  static final String EVENT_SEQUENCE = "programstageinstance_sequence";
+
+  /** Maximum number of statements in a single JDBC batch. */
+  private static final int BATCH_SIZE = 1000;
+
+  private static final ObjectWriter EVENT_DATA_VALUES_WRITER =
+      JsonBinaryType.MAPPER.writerFor(new TypeReference<Map<String, EventDataValue>>() {});
+
+  // language=SQL
+  private static final String INSERT_TRACKED_ENTITY =
+      """
+      insert into trackedentity (trackedentityid, uid, code, created, lastupdated, lastupdatedby, \
+      createdatclient, lastupdatedatclient, storedby, inactive, potentialduplicate, deleted, \
+      lastsynchronized, geometry, createdbyuserinfo, lastupdatedbyuserinfo, organisationunitid, \
+      trackedentitytypeid) \
+      values (:id, :uid, :code, :created, :lastupdated, :lastupdatedby, :createdatclient, \
+      :lastupdatedatclient, :storedby, :inactive, :potentialduplicate, :deleted, \
+      :lastsynchronized, ST_GeomFromEWKB(:geometry), cast(:createdbyuserinfo as jsonb), \
+      cast(:lastupdatedbyuserinfo as jsonb), :organisationunitid, :trackedentitytypeid)""";
+
+  // language=SQL
+  private static final String UPDATE_TRACKED_ENTITY =
+      """
+      update trackedentity set code = :code, lastupdated = :lastupdated, \
+      lastupdatedby = :lastupdatedby, createdatclient = :createdatclient, \
+      lastupdatedatclient = :lastupdatedatclient, storedby = :storedby, inactive = :inactive, \
+      potentialduplicate = :potentialduplicate, deleted = :deleted, \
+      lastsynchronized = :lastsynchronized, geometry = ST_GeomFromEWKB(:geometry), \
+      lastupdatedbyuserinfo = cast(:lastupdatedbyuserinfo as jsonb), \
+      organisationunitid = :organisationunitid, trackedentitytypeid = :trackedentitytypeid \
+      where trackedentityid = :id""";
+
+  // language=SQL
+  private static final String INSERT_ENROLLMENT =
+      """
+      insert into enrollment (enrollmentid, uid, created, lastupdated, createdatclient, \
+      lastupdatedatclient, createdbyuserinfo, lastupdatedbyuserinfo, occurreddate, enrollmentdate, \
+      completeddate, followup, completedby, geometry, deleted, storedby, status, trackedentityid, \
+      programid, organisationunitid) \
+      values (:id, :uid, :created, :lastupdated, :createdatclient, :lastupdatedatclient, \
+      cast(:createdbyuserinfo as jsonb), cast(:lastupdatedbyuserinfo as jsonb), :occurreddate, \
+      :enrollmentdate, :completeddate, :followup, :completedby, ST_GeomFromEWKB(:geometry), \
+      :deleted, :storedby, :status, :trackedentityid, :programid, :organisationunitid)""";
+
+  // language=SQL
+  private static final String UPDATE_ENROLLMENT =
+      """
+      update enrollment set lastupdated = :lastupdated, createdatclient = :createdatclient, \
+      lastupdatedatclient = :lastupdatedatclient, \
+      lastupdatedbyuserinfo = cast(:lastupdatedbyuserinfo as jsonb), \
+      occurreddate = :occurreddate, enrollmentdate = :enrollmentdate, \
+      completeddate = :completeddate, followup = :followup, completedby = :completedby, \
+      geometry = ST_GeomFromEWKB(:geometry), deleted = :deleted, storedby = :storedby, \
+      status = :status, trackedentityid = :trackedentityid, programid = :programid, \
+      organisationunitid = :organisationunitid \
+      where enrollmentid = :id""";
+
+  // language=SQL
+  private static final String INSERT_EVENT =
+      """
+      insert into event (eventid, uid, code, created, createdbyuserinfo, lastupdated, \
+      lastupdatedbyuserinfo, createdatclient, lastupdatedatclient, lastsynchronized, \
+      enrollmentid, programstageid, attributeoptioncomboid, deleted, storedby, scheduleddate, \
+      occurreddate, organisationunitid, status, completedby, completeddate, geometry, \
+      assigneduserid, eventdatavalues) \
+      values (:id, :uid, :code, :created, cast(:createdbyuserinfo as jsonb), :lastupdated, \
+      cast(:lastupdatedbyuserinfo as jsonb), :createdatclient, :lastupdatedatclient, \
+      :lastsynchronized, :enrollmentid, :programstageid, :attributeoptioncomboid, :deleted, \
+      :storedby, :scheduleddate, :occurreddate, :organisationunitid, :status, :completedby, \
+      :completeddate, ST_GeomFromEWKB(:geometry), :assigneduserid, \
+      cast(:eventdatavalues as jsonb))""";
+
+  // language=SQL
+  private static final String UPDATE_EVENT =
+      """
+      update event set code = :code, lastupdated = :lastupdated, \
+      lastupdatedbyuserinfo = cast(:lastupdatedbyuserinfo as jsonb), \
+      createdatclient = :createdatclient, lastupdatedatclient = :lastupdatedatclient, \
+      lastsynchronized = :lastsynchronized, enrollmentid = :enrollmentid, \
+      programstageid = :programstageid, attributeoptioncomboid = :attributeoptioncomboid, \
+      deleted = :deleted, storedby = :storedby, scheduleddate = :scheduleddate, \
+      occurreddate = :occurreddate, organisationunitid = :organisationunitid, status = :status, \
+      completedby = :completedby, completeddate = :completeddate, \
+      geometry = ST_GeomFromEWKB(:geometry), assigneduserid = :assigneduserid, \
+      eventdatavalues = cast(:eventdatavalues as jsonb) \
+      where eventid = :id""";
+
+  // language=SQL
+  private static final String UPSERT_ATTRIBUTE_VALUE =
+      """
+      insert into trackedentityattributevalue (trackedentityid, trackedentityattributeid, \
+      created, lastupdated, value, storedby) \
+      values (:trackedentityid, :trackedentityattributeid, :created, :lastupdated, :value, \
+      :storedby) \
+      on conflict (trackedentityid, trackedentityattributeid) do update \
+      set lastupdated = excluded.lastupdated, value = excluded.value, \
+      storedby = excluded.storedby""";
+
+  // language=SQL
+  private static final String DELETE_ATTRIBUTE_VALUE =
+      """
+      delete from trackedentityattributevalue \
+      where trackedentityid = :trackedentityid \
+      and trackedentityattributeid = :trackedentityattributeid""";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * Returns the given number of identifiers from the given sequence using a single query.
+   *
+   * @param sequence the sequence name.
+   * @param count the number of identifiers.
+   * @return a list of identifiers.
+   */
+  List<Long> getNextIds(String sequence, int count) {
+    if (count == 0) {
+      return List.of();
+    }
+
+    String sql = "select nextval(cast(:sequence as regclass)) from generate_series(1, :count)";
+
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource().addValue("sequence", sequence).addValue("count", count);
+
+    return jdbcTemplate.queryForList(sql, parameters, Long.class);
+  }
+
+  void insertTrackedEntities(List<TrackedEntity> trackedEntities) {
+    batchUpdate(INSERT_TRACKED_ENTITY, trackedEntities, this::getParameters);
+  }
+
+  void updateTrackedEntities(List<TrackedEntity> trackedEntities) {
+    batchUpdate(UPDATE_TRACKED_ENTITY, trackedEntities, this::getParameters);
+  }
+
+  void insertEnrollments(List<Enrollment> enrollments) {
+    batchUpdate(INSERT_ENROLLMENT, enrollments, this::getParameters);
+  }
+
+  void updateEnrollments(List<Enrollment> enrollments) {
+    batchUpdate(UPDATE_ENROLLMENT, enrollments, this::getParameters);
+  }
+
+  void insertEvents(List<Event> events) {
+    batchUpdate(INSERT_EVENT, events, this::getParameters);
+  }
+
+  void updateEvents(List<Event> events) {
+    batchUpdate(UPDATE_EVENT, events, this::getParameters);
+  }
+
+  /**
+   * Inserts or updates the given attribute values. Values of confidential attributes must be
+   * written through the entity manager, as they are encrypted by Hibernate.
+   *
+   * @param attributeValues the attribute values.
+   */
+  void saveAttributeValues(List<TrackedEntityAttributeValue> attributeValues) {
+    batchUpdate(UPSERT_ATTRIBUTE_VALUE, attributeValues, this::getParameters);
+  }
+
+  void deleteAttributeValues(List<TrackedEntityAttributeValue> attributeValues) {
+    batchUpdate(DELETE_ATTRIBUTE_VALUE, attributeValues, this::getParameters);
+  }
+
+  /**
+   * Executes the given SQL statement for the given objects in batches of {@link #BATCH_SIZE}.
+   *
+   * @param sql the SQL statement.
+   * @param objects the objects.
+   * @param parameters the function providing the statement parameters of an object.
+   */
+  private <T> void batchUpdate(
+      String sql, List<T> objects, Function<T, SqlParameterSource> parameters) {
+    for (List<T> partition : Lists.partition(objects, BATCH_SIZE)) {
+      jdbcTemplate.batchUpdate(
+          sql, partition.stream().map(parameters).toArray(SqlParameterSource[]::new));
+    }
+  }
+
+  private SqlParameterSource getParameters(TrackedEntity trackedEntity) {
+    return new MapSqlParameterSource()
+        .addValue("id", trackedEntity.getId())
+        .addValue("uid", trackedEntity.getUid())
+        .addValue("code", trackedEntity.getCode(), Types.VARCHAR)
+        .addValue("created", trackedEntity.getCreated(), Types.TIMESTAMP)
+        .addValue("lastupdated", trackedEntity.getLastUpdated(), Types.TIMESTAMP)
+        .addValue("lastupdatedby", getId(trackedEntity.getLastUpdatedBy()), Types.BIGINT)
+        .addValue("createdatclient", trackedEntity.getCreatedAtClient(), Types.TIMESTAMP)
+        .addValue("lastupdatedatclient", trackedEntity.getLastUpdatedAtClient(), Types.TIMESTAMP)
+        .addValue("storedby", trackedEntity.getStoredBy(), Types.VARCHAR)
+        .addValue("inactive", trackedEntity.isInactive())
+        .addValue("potentialduplicate", trackedEntity.isPotentialDuplicate())
+        .addValue("deleted", trackedEntity.isDeleted())
+        .addValue("lastsynchronized", trackedEntity.getLastSynchronized(), Types.TIMESTAMP)
+        .addValue("geometry", toEwkb(trackedEntity.getGeometry()), Types.BINARY)
+        .addValue("createdbyuserinfo", toJson(trackedEntity.getCreatedByUserInfo()), Types.VARCHAR)
+        .addValue(
+            "lastupdatedbyuserinfo",
+            toJson(trackedEntity.getLastUpdatedByUserInfo()),
+            Types.VARCHAR)
+        .addValue("organisationunitid", getId(trackedEntity.getOrganisationUnit()), Types.BIGINT)
+        .addValue("trackedentitytypeid", getId(trackedEntity.getTrackedEntityType()), Types.BIGINT);
+  }
+
+  private SqlParameterSource getParameters(Enrollment enrollment) {
+    return new MapSqlParameterSource()
+        .addValue("id", enrollment.getId())
+        .addValue("uid", enrollment.getUid())
+        .addValue("created", enrollment.getCreated(), Types.TIMESTAMP)
+        .addValue("lastupdated", enrollment.getLastUpdated(), Types.TIMESTAMP)
+        .addValue("createdatclient", enrollment.getCreatedAtClient(), Types.TIMESTAMP)
+        .addValue("lastupdatedatclient", enrollment.getLastUpdatedAtClient(), Types.TIMESTAMP)
+        .addValue("createdbyuserinfo", toJson(enrollment.getCreatedByUserInfo()), Types.VARCHAR)
+        .addValue(
+            "lastupdatedbyuserinfo", toJson(enrollment.getLastUpdatedByUserInfo()), Types.VARCHAR)
+        .addValue("occurreddate", enrollment.getOccurredDate(), Types.TIMESTAMP)
+        .addValue("enrollmentdate", enrollment.getEnrollmentDate(), Types.TIMESTAMP)
+        .addValue("completeddate", enrollment.getCompletedDate(), Types.TIMESTAMP)
+        .addValue("followup", enrollment.getFollowup(), Types.BOOLEAN)
+        .addValue("completedby", enrollment.getCompletedBy(), Types.VARCHAR)
+        .addValue("geometry", toEwkb(enrollment.getGeometry()), Types.BINARY)
+        .addValue("deleted", enrollment.isDeleted())
+        .addValue("storedby", enrollment.getStoredBy(), Types.VARCHAR)
+        .addValue("status", toName(enrollment.getStatus()), Types.VARCHAR)
+        .addValue("trackedentityid", getId(enrollment.getTrackedEntity()), Types.BIGINT)
+        .addValue("programid", getId(enrollment.getProgram()), Types.BIGINT)
+        .addValue("organisationunitid", getId(enrollment.getOrganisationUnit()), Types.BIGINT);
+  }
+
+  private SqlParameterSource getParameters(Event event) {
+    return new MapSqlParameterSource()
+        .addValue("id", event.getId())
+        .addValue("uid", event.getUid())
+        .addValue("code", event.getCode(), Types.VARCHAR)
+        .addValue("created", event.getCreated(), Types.TIMESTAMP)
+        .addValue("createdbyuserinfo", toJson(event.getCreatedByUserInfo()), Types.VARCHAR)
+        .addValue("lastupdated", event.getLastUpdated(), Types.TIMESTAMP)
+        .addValue("lastupdatedbyuserinfo", toJson(event.getLastUpdatedByUserInfo()), Types.VARCHAR)
+        .addValue("createdatclient", event.getCreatedAtClient(), Types.TIMESTAMP)
+        .addValue("lastupdatedatclient", event.getLastUpdatedAtClient(), Types.TIMESTAMP)
+        .addValue("lastsynchronized", event.getLastSynchronized(), Types.TIMESTAMP)
+        .addValue("enrollmentid", getId(event.getEnrollment()), Types.BIGINT)
+        .addValue("programstageid", getId(event.getProgramStage()), Types.BIGINT)
+        .addValue("attributeoptioncomboid", getId(event.getAttributeOptionCombo()), Types.BIGINT)
+        .addValue("deleted", event.isDeleted())
+        .addValue("storedby", event.getStoredBy(), Types.VARCHAR)
+        .addValue("scheduleddate", event.getScheduledDate(), Types.TIMESTAMP)
+        .addValue("occurreddate", event.getOccurredDate(), Types.TIMESTAMP)
+        .addValue("organisationunitid", getId(event.getOrganisationUnit()), Types.BIGINT)
+        .addValue("status", toName(event.getStatus()), Types.VARCHAR)
+        .addValue("completedby", event.getCompletedBy(), Types.VARCHAR)
+        .addValue("completeddate", event.getCompletedDate(), Types.TIMESTAMP)
+        .addValue("geometry", toEwkb(event.getGeometry()), Types.BINARY)
+        .addValue("assigneduserid", getId(event.getAssignedUser()), Types.BIGINT)
+        .addValue(
+            "eventdatavalues", toEventDataValuesJson(event.getEventDataValues()), Types.VARCHAR);
+  }
+
+  private SqlParameterSource getParameters(TrackedEntityAttributeValue attributeValue) {
+    return new MapSqlParameterSource()
+        .addValue("trackedentityid", getId(attributeValue.getTrackedEntity()))
+        .addValue("trackedentityattributeid", getId(attributeValue.getAttribute()))
+        .addValue("created", attributeValue.getCreated(), Types.TIMESTAMP)
+        .addValue("lastupdated", attributeValue.getLastUpdated(), Types.TIMESTAMP)
+        .addValue("value", attributeValue.getPlainValue(), Types.VARCHAR)
+        .addValue("storedby", attributeValue.getStoredBy(), Types.VARCHAR);
+  }
+
+  private static Long getId(IdentifiableObject object) {
+    return object != null ? object.getId() : null;
+  }
+
+  private static String toName(Enum<?> value) {
+    return value != null ? value.name() : null;
+  }
+
+  /**
+   * Converts the given geometry to EWKB, which retains the SRID of the geometry.
+   *
+   * @param geometry the {@link Geometry}, may be null.
+   * @return the EWKB representation, or null.
+   */
+  static byte[] toEwkb(Geometry geometry) {
+    return geometry != null ? new WKBWriter(2, true).write(geometry) : null;
+  }
+
+  /**
+   * Converts the given object to JSON using the mapper of the Hibernate JSON types.
+   *
+   * @param object the object, may be null.
+   * @return the JSON representation, or null.
+   */
+  static String toJson(Object object) {
+    if (object == null) {
+      return null;
+    }
+
+    try {
+      return JsonBinaryType.MAPPER.writeValueAsString(object);
+    } catch (JsonProcessingException ex) {
+      throw new PersistenceException(ex);
+    }
+  }
+
+  /**
+   * Converts the given event data values to JSON, keyed on data element identifier, in the same
+   * format as the Hibernate event data value type.
+   *
+   * @param eventDataValues the collection of {@link EventDataValue}.
+   * @return the JSON representation.
+   */
+  static String toEventDataValuesJson(Collection<EventDataValue> eventDataValues) {
+    Map<String, EventDataValue> dataValues = new HashMap<>();
+
+    for (EventDataValue eventDataValue : eventDataValues) {
+      dataValues.put(eventDataValue.getDataElement(), eventDataValue);
+    }
+
+    try {
+      return EVENT_DATA_VALUES_WRITER.writeValueAsString(dataValues);
+    } catch (JsonProcessingException ex) {
+      throw new PersistenceException(ex);
+    }
+  }
+}
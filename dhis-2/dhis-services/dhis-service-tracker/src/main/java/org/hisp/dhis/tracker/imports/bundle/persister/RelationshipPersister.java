@@ -53,9 +53,10 @@ public class RelationshipPersister
       ReservedValueService reservedValueService,
       TrackerConverterService<Relationship, org.hisp.dhis.relationship.Relationship>
           relationshipConverter,
-      TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService) {
+      TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService,
+      JdbcTrackerBatchStore batchStore) {
 
-    super(reservedValueService, trackedEntityAttributeValueChangeLogService);
+    super(reservedValueService, trackedEntityAttributeValueChangeLogService, batchStore);
     this.relationshipConverter = relationshipConverter;
   }
 
@@ -70,7 +71,8 @@ public class RelationshipPersister
       EntityManager entityManager,
       TrackerPreheat preheat,
       Relationship trackerDto,
-      org.hisp.dhis.relationship.Relationship hibernateEntity) {
+      org.hisp.dhis.relationship.Relationship hibernateEntity,
+      TrackerBatch<org.hisp.dhis.relationship.Relationship> batch) {
     // NOTHING TO DO
   }
 
@@ -48,6 +48,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class TrackedEntityPersister
     extends AbstractTrackerPersister<
+        org.hisp.dhis.tracker.imports.domain.TrackedEntity, TrackedEntity>
+    implements BatchTrackerPersister<
         org.hisp.dhis.tracker.imports.domain.TrackedEntity, TrackedEntity> {
   @Nonnull
   private final TrackerConverterService<
@@ -58,8 +60,9 @@ public class TrackedEntityPersister
       ReservedValueService reservedValueService,
       TrackerConverterService<org.hisp.dhis.tracker.imports.domain.TrackedEntity, TrackedEntity>
           teConverter,
-      TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService) {
-    super(reservedValueService, trackedEntityAttributeValueChangeLogService);
+      TrackedEntityAttributeValueChangeLogService trackedEntityAttributeValueChangeLogService,
+      JdbcTrackerBatchStore batchStore) {
+    super(reservedValueService, trackedEntityAttributeValueChangeLogService, batchStore);
     this.teConverter = teConverter;
   }
 
@@ -68,8 +71,10 @@ public class TrackedEntityPersister
       EntityManager entityManager,
       TrackerPreheat preheat,
       org.hisp.dhis.tracker.imports.domain.TrackedEntity trackerDto,
-      TrackedEntity te) {
-    handleTrackedEntityAttributeValues(entityManager, preheat, trackerDto.getAttributes(), te);
+      TrackedEntity te,
+      TrackerBatch<TrackedEntity> batch) {
+    handleTrackedEntityAttributeValues(
+        entityManager, preheat, trackerDto.getAttributes(), te, batch);
   }
 
   @Override
@@ -102,6 +107,23 @@ public class TrackedEntityPersister
     return preheat.getTrackedEntity(uid) == null;
   }
 
+  @Override
+  public boolean isBatchable(org.hisp.dhis.tracker.imports.domain.TrackedEntity trackerDto) {
+    return true;
+  }
+
+  @Override
+  public List<Long> getNextIds(int count) {
+    return batchStore.getNextIds(JdbcTrackerBatchStore.TRACKED_ENTITY_SEQUENCE, count);
+  }
+
+  @Override
+  public void writeBatch(
+      EntityManager entityManager, List<TrackedEntity> inserts, List<TrackedEntity> updates) {
+    batchStore.insertTrackedEntities(inserts);
+    batchStore.updateTrackedEntities(updates);
+  }
+
   @Override
   protected TrackerNotificationDataBundle handleNotifications(
       TrackerBundle bundle, TrackedEntity entity, List<NotificationTrigger> triggers) {
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle.persister;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+
+/**
+ * Entities of a single tracker type which are collected while the objects of the type are processed
+ * and then written with JDBC batch statements, see {@link
+ * org.hisp.dhis.tracker.imports.FlushMode#BATCH}.
+ *
+ * @param <V> the entity type.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class TrackerBatch<V> {
+  /** Whether entities should be written in batches. */
+  private final boolean enabled;
+
+  /** Identifiers reserved for new entities. */
+  @Getter(AccessLevel.NONE)
+  private final Iterator<Long> ids;
+
+  private final List<V> inserts = new ArrayList<>();
+
+  private final List<V> updates = new ArrayList<>();
+
+  private final List<TrackedEntityAttributeValue> attributeValues = new ArrayList<>();
+
+  private final List<TrackedEntityAttributeValue> deletedAttributeValues = new ArrayList<>();
+
+  /**
+   * Creates a batch which is enabled, with the given identifiers reserved for new entities.
+   *
+   * @param ids the identifiers reserved for new entities.
+   * @return a {@link TrackerBatch}.
+   */
+  static <V> TrackerBatch<V> of(List<Long> ids) {
+    return new TrackerBatch<>(true, ids.iterator());
+  }
+
+  /**
+   * Creates a batch which is disabled, meaning entities are written through the entity manager.
+   *
+   * @return a {@link TrackerBatch}.
+   */
+  static <V> TrackerBatch<V> disabled() {
+    return new TrackerBatch<>(false, List.<Long>of().iterator());
+  }
+
+  /**
+   * Returns the next identifier reserved for new entities.
+   *
+   * @return an identifier.
+   * @throws IllegalStateException if no more identifiers are reserved.
+   */
+  long nextId() {
+    if (!ids.hasNext()) {
+      throw new IllegalStateException("No more identifiers reserved for batch");
+    }
+
+    return ids.next();
+  }
+
+  /**
+   * Indicates whether the given attribute value should be written in a batch. Values of
+   * confidential attributes are encrypted by Hibernate, and are hence not written in batches.
+   *
+   * @param attributeValue the {@link TrackedEntityAttributeValue}.
+   * @return true if the attribute value should be written in a batch.
+   */
+  boolean isBatched(TrackedEntityAttributeValue attributeValue) {
+    return enabled && !attributeValue.getAttribute().isConfidentialBool();
+  }
+}
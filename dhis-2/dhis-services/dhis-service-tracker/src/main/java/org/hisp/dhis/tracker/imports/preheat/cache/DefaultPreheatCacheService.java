@@ -27,50 +27,72 @@
  */
 package org.hisp.dhis.tracker.imports.preheat.cache;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
-import lombok.RequiredArgsConstructor;
 import org.cache2k.Cache;
 import org.cache2k.Cache2kBuilder;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.tracker.imports.TrackerIdScheme;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
- * Pre-heat cache implementation for metadata objects.
+ * Pre-heat cache implementation for metadata objects. The cache is shared by concurrent imports,
+ * and is enabled through {@link ConfigurationKey#TRACKER_IMPORT_PREHEAT_CACHE_ENABLED}.
  *
  * @author Luciano Fiandesio
  */
-@RequiredArgsConstructor
 @Service
 public class DefaultPreheatCacheService implements PreheatCacheService {
+  private static final String METRIC_NAME = "tracker.preheat.cache.requests";
+
+  private static final PreheatCacheWeigher WEIGHER = new PreheatCacheWeigher();
+
   /**
    * Data structure to hold the metadata cache:
    *
    * <p>- the key is the full class name of the metadata class getting cached (e.g.
    * "org.hisp.dhis.program.Program")
    *
-   * <p>- the value is a Cache2K cache holding the objects to cache
+   * <p>- the value is a region holding a Cache2K cache with the objects to cache
    *
    * <p>Caveat: this data structure may reference multiple times the same objects, if different
    * {@link TrackerIdScheme} are used during different imports.
    */
-  private static final Map<String, Cache<String, IdentifiableObject>> cache = new HashMap<>();
+  private final Map<String, CacheRegion> cache = new ConcurrentHashMap<>();
+
+  private final MeterRegistry meterRegistry;
+
+  private final boolean enabled;
+
+  public DefaultPreheatCacheService(
+      DhisConfigurationProvider config, MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = config.isEnabled(ConfigurationKey.TRACKER_IMPORT_PREHEAT_CACHE_ENABLED);
+  }
 
   @Override
   public Optional<IdentifiableObject> get(final String cacheKey, final String id) {
-    if (isCacheEnabled() && cache.containsKey(cacheKey)) {
-      return Optional.ofNullable(cache.get(cacheKey).get(id));
+    CacheRegion region = cache.get(cacheKey);
+
+    if (!enabled || region == null) {
+      return Optional.empty();
     }
 
-    return Optional.empty();
+    IdentifiableObject object = region.cache().get(id);
+    (object != null ? region.hits() : region.misses()).increment();
+
+    return Optional.ofNullable(object);
   }
 
   @Override
@@ -99,14 +121,18 @@ public class DefaultPreheatCacheService implements PreheatCacheService {
 
   @Override
   public boolean hasKey(String cacheKey) {
-    return cache.containsKey(cacheKey);
+    return enabled && cache.containsKey(cacheKey);
   }
 
+  @Override
   public List<IdentifiableObject> getAll(String cacheKey) {
     List<IdentifiableObject> res = new ArrayList<>();
-    if (hasKey(cacheKey)) {
-      cache.get(cacheKey).keys().forEach(k -> res.add(cache.get(cacheKey).get(k)));
+    CacheRegion region = cache.get(cacheKey);
+
+    if (enabled && region != null) {
+      region.cache().entries().forEach(e -> res.add(e.getValue()));
     }
+
     return res;
   }
 
@@ -117,29 +143,14 @@ public class DefaultPreheatCacheService implements PreheatCacheService {
       IdentifiableObject object,
       final int cacheTTL,
       final long capacity) {
-    if (cacheKey == null || id == null || object == null) return;
-
-    if (isCacheEnabled()) {
-      if (cache.containsKey(cacheKey)) {
-        cache.get(cacheKey).put(id, object);
-      } else {
-        Cache<String, IdentifiableObject> c =
-            new Cache2kBuilder<String, IdentifiableObject>() {}.expireAfterWrite(
-                    cacheTTL, TimeUnit.MINUTES)
-                .name(cacheKey)
-                .permitNullValues(false)
-                .entryCapacity(capacity == -1 ? Long.MAX_VALUE : capacity)
-                .resilienceDuration(30, TimeUnit.SECONDS) // cope with at
-                // most 30
-                // seconds
-                // outage before propagating exceptions
-                .build();
-
-        c.put(id, object);
-
-        cache.put(cacheKey, c);
-      }
+    if (!enabled || cacheKey == null || id == null || object == null) {
+      return;
     }
+
+    cache
+        .computeIfAbsent(cacheKey, key -> createRegion(key, cacheTTL, capacity))
+        .cache()
+        .put(id, object);
   }
 
   @EventListener
@@ -150,17 +161,43 @@ public class DefaultPreheatCacheService implements PreheatCacheService {
 
   @Override
   public void invalidateCache() {
-    cache.values().forEach(Cache::removeAll);
+    cache.values().forEach(region -> region.cache().removeAll());
   }
 
-  private boolean isCacheEnabled() {
-    return false;
+  @Override
+  public void invalidateCache(Class<?> klass) {
+    CacheRegion region = cache.get(klass.getName());
 
-    // Due to concerns and issues with the current cache implementation, we
-    // decided to
-    // deactivate the cache in the preheat completely for now.
-    // return !isTestRun( this.environment.getActiveProfiles() )
-    // && config.isEnabled(
-    // ConfigurationKey.TRACKER_IMPORT_PREHEAT_CACHE_ENABLED );
+    if (region != null) {
+      region.cache().removeAll();
+    }
   }
+
+  private CacheRegion createRegion(String cacheKey, int cacheTTL, long capacity) {
+    Cache<String, IdentifiableObject> c =
+        new Cache2kBuilder<String, IdentifiableObject>() {}.expireAfterWrite(
+                cacheTTL, TimeUnit.MINUTES)
+            .permitNullValues(false)
+            .weigher(WEIGHER)
+            .maximumWeight(capacity == -1 ? Long.MAX_VALUE : capacity)
+            .resilienceDuration(30, TimeUnit.SECONDS) // cope with at
+            // most 30
+            // seconds
+            // outage before propagating exceptions
+            .build();
+
+    return new CacheRegion(c, counter(cacheKey, "hit"), counter(cacheKey, "miss"));
+  }
+
+  private Counter counter(String cacheKey, String result) {
+    return Counter.builder(METRIC_NAME)
+        .description("Lookups of metadata in the tracker pre-heat cache")
+        .tag("cache", cacheKey)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /** A cache of metadata objects of a single class, with counters for lookups. */
+  private record CacheRegion(
+      Cache<String, IdentifiableObject> cache, Counter hits, Counter misses) {}
 }
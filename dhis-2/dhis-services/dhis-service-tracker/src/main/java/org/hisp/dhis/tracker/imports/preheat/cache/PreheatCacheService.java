@@ -83,19 +83,28 @@ public interface PreheatCacheService {
   List<IdentifiableObject> getAll(String cacheKey);
 
   /**
-   * Adds an object to the pre-heat cache.
+   * Adds an object to the pre-heat cache. The time-to-live and capacity apply when the cache for
+   * the given key is created by the first object added.
    *
    * @param cacheKey the full class name of the object being cached
    * @param id the identifier of the object being cached, used as cache key
    * @param object The object being cached
    * @param cacheTTL The amount of **minutes**
-   * @param capacity The maximum number of entries hold by the cache.
+   * @param capacity The maximum weight of the entries hold by the cache, see {@link
+   *     PreheatCacheWeigher}.
    */
   void put(String cacheKey, String id, IdentifiableObject object, int cacheTTL, long capacity);
 
   /** Invalidates all caches. */
   void invalidateCache();
 
+  /**
+   * Invalidates the cache of the given metadata class, if any.
+   *
+   * @param klass the metadata class.
+   */
+  void invalidateCache(Class<?> klass);
+
   /**
    * Event handler for {@link ApplicationCacheClearedEvent}.
    *
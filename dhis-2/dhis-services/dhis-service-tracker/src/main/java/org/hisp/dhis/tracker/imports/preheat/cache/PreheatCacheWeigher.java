@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.preheat.cache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.cache2k.Weigher;
+import org.hibernate.Hibernate;
+import org.hisp.dhis.common.IdentifiableObject;
+
+/**
+ * Estimates the weight of a cached metadata object as the object itself plus the number of objects
+ * held by its collection and map fields. Collections which are not initialized are not counted.
+ */
+@Slf4j
+class PreheatCacheWeigher implements Weigher<String, IdentifiableObject> {
+  private static final ClassValue<List<Field>> CONTAINER_FIELDS =
+      new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+          List<Field> fields = new ArrayList<>();
+
+          for (Class<?> klass = type; klass != null; klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+              if (!Modifier.isStatic(field.getModifiers())
+                  && isContainer(field.getType())
+                  && field.trySetAccessible()) {
+                fields.add(field);
+              }
+            }
+          }
+
+          return fields;
+        }
+      };
+
+  @Override
+  public int weigh(String key, IdentifiableObject value) {
+    int weight = 1;
+
+    for (Field field : CONTAINER_FIELDS.get(value.getClass())) {
+      try {
+        weight += size(field.get(value));
+      } catch (IllegalAccessException ex) {
+        log.debug("Failed to weigh field {} of {}", field.getName(), value.getClass());
+      }
+    }
+
+    return weight;
+  }
+
+  private static int size(Object container) {
+    if (container == null || !Hibernate.isInitialized(container)) {
+      return 0;
+    } else if (container instanceof Collection<?> collection) {
+      return collection.size();
+    } else if (container instanceof Map<?, ?> map) {
+      return map.size();
+    }
+
+    return 0;
+  }
+
+  private static boolean isContainer(Class<?> type) {
+    return Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+  }
+}
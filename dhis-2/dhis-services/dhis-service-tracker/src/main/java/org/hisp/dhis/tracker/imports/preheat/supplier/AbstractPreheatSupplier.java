@@ -47,7 +47,7 @@ import org.hisp.dhis.tracker.imports.preheat.cache.PreheatCacheService;
 public abstract class AbstractPreheatSupplier implements PreheatSupplier {
   private final int CACHE_TTL = 60;
 
-  private final long CACHE_CAPACITY = 1000;
+  private final long CACHE_CAPACITY = 100_000;
 
   @Override
   public void add(TrackerObjects trackerObjects, TrackerPreheat preheat) {
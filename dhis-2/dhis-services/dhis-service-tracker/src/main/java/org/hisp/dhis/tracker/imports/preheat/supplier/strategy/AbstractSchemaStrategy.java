@@ -117,7 +117,7 @@ public abstract class AbstractSchemaStrategy implements ClassBasedSupplierStrate
   }
 
   private String buildCacheKey(Schema schema) {
-    return schema.getKlass().getSimpleName();
+    return schema.getKlass().getName();
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
@@ -43,7 +43,8 @@ import org.springframework.stereotype.Component;
     value = CategoryOptionCombo.class,
     mapper = CategoryOptionComboMapper.class,
     cache = true,
-    ttl = 5)
+    ttl = 5,
+    capacity = 10_000)
 public class CatOptionComboStrategy extends AbstractSchemaStrategy {
   public CatOptionComboStrategy(
       SchemaService schemaService,
@@ -44,7 +44,7 @@ import org.springframework.stereotype.Component;
     mapper = CategoryOptionMapper.class,
     cache = true,
     ttl = 30,
-    capacity = 5)
+    capacity = 5_000)
 public class CatOptionStrategy extends AbstractSchemaStrategy {
   public CatOptionStrategy(
       SchemaService schemaService,
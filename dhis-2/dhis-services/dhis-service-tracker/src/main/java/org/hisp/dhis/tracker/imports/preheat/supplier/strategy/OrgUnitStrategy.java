@@ -44,7 +44,7 @@ import org.springframework.stereotype.Component;
     mapper = OrganisationUnitMapper.class,
     cache = true,
     ttl = 30,
-    capacity = 100)
+    capacity = 50_000)
 public class OrgUnitStrategy extends AbstractSchemaStrategy {
   public OrgUnitStrategy(
       SchemaService schemaService,
@@ -44,7 +44,7 @@ import org.springframework.stereotype.Component;
     mapper = ProgramStageMapper.class,
     cache = true,
     ttl = 20,
-    capacity = 30)
+    capacity = 20_000)
 public class ProgramStageStrategy extends AbstractSchemaStrategy {
   public ProgramStageStrategy(
       SchemaService schemaService,
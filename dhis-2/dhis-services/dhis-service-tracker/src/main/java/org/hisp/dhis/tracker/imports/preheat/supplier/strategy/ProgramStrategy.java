@@ -44,7 +44,7 @@ import org.springframework.stereotype.Component;
     mapper = ProgramMapper.class,
     cache = true,
     ttl = 20,
-    capacity = 10)
+    capacity = 20_000)
 public class ProgramStrategy extends AbstractSchemaStrategy {
   public ProgramStrategy(
       SchemaService schemaService,
@@ -44,7 +44,7 @@ import org.springframework.stereotype.Component;
     mapper = RelationshipTypeMapper.class,
     cache = true,
     ttl = 10,
-    capacity = 10)
+    capacity = 1_000)
 public class RelationshipTypeStrategy extends AbstractSchemaStrategy {
   public RelationshipTypeStrategy(
       SchemaService schemaService,
@@ -57,10 +57,10 @@ public @interface StrategyFor {
   int ttl() default 5;
 
   /**
-   * The maximum number of entries hold by the cache. Defaults to 5. The reason for the low default,
-   * is that certain objects can contain a lot of references and quickly consume memory. For most
-   * metadata, a capacity of 5 is not necessarily small either. We should always specify capacity
-   * for each strategy, on not rely on the default.
+   * The maximum weight of the entries hold by the cache, where the weight of an object is the
+   * object itself plus the number of objects in its collections. Defaults to 1000. Certain objects
+   * can contain a lot of references and quickly consume memory, which is accounted for by the
+   * weight. We should always specify capacity for each strategy, on not rely on the default.
    */
-  long capacity() default 5;
+  long capacity() default 1_000;
 }
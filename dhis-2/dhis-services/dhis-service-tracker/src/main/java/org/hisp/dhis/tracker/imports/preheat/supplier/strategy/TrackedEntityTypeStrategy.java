@@ -44,7 +44,7 @@ import org.springframework.stereotype.Component;
     mapper = TrackedEntityTypeMapper.class,
     cache = true,
     ttl = 10,
-    capacity = 5)
+    capacity = 1_000)
 public class TrackedEntityTypeStrategy extends AbstractSchemaStrategy {
   public TrackedEntityTypeStrategy(
       SchemaService schemaService,
@@ -154,6 +154,31 @@ public class ImportReport {
         .build();
   }
 
+  /**
+   * Factory method to use when a Tracker Import process completes, but some bundle objects failed
+   * to persist. This factory method will set the status to ERROR.
+   *
+   * <p>Import statistics are calculated based on the {@link PersistenceReport} of the objects which
+   * were persisted, and objects which failed to persist are counted as ignored.
+   *
+   * @param message The error message describing the failure to persist
+   * @param persistenceReport The report containing how many bundle objects were successfully
+   *     persisted
+   * @param validationReport The validation report if available
+   * @param bundleSize a map containing the size of each entity type in the Bundle - before the
+   *     validation
+   */
+  public static ImportReport withCommitErrors(
+      String message,
+      PersistenceReport persistenceReport,
+      ValidationReport validationReport,
+      Map<TrackerType, Integer> bundleSize) {
+    ImportReport importReport =
+        withImportCompleted(Status.ERROR, persistenceReport, validationReport, bundleSize);
+    importReport.message = message;
+    return importReport;
+  }
+
   /**
    * Calculates the 'ignored' value for each type of entity in the {@link PersistenceReport}.
    *
@@ -30,6 +30,7 @@ package org.hisp.dhis.tracker.imports.report;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -50,6 +51,27 @@ public class PersistenceReport {
     return new PersistenceReport(new HashMap<>());
   }
 
+  /**
+   * Merges the given reports into a single report, used when objects are persisted in multiple
+   * transactions.
+   *
+   * @param reports the reports to merge.
+   * @return a {@link PersistenceReport}.
+   */
+  public static PersistenceReport merge(List<PersistenceReport> reports) {
+    Map<TrackerType, TrackerTypeReport> typeReportMap = new HashMap<>();
+
+    for (PersistenceReport report : reports) {
+      report
+          .getTypeReportMap()
+          .forEach(
+              (type, typeReport) ->
+                  typeReportMap.computeIfAbsent(type, TrackerTypeReport::new).merge(typeReport));
+    }
+
+    return new PersistenceReport(typeReportMap);
+  }
+
   @JsonProperty private Map<TrackerType, TrackerTypeReport> typeReportMap;
 
   @JsonIgnore
@@ -89,6 +89,17 @@ public class TrackerTypeReport {
     this.entityReport.add(entity);
   }
 
+  /**
+   * Adds the stats, entities and notifications of the given report to this report.
+   *
+   * @param report the {@link TrackerTypeReport} to merge.
+   */
+  public void merge(TrackerTypeReport report) {
+    this.stats.merge(report.getStats());
+    this.notificationDataBundles.addAll(report.getNotificationDataBundles());
+    this.entityReport.addAll(report.getEntityReport());
+  }
+
   private List<Error> getErrorReports() {
     return entityReport.stream().flatMap(e -> e.getErrorReports().stream()).toList();
   }
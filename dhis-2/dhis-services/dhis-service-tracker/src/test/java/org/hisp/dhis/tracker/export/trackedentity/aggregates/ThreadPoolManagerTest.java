@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export.trackedentity.aggregates;
+
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ThreadPoolManagerTest {
+  private SimpleMeterRegistry meterRegistry;
+
+  private ThreadPoolManager manager;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    manager = new ThreadPoolManager(1, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    manager.destroy();
+  }
+
+  @Test
+  void shouldRunOnPoolThread() {
+    String thread = supplyAsync(() -> Thread.currentThread().getName(), manager.getPool()).join();
+
+    assertTrue(thread.startsWith("TRACKER-TE-FETCH-"));
+  }
+
+  @Test
+  void shouldRunOnCallerWhenPoolIsBusy() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Void> blocking =
+        runAsync(
+            () -> {
+              started.countDown();
+              await(release);
+            },
+            manager.getPool());
+
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    Thread thread = supplyAsync(Thread::currentThread, manager.getPool()).join();
+
+    release.countDown();
+    blocking.join();
+
+    assertSame(Thread.currentThread(), thread);
+    assertEquals(1, meterRegistry.get("tracker.export.aggregate.caller_runs").counter().count());
+  }
+
+  @Test
+  void shouldNotDeadlockOnNestedFetches() {
+    CompletableFuture<Integer> nested =
+        supplyAsync(() -> supplyAsync(() -> 1, manager.getPool()).join() + 1, manager.getPool());
+
+    assertEquals(2, nested.orTimeout(10, TimeUnit.SECONDS).join());
+  }
+
+  @Test
+  void shouldRejectWhenShutDown() {
+    manager.destroy();
+
+    assertThrows(RejectedExecutionException.class, () -> manager.getPool().execute(() -> {}));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports;
+
+import static org.hisp.dhis.test.utils.Assertions.assertContains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.imports.bundle.TrackerBundleService;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+import org.hisp.dhis.tracker.imports.preprocess.TrackerPreprocessService;
+import org.hisp.dhis.tracker.imports.report.ImportReport;
+import org.hisp.dhis.tracker.imports.report.PersistenceReport;
+import org.hisp.dhis.tracker.imports.report.Status;
+import org.hisp.dhis.tracker.imports.validation.ValidationResult;
+import org.hisp.dhis.tracker.imports.validation.ValidationService;
+import org.hisp.dhis.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultTrackerImportServiceTest {
+
+  @Mock private TrackerBundleService trackerBundleService;
+
+  @Mock private ValidationService validationService;
+
+  @Mock private TrackerPreprocessService trackerPreprocessService;
+
+  @Mock private TrackerUserService trackerUserService;
+
+  @Mock private TrackedEntityAttributeService trackedEntityAttributeService;
+
+  @Mock private ValidationResult validationResult;
+
+  private DefaultTrackerImportService subject;
+
+  private TrackerObjects trackerObjects;
+
+  @BeforeEach
+  void setUp() {
+    subject =
+        new DefaultTrackerImportService(
+            trackerBundleService,
+            validationService,
+            trackerPreprocessService,
+            trackerUserService,
+            trackedEntityAttributeService);
+
+    trackerObjects =
+        TrackerObjects.builder().events(List.of(event("EventUid1"), event("EventUid2"))).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    subject.close();
+  }
+
+  @Test
+  void shouldRejectParallelImportUnlessAtomicModeObject() {
+    TrackerImportParams params =
+        TrackerImportParams.builder()
+            .userId("123")
+            .atomicMode(AtomicMode.ALL)
+            .parallelism(2)
+            .build();
+
+    IllegalArgumentException ex =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> subject.importTracker(params, trackerObjects, JobProgress.noop()));
+
+    assertContains("requires atomic mode OBJECT", ex.getMessage());
+    verifyNoInteractions(trackerBundleService);
+  }
+
+  @Test
+  void shouldReportErrorWhenPartitionFailsToCommit() {
+    TrackerImportParams params =
+        TrackerImportParams.builder()
+            .userId("123")
+            .atomicMode(AtomicMode.OBJECT)
+            .parallelism(2)
+            .build();
+
+    when(trackerUserService.getUser(anyString())).thenReturn(new User());
+    when(trackerBundleService.create(any(TrackerImportParams.class), any(), any()))
+        .thenAnswer(
+            invocation -> ParamsConverter.convert(params, invocation.getArgument(1), new User()));
+    when(validationService.validate(any(TrackerBundle.class))).thenReturn(validationResult);
+    when(validationService.validateRuleEngine(any(TrackerBundle.class)))
+        .thenReturn(validationResult);
+    when(trackerBundleService.commit(any(TrackerBundle.class)))
+        .thenThrow(new IllegalStateException("ERROR"))
+        .thenReturn(PersistenceReport.emptyReport());
+
+    ImportReport report = subject.importTracker(params, trackerObjects, JobProgress.noop());
+
+    assertEquals(Status.ERROR, report.getStatus());
+    assertContains("failed to commit: ERROR", report.getMessage());
+  }
+
+  private static Event event(String uid) {
+    Event event = new Event();
+    event.setEvent(uid);
+    event.setEnrollment(uid + "Enrollment");
+    return event;
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.tracker.imports.domain.Attribute;
+import org.hisp.dhis.tracker.imports.domain.Enrollment;
+import org.hisp.dhis.tracker.imports.domain.Event;
+import org.hisp.dhis.tracker.imports.domain.MetadataIdentifier;
+import org.hisp.dhis.tracker.imports.domain.Relationship;
+import org.hisp.dhis.tracker.imports.domain.RelationshipItem;
+import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
+import org.hisp.dhis.tracker.imports.domain.TrackerDto;
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+import org.junit.jupiter.api.Test;
+
+class TrackerObjectsPartitionerTest {
+  @Test
+  void shouldPlaceRelatedObjectsInSamePartition() {
+    TrackerObjects trackerObjects =
+        TrackerObjects.builder()
+            .trackedEntities(List.of(trackedEntity("teA"), trackedEntity("teB")))
+            .enrollments(List.of(enrollment("enA", "teA"), enrollment("enB", "teB")))
+            .events(List.of(event("evA", "enA"), event("evB", "enB"), event("evC", "enA")))
+            .build();
+
+    List<TrackerObjects> partitions =
+        TrackerObjectsPartitioner.partition(trackerObjects, 2, List.of());
+
+    assertEquals(2, partitions.size());
+    assertPartition(partitions, List.of("teA"), List.of("enA"), List.of("evA", "evC"));
+    assertPartition(partitions, List.of("teB"), List.of("enB"), List.of("evB"));
+  }
+
+  @Test
+  void shouldPlaceObjectsLinkedByRelationshipInSamePartition() {
+    TrackerObjects trackerObjects =
+        TrackerObjects.builder()
+            .trackedEntities(
+                List.of(trackedEntity("teA"), trackedEntity("teB"), trackedEntity("teC")))
+            .relationships(List.of(relationship("relA", "teA", "teC")))
+            .build();
+
+    List<TrackerObjects> partitions =
+        TrackerObjectsPartitioner.partition(trackerObjects, 3, List.of());
+
+    assertEquals(2, partitions.size());
+    assertTrue(
+        partitions.stream()
+            .anyMatch(
+                p ->
+                    uids(p.getTrackedEntities()).equals(List.of("teA", "teC"))
+                        && uids(p.getRelationships()).equals(List.of("relA"))));
+  }
+
+  @Test
+  void shouldPlaceObjectsWithSameUniqueAttributeValueInSamePartition() {
+    TrackedEntityAttribute unique = new TrackedEntityAttribute();
+    unique.setUid("uniqueAttr1");
+    unique.setUnique(true);
+
+    TrackedEntity teA = trackedEntity("teA");
+    teA.getAttributes().add(attribute("uniqueAttr1", "123"));
+    TrackedEntity teB = trackedEntity("teB");
+    teB.getAttributes().add(attribute("uniqueAttr1", "456"));
+    TrackedEntity teC = trackedEntity("teC");
+    teC.getAttributes().add(attribute("uniqueAttr1", "123"));
+    teC.getAttributes().add(attribute("otherAttr11", "456"));
+    Enrollment enD = enrollment("enD", "teD");
+    enD.getAttributes().add(attribute("uniqueAttr1", "456"));
+
+    TrackerObjects trackerObjects =
+        TrackerObjects.builder()
+            .trackedEntities(List.of(teA, teB, teC))
+            .enrollments(List.of(enD))
+            .build();
+
+    List<TrackerObjects> partitions =
+        TrackerObjectsPartitioner.partition(trackerObjects, 4, List.of(unique));
+
+    assertEquals(2, partitions.size());
+    assertPartition(partitions, List.of("teA", "teC"), List.of(), List.of());
+    assertPartition(partitions, List.of("teB"), List.of("enD"), List.of());
+  }
+
+  @Test
+  void shouldGroupEventsOfEnrollmentNotInPayload() {
+    TrackerObjects trackerObjects =
+        TrackerObjects.builder()
+            .events(List.of(event("evA", "enA"), event("evB", "enB"), event("evC", "enA")))
+            .build();
+
+    List<TrackerObjects> partitions =
+        TrackerObjectsPartitioner.partition(trackerObjects, 4, List.of());
+
+    assertEquals(2, partitions.size());
+    assertPartition(partitions, List.of(), List.of(), List.of("evA", "evC"));
+  }
+
+  @Test
+  void shouldBalancePartitions() {
+    TrackerObjects trackerObjects =
+        TrackerObjects.builder()
+            .events(
+                List.of(
+                    event("evA", null),
+                    event("evB", null),
+                    event("evC", null),
+                    event("evD", null),
+                    event("evE", null),
+                    event("evF", null)))
+            .build();
+
+    List<TrackerObjects> partitions =
+        TrackerObjectsPartitioner.partition(trackerObjects, 3, List.of());
+
+    assertEquals(3, partitions.size());
+    partitions.forEach(p -> assertEquals(2, p.getEvents().size()));
+  }
+
+  @Test
+  void shouldReturnNoPartitionsForEmptyPayload() {
+    assertTrue(
+        TrackerObjectsPartitioner.partition(TrackerObjects.builder().build(), 2, List.of())
+            .isEmpty());
+  }
+
+  private static void assertPartition(
+      List<TrackerObjects> partitions,
+      List<String> trackedEntities,
+      List<String> enrollments,
+      List<String> events) {
+    assertTrue(
+        partitions.stream()
+            .anyMatch(
+                p ->
+                    uids(p.getTrackedEntities()).equals(trackedEntities)
+                        && uids(p.getEnrollments()).equals(enrollments)
+                        && uids(p.getEvents()).equals(events)));
+  }
+
+  private static List<String> uids(List<? extends TrackerDto> dtos) {
+    return dtos.stream().map(TrackerDto::getUid).toList();
+  }
+
+  private static TrackedEntity trackedEntity(String uid) {
+    return TrackedEntity.builder().trackedEntity(uid).build();
+  }
+
+  private static Enrollment enrollment(String uid, String trackedEntity) {
+    return Enrollment.builder().enrollment(uid).trackedEntity(trackedEntity).build();
+  }
+
+  private static Attribute attribute(String uid, String value) {
+    return Attribute.builder().attribute(MetadataIdentifier.ofUid(uid)).value(value).build();
+  }
+
+  private static Event event(String uid, String enrollment) {
+    return Event.builder().event(uid).enrollment(enrollment).build();
+  }
+
+  private static Relationship relationship(String uid, String from, String to) {
+    return Relationship.builder()
+        .relationship(uid)
+        .from(RelationshipItem.builder().trackedEntity(from).build())
+        .to(RelationshipItem.builder().trackedEntity(to).build())
+        .build();
+  }
+}
@@ -42,6 +42,7 @@ import java.util.List;
 import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.scheduling.RecordingJobProgress;
 import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.tracker.imports.DefaultTrackerImportService;
 import org.hisp.dhis.tracker.imports.ParamsConverter;
 import org.hisp.dhis.tracker.imports.TrackerImportParams;
@@ -73,6 +74,8 @@ class TrackerImporterServiceTest {
 
   @Mock private TrackerUserService trackerUserService;
 
+  @Mock private TrackedEntityAttributeService trackedEntityAttributeService;
+
   @Mock private Notifier notifier;
 
   @Mock private ValidationResult validationResult;
@@ -87,7 +90,11 @@ class TrackerImporterServiceTest {
   public void setUp() {
     subject =
         new DefaultTrackerImportService(
-            trackerBundleService, validationService, trackerPreprocessService, trackerUserService);
+            trackerBundleService,
+            validationService,
+            trackerPreprocessService,
+            trackerUserService,
+            trackedEntityAttributeService);
 
     Event event = new Event();
     event.setEvent("EventUid");
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle.persister;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
+import org.junit.jupiter.api.Test;
+
+class TrackerBatchTest {
+  @Test
+  void testNextId() {
+    TrackerBatch<Object> batch = TrackerBatch.of(List.of(7L, 8L));
+
+    assertTrue(batch.isEnabled());
+    assertEquals(7L, batch.nextId());
+    assertEquals(8L, batch.nextId());
+    assertThrows(IllegalStateException.class, batch::nextId);
+  }
+
+  @Test
+  void testDisabled() {
+    TrackerBatch<Object> batch = TrackerBatch.disabled();
+
+    assertFalse(batch.isEnabled());
+    assertFalse(batch.isBatched(attributeValue(false)));
+    assertThrows(IllegalStateException.class, batch::nextId);
+  }
+
+  @Test
+  void testIsBatched() {
+    TrackerBatch<Object> batch = TrackerBatch.of(List.of());
+
+    assertTrue(batch.isBatched(attributeValue(false)));
+    assertFalse(batch.isBatched(attributeValue(true)));
+  }
+
+  private static TrackedEntityAttributeValue attributeValue(boolean confidential) {
+    TrackedEntityAttribute attribute = new TrackedEntityAttribute();
+    attribute.setConfidential(confidential);
+    TrackedEntityAttributeValue attributeValue = new TrackedEntityAttributeValue();
+    attributeValue.setAttribute(attribute);
+    return attributeValue;
+  }
+}
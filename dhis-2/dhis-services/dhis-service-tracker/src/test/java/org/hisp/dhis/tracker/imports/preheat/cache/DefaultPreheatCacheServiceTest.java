@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.preheat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.program.Program;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultPreheatCacheServiceTest {
+  @Mock private DhisConfigurationProvider config;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private DefaultPreheatCacheService cache;
+
+  @BeforeEach
+  void setUp() {
+    when(config.isEnabled(ConfigurationKey.TRACKER_IMPORT_PREHEAT_CACHE_ENABLED))
+        .thenReturn(true);
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new DefaultPreheatCacheService(config, meterRegistry);
+  }
+
+  @Test
+  void shouldReturnCachedObjectAndCountHitsAndMisses() {
+    Program program = program("programA");
+    cache.put(Program.class.getName(), "programA", program, 10, 100);
+
+    assertEquals(Optional.of(program), cache.get(Program.class.getName(), "programA"));
+    assertEquals(Optional.empty(), cache.get(Program.class.getName(), "programB"));
+
+    assertEquals(1, count("hit"));
+    assertEquals(1, count("miss"));
+  }
+
+  @Test
+  void shouldInvalidateCacheOfClass() {
+    cache.put(Program.class.getName(), "programA", program("programA"), 10, 100);
+    cache.put(OrganisationUnit.class.getName(), "orgUnitA", orgUnit("orgUnitA"), 10, 100);
+
+    cache.invalidateCache(Program.class);
+
+    assertTrue(cache.get(Program.class.getName(), "programA").isEmpty());
+    assertTrue(cache.get(OrganisationUnit.class.getName(), "orgUnitA").isPresent());
+  }
+
+  @Test
+  void shouldNotCacheWhenDisabled() {
+    when(config.isEnabled(ConfigurationKey.TRACKER_IMPORT_PREHEAT_CACHE_ENABLED))
+        .thenReturn(false);
+    cache = new DefaultPreheatCacheService(config, meterRegistry);
+
+    cache.put(Program.class.getName(), "programA", program("programA"), 10, 100);
+
+    assertFalse(cache.hasKey(Program.class.getName()));
+    assertTrue(cache.get(Program.class.getName(), "programA").isEmpty());
+  }
+
+  @Test
+  void shouldWeighObjectsByReferencedObjects() {
+    Program program = program("programA");
+    program.getOrganisationUnits().add(orgUnit("orgUnitA"));
+    program.getOrganisationUnits().add(orgUnit("orgUnitB"));
+
+    int weight = new PreheatCacheWeigher().weigh("programA", program);
+
+    assertTrue(weight >= 3);
+  }
+
+  private double count(String result) {
+    return meterRegistry
+        .get("tracker.preheat.cache.requests")
+        .tag("cache", Program.class.getName())
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+
+  private static Program program(String uid) {
+    Program program = new Program();
+    program.setUid(uid);
+    return program;
+  }
+
+  private static OrganisationUnit orgUnit(String uid) {
+    OrganisationUnit orgUnit = new OrganisationUnit();
+    orgUnit.setUid(uid);
+    return orgUnit;
+  }
+}
@@ -31,8 +31,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.period.PeriodStore;
 import org.hisp.dhis.test.random.BeanRandomizer;
@@ -58,10 +60,12 @@ class PeriodTypeSupplierTest {
   private final BeanRandomizer rnd = BeanRandomizer.create();
   private PeriodTypeSupplier supplier;
   @Mock private PeriodStore periodStore;
+  @Mock private DhisConfigurationProvider config;
 
   @BeforeEach
   public void setUp() {
-    final PreheatCacheService cache = new DefaultPreheatCacheService();
+    final PreheatCacheService cache =
+        new DefaultPreheatCacheService(config, new SimpleMeterRegistry());
     supplier = new PeriodTypeSupplier(periodStore, cache);
   }
 
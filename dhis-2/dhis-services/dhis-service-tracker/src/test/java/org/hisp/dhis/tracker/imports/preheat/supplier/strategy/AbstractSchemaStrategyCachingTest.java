@@ -90,7 +90,7 @@ class AbstractSchemaStrategyCachingTest {
     String UID = CodeGenerator.generateUid();
 
     Program program = rnd.nextObject(Program.class);
-    when(cache.get(Program.class.getSimpleName(), UID)).thenReturn(Optional.of(program));
+    when(cache.get(Program.class.getName(), UID)).thenReturn(Optional.of(program));
 
     ProgramStrategy strategy = new ProgramStrategy(schemaService, queryService, manager, cache);
 
@@ -115,7 +115,7 @@ class AbstractSchemaStrategyCachingTest {
 
     Program program = rnd.nextObject(Program.class);
 
-    when(cache.get(Program.class.getSimpleName(), UID)).thenReturn(Optional.empty());
+    when(cache.get(Program.class.getName(), UID)).thenReturn(Optional.empty());
 
     doReturn(singletonList(program)).when(queryService).query(any(Query.class));
     ProgramStrategy strategy = new ProgramStrategy(schemaService, queryService, manager, cache);
@@ -131,6 +131,7 @@ class AbstractSchemaStrategyCachingTest {
     // Then
     assertThat(preheat.getAll(Program.class), hasSize(1));
 
-    verify(cache, times(1)).put(eq("Program"), anyString(), any(), eq(20), eq(10L));
+    verify(cache, times(1))
+        .put(eq(Program.class.getName()), anyString(), any(), eq(20), eq(20_000L));
   }
 }
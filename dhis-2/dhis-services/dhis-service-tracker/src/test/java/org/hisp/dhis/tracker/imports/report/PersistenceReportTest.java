@@ -27,8 +27,12 @@
  */
 package org.hisp.dhis.tracker.imports.report;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.tracker.TrackerType;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -41,4 +45,28 @@ class PersistenceReportTest {
     PersistenceReport report = PersistenceReport.emptyReport();
     assertNotNull(report.getTypeReportMap());
   }
+
+  @Test
+  void testMerge() {
+    PersistenceReport report =
+        PersistenceReport.merge(
+            List.of(
+                report(TrackerType.TRACKED_ENTITY, "te1"),
+                report(TrackerType.TRACKED_ENTITY, "te2"),
+                report(TrackerType.EVENT, "ev1")));
+
+    assertEquals(
+        2, report.getTypeReportMap().get(TrackerType.TRACKED_ENTITY).getStats().getCreated());
+    assertEquals(
+        2, report.getTypeReportMap().get(TrackerType.TRACKED_ENTITY).getEntityReport().size());
+    assertEquals(1, report.getTypeReportMap().get(TrackerType.EVENT).getStats().getCreated());
+    assertEquals(3, report.getStats().getCreated());
+  }
+
+  private static PersistenceReport report(TrackerType type, String uid) {
+    TrackerTypeReport typeReport = new TrackerTypeReport(type);
+    typeReport.getStats().incCreated();
+    typeReport.addEntity(new Entity(type, uid));
+    return new PersistenceReport(Map.of(type, typeReport));
+  }
 }
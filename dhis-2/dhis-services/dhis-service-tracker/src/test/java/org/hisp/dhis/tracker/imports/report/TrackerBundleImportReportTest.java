@@ -40,6 +40,7 @@ import java.util.List;
 import java.util.Map;
 import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
 import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.tracker.TrackerType;
 import org.hisp.dhis.tracker.imports.DefaultTrackerImportService;
 import org.hisp.dhis.tracker.imports.TrackerBundleReportMode;
@@ -67,6 +68,8 @@ class TrackerBundleImportReportTest {
 
   @Mock private TrackerUserService trackerUserService;
 
+  @Mock private TrackedEntityAttributeService trackedEntityAttributeService;
+
   @Mock private Notifier notifier;
 
   @InjectMocks private DefaultTrackerImportService trackerImportService;
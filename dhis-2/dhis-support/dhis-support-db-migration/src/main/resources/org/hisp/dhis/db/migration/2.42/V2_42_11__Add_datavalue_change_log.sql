@@ -0,0 +1,42 @@
+-- Change log of data value keys which were created, updated or deleted, used for incremental
+-- analytics table updates. Entries are removed once applied to the analytics tables.
+create table if not exists datavaluechangelog (
+  changeid bigserial not null primary key,
+  dataelementid bigint not null,
+  periodid bigint not null,
+  sourceid bigint not null,
+  categoryoptioncomboid bigint not null,
+  attributeoptioncomboid bigint not null,
+  created timestamp not null default now()
+);
+
+-- Captures the keys of changed data values. Uses statement level triggers with transition tables
+-- in order to keep the overhead of bulk data value imports low. The triggers are created by the
+-- first incremental analytics table update and dropped by regular "latest" partition updates, so
+-- that data value writes only pay for the capture when incremental updates are in use.
+create or replace function dhis2_capture_datavalue_change()
+returns trigger as $$
+begin
+  if (tg_op = 'INSERT') then
+    insert into datavaluechangelog (dataelementid, periodid, sourceid, categoryoptioncomboid, attributeoptioncomboid)
+    select n.dataelementid, n.periodid, n.sourceid, n.categoryoptioncomboid, n.attributeoptioncomboid
+    from newrows n;
+  elsif (tg_op = 'UPDATE') then
+    insert into datavaluechangelog (dataelementid, periodid, sourceid, categoryoptioncomboid, attributeoptioncomboid)
+    select n.dataelementid, n.periodid, n.sourceid, n.categoryoptioncomboid, n.attributeoptioncomboid
+    from newrows n
+    union
+    select o.dataelementid, o.periodid, o.sourceid, o.categoryoptioncomboid, o.attributeoptioncomboid
+    from oldrows o;
+  elsif (tg_op = 'DELETE') then
+    insert into datavaluechangelog (dataelementid, periodid, sourceid, categoryoptioncomboid, attributeoptioncomboid)
+    select o.dataelementid, o.periodid, o.sourceid, o.categoryoptioncomboid, o.attributeoptioncomboid
+    from oldrows o;
+  end if;
+  return null;
+end;
+$$ language plpgsql;
+
+drop trigger if exists datavalue_change_insert on datavalue;
+drop trigger if exists datavalue_change_update on datavalue;
+drop trigger if exists datavalue_change_delete on datavalue;
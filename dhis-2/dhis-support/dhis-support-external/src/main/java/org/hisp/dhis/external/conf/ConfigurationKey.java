@@ -346,6 +346,12 @@ public enum ConfigurationKey {
   META_DATA_SYNC_RETRY_TIME_FREQUENCY_MILLISEC(
       "metadata.sync.retry.time.frequency.millisec", "30000", false),
 
+  /**
+   * Number of statements sent to the database in one JDBC batch when committing metadata imports
+   * which do not flush per object. A value of 0 disables batching. (default: 0)
+   */
+  METADATA_IMPORT_JDBC_BATCH_SIZE("metadata.import.jdbc_batch_size", "0", false),
+
   /** EHCache replication host. */
   CLUSTER_HOSTNAME("cluster.hostname", "", false),
 
@@ -404,6 +410,47 @@ public enum ConfigurationKey {
    */
   ANALYTICS_TABLE_SKIP_COLUMN("analytics.table.skip_column", "", false),
 
+  /**
+   * Build rollup tables with pre-aggregated data for the comma-separated list of organisation unit
+   * levels. Rollup tables are not built if blank. (default: blank)
+   */
+  ANALYTICS_TABLE_ROLLUP_LEVELS("analytics.table.rollup.levels", "", false),
+
+  /**
+   * Build rollup tables for the comma-separated list of period type names. (default:
+   * Yearly,Quarterly,Monthly)
+   */
+  ANALYTICS_TABLE_ROLLUP_PERIOD_TYPES(
+      "analytics.table.rollup.period_types", "Yearly,Quarterly,Monthly", false),
+
+  /**
+   * Memory in megabytes available to index creation on analytics tables across all parallel jobs.
+   * Each index creation gets a share depending on the size of the table. The database default is
+   * used if blank. (default: blank)
+   */
+  ANALYTICS_TABLE_MAINTENANCE_MEMORY("analytics.table.maintenance_memory", "", false),
+
+  /**
+   * Export populated analytics table partitions to Parquet files in the file store. Requires the
+   * file system file store provider. (default: off)
+   */
+  ANALYTICS_PARQUET_EXPORT("analytics.parquet.export", Constants.OFF, false),
+
+  /**
+   * Answer aggregate and raw data value analytics queries from the exported Parquet files when all
+   * tables of a query have been exported. (default: off)
+   */
+  ANALYTICS_PARQUET_QUERY("analytics.parquet.query", Constants.OFF, false),
+
+  /**
+   * Max number of analytics data queries executing concurrently across all users. (default: 40)
+   */
+  ANALYTICS_QUERY_MAX_CONCURRENCY("analytics.query.max_concurrency", "40", false),
+
+  /** Max number of analytics data queries executing concurrently for a single user. (default: 8) */
+  ANALYTICS_QUERY_MAX_CONCURRENCY_PER_USER(
+      "analytics.query.max_concurrency_per_user", "8", false),
+
   /**
    * Artemis support mode, 2 modes supported: EMBEDDED (starts up an embedded Artemis which lives in
    * the same process as your DHIS2 instance), NATIVE (connects to an external Artemis instance,
@@ -511,6 +558,20 @@ public enum ConfigurationKey {
    */
   CHANGELOG_TRACKER("changelog.tracker", Constants.ON),
 
+  /**
+   * Enable/disable caching of the metadata preheated by tracker imports across imports. Cached
+   * metadata is invalidated when objects of the same type are committed. (default: off)
+   */
+  TRACKER_IMPORT_PREHEAT_CACHE_ENABLED(
+      "tracker.import.preheat.cache.enabled", Constants.OFF, false),
+
+  /**
+   * Max number of threads fetching tracked entity aggregates concurrently across all requests. The
+   * number is capped at half of connection.pool.max_size. When all threads are busy, fetches run
+   * on the requesting thread. (default: 40)
+   */
+  TRACKER_EXPORT_AGGREGATE_MAX_THREADS("tracker.export.aggregate.max_threads", "40", false),
+
   /** Use in-memory queue before sending audits into the Artemis queue. (default: off). */
   AUDIT_USE_IN_MEMORY_QUEUE_ENABLED(
       "audit.in_memory-queue.enabled",
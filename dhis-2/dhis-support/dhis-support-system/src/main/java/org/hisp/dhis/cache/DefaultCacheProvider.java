@@ -37,6 +37,7 @@ import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
@@ -85,6 +86,7 @@ public class DefaultCacheProvider implements CacheProvider {
   @SuppressWarnings("squid:S115") // allow non enum-ish names
   private enum Region {
     analyticsResponse,
+    analyticsQuery,
     defaultObjectCache,
     isDataApproved,
     allConstantsCache,
@@ -187,6 +189,19 @@ public class DefaultCacheProvider implements CacheProvider {
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
 
+  /**
+   * Cache for values of planned analytics sub-queries of the given table type, which are
+   * invalidated per analytics table partition. Each table type has its own region.
+   */
+  @Override
+  public <V> Cache<V> createAnalyticsQueryCache(AnalyticsTableType tableType) {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.analyticsQuery.name() + "_" + tableType.name())
+            .expireAfterWrite(12, TimeUnit.HOURS)
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_1K))));
+  }
+
   /**
    * Cache for default objects such as default category combination and default category option
    * combination which are permanent and will never change.
@@ -0,0 +1,678 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.ExecutionPlan;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.OpenApi;
+import org.hisp.dhis.common.PerformanceMetrics;
+import org.hisp.dhis.common.Reference;
+import org.hisp.dhis.common.adapter.JacksonRowDataSerializer;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+
+/**
+ * Immutable, structurally shared snapshot of a {@link Grid}. Any number of snapshot instances can
+ * share the same underlying grid, which is never modified after the snapshot is taken. Read
+ * operations go straight to the shared grid, where rows and meta-data are exposed as unmodifiable
+ * views.
+ *
+ * <p>The first mutating operation invoked on a snapshot copies the shared grid into a private
+ * {@link ListGrid} owned by that snapshot only (copy-on-write). All subsequent operations are
+ * delegated to the private copy, so modifications are never visible to other snapshots.
+ *
+ * <p>Note that mutating the grid through collections returned by the getters is not supported
+ * until the snapshot has been copied, and will throw an {@link UnsupportedOperationException}.
+ */
+public class SnapshotGrid implements Grid, Serializable {
+  /** The shared grid, never to be modified. */
+  private final Grid source;
+
+  /** The private copy of the shared grid, created on first modification. */
+  private ListGrid copy;
+
+  /** Indicating the current row in the grid for reading data. */
+  private int currentRowReadIndex = -1;
+
+  private SnapshotGrid(Grid source) {
+    this.source = source;
+  }
+
+  /**
+   * Returns a snapshot of the given grid. Ownership of the given grid is transferred to the
+   * snapshot, which means that the given grid must not be modified after this call. If the given
+   * grid is itself an unmodified snapshot, the underlying grid is shared.
+   *
+   * @param grid the {@link Grid}.
+   * @return a {@link SnapshotGrid}.
+   */
+  public static SnapshotGrid of(Grid grid) {
+    Objects.requireNonNull(grid);
+
+    if (grid instanceof SnapshotGrid snapshot) {
+      return snapshot.copy == null
+          ? new SnapshotGrid(snapshot.source)
+          : new SnapshotGrid(copyOf(snapshot.copy));
+    }
+
+    return new SnapshotGrid(grid);
+  }
+
+  /**
+   * Returns a new snapshot which shares the underlying grid with this snapshot. Creating a view
+   * does not allocate beyond the snapshot instance itself.
+   *
+   * @return a {@link SnapshotGrid}.
+   */
+  public SnapshotGrid view() {
+    return of(this);
+  }
+
+  // -------------------------------------------------------------------------
+  // Read operations
+  // -------------------------------------------------------------------------
+
+  @Override
+  @JsonProperty
+  public String getTitle() {
+    return read().getTitle();
+  }
+
+  @Override
+  @JsonProperty
+  public String getSubtitle() {
+    return read().getSubtitle();
+  }
+
+  @Override
+  @JsonProperty
+  public String getTable() {
+    return read().getTable();
+  }
+
+  @Override
+  @JsonProperty
+  public List<GridHeader> getHeaders() {
+    return copy != null ? copy.getHeaders() : unmodifiable(source.getHeaders());
+  }
+
+  @Override
+  @JsonProperty
+  public Map<String, Object> getMetaData() {
+    return copy != null ? copy.getMetaData() : unmodifiable(source.getMetaData());
+  }
+
+  @Override
+  @JsonIgnore
+  public Map<String, Object> getInternalMetaData() {
+    return copy != null ? copy.getInternalMetaData() : unmodifiable(source.getInternalMetaData());
+  }
+
+  @Override
+  @JsonProperty
+  public Map<Integer, Map<String, Object>> getRowContext() {
+    return copy != null ? copy.getRowContext() : unmodifiable(source.getRowContext());
+  }
+
+  @Override
+  @JsonProperty
+  public PerformanceMetrics getPerformanceMetrics() {
+    return read().getPerformanceMetrics();
+  }
+
+  @Override
+  public List<GridHeader> getVisibleHeaders() {
+    return read().getVisibleHeaders();
+  }
+
+  @Override
+  public List<GridHeader> getMetadataHeaders() {
+    return read().getMetadataHeaders();
+  }
+
+  @Override
+  public int getIndexOfHeader(String name) {
+    return read().getIndexOfHeader(name);
+  }
+
+  @Override
+  @JsonProperty
+  public int getHeight() {
+    return read().getHeight();
+  }
+
+  @Override
+  @JsonProperty
+  public int getWidth() {
+    return read().getWidth();
+  }
+
+  @Override
+  @JsonProperty
+  public int getHeaderWidth() {
+    return read().getHeaderWidth();
+  }
+
+  @Override
+  public int getVisibleWidth() {
+    return read().getVisibleWidth();
+  }
+
+  @Override
+  public List<Object> getRow(int rowIndex) {
+    return copy != null ? copy.getRow(rowIndex) : unmodifiable(source.getRow(rowIndex));
+  }
+
+  @Override
+  @JsonProperty
+  @JsonSerialize(using = JacksonRowDataSerializer.class)
+  @OpenApi.Property(String[][].class)
+  public List<List<Object>> getRows() {
+    return copy != null
+        ? copy.getRows()
+        : Collections.unmodifiableList(
+            Lists.transform(source.getRows(), Collections::unmodifiableList));
+  }
+
+  @Override
+  @JsonProperty
+  public List<Reference> getRefs() {
+    return copy != null ? copy.getRefs() : unmodifiable(source.getRefs());
+  }
+
+  @Override
+  public List<List<Object>> getVisibleRows() {
+    return read().getVisibleRows();
+  }
+
+  @Override
+  public List<Object> getColumn(int columnIndex) {
+    return read().getColumn(columnIndex);
+  }
+
+  @Override
+  public Object getValue(int rowIndex, int columnIndex) {
+    return read().getValue(rowIndex, columnIndex);
+  }
+
+  @Override
+  public boolean columnIsEmpty(int columnIndex) {
+    return read().columnIsEmpty(columnIndex);
+  }
+
+  @Override
+  public boolean hasMetaDataKey(String key) {
+    return read().hasMetaDataKey(key);
+  }
+
+  @Override
+  public boolean hasInternalMetaDataKey(String key) {
+    return read().hasInternalMetaDataKey(key);
+  }
+
+  @Override
+  public List<Integer> getMetaColumnIndexes() {
+    return read().getMetaColumnIndexes();
+  }
+
+  @Override
+  public Set<Object> getUniqueValues(String columnName) {
+    return read().getUniqueValues(columnName);
+  }
+
+  @Override
+  public <T> Map<String, T> getAsMap(int valueIndex, String keySeparator) {
+    return read().getAsMap(valueIndex, keySeparator);
+  }
+
+  @Override
+  public boolean hasLastDataRow() {
+    return read().hasLastDataRow();
+  }
+
+  // -------------------------------------------------------------------------
+  // Write operations
+  // -------------------------------------------------------------------------
+
+  @Override
+  public Grid setTitle(String title) {
+    write().setTitle(title);
+    return this;
+  }
+
+  @Override
+  public Grid setSubtitle(String subtitle) {
+    write().setSubtitle(subtitle);
+    return this;
+  }
+
+  @Override
+  public Grid setTable(String table) {
+    write().setTable(table);
+    return this;
+  }
+
+  @Override
+  public Grid setMetaData(Map<String, Object> metaData) {
+    write().setMetaData(metaData);
+    return this;
+  }
+
+  @Override
+  public Grid addMetaData(String key, Object value) {
+    write().addMetaData(key, value);
+    return this;
+  }
+
+  @Override
+  public Grid setInternalMetaData(Map<String, Object> internalMetaData) {
+    write().setInternalMetaData(internalMetaData);
+    return this;
+  }
+
+  @Override
+  public Grid addHeader(GridHeader header) {
+    write().addHeader(header);
+    return this;
+  }
+
+  @Override
+  public Grid addHeader(int headerIndex, GridHeader header) {
+    write().addHeader(headerIndex, header);
+    return this;
+  }
+
+  @Override
+  public Grid addHeaders(int headerIndex, List<GridHeader> headers) {
+    write().addHeaders(headerIndex, headers);
+    return this;
+  }
+
+  @Override
+  public Grid addEmptyHeaders(int number) {
+    write().addEmptyHeaders(number);
+    return this;
+  }
+
+  @Override
+  public Grid replaceHeaders(List<GridHeader> headers) {
+    write().replaceHeaders(headers);
+    return this;
+  }
+
+  @Override
+  public Grid addRow() {
+    write().addRow();
+    return this;
+  }
+
+  @Override
+  public Grid addRows(Grid grid) {
+    write().addRows(grid);
+    return this;
+  }
+
+  @Override
+  public Grid addValue(Object value) {
+    write().addValue(value);
+    return this;
+  }
+
+  @Override
+  public Grid addValues(Object[] values) {
+    write().addValues(values);
+    return this;
+  }
+
+  @Override
+  public Grid addValuesVar(Object... values) {
+    write().addValuesVar(values);
+    return this;
+  }
+
+  @Override
+  public Grid addValuesAsList(List<Object> values) {
+    write().addValuesAsList(values);
+    return this;
+  }
+
+  @Override
+  public Grid addEmptyValue() {
+    write().addEmptyValue();
+    return this;
+  }
+
+  @Override
+  public Grid addEmptyValues(int number) {
+    write().addEmptyValues(number);
+    return this;
+  }
+
+  @Override
+  public Grid addNullValues(int number) {
+    write().addNullValues(number);
+    return this;
+  }
+
+  @Override
+  public Grid addColumn(List<Object> columnValues) {
+    write().addColumn(columnValues);
+    return this;
+  }
+
+  @Override
+  public Grid addColumn(int columnIndex, List<Object> columnValues) {
+    write().addColumn(columnIndex, columnValues);
+    return this;
+  }
+
+  @Override
+  public Grid addAndPopulateColumnsBefore(
+      int referenceColumnIndex, Map<Object, List<?>> valueMap, int newColumns) {
+    write().addAndPopulateColumnsBefore(referenceColumnIndex, valueMap, newColumns);
+    return this;
+  }
+
+  @Override
+  public Grid removeColumn(int columnIndex) {
+    write().removeColumn(columnIndex);
+    return this;
+  }
+
+  @Override
+  public Grid removeEmptyColumns() {
+    write().removeEmptyColumns();
+    return this;
+  }
+
+  @Override
+  public Grid removeColumn(GridHeader header) {
+    write().removeColumn(header);
+    return this;
+  }
+
+  @Override
+  public Grid removeCurrentWriteRow() {
+    write().removeCurrentWriteRow();
+    return this;
+  }
+
+  @Override
+  public Grid limitGrid(int limit) {
+    write().limitGrid(limit);
+    return this;
+  }
+
+  @Override
+  public Grid limitGrid(int startPos, int endPos) {
+    write().limitGrid(startPos, endPos);
+    return this;
+  }
+
+  @Override
+  public Grid sortGrid(int columnIndex, int order) {
+    write().sortGrid(columnIndex, order);
+    return this;
+  }
+
+  @Override
+  public Grid addRegressionColumn(int columnIndex, boolean addHeader) {
+    write().addRegressionColumn(columnIndex, addHeader);
+    return this;
+  }
+
+  @Override
+  public Grid addRegressionToGrid(int startColumnIndex, int numberOfColumns) {
+    write().addRegressionToGrid(startColumnIndex, numberOfColumns);
+    return this;
+  }
+
+  @Override
+  public Grid addCumulativeColumn(int columnIndex, boolean addHeader) {
+    write().addCumulativeColumn(columnIndex, addHeader);
+    return this;
+  }
+
+  @Override
+  public Grid addCumulativesToGrid(int startColumnIndex, int numberOfColumns) {
+    write().addCumulativesToGrid(startColumnIndex, numberOfColumns);
+    return this;
+  }
+
+  @Override
+  public Grid substituteMetaData(Map<?, ?> metaDataMap) {
+    write().substituteMetaData(metaDataMap);
+    return this;
+  }
+
+  @Override
+  public Grid substituteMetaData(
+      int sourceColumnIndex, int targetColumnIndex, Map<?, ?> metaDataMap) {
+    write().substituteMetaData(sourceColumnIndex, targetColumnIndex, metaDataMap);
+    return this;
+  }
+
+  @Override
+  public Grid addHeaders(ResultSet rs) {
+    write().addHeaders(rs);
+    return this;
+  }
+
+  @Override
+  public Grid addHeaders(SqlRowSet rs) {
+    write().addHeaders(rs);
+    return this;
+  }
+
+  @Override
+  public Grid addHeaders(SqlRowSetMetaData rowSetMetaData, boolean withTypes) {
+    write().addHeaders(rowSetMetaData, withTypes);
+    return this;
+  }
+
+  @Override
+  public Grid addRows(ResultSet rs) {
+    write().addRows(rs);
+    return this;
+  }
+
+  @Override
+  public Grid addRows(SqlRowSet rs) {
+    write().addRows(rs);
+    return this;
+  }
+
+  @Override
+  public Grid addRows(SqlRowSet rs, int maxLimit) {
+    write().addRows(rs, maxLimit);
+    return this;
+  }
+
+  @Override
+  public Grid addPerformanceMetrics(List<ExecutionPlan> plans) {
+    write().addPerformanceMetrics(plans);
+    return this;
+  }
+
+  @Override
+  public Grid setRowContext(Map<Integer, Map<String, Object>> rowContext) {
+    write().setRowContext(rowContext);
+    return this;
+  }
+
+  @Override
+  public Grid addReference(Reference reference) {
+    write().addReference(reference);
+    return this;
+  }
+
+  @Override
+  public void retainColumns(Set<String> columns) {
+    write().retainColumns(columns);
+  }
+
+  @Override
+  public List<Integer> repositionHeaders(List<String> headers) {
+    return write().repositionHeaders(headers);
+  }
+
+  @Override
+  public void repositionColumns(List<Integer> columnIndexes) {
+    write().repositionColumns(columnIndexes);
+  }
+
+  @Override
+  public void setLastDataRow(boolean lastDataRow) {
+    write().setLastDataRow(lastDataRow);
+  }
+
+  // -------------------------------------------------------------------------
+  // JRDataSource implementation
+  // -------------------------------------------------------------------------
+
+  @Override
+  public boolean next() throws JRException {
+    boolean next = ++currentRowReadIndex < getHeight();
+
+    if (!next) {
+      currentRowReadIndex = -1; // Reset and return false
+    }
+
+    return next;
+  }
+
+  @Override
+  public Object getFieldValue(JRField field) throws JRException {
+    List<GridHeader> headers = read().getHeaders();
+
+    int index = -1;
+
+    for (int i = 0; i < headers.size(); i++) {
+      if (Objects.equals(field.getName(), headers.get(i).getColumn())) {
+        index = i;
+      }
+    }
+
+    return index != -1 ? read().getRow(currentRowReadIndex).get(index) : null;
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /** Returns the grid to read from, which is the private copy if it exists. */
+  private Grid read() {
+    return copy != null ? copy : source;
+  }
+
+  /** Returns the private copy of the grid, creating it if it does not exist. */
+  private ListGrid write() {
+    if (copy == null) {
+      copy = copyOf(source);
+    }
+
+    return copy;
+  }
+
+  /**
+   * Creates a copy of the given grid. Rows, headers and the collections holding meta-data are
+   * copied, whereas the values and meta-data values are shared, as {@link ListGrid} never modifies
+   * them in place. Headers are cloned as they can be renamed through meta-data substitution.
+   *
+   * @param grid the {@link Grid} to copy.
+   * @return a {@link ListGrid}.
+   */
+  private static ListGrid copyOf(Grid grid) {
+    Map<String, Object> metaData = grid.getMetaData();
+    Map<String, Object> internalMetaData = grid.getInternalMetaData();
+    Map<Integer, Map<String, Object>> rowContext = grid.getRowContext();
+
+    ListGrid listGrid =
+        new ListGrid(
+            metaData != null ? new HashMap<>(metaData) : null,
+            internalMetaData != null ? new HashMap<>(internalMetaData) : null);
+
+    listGrid.setTitle(grid.getTitle());
+    listGrid.setSubtitle(grid.getSubtitle());
+    listGrid.setTable(grid.getTable());
+    listGrid.setRowContext(rowContext != null ? new TreeMap<>(rowContext) : null);
+    listGrid.setLastDataRow(grid.hasLastDataRow());
+
+    for (GridHeader header : grid.getHeaders()) {
+      listGrid.addHeader(SerializationUtils.clone(header));
+    }
+
+    for (List<Object> row : grid.getRows()) {
+      listGrid.addRow().addValuesAsList(row);
+    }
+
+    if (grid.getRefs() != null) {
+      grid.getRefs().forEach(listGrid::addReference);
+    }
+
+    if (grid.getPerformanceMetrics() != null) {
+      listGrid.addPerformanceMetrics(grid.getPerformanceMetrics().getExecutionPlans());
+    }
+
+    return listGrid;
+  }
+
+  private static <T> List<T> unmodifiable(List<T> list) {
+    return list != null ? Collections.unmodifiableList(list) : null;
+  }
+
+  private static <K, V> Map<K, V> unmodifiable(Map<K, V> map) {
+    return map != null ? Collections.unmodifiableMap(map) : null;
+  }
+
+  // -------------------------------------------------------------------------
+  // toString
+  // -------------------------------------------------------------------------
+
+  @Override
+  public String toString() {
+    return read().toString();
+  }
+}
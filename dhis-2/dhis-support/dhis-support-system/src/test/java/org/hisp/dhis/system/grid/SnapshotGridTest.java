@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SnapshotGrid}. */
+class SnapshotGridTest {
+  private Grid source;
+
+  @BeforeEach
+  void setUp() {
+    source = new ListGrid();
+    source.addHeader(new GridHeader("colA", "colA", ValueType.TEXT, false, true));
+    source.addHeader(new GridHeader("colB", "colB", ValueType.NUMBER, false, false));
+    source.addRow().addValue("a1").addValue(1);
+    source.addRow().addValue("a2").addValue(2);
+    source.addMetaData("keyA", "valueA");
+  }
+
+  @Test
+  void testReadOperations() {
+    Grid snapshot = SnapshotGrid.of(source);
+
+    assertEquals(2, snapshot.getHeight());
+    assertEquals(2, snapshot.getWidth());
+    assertEquals(2, snapshot.getHeaderWidth());
+    assertEquals("a2", snapshot.getValue(1, 0));
+    assertEquals(List.of("a1", 1), snapshot.getRow(0));
+    assertEquals(List.of(List.of("a1", 1), List.of("a2", 2)), snapshot.getRows());
+    assertEquals("valueA", snapshot.getMetaData().get("keyA"));
+    assertEquals(1, snapshot.getIndexOfHeader("colB"));
+  }
+
+  @Test
+  void testCollectionsAreUnmodifiable() {
+    Grid snapshot = SnapshotGrid.of(source);
+
+    List<List<Object>> rows = snapshot.getRows();
+    List<Object> row = snapshot.getRow(0);
+    List<Object> rowFromRows = rows.get(0);
+    Map<String, Object> metaData = snapshot.getMetaData();
+
+    assertThrows(UnsupportedOperationException.class, () -> rows.remove(0));
+    assertThrows(UnsupportedOperationException.class, () -> row.set(0, "x"));
+    assertThrows(UnsupportedOperationException.class, () -> rowFromRows.add("x"));
+    assertThrows(UnsupportedOperationException.class, () -> metaData.put("keyB", "valueB"));
+  }
+
+  @Test
+  void testCopyOnWrite() {
+    SnapshotGrid snapshotA = SnapshotGrid.of(source);
+    SnapshotGrid snapshotB = snapshotA.view();
+
+    snapshotA
+        .addRow()
+        .addValue("a3")
+        .addValue(3)
+        .addMetaData("keyB", "valueB")
+        .substituteMetaData(Map.of("colA", "Column A", "a1", "A one"));
+
+    assertEquals(3, snapshotA.getHeight());
+    assertEquals("A one", snapshotA.getValue(0, 0));
+    assertEquals("Column A", snapshotA.getHeaders().get(0).getName());
+    assertEquals("valueB", snapshotA.getMetaData().get("keyB"));
+
+    assertEquals(2, snapshotB.getHeight());
+    assertEquals("a1", snapshotB.getValue(0, 0));
+    assertEquals("colA", snapshotB.getHeaders().get(0).getName());
+    assertEquals(1, snapshotB.getMetaData().size());
+
+    assertEquals(2, source.getHeight());
+    assertEquals("a1", source.getValue(0, 0));
+    assertEquals("colA", source.getHeaders().get(0).getName());
+  }
+
+  @Test
+  void testCollectionsAreModifiableAfterCopy() {
+    Grid snapshot = SnapshotGrid.of(source);
+
+    snapshot.setTitle("Title");
+    snapshot.getRow(0).set(0, "x");
+    snapshot.getMetaData().put("keyB", "valueB");
+
+    assertEquals("x", snapshot.getValue(0, 0));
+    assertEquals("valueB", snapshot.getMetaData().get("keyB"));
+    assertEquals("a1", source.getValue(0, 0));
+    assertEquals(1, source.getMetaData().size());
+  }
+
+  @Test
+  void testViewOfModifiedSnapshot() {
+    SnapshotGrid snapshotA = SnapshotGrid.of(source);
+    snapshotA.addRow().addValue("a3").addValue(3);
+
+    SnapshotGrid snapshotB = snapshotA.view();
+    snapshotA.removeCurrentWriteRow();
+
+    assertEquals(2, snapshotA.getHeight());
+    assertEquals(3, snapshotB.getHeight());
+  }
+
+  @Test
+  void testSerialization() {
+    SnapshotGrid snapshot = SnapshotGrid.of(source);
+
+    Grid clone = SerializationUtils.clone(snapshot);
+
+    assertNotSame(snapshot, clone);
+    assertEquals(snapshot.getRows(), clone.getRows());
+    assertEquals(snapshot.getMetaData(), clone.getMetaData());
+  }
+}
@@ -958,6 +958,27 @@ class DataValueSetServiceIntegrationTest extends PostgresIntegrationTestBase {
     assertSuccessWithImportedUpdatedDeleted(12, 0, 0, summary);
   }
 
+  /** Import 12 data values from XML and verify that each row keeps its own value. */
+  @Test
+  void testImportValuesXmlStoresValueOfEachRow() {
+    ImportSummary summary =
+        dataValueSetService.importDataValueSetXml(readFile("datavalueset/dataValueSetB.xml"));
+
+    assertSuccessWithImportedUpdatedDeleted(12, 0, 0, summary);
+    assertValuesOfDataValueSetB();
+  }
+
+  /** Import 12 data values from CSV and verify that each row keeps its own value. */
+  @Test
+  void testImportValuesCsvStoresValueOfEachRow() {
+    ImportSummary summary =
+        dataValueSetService.importDataValueSetCsv(
+            readFile("dxf2/datavalueset/dataValueSetB.csv"), null, null);
+
+    assertSuccessWithImportedUpdatedDeleted(12, 0, 0, summary);
+    assertValuesOfDataValueSetB();
+  }
+
   @Test
   void testImportDataValuesCsvWithDataSetIdParameter() {
     assertDataValuesCount(0);
@@ -1127,6 +1148,36 @@ class DataValueSetServiceIntegrationTest extends PostgresIntegrationTestBase {
     assertDataValuesCount(1);
   }
 
+  /**
+   * Import 12 data values of two organisation units, then 4 data values of which 3 have conflicts,
+   * with data values sharded by organisation unit.
+   */
+  @Test
+  void testImportDataValuesInShards() {
+    assertDataValuesCount(0);
+    ImportOptions options = ImportOptions.getDefaultImportOptions().setParallelism(4);
+
+    ImportSummary summary =
+        dataValueSetService.importDataValueSetXml(
+            readFile("datavalueset/dataValueSetB.xml"), options);
+
+    assertSuccessWithImportedUpdatedDeleted(12, 0, 0, summary);
+    assertImportDataValues(summary);
+
+    summary =
+        dataValueSetService.importDataValueSetXml(
+            readFile("dxf2/datavalueset/dataValueSetG.xml"), options);
+
+    assertEquals(ImportStatus.WARNING, summary.getStatus());
+    assertEquals(2, summary.getConflictCount(), summary.getConflictsDescription());
+    assertEquals(3, summary.getTotalConflictOccurrenceCount());
+    assertEquals(List.of(0, 1, 2), summary.getRejectedIndexes());
+    assertEquals(0, summary.getImportCount().getImported());
+    assertEquals(1, summary.getImportCount().getUpdated());
+    assertEquals(3, summary.getImportCount().getIgnored());
+    assertDataValuesCount(12);
+  }
+
   @Test
   void testImportDataValuesWithStrictPeriods() {
     ImportOptions options = new ImportOptions().setStrictPeriods(true);
@@ -1571,6 +1622,17 @@ class DataValueSetServiceIntegrationTest extends PostgresIntegrationTestBase {
     assertTrue(dataValues.contains(new DataValue(deC, peB, ouB, ocDef, ocDef)));
   }
 
+  private void assertValuesOfDataValueSetB() {
+    List<DataValue> dataValues = assertDataValuesCount(12);
+    assertEquals(
+        Set.of(
+            "10001", "10002", "10003", "10004", "10005", "10006", "10007", "10008", "10009",
+            "10010", "10011", "10012"),
+        dataValues.stream().map(DataValue::getValue).collect(Collectors.toSet()));
+    assertEquals("10001", dataValueService.getDataValue(deA, peA, ouA, ocDef, ocDef).getValue());
+    assertEquals("10012", dataValueService.getDataValue(deC, peB, ouB, ocDef, ocDef).getValue());
+  }
+
   private Period createMonthlyPeriod(Date monthStart) {
     Date monthEnd = DateUtils.addDays(DateUtils.addMonths(monthStart, 1), -1);
     return createPeriod(PeriodType.getPeriodType(PeriodTypeEnum.MONTHLY), monthStart, monthEnd);
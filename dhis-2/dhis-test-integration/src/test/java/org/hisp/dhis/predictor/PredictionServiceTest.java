@@ -35,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -1928,6 +1929,69 @@ class PredictionServiceTest extends PostgresIntegrationTestBase {
     assertEquals("32.0", getDataValue(dataElementX, defaultCombo, sourceF, makeMonth(2021, 8)));
   }
 
+  @Test
+  void testPredictBatchInParallel() {
+    // Enough org units at level 2 for the batch to be evaluated in parallel
+    OrganisationUnitGroup ouGroupC = createOrganisationUnitGroup('C');
+    DataSet dataSetA = createDataSet('A', periodTypeMonthly);
+    List<OrganisationUnit> orgUnits = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      OrganisationUnit orgUnit = createOrganisationUnit("Parallel" + i, sourceA);
+      organisationUnitService.addOrganisationUnit(orgUnit);
+      orgUnits.add(orgUnit);
+      if (i % 2 == 0) {
+        ouGroupC.addOrganisationUnit(orgUnit);
+      }
+      if (i % 3 == 0) {
+        dataSetA.addOrganisationUnit(orgUnit);
+      }
+      useDataValue(dataElementA, makeMonth(2010, 8), orgUnit, i + 1);
+    }
+    organisationUnitGroupService.addOrganisationUnitGroup(ouGroupC);
+    dataSetService.addDataSet(dataSetA);
+    dataValueBatchHandler.flush();
+
+    // Predicts into its own input, so each month refers forward to the one before
+    Expression expression =
+        new Expression(
+            "2 * sum(#{"
+                + dataElementA.getUid()
+                + "}) + if(orgUnit.group("
+                + ouGroupC.getUid()
+                + "), 10, 0) + if(orgUnit.dataSet("
+                + dataSetA.getUid()
+                + "), 100, 0)",
+            "description",
+            MissingValueStrategy.NEVER_SKIP);
+    Predictor predictor =
+        createPredictor(
+            dataElementA,
+            defaultCombo,
+            "A",
+            expression,
+            null,
+            periodTypeMonthly,
+            orgUnitLevel2,
+            1,
+            0,
+            0);
+    predictionService.predict(predictor, monthStart(2010, 9), monthStart(2010, 12), summary);
+
+    assertEquals("Pred 1 Ins 36 Upd 0 Del 0 Unch 0", shortSummary(summary));
+    for (int i = 0; i < orgUnits.size(); i++) {
+      // The values each org unit would get when evaluated on its own
+      int bonus = (i % 2 == 0 ? 10 : 0) + (i % 3 == 0 ? 100 : 0);
+      int expected = i + 1;
+      for (int month = 9; month <= 11; month++) {
+        expected = 2 * expected + bonus;
+        assertEquals(
+            String.valueOf(expected),
+            getDataValue(dataElementA, defaultCombo, orgUnits.get(i), makeMonth(2010, month)),
+            orgUnits.get(i).getName() + " month " + month);
+      }
+    }
+  }
+
   @Test
   void testPredictCarryingForwardPredictedDataElement() {
     useDataValue(dataElementA, makeMonth(2010, 8), sourceA, 1);
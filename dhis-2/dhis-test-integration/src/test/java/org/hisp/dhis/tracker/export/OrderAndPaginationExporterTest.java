@@ -36,8 +36,10 @@ import static org.hisp.dhis.tracker.Assertions.assertNoErrors;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -84,6 +86,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /** Tests ordering and pagination of tracker exporters via the service layer. */
@@ -794,6 +797,36 @@ class OrderAndPaginationExporterTest extends TrackerTest {
         () -> assertEquals(List.of("ck7DzdxqLqA", "OTmjvJDn0Fu"), uids(events)));
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 4})
+  void shouldReturnEachEventOnceWhenPagingEventsByCursor(int pageSize)
+      throws ForbiddenException, BadRequestException {
+    OrganisationUnit orgUnit = get(OrganisationUnit.class, "DiszpKrYNg8");
+    Program program = get(Program.class, "iS7eutanDry");
+
+    EventOperationParams params =
+        eventParamsBuilder.orgUnitUid(orgUnit.getUid()).programUid(program.getUid()).build();
+
+    List<String> events = new ArrayList<>();
+    Page<Event> page = eventService.getEvents(params, new PageParams(1, pageSize, false));
+    events.addAll(uids(page));
+    int pages = 1;
+
+    while (page.getNextCursor() != null) {
+      assertEquals(pageSize, page.getItems().size(), "only full pages have a next cursor");
+      page =
+          eventService.getEvents(
+              params, new PageParams(null, pageSize, false, page.getNextCursor()));
+      events.addAll(uids(page));
+      pages++;
+    }
+
+    assertNull(page.getNextCursor(), "last page has no next cursor");
+    assertEquals(6 / pageSize + 1, pages);
+    assertEquals(events.size(), Set.copyOf(events).size(), "no event is returned twice");
+    assertEquals(getEvents(params), events, "all events are returned in the default order");
+  }
+
   @Test
   void shouldOrderEventsByPrimaryKeyDescByDefault() throws ForbiddenException, BadRequestException {
     Event d9PbzJY8bJM = get(Event.class, "D9PbzJY8bJM");
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.imports.bundle;
+
+import static org.hisp.dhis.tracker.Assertions.assertNoErrors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.tracker.TrackerTest;
+import org.hisp.dhis.tracker.imports.FlushMode;
+import org.hisp.dhis.tracker.imports.TrackerImportParams;
+import org.hisp.dhis.tracker.imports.TrackerImportService;
+import org.hisp.dhis.tracker.imports.domain.Attribute;
+import org.hisp.dhis.tracker.imports.domain.MetadataIdentifier;
+import org.hisp.dhis.tracker.imports.domain.TrackedEntity;
+import org.hisp.dhis.tracker.imports.domain.TrackerObjects;
+import org.hisp.dhis.user.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+/**
+ * Verifies that tracker objects written with JDBC batch statements in {@link FlushMode#BATCH} end
+ * up in the same state as objects written through the entity manager in {@link FlushMode#AUTO}.
+ */
+class TrackerBatchImportTest extends TrackerTest {
+  private static final String ATTRIBUTE = "dIVt4l5vIOa";
+
+  /** Queries for the persisted state, which exclude generated identifiers and timestamps. */
+  private static final Map<String, String> STATE_QUERIES =
+      Map.of(
+          "trackedentity",
+          """
+          select te.uid, te.code, ou.uid as orgunit, tet.uid as type, te.inactive, te.deleted, \
+          te.potentialduplicate, te.createdatclient, te.lastupdatedatclient, te.storedby, \
+          te.lastupdatedby, te.createdbyuserinfo::text, te.lastupdatedbyuserinfo::text \
+          from trackedentity te \
+          join organisationunit ou on te.organisationunitid = ou.organisationunitid \
+          join trackedentitytype tet on te.trackedentitytypeid = tet.trackedentitytypeid \
+          order by te.uid""",
+          "trackedentityattributevalue",
+          """
+          select te.uid as trackedentity, tea.uid as attribute, av.value, av.storedby \
+          from trackedentityattributevalue av \
+          join trackedentity te on av.trackedentityid = te.trackedentityid \
+          join trackedentityattribute tea \
+          on av.trackedentityattributeid = tea.trackedentityattributeid \
+          order by te.uid, tea.uid""",
+          "trackedentityattributevalueaudit",
+          """
+          select te.uid as trackedentity, tea.uid as attribute, a.value, a.audittype, a.modifiedby \
+          from trackedentityattributevalueaudit a \
+          join trackedentity te on a.trackedentityid = te.trackedentityid \
+          join trackedentityattribute tea \
+          on a.trackedentityattributeid = tea.trackedentityattributeid \
+          order by a.trackedentityattributevalueauditid""",
+          "enrollment",
+          """
+          select en.uid, te.uid as trackedentity, pr.uid as program, ou.uid as orgunit, en.status, \
+          en.enrollmentdate, en.occurreddate, en.completeddate is not null as completed, \
+          en.followup, en.deleted, en.storedby, en.completedby, en.createdatclient, \
+          en.lastupdatedatclient, en.createdbyuserinfo::text, en.lastupdatedbyuserinfo::text \
+          from enrollment en \
+          join trackedentity te on en.trackedentityid = te.trackedentityid \
+          join program pr on en.programid = pr.programid \
+          join organisationunit ou on en.organisationunitid = ou.organisationunitid \
+          order by en.uid""",
+          "event",
+          """
+          select ev.uid, en.uid as enrollment, ps.uid as programstage, ou.uid as orgunit, \
+          coc.uid as attributeoptioncombo, ev.status, ev.occurreddate, ev.scheduleddate, \
+          ev.completeddate is not null as completed, ev.completedby, ev.deleted, ev.storedby, \
+          ev.createdatclient, ev.lastupdatedatclient, ev.createdbyuserinfo::text, \
+          ev.lastupdatedbyuserinfo::text, \
+          (select jsonb_object_agg(dv.key, dv.value->>'value') \
+          from jsonb_each(ev.eventdatavalues) dv)::text as datavalues \
+          from event ev \
+          join enrollment en on ev.enrollmentid = en.enrollmentid \
+          join programstage ps on ev.programstageid = ps.programstageid \
+          join organisationunit ou on ev.organisationunitid = ou.organisationunitid \
+          join categoryoptioncombo coc \
+          on ev.attributeoptioncomboid = coc.categoryoptioncomboid \
+          order by ev.uid""",
+          "trackedentitydatavalueaudit",
+          """
+          select ev.uid as event, de.uid as dataelement, a.value, a.audittype, a.modifiedby, \
+          a.providedelsewhere \
+          from trackedentitydatavalueaudit a \
+          join event ev on a.eventid = ev.eventid \
+          join dataelement de on a.dataelementid = de.dataelementid \
+          order by a.trackedentitydatavalueauditid""",
+          "trackedentityprogramowner",
+          """
+          select te.uid as trackedentity, pr.uid as program, ou.uid as orgunit, o.createdby \
+          from trackedentityprogramowner o \
+          join trackedentity te on o.trackedentityid = te.trackedentityid \
+          join program pr on o.programid = pr.programid \
+          join organisationunit ou on o.organisationunitid = ou.organisationunitid \
+          order by te.uid, pr.uid""");
+
+  @Autowired private TrackerImportService trackerImportService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private User importUser;
+
+  @BeforeAll
+  void setUp() throws IOException {
+    setUpMetadata("tracker/simple_metadata.json");
+
+    importUser = userService.getUser("tTgjgobT1oS");
+    injectSecurityContextUser(importUser);
+  }
+
+  @Test
+  void shouldPersistSameStateInBatchAsInAutoFlushMode() throws IOException {
+    Map<String, List<Map<String, Object>>> autoState = importAndGetState(FlushMode.AUTO);
+
+    TestTransaction.flagForRollback();
+    TestTransaction.end();
+    TestTransaction.start();
+
+    Map<String, List<Map<String, Object>>> batchState = importAndGetState(FlushMode.BATCH);
+
+    assertFalse(autoState.get("trackedentity").isEmpty());
+    assertFalse(autoState.get("event").isEmpty());
+    assertFalse(autoState.get("trackedentitydatavalueaudit").isEmpty());
+    assertFalse(autoState.get("trackedentityprogramowner").isEmpty());
+    autoState.forEach(
+        (table, rows) -> assertEquals(rows, batchState.get(table), () -> "State of " + table));
+  }
+
+  /**
+   * Creates, updates and deletes tracker objects and their values with the given flush mode, and
+   * returns the persisted state.
+   */
+  private Map<String, List<Map<String, Object>>> importAndGetState(FlushMode flushMode)
+      throws IOException {
+    TrackerImportParams params =
+        TrackerImportParams.builder().userId(importUser.getUid()).flushMode(flushMode).build();
+
+    TrackerObjects trackerObjects = fromJson("tracker/event_and_enrollment_with_data_values.json");
+    TrackedEntity trackedEntity = trackerObjects.getTrackedEntities().get(0);
+    trackedEntity.getAttributes().add(attribute("value"));
+    assertNoErrors(trackerImportService.importTracker(params, trackerObjects));
+
+    trackedEntity.getAttributes().set(0, attribute("updated value"));
+    assertNoErrors(
+        trackerImportService.importTracker(
+            params, TrackerObjects.builder().trackedEntities(List.of(trackedEntity)).build()));
+
+    trackedEntity.getAttributes().set(0, attribute(null));
+    assertNoErrors(
+        trackerImportService.importTracker(
+            params, TrackerObjects.builder().trackedEntities(List.of(trackedEntity)).build()));
+
+    assertNoErrors(
+        trackerImportService.importTracker(
+            params, fromJson("tracker/event_with_data_values_for_update_audit.json")));
+    assertNoErrors(
+        trackerImportService.importTracker(
+            params, fromJson("tracker/event_with_data_values_for_delete_audit.json")));
+
+    manager.flush();
+    manager.clear();
+
+    Map<String, List<Map<String, Object>>> state = new LinkedHashMap<>();
+    STATE_QUERIES.forEach((table, sql) -> state.put(table, jdbcTemplate.queryForList(sql)));
+    return state;
+  }
+
+  private static Attribute attribute(String value) {
+    return Attribute.builder().attribute(MetadataIdentifier.ofUid(ATTRIBUTE)).value(value).build();
+  }
+}
@@ -109,6 +109,22 @@ class TrackedEntityImportValidationTest extends TrackerTest {
     assertHasErrors(importReport, 2, ValidationCode.E1064);
   }
 
+  @Test
+  void failValidationWhenTrackedEntityAttributesHaveSameUniqueValuesInParallelImport()
+      throws IOException {
+    TrackerImportParams params =
+        TrackerImportParams.builder()
+            .userId(importUser.getUid())
+            .atomicMode(AtomicMode.OBJECT)
+            .parallelism(2)
+            .build();
+    TrackerObjects trackerObjects = fromJson("tracker/validations/te-with_unique_attributes.json");
+
+    ImportReport importReport = trackerImportService.importTracker(params, trackerObjects);
+
+    assertHasErrors(importReport, 2, ValidationCode.E1064);
+  }
+
   @Test
   void testTeValidationOkAll() throws IOException {
     TrackerImportParams params = TrackerImportParams.builder().userId(importUser.getUid()).build();
@@ -28,13 +28,20 @@
 package org.hisp.dhis.webapi.controller;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 import lombok.Data;
+import org.hisp.dhis.fieldfiltering.FieldFilterParams;
 import org.hisp.dhis.fieldfiltering.FieldFilterParser;
 import org.hisp.dhis.fieldfiltering.FieldFilterService;
 import org.hisp.dhis.fieldfiltering.FieldPath;
@@ -129,6 +136,26 @@ class FieldFilterServiceTest extends H2ControllerIntegrationTestBase {
                 fieldFilterService.filterIncludes(Root.class, filter, "first.second.third")));
   }
 
+  @Test
+  void shouldStreamSameJSONAsObjectNode() throws IOException {
+    List<Root> roots =
+        List.of(new Root(new First(new Second(new Third()))), new Root(new First(null)));
+    String filter = "first[second[third]]";
+
+    ObjectMapper mapper = new ObjectMapper();
+    StringWriter out = new StringWriter();
+    try (JsonGenerator generator = mapper.createGenerator(out)) {
+      generator.writeStartArray();
+      fieldFilterService.toObjectNodesStream(
+          FieldFilterParams.<Root>builder().objects(roots).filters(filter).build(), generator);
+      generator.writeEndArray();
+    }
+
+    ArrayNode expected = mapper.createArrayNode();
+    roots.forEach(root -> expected.add(fieldFilterService.toObjectNode(root, filter)));
+    assertEquals(expected, mapper.readTree(out.toString()));
+  }
+
   void assertJSONIncludes(ObjectNode json, String path) {
     String jsonPtr = toJSONPointer(path);
     assertFalse(
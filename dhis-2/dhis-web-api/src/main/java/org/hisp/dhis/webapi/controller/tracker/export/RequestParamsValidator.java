@@ -422,6 +422,35 @@ public class RequestParamsValidator {
     validatePaginationBounds(params.getPage(), params.getPageSize());
   }
 
+  /**
+   * Validates that a cursor, if given, is only used on paginated responses in the default order and
+   * without a page number, as the cursor takes the place of the page number.
+   *
+   * @param cursor the cursor
+   * @param params the pagination parameters
+   * @param order the order
+   * @throws BadRequestException if the cursor is combined with other parameters
+   */
+  public static void validateCursorParameters(
+      String cursor, PageRequestParams params, List<OrderCriteria> order)
+      throws BadRequestException {
+    if (cursor == null) {
+      return;
+    }
+
+    if (!params.isPaged()) {
+      throw new BadRequestException("cursor is only supported on paginated responses");
+    }
+
+    if (params.getPage() != null) {
+      throw new BadRequestException("cursor and page cannot be used together");
+    }
+
+    if (order != null && !order.isEmpty()) {
+      throw new BadRequestException("cursor is only supported with the default order");
+    }
+  }
+
   public static void validatePaginationBounds(Integer page, Integer pageSize)
       throws BadRequestException {
     if (lessThan(page, 1)) {
@@ -77,6 +77,13 @@ public class EventRequestParams implements PageRequestParams {
   @OpenApi.Property(defaultValue = "false")
   private Boolean totalPages = false;
 
+  /**
+   * Returns the page following the event given by the {@code nextCursor} of the previous page,
+   * instead of the page given by {@link #page}. This stays fast for pages deep into a large export.
+   * Only supported with the default order.
+   */
+  private String cursor;
+
   /**
    * @deprecated use {@link #paging} instead
    */
@@ -58,9 +58,15 @@ public class ImportRequestParams {
   /** Should import be treated as a atomic import (all or nothing). */
   @JsonProperty @Builder.Default private AtomicMode atomicMode = AtomicMode.ALL;
 
-  /** Flush for every object or per type. */
+  /** Flush for every object or per type, or write objects in batches per type. */
   @JsonProperty @Builder.Default private FlushMode flushMode = FlushMode.AUTO;
 
+  /**
+   * Number of partitions of unrelated tracked entities to import concurrently. Values greater than
+   * 1 require atomic mode OBJECT.
+   */
+  @JsonProperty @Builder.Default private int parallelism = 1;
+
   /** Validation mode to use, defaults to fully validated objects. */
   @JsonProperty @Builder.Default private ValidationMode validationMode = ValidationMode.FULL;
 
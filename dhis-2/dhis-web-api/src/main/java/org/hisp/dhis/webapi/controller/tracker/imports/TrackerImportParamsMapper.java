@@ -83,6 +83,7 @@ public class TrackerImportParamsMapper {
             .importStrategy(request.getImportStrategy())
             .atomicMode(request.getAtomicMode())
             .flushMode(request.getFlushMode())
+            .parallelism(request.getParallelism())
             .skipSideEffects(request.isSkipSideEffects())
             .skipRuleEngine(request.isSkipRuleEngine())
             .reportMode(request.getReportMode())
@@ -98,7 +98,7 @@ public class Page<T> {
     this.pageSize = null;
     this.total = null;
     this.pageCount = null;
-    this.pager = new Pager(page, pageSize, null, null, prevPage, nextPage);
+    this.pager = new Pager(page, pageSize, null, null, prevPage, nextPage, null);
   }
 
   /**
@@ -121,13 +121,13 @@ public class Page<T> {
    *     to the standard pager object.
    */
   @Deprecated(since = "2.41")
-  private Page(String key, List<T> values, int page, int pageSize) {
+  private Page(String key, List<T> values, int page, int pageSize, String nextCursor) {
     this.items.put(key, values);
     this.page = page;
     this.pageSize = pageSize;
     this.total = null;
     this.pageCount = null;
-    this.pager = new Pager(page, pageSize, null, null, null, null);
+    this.pager = new Pager(page, pageSize, null, null, null, null, nextCursor);
   }
 
   /**
@@ -137,13 +137,13 @@ public class Page<T> {
    *     to the standard pager object.
    */
   @Deprecated(since = "2.41")
-  private Page(String key, List<T> values, int page, int pageSize, long total) {
+  private Page(String key, List<T> values, int page, int pageSize, long total, String nextCursor) {
     this.items.put(key, values);
     this.page = page;
     this.pageSize = pageSize;
     this.total = total;
     this.pageCount = (int) Math.ceil(total / (double) pageSize);
-    this.pager = new Pager(page, pageSize, total, this.pageCount, null, null);
+    this.pager = new Pager(page, pageSize, total, this.pageCount, null, null, nextCursor);
   }
 
   /**
@@ -159,9 +159,15 @@ public class Page<T> {
   public static <T> Page<T> withPager(String key, org.hisp.dhis.tracker.export.Page<T> pager) {
     if (pager.getTotal() != null) {
       return new Page<>(
-          key, pager.getItems(), pager.getPage(), pager.getPageSize(), pager.getTotal());
+          key,
+          pager.getItems(),
+          pager.getPage(),
+          pager.getPageSize(),
+          pager.getTotal(),
+          pager.getNextCursor());
     }
-    return new Page<>(key, pager.getItems(), pager.getPage(), pager.getPageSize());
+    return new Page<>(
+        key, pager.getItems(), pager.getPage(), pager.getPageSize(), pager.getNextCursor());
   }
 
   /**
@@ -198,6 +204,9 @@ public class Page<T> {
     @JsonProperty private Integer pageCount;
     @JsonProperty private String prevPage;
     @JsonProperty private String nextPage;
+
+    /** Opaque token to pass as {@code cursor} to get the next page, if supported. */
+    @JsonProperty private String nextCursor;
   }
 
   private static String getPageLink(String url, Integer page) {
@@ -32,6 +32,7 @@ import static org.hisp.dhis.test.utils.Assertions.assertContains;
 import static org.hisp.dhis.test.utils.Assertions.assertStartsWith;
 import static org.hisp.dhis.webapi.controller.event.webrequest.OrderCriteria.fromOrderString;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.parseFilters;
+import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateCursorParameters;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrderParams;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForEnrollmentsAndEvents;
 import static org.hisp.dhis.webapi.controller.tracker.export.RequestParamsValidator.validateOrgUnitModeForTrackedEntities;
@@ -458,6 +459,54 @@ class RequestParamsValidatorTest {
     validatePaginationParameters(paginationParameters);
   }
 
+  @Test
+  void shouldPassWhenGivenCursorWithoutPageAndOrder() throws BadRequestException {
+    PaginationParameters paginationParameters = new PaginationParameters();
+    paginationParameters.setPageSize(10);
+
+    validateCursorParameters("MTIz", paginationParameters, List.of());
+  }
+
+  @Test
+  void shouldFailWhenGivenCursorAndPage() {
+    PaginationParameters paginationParameters = new PaginationParameters();
+    paginationParameters.setPage(2);
+
+    Exception exception =
+        assertThrows(
+            BadRequestException.class,
+            () -> validateCursorParameters("MTIz", paginationParameters, List.of()));
+
+    assertStartsWith("cursor and page cannot be used together", exception.getMessage());
+  }
+
+  @Test
+  void shouldFailWhenGivenCursorAndOrder() {
+    PaginationParameters paginationParameters = new PaginationParameters();
+
+    Exception exception =
+        assertThrows(
+            BadRequestException.class,
+            () ->
+                validateCursorParameters(
+                    "MTIz", paginationParameters, fromOrderString("createdAt:desc")));
+
+    assertStartsWith("cursor is only supported with the default order", exception.getMessage());
+  }
+
+  @Test
+  void shouldFailWhenGivenCursorAndNoPaging() {
+    PaginationParameters paginationParameters = new PaginationParameters();
+    paginationParameters.setPaging(false);
+
+    Exception exception =
+        assertThrows(
+            BadRequestException.class,
+            () -> validateCursorParameters("MTIz", paginationParameters, List.of()));
+
+    assertStartsWith("cursor is only supported on paginated", exception.getMessage());
+  }
+
   @ValueSource(ints = {-1, 0})
   @ParameterizedTest
   void shouldFailWhenGivenPageLessThanOrEqualToZero(int page) {
@@ -106,6 +106,16 @@ class TrackerImportParamsMapperTest {
             });
   }
 
+  @Test
+  void testParallelism() {
+    ImportRequestParams importRequestParams = ImportRequestParams.builder().parallelism(4).build();
+
+    TrackerImportParams params =
+        TrackerImportParamsMapper.trackerImportParams("userId", importRequestParams);
+
+    assertThat(params.getParallelism(), is(4));
+  }
+
   @Test
   void testImportStrategy() {
     Arrays.stream(TrackerImportStrategy.values())
@@ -107,6 +107,18 @@ class PageTest {
     assertNull(page.getPager().getNextPage());
   }
 
+  @Test
+  void shouldSetNextCursor() {
+    List<String> fruits = List.of("apple", "banana", "cherry");
+    org.hisp.dhis.tracker.export.Page<String> exportPage =
+        org.hisp.dhis.tracker.export.Page.withoutTotals(fruits, 1, 3).withNextCursor("MTIz");
+
+    Page<String> page = Page.withPager("fruits", exportPage);
+
+    assertEquals("MTIz", page.getPager().getNextCursor());
+    assertNull(page.getPager().getNextPage());
+  }
+
   @Test
   void shouldNotSetNoPageLinkIfThereAreNone() {
     List<String> fruits = List.of("apple", "banana", "cherry");